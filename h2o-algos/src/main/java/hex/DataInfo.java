@@ -1118,36 +1118,46 @@ public class DataInfo extends Keyed<DataInfo> {
    * @return array of sparse rows
    */
   public final Row[] extractSparseRows(Chunk [] chunks) {
-    Row[] rows = new Row[chunks[0]._len];
+    int len = chunks[0]._len;
+    Row[] rows = new Row[len];
     long startOff = chunks[0].start();
+    // Bulk-decode whole columns instead of a virtual call per row and column
+    double [] offs = null, ws = null;
+    if(_offset) chunks[offsetChunkId()].decode(offs = MemoryManager.malloc8d(len), null, 0, len);
+    if(_weights) chunks[weightChunkId()].decode(ws = MemoryManager.malloc8d(len), null, 0, len);
     for (int i = 0; i < rows.length; ++i) {
       rows[i] = new Row(true, Math.min(_nums, 16), _cats, _responses, i, startOff);  // if sparse, _nums is the correct number of nonzero values! i.e., do not use numNums()
       rows[i].rid = chunks[0].start() + i;
       if(_offset)  {
-        rows[i].offset = chunks[offsetChunkId()].atd(i);
+        rows[i].offset = offs[i];
         if(Double.isNaN(rows[i].offset)) {
           rows[i].predictors_bad = true;
           continue;
         }
       }
       if(_weights) {
-        rows[i].weight = chunks[weightChunkId()].atd(i);
+        rows[i].weight = ws[i];
         if(Double.isNaN(rows[i].weight))
           rows[i].predictors_bad = true;
       }
     }
     // categoricals
-    for (int i = 0; i < _cats; ++i) {
-      for (int r = 0; r < chunks[0]._len; ++r) {
-        Row row = rows[r];
-        boolean isMissing = chunks[i].isNA(r);
-        if(_skipMissing && isMissing){
-          row.predictors_bad = true;
-          continue;
-        }         
-        int cid = getCategoricalId(i,isMissing? -1:(int)chunks[i].at8(r));
-        if(cid >=0)
-          row.binIds[row.nBins++] = cid;
+    if (_cats > 0) {
+      long [] levels = MemoryManager.malloc8(len);
+      long [] nas = MemoryManager.malloc8((len + 63) >> 6);
+      for (int i = 0; i < _cats; ++i) {
+        boolean anyMissing = chunks[i].decode(levels, nas, 0, len) > 0;
+        for (int r = 0; r < len; ++r) {
+          Row row = rows[r];
+          boolean isMissing = anyMissing && Chunk.isNA(nas, r);
+          if(_skipMissing && isMissing){
+            row.predictors_bad = true;
+            continue;
+          }
+          int cid = getCategoricalId(i,isMissing? -1:(int)levels[r]);
+          if(cid >=0)
+            row.binIds[row.nBins++] = cid;
+        }
       }
     }
     // generic numbers + interactions
@@ -1194,12 +1204,13 @@ public class DataInfo extends Keyed<DataInfo> {
       }
     }
     // response(s)
+    double [] resp = _responses > 0 ? MemoryManager.malloc8d(len) : null;
     for (int i = 1; i <= _responses; ++i) {
       int rid = responseChunkId(i-1);
-      Chunk rChunk = chunks[rid];
-      for (int r = 0; r < chunks[0]._len; ++r) {
+      chunks[rid].decode(resp, null, 0, len);
+      for (int r = 0; r < len; ++r) {
         Row row = rows[r];
-        row.response[i-1] = rChunk.atd(r);
+        row.response[i-1] = resp[r];
         if(Double.isNaN(row.response[i-1])) {
           row.response_bad = true;
         }
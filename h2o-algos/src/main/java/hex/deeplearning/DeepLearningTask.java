@@ -4,6 +4,7 @@ import hex.genmodel.utils.DistributionFamily;
 import hex.deeplearning.DeepLearningModel.DeepLearningParameters;
 import hex.DataInfo;
 import hex.FrameTask;
+import water.AllReduce;
 import water.DKV;
 import water.H2O;
 import water.IcedUtils;
@@ -53,11 +54,28 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
     _shuffle = model_info().get_params()._shuffle_training_data;
   }
 
+  /**
+   * Average the per-node models by an allreduce among the nodes (see {@link water.MRTask#allreduce(Key)})
+   * instead of up the tree to the driver: every node keeps the averaged model under the key, and the next
+   * task of the key starts from it, so the driver does not send the model out again if it has not changed.
+   * @param key Allreduce key for all the iterations of one model, or null to average on the driver
+   * @return this
+   */
+  public DeepLearningTask allreduceModel(Key key) {
+    if (key == null) return this;
+    allreduce(key);
+    if (AllReduce.getLocal(key) == _sharedmodel)
+      _sharedmodel = null; //every node already has it
+    return this;
+  }
+
   /**
    * Transfer ownership from global (shared) model to local model which will be worked on
    */
   @Override protected void setupLocal(){
     assert(_localmodel == null);
+    if (_sharedmodel == null)
+      _sharedmodel = AllReduce.getLocal(allreduceKey()); //averaged by the last task of the key
     super.setupLocal();
     if (model_info().get_params()._elastic_averaging) {
       //Load my local model from DKV, to continue training
@@ -197,13 +215,21 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
 
   static long _lastWarn;
   static long _warnCount;
+  /**
+   * With an allreduce, every node averages the models and keeps the result for the next iteration
+   */
+  @Override protected void postAllreduce() {
+    average();
+    AllReduce.putLocal(allreduceKey(), _sharedmodel);
+  }
+
   /**
    * After all reduces are done, the driver node calls this method to clean up
    * This is only needed if we're not inside a DeepLearningTask2 (which will do the reduction between replicated data workers).
    * So if replication is disabled, and every node works on partial data, then we have work to do here (model averaging).
    */
   @Override protected void postGlobal(){
-    DeepLearningParameters dlp = _localmodel.get_params();
+    DeepLearningParameters dlp = (_localmodel != null ? _localmodel : _sharedmodel).get_params();
     if (H2O.CLOUD.size() > 1 && !dlp._replicate_training_data) {
       long now = System.currentTimeMillis();
       if (_chunk_node_count < H2O.CLOUD.size() && (now - _lastWarn > 5000) && _warnCount < 3) {
@@ -216,6 +242,12 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
     }
     // Check that we're not inside a DeepLearningTask2
     assert ((!dlp._replicate_training_data || H2O.CLOUD.size() == 1) == !_run_local);
+    if (_localmodel != null) //not averaged by an allreduce yet
+      average();
+  }
+
+  // Average the reduced models into the shared model
+  private void average() {
     if (!_run_local) {
       _localmodel.add_processed_global(_localmodel.get_processed_local()); //move local sample counts to global ones
       _localmodel.set_processed_local(0l);
@@ -10,8 +10,10 @@ import hex.gram.Gram;
 import hex.optimization.ADMM;
 import hex.optimization.OptimizationUtils.GradientInfo;
 import hex.optimization.OptimizationUtils.GradientSolver;
+import water.AllReduce;
 import water.H2O;
 import water.Job;
+import water.Key;
 import water.MemoryManager;
 import water.util.ArrayUtils;
 import water.util.Log;
@@ -619,7 +621,9 @@ public final class ComputationState {
   protected GramXY computeNewGram(DataInfo activeData, double [] beta, GLMParameters.Solver s){
     double obj_reg = _parms._obj_reg;
     if(_glmw == null) _glmw = new GLMModel.GLMWeightsFun(_parms);
-    GLMTask.GLMIterationTask gt = new GLMTask.GLMIterationTask(_job._key, activeData, _glmw, beta,_activeClass).doAll(activeData._adaptedFrame);
+    GLMTask.GLMIterationTask gt = new GLMTask.GLMIterationTask(_job._key, activeData, _glmw, beta,_activeClass);
+    if(AllReduce.enabled()) gt.allreduce(gramKey()); // reduce among the nodes, each keeping the gram
+    gt.doAll(activeData._adaptedFrame);
     gt._gram.mul(obj_reg);
     ArrayUtils.mult(gt._xy,obj_reg);
     int [] activeCols = activeData.activeCols();
@@ -638,6 +642,12 @@ public final class ComputationState {
 
   GramXY _currGram;
   GLMModel.GLMWeightsFun _glmw;
+  private Key _gramKey; // allreduce key of the grams of this state, freed with the job
+
+  private Key gramKey() {
+    if(_gramKey == null) _gramKey = AllReduce.key(_job._key, "gram_" + Key.rand());
+    return _gramKey;
+  }
 
 
   // get cached gram or incrementally update or compute new one
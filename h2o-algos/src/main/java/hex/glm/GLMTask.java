@@ -219,19 +219,15 @@ public abstract class GLMTask  {
      _yMu = new double[_nClasses];
      double [] ws = MemoryManager.malloc8d(chunks[0].len());
      if(_weightId != -1)
-       chunks[_weightId].getDoubles(ws,0,ws.length);
+       chunks[_weightId].decode(ws,null,0,ws.length);
      else
       Arrays.fill(ws,1);
      boolean changedWeights = false;
      if(_skipNAs) { // first find the rows to skip, need to go over all chunks including categoricals
        double [] vals = MemoryManager.malloc8d(chunks[0]._len);
-       int [] ids = MemoryManager.malloc4(vals.length);
        for (int i = 0; i < chunks.length; ++i) {
          int n = vals.length;
-         if(chunks[i].isSparseZero())
-           n = chunks[i].getSparseDoubles(vals,ids);
-         else
-          chunks[i].getDoubles(vals,0,n);
+         if(chunks[i].decode(vals,null,0,n) == 0) continue; // no NAs in this column
          for (int r = 0; r < n; ++r) {
            if (ws[r] != 0 && Double.isNaN(vals[r])) {
              ws[r] = 0;
@@ -250,13 +246,23 @@ public abstract class GLMTask  {
        numsResponse = MemoryManager.malloc8d(_nClasses);
      }
      // compute basic stats for numeric predictors
+     double [] vals = null;
      for(int i = 0; i < _nums; ++i) {
        Chunk c = chunks[i + _numOff];
        double w;
-       for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
-         if ((w = ws[r]) == 0) continue;
-         double d = c.atd(r);
-         _basicStats.add(d, w, i);
+       if(c.isSparseZero() || c.isSparseNA()) {
+         for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
+           if ((w = ws[r]) == 0) continue;
+           double d = c.atd(r);
+           _basicStats.add(d, w, i);
+         }
+       } else {
+         if(vals == null) vals = MemoryManager.malloc8d(c._len);
+         c.decode(vals,null,0,c._len);
+         for (int r = 0; r < c._len; ++r) {
+           if ((w = ws[r]) == 0) continue;
+           _basicStats.add(vals[r], w, i);
+         }
        }
      }
      if (response == null) return;
@@ -269,6 +275,8 @@ public abstract class GLMTask  {
      _basicStats.setNobs(nobs,wsum);
      // compute the mean for the response
      // autoexpand categoricals into binary vecs
+     double [] ys = MemoryManager.malloc8d(response._len);
+     response.decode(ys,null,0,ys.length);
      for(int r = 0; r < response._len; ++r) {
        double w;
        if((w = ws[r]) == 0)
@@ -280,7 +288,7 @@ public abstract class GLMTask  {
              numsResponse[i] = chunks[chunks.length - _nClasses + i].atd(r);
          } else {
            Arrays.fill(numsResponse,0);
-           double d = response.atd(r);
+           double d = ys[r];
            if(Double.isNaN(d))
              Arrays.fill(numsResponse,Double.NaN);
            else
@@ -288,7 +296,7 @@ public abstract class GLMTask  {
          }
          _basicStatsResponse.add(numsResponse,w);
        }
-       double d = response.atd(r);
+       double d = ys[r];
        if(!Double.isNaN(d)) {
          if (_nClasses > 2)
            _yMu[(int) d] += w;
@@ -1368,6 +1376,18 @@ public abstract class GLMTask  {
     @Override
     public void chunkDone(){adjustForSparseStandardizedZeros();}
 
+    /**
+     * With an allreduce, every node keeps a copy of the global gram and xy under the key, for the node-local work of
+     * the next iteration; the caller's result stays its own to scale and solve in place.
+     */
+    @Override
+    protected void postAllreduce() {
+      GLMIterationTask res = clone();
+      res._gram = _gram.deep_clone();
+      res._xy = _xy.clone();
+      AllReduce.putLocal(allreduceKey(), res);
+    }
+
     @Override
     public void reduce(GLMIterationTask git){
       ArrayUtils.add(_xy, git._xy);
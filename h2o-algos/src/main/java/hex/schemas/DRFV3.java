@@ -30,6 +30,7 @@ public class DRFV3 extends SharedTreeV3<DRF, DRFV3, DRFV3.DRFParametersV3> {
                 "max_hit_ratio_k",
                 "ntrees",
                 "max_depth",
+                "max_leaves",
                 "min_rows",
                 "nbins",
                 "nbins_top_level",
@@ -50,6 +51,7 @@ public class DRFV3 extends SharedTreeV3<DRF, DRFV3, DRFV3.DRFParametersV3> {
                 "col_sample_rate_per_tree",
                 "min_split_improvement",
                 "histogram_type",
+                "prebin_features",
                 "categorical_encoding",
                 "calibrate_model",
                 "calibration_frame",
@@ -32,6 +32,7 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "max_hit_ratio_k",
       "ntrees",
       "max_depth",
+      "max_leaves",
       "min_rows",
       "nbins",
       "nbins_top_level",
@@ -52,11 +53,14 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "checkpoint",
       "sample_rate",
       "sample_rate_per_class",
+      "goss_top_rate",
+      "goss_other_rate",
       "col_sample_rate",
       "col_sample_rate_change_per_level",
       "col_sample_rate_per_tree",
       "min_split_improvement",
       "histogram_type",
+      "prebin_features",
       "max_abs_leafnode_pred",
       "pred_noise_bandwidth",
       "categorical_encoding",
@@ -79,6 +83,12 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
     @API(help="Column sample rate (from 0.0 to 1.0)", level = API.Level.critical, gridable = true)
     public double col_sample_rate;
 
+    @API(help="Gradient-based one-side sampling (GOSS): fraction of the rows with the largest absolute gradients kept for every tree (from 0.0 to 1.0, 0 to disable). Replaces sample_rate.", level = API.Level.expert, gridable = true)
+    public double goss_top_rate;
+
+    @API(help="Gradient-based one-side sampling (GOSS): fraction of all rows sampled at random from the rows with smaller gradients, and up-weighted to stand for the rest (from 0.0 to 1.0)", level = API.Level.expert, gridable = true)
+    public double goss_other_rate;
+
     @API(help="Maximum absolute value of a leaf node prediction", level = API.Level.expert, gridable = true)
     public double max_abs_leafnode_pred;
 
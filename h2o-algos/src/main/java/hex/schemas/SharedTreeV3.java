@@ -51,6 +51,9 @@ public class SharedTreeV3<B extends SharedTree, S extends SharedTreeV3<B,S,P>, P
     @API(help="Maximum tree depth.", gridable = true)
     public int max_depth;
 
+    @API(help="Grow the trees best-first, splitting the leaves with the best improvement first, up to this many leaves per tree (and no deeper than max_depth). 0 grows the trees level by level.", level = API.Level.secondary, gridable = true)
+    public int max_leaves;
+
     @API(help="Fewest allowed (weighted) observations in a leaf.", gridable = true)
     public double min_rows;
 
@@ -93,6 +96,9 @@ public class SharedTreeV3<B extends SharedTree, S extends SharedTreeV3<B,S,P>, P
     @API(help="What type of histogram to use for finding optimal split points", values = { "AUTO", "UniformAdaptive", "Random", "QuantilesGlobal", "RoundRobin"}, level = API.Level.secondary, gridable = true)
     public SharedTreeParameters.HistogramType histogram_type;
 
+    @API(help="Bin the numerical columns once before training, into at most nbins_top_level global bins, and build the histograms from the compact bin indices. Less memory traffic per tree; split points are limited to the global bin edges.", level = API.Level.expert, gridable = true)
+    public boolean prebin_features;
+
     @API(help="Use Platt Scaling to calculate calibrated class probabilities. Calibration can provide more accurate estimates of class probabilities.", level = API.Level.expert)
     public boolean calibrate_model;
 
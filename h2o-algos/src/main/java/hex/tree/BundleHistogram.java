@@ -0,0 +1,108 @@
+package hex.tree;
+
+import water.Iced;
+import water.MemoryManager;
+import water.util.ArrayUtils;
+
+/**
+ * The histogram of one bundle of columns (see {@link FeatureBundles}) for one
+ * leaf, in place of a histogram per column of the bundle.
+ * <p>
+ * Bins are the bundle codes less 1, that is the global bins of each column
+ * after those of the columns before it, and hold the weight, weighted
+ * response and weighted squared response of the non-zero rows only.  The
+ * same sums over all the rows of the leaf give each column its zeros: they
+ * are the rows not in any of its bins.  So the memory is one bin per code
+ * per leaf, and the time one add per non-zero, whatever the number of
+ * columns.
+ * <p>
+ * The split search still runs per column, over the range of codes of the
+ * column, on a histogram of the column filled from it just for the search
+ * (see {@link #fill}).  Histogram subtraction works on the whole bundle at
+ * once (see {@link #subtract}).
+ */
+public final class BundleHistogram extends Iced<BundleHistogram> {
+  final int _ncodes;
+  double[] _vals;        // w, wY and wYY per code, null until a non-zero row is added
+  double _w, _wY, _wYY;  // Over all the rows of the leaf
+
+  BundleHistogram(int ncodes) { _ncodes = ncodes; }
+
+  /** Add a non-zero row of one of the columns, by its code less 1 */
+  void addRow(int code, double w, double wy, double wyy) {
+    if (_vals == null) _vals = MemoryManager.malloc8d(3 * _ncodes);
+    _vals[3*code  ] += w;
+    _vals[3*code+1] += wy;
+    _vals[3*code+2] += wyy;
+  }
+
+  /** Add rows of the leaf, zero or not: their weight, weighted response and weighted squared response */
+  void addTotals(double w, double wy, double wyy) {
+    _w += w;
+    _wY += wy;
+    _wYY += wyy;
+  }
+
+  /** Merge the same histogram of other rows */
+  void add(BundleHistogram bh) {
+    if (bh._vals != null) {
+      if (_vals == null) _vals = bh._vals;
+      else ArrayUtils.add(_vals, bh._vals);
+    }
+    addTotals(bh._w, bh._wY, bh._wYY);
+  }
+
+  /**
+   * Histogram subtraction: the histogram of the rows of the parent that did not go to the sibling, code by code.
+   * @param sibling histogram of the other child of the split; null if it got no rows
+   */
+  static BundleHistogram subtract(BundleHistogram parent, BundleHistogram sibling) {
+    BundleHistogram bh = new BundleHistogram(parent._ncodes);
+    if (parent._vals != null) bh._vals = parent._vals.clone();
+    bh.addTotals(parent._w, parent._wY, parent._wYY);
+    if (sibling == null) return bh;
+    if (sibling._vals != null) {
+      if (bh._vals == null) bh._vals = MemoryManager.malloc8d(3 * bh._ncodes);
+      ArrayUtils.subtract(bh._vals, sibling._vals, bh._vals);
+      // Round-off leaves specks in the codes emptied by the sibling
+      double eps = 1e-10 * parent._w;
+      for (int c = 0; c < bh._ncodes; c++)
+        if (bh._vals[3*c] <= eps) bh._vals[3*c] = bh._vals[3*c+1] = bh._vals[3*c+2] = 0;
+    }
+    bh.addTotals(-sibling._w, -sibling._wY, -sibling._wYY);
+    return bh;
+  }
+
+  /**
+   * Fill the histogram of a column of the bundle, not yet filled, from its codes lo..hi-1: the non-zero rows by
+   * their global bin, and the rest of the rows of the leaf as zeros.
+   */
+  void fill(DHistogram h, int lo, int hi) {
+    if (h._vals == null) h.init();
+    assert h.isPrebinned();
+    double w = 0, wy = 0, wyy = 0;
+    if (_vals != null)
+      for (int c = lo; c < hi; c++) {
+        double cw = _vals[3*c];
+        if (cw == 0) continue;
+        h.addRowBinned(c - lo, cw, _vals[3*c+1], _vals[3*c+2]);
+        w += cw;
+        wy += _vals[3*c+1];
+        wyy += _vals[3*c+2];
+      }
+    if (_w - w > 1e-10 * _w)
+      h.addZeros(_w - w, _wY - wy, _wYY - wyy);
+  }
+
+  /** Bytes held by the bins */
+  long bytes() { return _vals == null ? 0 : 8L * _vals.length; }
+
+  /** Same as {@link DHistogram#reducePrecision}, for the sums of the responses */
+  void reducePrecision() {
+    if (_vals == null) return;
+    for (int i = 0; i < _vals.length; i += 3) {
+      _vals[i+1] = (float) _vals[i+1];
+      _vals[i+2] = (float) _vals[i+2];
+    }
+  }
+}
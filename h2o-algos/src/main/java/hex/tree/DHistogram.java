@@ -96,6 +96,13 @@ public final class DHistogram extends Iced {
   public transient boolean _hasQuantiles;
   public Key _globalQuantilesKey; //key under which original top-level quantiles are stored;
 
+  // Pre-binned training (see FeatureBins): the split points are global bin
+  // edges, and bin b holds the aligned block _gBase+b of 1<<_gShift global
+  // bins, cut to the global bins _gLo.._gHi-1 of the range
+  public boolean _prebinned;
+  private transient double[] _edges; // Global bin edges, plus the exclusive max of the column
+  private transient int _gLo, _gHi, _gShift, _gBase;
+
 
 
   /**
@@ -229,6 +236,7 @@ public final class DHistogram extends Iced {
     return idx1;
   }
   public double binAt( int b ) {
+    if (_prebinned && _edges == null) initPrebinned();
     if (_hasQuantiles) return _splitPts[b];
     return _min + (_splitPts == null ? b : _splitPts[b]) / _step;
   }
@@ -240,7 +248,10 @@ public final class DHistogram extends Iced {
   public void init() { init(null);}
   public void init(double [] vals) {
     assert _vals == null;
-    if (_histoType==SharedTreeModel.SharedTreeParameters.HistogramType.Random) {
+    if (_prebinned && initPrebinned()) {
+      // Split points on the global bins
+    }
+    else if (_histoType==SharedTreeModel.SharedTreeParameters.HistogramType.Random) {
       // every node makes the same split points
       Random rng = RandomUtils.getRNG((Double.doubleToRawLongBits(((_step+0.324)*_min+8.3425)+89.342*_maxEx) + 0xDECAF*_nbin + 0xC0FFEE*_isInt + _seed));
       assert(_nbin>1);
@@ -281,6 +292,103 @@ public final class DHistogram extends Iced {
     _vals = vals == null?MemoryManager.malloc8d(3*_nbin+3):vals;
   }
 
+  // Split points on the global bins in [_min,_maxEx): as many as fit in
+  // _nbin, taking aligned blocks of 2, 4, 8... global bins at a time, and at
+  // least 2 so there is something to split.  Blocks are aligned so that the
+  // bins of a narrower range are within bins of a wider one (or the other
+  // way), which histogram subtraction relies on.  The same every time for the same
+  // range, as every copy of the histogram inits its own (and again once the
+  // result is shipped, as the split points are transient).
+  private boolean initPrebinned() {
+    HistoQuantiles hq = _globalQuantilesKey == null ? null : DKV.<HistoQuantiles>getGet(_globalQuantilesKey);
+    if (hq == null) return false; // Column not pre-binned
+    double[] edges = hq.splitPts;
+    int nglobal = edges.length - 1;
+    int lo = Arrays.binarySearch(edges, 0, nglobal, _min);
+    if (lo < 0) lo = Math.max(-lo - 2, 0);
+    int hi = Arrays.binarySearch(edges, 0, nglobal, _maxEx);
+    if (hi < 0) hi = -hi - 1;
+    hi = Math.min(Math.max(hi, lo + 1), nglobal);
+    int shift = 0;
+    while (((hi - 1) >> shift) - (lo >> shift) + 1 > _nbin) shift++;
+    int base = lo >> shift;
+    int nb = ((hi - 1) >> shift) - base + 1;
+    _splitPts = new double[Math.max(nb, 2)];
+    _splitPts[0] = edges[lo];
+    for (int b = 1; b < nb; b++) _splitPts[b] = edges[(base + b) << shift];
+    if (nb == 1) _splitPts[1] = edges[hi]; // An empty bin above
+    _edges = edges;
+    _gLo = lo;
+    _gHi = hi;
+    _gShift = shift;
+    _gBase = base;
+    _hasQuantiles = true;
+    _nbin = (char) _splitPts.length;
+    return true;
+  }
+
+  /** True if this histogram bins global bin indices; see {@link #updateHistoBinned} */
+  public boolean isPrebinned() {
+    if (_prebinned && _edges == null) initPrebinned(); // Not init'ed yet, or shipped
+    return _edges != null;
+  }
+
+  /** True if {@link #subtract} can make this histogram from these two: all of the same pre-binned column, with bins
+   *  of this as wide as theirs or wider */
+  public boolean canSubtract(DHistogram parent, DHistogram sibling) {
+    return parent != null && sibling != null && isPrebinned() && parent.isPrebinned() && sibling.isPrebinned()
+        && _globalQuantilesKey.equals(parent._globalQuantilesKey) && _globalQuantilesKey.equals(sibling._globalQuantilesKey)
+        && _gShift >= parent._gShift && _gShift >= sibling._gShift;
+  }
+
+  /**
+   * Histogram subtraction: fill this histogram with the rows of the parent that went to the other child, the
+   * sibling, instead of from the data.  Every bin of the parent and of the sibling is within one bin of this, so
+   * the counts and sums are exact, up to round-off; the min and max are those of the bins left with rows.
+   * @param parent histogram of the node that was split, on a range including that of this histogram
+   * @param sibling histogram of the other child of the split, same column; null if it got no rows
+   */
+  public void subtract(DHistogram parent, DHistogram sibling) {
+    boolean ok = canSubtract(parent, sibling == null ? parent : sibling); // Also restores the bins of shipped histograms
+    assert ok;
+    if (_vals == null) init();
+    double w = addBins(parent, 1);
+    addBins(sibling, -1);
+    // Round-off leaves specks in the bins emptied by the sibling
+    double eps = 1e-10 * w;
+    for (int b = 0; b <= _nbin; b++)
+      if (_vals[3*b] <= eps) _vals[3*b] = _vals[3*b+1] = _vals[3*b+2] = 0;
+    int bmin = 0, bmax = _nbin - 1;
+    while (bmin < _nbin && _vals[3*bmin] == 0) bmin++;
+    while (bmax > bmin && _vals[3*bmax] == 0) bmax--;
+    if (bmin == _nbin) return; // Only NAs
+    _min2 = _edges[Math.max(_gLo, (_gBase + bmin) << _gShift)];
+    double upper = _edges[Math.min(_gHi, (_gBase + bmax + 1) << _gShift)];
+    _maxIn = _isInt > 0 ? Math.max(upper - 1, _min2) : Math.nextAfter(upper, Double.NEGATIVE_INFINITY);
+  }
+
+  // Add (sign 1) or take away (-1) the bins of h, with the NAs; returns the sum of weights
+  private double addBins(DHistogram h, double sign) {
+    if (h == null || h._vals == null) return 0; // No rows
+    int shift = _gShift - h._gShift;
+    double sum = 0;
+    for (int hb = 0; hb <= h._nbin; hb++) {
+      double w = h._vals[3*hb];
+      if (w == 0) continue;
+      int b;
+      if (hb == h._nbin) b = _nbin; // NA bucket
+      else {
+        b = ((h._gBase + hb) >> shift) - _gBase;
+        if (b < 0) b = 0; else if (b >= _nbin) b = _nbin - 1; // Only rows of the sibling are outside
+      }
+      _vals[3*b  ] += sign * w;
+      _vals[3*b+1] += sign * h._vals[3*hb+1];
+      _vals[3*b+2] += sign * h._vals[3*hb+2];
+      sum += w;
+    }
+    return sum;
+  }
+
   // Add one row to a bin found via simple linear interpolation.
   // Compute bin min/max.
   // Compute response mean & variance.
@@ -350,7 +458,9 @@ public final class DHistogram extends Iced {
 
 
   public static DHistogram make(String name, final int nbins, byte isInt, double min, double maxEx, long seed, SharedTreeModel.SharedTreeParameters parms, Key globalQuantilesKey) {
-    return new DHistogram(name,nbins, parms._nbins_cats, isInt, min, maxEx, parms._min_split_improvement, parms._histogram_type, seed, globalQuantilesKey);
+    DHistogram h = new DHistogram(name,nbins, parms._nbins_cats, isInt, min, maxEx, parms._min_split_improvement, parms._histogram_type, seed, globalQuantilesKey);
+    h._prebinned = parms._prebin_features && isInt != 2;
+    return h;
   }
 
   // Pretty-print a histogram
@@ -425,6 +535,81 @@ public final class DHistogram extends Iced {
     }
   }
 
+  /**
+   * Same as {@link #updateHisto}, from the global bin index of each row rather than its value: no floating-point
+   * binning, and 1 or 2 bytes read per row instead of 8.  The tracked min and max are those of the global bins seen,
+   * so the next level's ranges may be a little wider than the data, but never narrower.
+   * @param gs global bin indices, negative for NA
+   */
+  public void updateHistoBinned(double[] ws, int[] gs, double[] ys, int [] rows, int hi, int lo){
+    int gmin = Integer.MAX_VALUE, gmax = -1;
+    final int nbin = _nbin;
+    for(int r = lo; r< hi; ++r) {
+      int k = rows[r];
+      double weight = ws[k];
+      if (weight == 0) continue;
+      int g = gs[k];
+      int b;
+      if (g < 0) b = nbin;      // NA bucket
+      else {
+        if (g < gmin) gmin = g;
+        if (g > gmax) gmax = g;
+        b = (g >> _gShift) - _gBase;
+        if (b < 0) b = 0; else if (b >= nbin) b = nbin - 1;
+      }
+      double y = ys[k];
+      assert (!Double.isNaN(y));
+      double wy = weight * y;
+      double wyy = wy * y;
+      _vals[3*b + 0] += weight;
+      _vals[3*b + 1] += wy;
+      _vals[3*b + 2] += wyy;
+    }
+    if (gmax >= 0) trackBinned(gmin, gmax);
+  }
+
+  // Widen the min and max to the global bins gmin..gmax
+  private void trackBinned(int gmin, int gmax) {
+    if (_edges[gmin] < _min2) _min2 = _edges[gmin];
+    double upper = _edges[gmax + 1];
+    double maxIn = _isInt > 0 ? Math.max(upper - 1, _edges[gmax]) : Math.nextAfter(upper, Double.NEGATIVE_INFINITY);
+    if (maxIn > _maxIn) _maxIn = maxIn;
+  }
+
+  /**
+   * Add one row, for sparse columns: {@link ScoreBuildHistogram2} adds the non-zero rows one at a time, then all the
+   * zeros of a leaf at once, see {@link #addZeros}.  Not thread safe, assumed to have private copy.
+   * @param d column value, NaN for NA
+   */
+  public void addRow(double d, double w, double wy, double wyy) {
+    if (d < _min2) _min2 = d;
+    if (d > _maxIn) _maxIn = d;
+    int b = bin(d);
+    _vals[3*b + 0] += w;
+    _vals[3*b + 1] += wy;
+    _vals[3*b + 2] += wyy;
+  }
+
+  /** Same as {@link #addRow}, from the global bin of the row, negative for NA (pre-binned histograms only) */
+  public void addRowBinned(int g, double w, double wy, double wyy) {
+    int b;
+    if (g < 0) b = _nbin;       // NA bucket
+    else {
+      b = (g >> _gShift) - _gBase;
+      if (b < 0) b = 0; else if (b >= _nbin) b = _nbin - 1;
+      trackBinned(g, g);
+    }
+    _vals[3*b + 0] += w;
+    _vals[3*b + 1] += wy;
+    _vals[3*b + 2] += wyy;
+  }
+
+  /** Add rows of value 0, all at once: their total weight, weighted response and weighted squared response */
+  public void addZeros(double w, double wy, double wyy) {
+    if (isPrebinned()) addRowBinned(FeatureBins.bin(_edges, 0), w, wy, wyy);
+    else addRow(0, w, wy, wyy);
+  }
+
   /**
    * Cast bin values *except for sums of weights and Na-bucket counters to floats to drop least significant bits.
    * Improves reproducibility (drop bits most affected by floating point error).
@@ -22,6 +22,10 @@ import java.util.*;
  *  same time.  i.e., a single pass over the data will fill in all leaf Nodes'
  *  DHistograms at once.
  *
+ *  <p>Grown best-first (up to {@code max_leaves} leaves), a pass fills in only
+ *  the children of the leaves split last; the other leaves keep their
+ *  DHistograms, queued by the improvement of their best split.
+ *
  *  @author Cliff Click
  */
 public class DTree extends Iced {
@@ -39,11 +43,21 @@ public class DTree extends Iced {
   public final transient Random _rand; // RNG for split decisions & sampling
   public final transient int[] _cols; // Per-tree selection of columns to consider for splits
   public transient SharedTreeModel.SharedTreeParameters _parms;
+  // Sparse columns histogrammed a bundle at a time (see FeatureBundles, BundleHistogram); null if none
+  transient FeatureBundles _bundles;
+  // Task memory (see MemoryManager) of the parent histograms retained for subtraction until the next pass
+  private transient long _retainedMem;
+  // Best-first growth (see SharedTreeParameters#_max_leaves): the leaves
+  // histogrammed but not split yet, best split first, and the splits so far
+  private transient PriorityQueue<UndecidedNode> _candidates;
+  private transient int _nsplits;
 
 
   // compute the effective number of columns to sample
-  public int actual_mtries() {
-    return Math.min(Math.max(1,(int)((double)_mtrys * Math.pow(_parms._col_sample_rate_change_per_level, _depth))),_ncols);
+  public int actual_mtries() { return actual_mtries(_depth); }
+  // ... for the children of a node at this depth
+  public int actual_mtries(int depth) {
+    return Math.min(Math.max(1,(int)((double)_mtrys * Math.pow(_parms._col_sample_rate_change_per_level, depth))),_ncols);
   }
 
   public DTree(Frame fr, int ncols, char nclass, int mtrys, int mtrys_per_tree, long seed, SharedTreeModel.SharedTreeParameters parms) {
@@ -93,6 +107,131 @@ public class DTree extends Iced {
 
   public final int len() { return _len; }
 
+  // Reserve task memory for retaining parent histograms; false if there is not enough
+  boolean retain(long bytes) {
+    if (!MemoryManager.tryReserveTaskMem(bytes)) return false;
+    _retainedMem += bytes;
+    return true;
+  }
+  // The retained parent histograms are used up (or given up)
+  void releaseRetained() {
+    MemoryManager.freeTaskMem(_retainedMem);
+    _retainedMem = 0;
+  }
+
+  // Queue a histogrammed leaf for best-first growth; false if it cannot be
+  // split (too deep, or no split improves it)
+  boolean offer(UndecidedNode udn, DHistogram[] hs) {
+    if (udn.depth() >= _parms._max_depth) return false;
+    Split s = bestSplit(udn, hs);
+    freeBundled(udn, hs); // Filled in again if split
+    if (s == null) return false;
+    udn._bestSplit = s;
+    udn._bestHs = hs;
+    if (_candidates == null)
+      _candidates = new PriorityQueue<>(11, new Comparator<UndecidedNode>() {
+        @Override public int compare(UndecidedNode a, UndecidedNode b) {
+          int c = Double.compare(b._bestSplit.improvement(), a._bestSplit.improvement());
+          return c != 0 ? c : Integer.compare(a._nid, b._nid);
+        }
+      });
+    _candidates.add(udn);
+    return true;
+  }
+
+  // Number of splits still allowed by max_leaves
+  int leafBudget() { return _parms._max_leaves - 1 - _nsplits; }
+
+  // The queued leaves to split in this pass: the best ones, using up at most
+  // half of the leaf budget (but at least one split), so the children of
+  // these splits can still compete with the leaves queued now
+  List<UndecidedNode> pollBest() {
+    List<UndecidedNode> best = new ArrayList<>();
+    int n = (leafBudget() + 1) / 2;
+    while (best.size() < n && _candidates != null && !_candidates.isEmpty())
+      best.add(_candidates.poll());
+    _nsplits += best.size();
+    return best;
+  }
+
+  // All the leaves still queued, once growth stops
+  List<UndecidedNode> drainCandidates() {
+    List<UndecidedNode> rest = new ArrayList<>();
+    if (_candidates != null)
+      while (!_candidates.isEmpty()) rest.add(_candidates.poll());
+    return rest;
+  }
+
+  // Fill in the histograms of the bundled columns to score, from the
+  // histograms of their bundles, to split on them like any other column
+  void fillBundled(UndecidedNode u, DHistogram hs[]) {
+    if (_bundles == null || u._bhs == null || hs == null) return;
+    for (int b = 0; b < u._bhs.length; b++) {
+      BundleHistogram bh = u._bhs[b];
+      if (bh == null) continue;
+      int[] cols = _bundles._cols[b], offsets = _bundles._offsets[b];
+      for (int m = 0; m < cols.length; m++) {
+        DHistogram h = hs[cols[m]];
+        if (h != null && h._vals == null && u.scores(cols[m])) bh.fill(h, offsets[m], offsets[m + 1]);
+      }
+    }
+  }
+
+  // ... and drop them again, once split on: the bundles keep the data
+  void freeBundled(UndecidedNode u, DHistogram hs[]) {
+    if (_bundles == null || u._bhs == null || hs == null) return;
+    for (int b = 0; b < u._bhs.length; b++)
+      if (u._bhs[b] != null)
+        for (int c : _bundles._cols[b])
+          if (hs[c] != null) hs[c]._vals = null;
+  }
+
+  // Pick the best split of a node from the given histograms
+  Split bestSplit(UndecidedNode u, DHistogram hs[]) {
+    DTree.Split best = null;
+    if( hs == null ) return null;
+    fillBundled(u, hs);
+    final int maxCols = u._scoreCols == null /* all cols */ ? hs.length : u._scoreCols.length;
+    List<FindSplits> findSplits = new ArrayList<>();
+    //total work is to find the best split across sum_over_cols_to_split(nbins)
+    long nbinsSum = 0;
+    for( int i=0; i<maxCols; i++ ) {
+      int col = u._scoreCols == null ? i : u._scoreCols[i];
+      if( hs[col]==null || hs[col].nbins() <= 1 ) continue;
+      nbinsSum += hs[col].nbins();
+    }
+    // for small work loads, do a serial loop, otherwise, submit work to FJ thread pool
+    final boolean isSmall = (nbinsSum <= 1024); //heuristic - 50 cols with 20 nbins, or 1 column with 1024 bins, etc.
+    for( int i=0; i<maxCols; i++ ) {
+      int col = u._scoreCols == null ? i : u._scoreCols[i];
+      if( hs[col]==null || hs[col].nbins() <= 1 ) continue;
+      FindSplits fs = new FindSplits(hs, col, u._nid);
+      findSplits.add(fs);
+      if (isSmall) fs.compute();
+    }
+    if (!isSmall) jsr166y.ForkJoinTask.invokeAll(findSplits);
+    for( FindSplits fs : findSplits) {
+      DTree.Split s = fs._s;
+      if( s == null ) continue;
+      if (best == null || s.se() < best.se()) best = s;
+    }
+    return best;
+  }
+
+  class FindSplits extends RecursiveAction {
+    FindSplits(DHistogram[] hs, int col, int nid) {
+      _hs = hs; _col = col; _nid = nid;
+    }
+    final DHistogram[] _hs;
+    final int _col;
+    DTree.Split _s;
+    final int _nid;
+    @Override public void compute() {
+      _s = findBestSplitPoint(_hs[_col], _col, _parms._min_rows);
+      if (_s == null) return;
+    }
+  }
+
   // --------------------------------------------------------------------------
   // Abstract node flavor
   public static abstract class Node extends Iced {
@@ -123,6 +262,13 @@ public class DTree extends Iced {
 
     public final int nid() { return _nid; }
     public final int pid() { return _pid; }
+
+    /** Depth of this node, 0 for the root */
+    public final int depth() {
+      int d = 0;
+      for (Node n = this; n._pid != NO_PARENT; n = _tree.node(n._pid)) d++;
+      return d;
+    }
   }
 
   // --------------------------------------------------------------------------
@@ -150,6 +296,7 @@ public class DTree extends Iced {
     }
     public final double pre_split_se() { return _se; }
     public final double se() { return _se0+_se1; }
+    public final double improvement() { return pre_split_se() - se(); }
     public final int   col() { return _col; }
     public final int   bin() { return _bin; }
 
@@ -301,6 +448,21 @@ public class DTree extends Iced {
   public static class UndecidedNode extends Node {
     public transient DHistogram[] _hs; //(up to) one histogram per column
     public final int _scoreCols[];      // A list of columns to score; could be null for all
+    // Histogram subtraction: columns of this node to derive as the parent's
+    // histogram minus the sibling's once the next pass is done, rather than
+    // build from the data (see DHistogram#subtract)
+    transient DHistogram[] _parentHs;
+    transient int _siblingNid;
+    transient int[] _derivedCols;
+    // Histograms of the bundles of the bundled columns of _hs, which these are
+    // filled from just to split (see DTree#fillBundled), and as above for the
+    // bundles derived by subtraction
+    transient BundleHistogram[] _bhs;
+    transient BundleHistogram[] _parentBhs;
+    transient int[] _derivedBundles;
+    // Best-first growth: the best split of this leaf, from its histograms
+    transient Split _bestSplit;
+    transient DHistogram[] _bestHs;
     public UndecidedNode( DTree tree, int pid, DHistogram[] hs ) {
       super(tree,pid);
       assert hs.length==tree._ncols;
@@ -312,7 +474,8 @@ public class DTree extends Iced {
     // Can return null for 'all columns'.
     public int[] scoreCols() {
       DTree tree = _tree;
-      if (tree.actual_mtries() == _hs.length && tree._mtrys_per_tree == _hs.length) return null;
+      int mtries = tree.actual_mtries(_pid == NO_PARENT ? 0 : tree.node(_pid).depth());
+      if (mtries == _hs.length && tree._mtrys_per_tree == _hs.length) return null;
 
       // per-tree pre-selected columns
       int[] activeCols = tree._cols;
@@ -332,7 +495,6 @@ public class DTree extends Iced {
 //      Log.info("These columns can be split: " + Arrays.toString(Arrays.copyOfRange(cols, 0, len)));
       int choices = len;        // Number of columns I can choose from
 
-      int mtries = tree.actual_mtries();
       if (choices > 0) { // It can happen that we have no choices, because this node cannot be split any more (all active columns are constant, for example).
         // Draw up to mtry columns at random without replacement.
         for (int i = 0; i < mtries; i++) {
@@ -348,6 +510,79 @@ public class DTree extends Iced {
       return Arrays.copyOfRange(cols, len, choices);
     }
 
+    private boolean scores(int col) { return _scoreCols == null || ArrayUtils.find(_scoreCols, col) >= 0; }
+
+    // Whether the histogram of a bundle is built for this node: if any of its columns is to score
+    private boolean scoresBundle(int b) {
+      for (int c : _tree._bundles._cols[b])
+        if (_hs[c] != null && scores(c)) return true;
+      return false;
+    }
+
+    // Derive the columns and bundles that can be derived from the parent's
+    // histograms and those of the sibling, if the parent's fit in the task memory
+    void deriveFrom(DHistogram[] parentHs, BundleHistogram[] parentBhs, UndecidedNode sibling) {
+      FeatureBundles fb = _tree._bundles;
+      int[] cols = new int[_hs.length];
+      int n = 0;
+      long bytes = 0;
+      for (int c = 0; c < _hs.length; c++) {
+        if (fb != null && fb.bundle(c) >= 0) continue; // A bundle at a time, below
+        DHistogram h = _hs[c], p = parentHs[c];
+        if (h == null || p == null || p._vals == null || !scores(c) || !sibling.scores(c) || !h.canSubtract(p, sibling._hs[c]))
+          continue;
+        cols[n++] = c;
+        bytes += 8L * p._vals.length;
+      }
+      int[] bundles = new int[parentBhs == null ? 0 : parentBhs.length];
+      int nb = 0;
+      for (int b = 0; b < bundles.length; b++) {
+        if (parentBhs[b] == null || !scoresBundle(b) || !sibling.scoresBundle(b)) continue;
+        bundles[nb++] = b;
+        bytes += parentBhs[b].bytes();
+      }
+      if (n + nb == 0 || !_tree.retain(bytes)) return;
+      _parentHs = parentHs;
+      _parentBhs = parentBhs;
+      _siblingNid = sibling._nid;
+      _derivedCols = Arrays.copyOf(cols, n);
+      _derivedBundles = Arrays.copyOf(bundles, nb);
+    }
+
+    /** Histograms to build from the data in the next pass: all but the derived ones */
+    public DHistogram[] histosToBuild() {
+      if (_derivedCols == null) return _hs;
+      DHistogram[] hs = _hs.clone();
+      for (int c : _derivedCols) hs[c] = null;
+      for (int b : _derivedBundles)
+        for (int c : _tree._bundles._cols[b]) hs[c] = null;
+      return hs;
+    }
+
+    /** Fill in the derived columns of the built histograms hs, from those of the sibling, and the derived bundles
+     *  from the sibling's bundle histograms (set, like those of this node, before any node derives) */
+    public DHistogram[] derive(DHistogram[] hs, DHistogram[] siblingHs) {
+      if (_derivedCols == null) return hs;
+      for (int c : _derivedCols) {
+        _hs[c].subtract(_parentHs[c], siblingHs == null ? null : siblingHs[c]);
+        hs[c] = _hs[c];
+      }
+      if (_derivedBundles.length > 0) {
+        BundleHistogram[] siblingBhs = _tree.undecided(_siblingNid)._bhs;
+        if (_bhs == null) _bhs = new BundleHistogram[_parentBhs.length];
+        for (int b : _derivedBundles) {
+          _bhs[b] = BundleHistogram.subtract(_parentBhs[b], siblingBhs == null ? null : siblingBhs[b]);
+          for (int c : _tree._bundles._cols[b]) hs[c] = _hs[c];
+        }
+      }
+      _parentHs = null;
+      _parentBhs = null;
+      return hs;
+    }
+
+    public boolean isDerived() { return _derivedCols != null; }
+    public int siblingNid() { return _siblingNid; }
+
     // Make the parent of this Node use UNINTIALIZED NIDs for its children to prevent the split that this
     // node otherwise induces.  Happens if we find out too-late that we have a
     // perfect prediction here, and we want to turn into a leaf.
@@ -451,62 +686,27 @@ public class DTree extends Iced {
     }
 
     // Pick the best column from the given histograms
-    public Split bestCol(UndecidedNode u, DHistogram hs[]) {
-      DTree.Split best = null;
-      if( hs == null ) return null;
-      final int maxCols = u._scoreCols == null /* all cols */ ? hs.length : u._scoreCols.length;
-      List<FindSplits> findSplits = new ArrayList<>();
-      //total work is to find the best split across sum_over_cols_to_split(nbins)
-      long nbinsSum = 0;
-      for( int i=0; i<maxCols; i++ ) {
-        int col = u._scoreCols == null ? i : u._scoreCols[i];
-        if( hs[col]==null || hs[col].nbins() <= 1 ) continue;
-        nbinsSum += hs[col].nbins();
-      }
-      // for small work loads, do a serial loop, otherwise, submit work to FJ thread pool
-      final boolean isSmall = (nbinsSum <= 1024); //heuristic - 50 cols with 20 nbins, or 1 column with 1024 bins, etc.
-      for( int i=0; i<maxCols; i++ ) {
-        int col = u._scoreCols == null ? i : u._scoreCols[i];
-        if( hs[col]==null || hs[col].nbins() <= 1 ) continue;
-        FindSplits fs = new FindSplits(hs, col, u._nid);
-        findSplits.add(fs);
-        if (isSmall) fs.compute();
-      }
-      if (!isSmall) jsr166y.ForkJoinTask.invokeAll(findSplits);
-      for( FindSplits fs : findSplits) {
-        DTree.Split s = fs._s;
-        if( s == null ) continue;
-        if (best == null || s.se() < best.se()) best = s;
-      }
-      return best;
-    }
+    public Split bestCol(UndecidedNode u, DHistogram hs[]) { return _tree.bestSplit(u, hs); }
 
-    class FindSplits extends RecursiveAction {
-      FindSplits(DHistogram[] hs, int col, int nid) {
-        _hs = hs; _col = col; _nid = nid;
-      }
-      final DHistogram[] _hs;
-      final int _col;
-      DTree.Split _s;
-      final int _nid;
-      @Override public void compute() {
-        _s = findBestSplitPoint(_hs[_col], _col, _tree._parms._min_rows);
-        if (_s == null) return;
-      }
+    public DecidedNode(UndecidedNode n, DHistogram hs[]) {
+      this(n, hs, n._tree.bestSplit(n, hs)); // Best split-point for this tree
     }
 
-    public DecidedNode(UndecidedNode n, DHistogram hs[]) {
+    // Split with the given split, which was picked from hs; no split if null
+    public DecidedNode(UndecidedNode n, DHistogram hs[], Split split) {
       super(n._tree,n._pid,n._nid); // Replace Undecided with this DecidedNode
       _nids = new int[2];           // Split into 2 subsets
-      _split = bestCol(n,hs);  // Best split-point for this tree
+      _split = split;
       if( _split == null) {
         // Happens because the predictor columns cannot split the responses -
         // which might be because all predictor columns are now constant, or
         // because all responses are now constant.
         _splat = Float.NaN;
         Arrays.fill(_nids,ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID);
+        _tree.freeBundled(n, hs);
         return;
       }
+      _tree.fillBundled(n, hs);     // Bundled columns as split on (no-op if still filled)
       _splat = _split._nasplit != DHistogram.NASplitDir.NAvsREST && (_split._equal == 0 || _split._equal == 1) ? _split.splat(hs) : -1f; // Split-at value (-1 for group-wise splits)
       for(int way = 0; way <2; way++ ) { // left / right
         // Create children histograms, not yet populated, but the ranges are set
@@ -515,6 +715,14 @@ public class DTree extends Iced {
         // Assign a new (yet undecided) node to each child, and connect this (the parent) decided node and the newly made histograms to it
         _nids[way] = nhists == null ? ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID : makeUndecidedNode(nhists)._nid;
       }
+      // Histogram subtraction: histogram only the smaller child in the next
+      // pass, and derive the larger one from it and these histograms
+      if (_tree._parms._prebin_features && depth() + 1 < _tree._parms._max_depth
+          && _nids[0] != ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID && _nids[1] != ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID) {
+        int small = _split._n0 <= _split._n1 ? 0 : 1;
+        _tree.undecided(_nids[1 - small]).deriveFrom(hs, n._bhs, _tree.undecided(_nids[small]));
+      }
+      _tree.freeBundled(n, hs);
     }
 
     public int getChildNodeID(Chunk [] chks, int row ) {
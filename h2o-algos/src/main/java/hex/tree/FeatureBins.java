@@ -0,0 +1,124 @@
+package hex.tree;
+
+import water.DKV;
+import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import java.util.Arrays;
+
+/**
+ * Pre-binned copy of the numerical columns of a training frame.
+ * <p>
+ * Every tree level decodes every numerical column again, 8 bytes a row, just
+ * to find which of a few hundred bins each row falls in.  Instead, each
+ * numerical column is cut once into at most nbins_top_level global bins, and
+ * the bin index of every row is kept in a Vec of its own, compressed to 1 or 2
+ * bytes a row.  The histograms of the trees then split only on the global bin
+ * edges, which are shared via the DKV under the global quantiles key of the
+ * column (see {@link DHistogram#updateHistoBinned}).
+ * <p>
+ * The edges are the global quantiles when those are used
+ * (QuantilesGlobal/RoundRobin), one bin per value for integer columns of a
+ * small range, and else uniform over the column range; the last edge is the
+ * exclusive max of the column.  Categorical columns, and columns with no
+ * range, are not binned.
+ */
+public class FeatureBins {
+  private FeatureBins() {}
+
+  /** Bin the first ncols columns of fr; the edges of column i go under
+   *  keys[i], where there may already be its global quantiles.
+   *  @return the bin index Vecs, null for columns not binned */
+  public static Vec[] make(Frame fr, int ncols, int nbins, Key[] keys) {
+    Vec[] binned = new Vec[ncols];
+    double[][] edges = new double[ncols][];
+    int nbinned = 0;
+    for (int i = 0; i < ncols; i++) {
+      if (keys[i] == null) continue;
+      edges[i] = edges(fr.vec(i), nbins, DKV.<DHistogram.HistoQuantiles>getGet(keys[i]));
+      if (edges[i] != null) {
+        DKV.put(new DHistogram.HistoQuantiles(keys[i], edges[i]));
+        nbinned++;
+      }
+    }
+    if (nbinned == 0) return binned;
+    Frame src = new Frame();
+    double[][] srcEdges = new double[nbinned][];
+    int[] cols = new int[nbinned];
+    for (int i = 0, j = 0; i < ncols; i++) {
+      if (edges[i] == null) continue;
+      src.add(fr.name(i), fr.vec(i));
+      srcEdges[j] = edges[i];
+      cols[j++] = i;
+    }
+    Vec[] vs = new Encode(srcEdges).doAll(nbinned, Vec.T_NUM, src).outputFrame().vecs();
+    for (int j = 0; j < nbinned; j++)
+      binned[cols[j]] = vs[j];
+    return binned;
+  }
+
+  // Global bin edges of one column, or null if it is not binned
+  static double[] edges(Vec v, int nbins, DHistogram.HistoQuantiles quantiles) {
+    if (!v.isNumeric() || v.isCategorical() || v.naCnt() == v.length()) return null;
+    double min = v.min(), max = v.max();
+    if (min == max || Double.isInfinite(min) || Double.isInfinite(max)) return null;
+    double maxEx = DHistogram.find_maxEx(max, v.isInt() ? 1 : 0);
+    double[] edges;
+    if (quantiles != null && quantiles.splitPts != null) {
+      // The global quantiles, from the column min on
+      double[] pts = quantiles.splitPts;
+      edges = new double[pts.length + 2];
+      int n = 0;
+      edges[n++] = min;
+      for (double p : pts)
+        if (min < p && p < maxEx) edges[n++] = p;
+      edges = Arrays.copyOf(edges, n + 1);
+    } else if (v.isInt() && maxEx - min <= nbins) {
+      // One bin per integer
+      edges = new double[(int) (maxEx - min) + 1];
+      for (int g = 0; g < edges.length - 1; g++) edges[g] = min + g;
+    } else {
+      edges = new double[nbins + 1];
+      for (int g = 0; g < nbins; g++) edges[g] = min + (maxEx - min) * g / nbins;
+    }
+    edges[edges.length - 1] = maxEx;
+    edges = unique(edges);
+    return edges.length > 1 ? edges : null;
+  }
+
+  // Drop repeated edges, which rounding can make for narrow ranges
+  private static double[] unique(double[] edges) {
+    int n = 1;
+    for (int g = 1; g < edges.length; g++)
+      if (edges[g] > edges[n - 1]) edges[n++] = edges[g];
+    return n == edges.length ? edges : Arrays.copyOf(edges, n);
+  }
+
+  /** Global bin of a (non-NaN) value: the last edge not above it */
+  static int bin(double[] edges, double d) {
+    int g = Arrays.binarySearch(edges, 0, edges.length - 1, d);
+    if (g < 0) g = -g - 2;
+    return Math.min(Math.max(g, 0), edges.length - 2);
+  }
+
+  private static class Encode extends MRTask<Encode> {
+    final double[][] _edges;
+    Encode(double[][] edges) { _edges = edges; }
+
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      double[] vals = new double[cs[0]._len];
+      for (int c = 0; c < cs.length; c++) {
+        double[] edges = _edges[c];
+        cs[c].getDoubles(vals, 0, vals.length);
+        for (double d : vals) {
+          if (Double.isNaN(d)) ncs[c].addNA();
+          else ncs[c].addNum(bin(edges, d), 0);
+        }
+      }
+    }
+  }
+}
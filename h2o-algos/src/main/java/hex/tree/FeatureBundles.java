@@ -0,0 +1,286 @@
+package hex.tree;
+
+import water.DKV;
+import water.Iced;
+import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.util.IcedBitSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+
+/**
+ * Exclusive feature bundles (EFB, Ke et al., "LightGBM: A Highly Efficient
+ * Gradient Boosting Decision Tree") of the sparse pre-binned columns.
+ * <p>
+ * Wide sparse data (one-hot encodings, bags of words) has many columns which
+ * are almost never non-zero in the same row.  Such columns are bundled, and
+ * the non-zeros of a whole bundle go to one sparse Vec: the code of a row is
+ * 0 if all the columns of the bundle are 0 there, else the offset of the
+ * non-zero column plus its global bin plus 1, and NA if more than one column
+ * is non-zero (a conflict).  {@link ScoreBuildHistogram2} then histograms a
+ * bundle at a time from its one chunk, into one {@link BundleHistogram} per
+ * leaf indexed by code, and conflicts from the pre-binned columns themselves;
+ * the zeros of each column come from the totals of the leaves, so the split
+ * search over the codes of a column sees the same histogram as without
+ * bundling.
+ * <p>
+ * Columns are bundled if pre-binned, without NAs, and non-zero in at most
+ * {@link #MAX_NZ_FRACTION} of the rows.  Conflicts are looked for on a sample
+ * of the rows, and columns are bundled greedily, most non-zeros first, into
+ * the first bundle with no conflict in the sample and codes to spare.
+ */
+public class FeatureBundles extends Iced<FeatureBundles> {
+  static final double MAX_NZ_FRACTION = 0.1;
+  static final int SAMPLE_ROWS = 10000;
+  static final int MAX_CODES = 1 << 15; // Codes per bundle
+  static final int MAX_TRIES = 64;      // Bundles tried per column
+
+  final Key[] _keys;     // Bundle Vecs
+  final int[][] _cols;   // Columns of each bundle
+  final int[][] _offsets; // First code of each column of each bundle, then the end
+  final long _conflicts;  // Rows of all bundles with more than one non-zero column
+  private transient int[] _bundleOf; // Bundle of each column, -1 if none
+
+  private FeatureBundles(Key[] keys, int[][] cols, int[][] offsets, long conflicts) {
+    _keys = keys;
+    _cols = cols;
+    _offsets = offsets;
+    _conflicts = conflicts;
+  }
+
+  /** Bundle the sparse pre-binned columns among the first ncols columns of fr.
+   *  @param binned the bin index Vecs (see {@link FeatureBins}), null for columns not binned
+   *  @return the bundles, or null if no two columns could be bundled */
+  public static FeatureBundles make(Frame fr, int ncols, Vec[] binned) {
+    long nrows = fr.numRows();
+    ArrayList<Integer> sparse = new ArrayList<>();
+    for (int i = 0; i < ncols; i++) {
+      Vec v = fr.vec(i);
+      if (binned[i] != null && v.naCnt() == 0 && v.nzCnt() <= MAX_NZ_FRACTION * nrows) sparse.add(i);
+    }
+    if (sparse.size() < 2) return null;
+    Vec[] vs = new Vec[sparse.size()];
+    for (int j = 0; j < vs.length; j++) vs[j] = fr.vec(sparse.get(j));
+    long stride = Math.max(1, nrows / SAMPLE_ROWS);
+    long[][] nzs = new SampleNonZeros(stride, (int) ((nrows - 1) / stride + 1)).doAll(vs)._nzs;
+    if (nzs == null) return null;
+
+    // Greedy bundling, the columns with the most non-zeros in the sample first
+    final BitSet[] conflicts = new BitSet[vs.length];
+    Integer[] order = new Integer[vs.length];
+    for (int j = 0; j < vs.length; j++) {
+      conflicts[j] = BitSet.valueOf(nzs[j]);
+      order[j] = j;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override public int compare(Integer a, Integer b) {
+        return Integer.compare(conflicts[b].cardinality(), conflicts[a].cardinality());
+      }
+    });
+    ArrayList<ArrayList<Integer>> bundles = new ArrayList<>();
+    ArrayList<BitSet> used = new ArrayList<>();
+    ArrayList<Integer> codes = new ArrayList<>();
+    for (int j : order) {
+      int nbins = (int) binned[sparse.get(j)].max() + 1;
+      int b = 0;
+      for (; b < Math.min(bundles.size(), MAX_TRIES); b++)
+        if (codes.get(b) + nbins <= MAX_CODES && !used.get(b).intersects(conflicts[j])) break;
+      if (b == Math.min(bundles.size(), MAX_TRIES)) {
+        if (nbins > MAX_CODES) continue;
+        b = bundles.size();
+        bundles.add(new ArrayList<Integer>());
+        used.add(new BitSet());
+        codes.add(0);
+      }
+      bundles.get(b).add(sparse.get(j));
+      used.get(b).or(conflicts[j]);
+      codes.set(b, codes.get(b) + nbins);
+    }
+
+    // Bundles of one column are of no use
+    ArrayList<int[]> cols = new ArrayList<>();
+    for (ArrayList<Integer> bundle : bundles) {
+      if (bundle.size() < 2) continue;
+      int[] bcols = new int[bundle.size()];
+      for (int m = 0; m < bcols.length; m++) bcols[m] = bundle.get(m);
+      Arrays.sort(bcols);
+      cols.add(bcols);
+    }
+    if (cols.isEmpty()) return null;
+    int nbundles = cols.size();
+    int[][] bcols = cols.toArray(new int[nbundles][]);
+    int[][] offsets = new int[nbundles][];
+    Frame src = new Frame();
+    for (int b = 0; b < nbundles; b++) {
+      offsets[b] = new int[bcols[b].length + 1];
+      for (int m = 0; m < bcols[b].length; m++) {
+        int c = bcols[b][m];
+        offsets[b][m + 1] = offsets[b][m] + (int) binned[c].max() + 1;
+        src.add(fr.name(c), fr.vec(c));
+        src.add(fr.name(c) + "_bins", binned[c]);
+      }
+    }
+    Encode enc = new Encode(offsets).doAll(nbundles, Vec.T_NUM, src);
+    Vec[] out = enc.outputFrame().vecs();
+    Key[] keys = new Key[nbundles];
+    for (int b = 0; b < nbundles; b++) keys[b] = out[b]._key;
+    return new FeatureBundles(keys, bcols, offsets, enc._conflicts);
+  }
+
+  public int numBundles() { return _cols.length; }
+
+  /** Columns in all the bundles */
+  public int numBundled() {
+    int n = 0;
+    for (int[] cols : _cols) n += cols.length;
+    return n;
+  }
+
+  /** Rows of all the bundles where more than one column is non-zero, histogrammed from the columns themselves */
+  public long conflicts() { return _conflicts; }
+
+  /** Bundle Vecs */
+  Vec[] vecs() {
+    Vec[] vs = new Vec[_keys.length];
+    for (int b = 0; b < vs.length; b++) vs[b] = DKV.getGet(_keys[b]);
+    return vs;
+  }
+
+  /** Bundles with any of the active columns, all if null */
+  int[] active(IcedBitSet activeCols) {
+    int[] bs = new int[_cols.length];
+    int n = 0;
+    for (int b = 0; b < _cols.length; b++)
+      for (int c : _cols[b])
+        if (activeCols == null || activeCols.contains(c)) {
+          bs[n++] = b;
+          break;
+        }
+    return Arrays.copyOf(bs, n);
+  }
+
+  /** The columns (of cols, or else of all ncols columns) not in any bundle */
+  int[] unbundled(int[] cols, int ncols) {
+    boolean[] bundled = new boolean[ncols];
+    for (int[] bcols : _cols)
+      for (int c : bcols) bundled[c] = true;
+    int[] res = new int[cols == null ? ncols : cols.length];
+    int n = 0;
+    for (int i = 0; i < res.length; i++) {
+      int c = cols == null ? i : cols[i];
+      if (!bundled[c]) res[n++] = c;
+    }
+    return Arrays.copyOf(res, n);
+  }
+
+  /** Bundle of a column, -1 if not bundled */
+  int bundle(int col) {
+    int[] bundleOf = _bundleOf;
+    if (bundleOf == null) {
+      int ncols = 0;
+      for (int[] bcols : _cols)
+        for (int c : bcols) ncols = Math.max(ncols, c + 1);
+      bundleOf = new int[ncols];
+      Arrays.fill(bundleOf, -1);
+      for (int b = 0; b < _cols.length; b++)
+        for (int c : _cols[b]) bundleOf[c] = b;
+      _bundleOf = bundleOf;
+    }
+    return col < bundleOf.length ? bundleOf[col] : -1;
+  }
+
+  /** Codes of bundle b, that is bins of its {@link BundleHistogram} */
+  int ncodes(int b) { return _offsets[b][_offsets[b].length - 1]; }
+
+  /** Column of bundle b a code (less 1) is of: the last with an offset not above it */
+  int column(int b, int code) {
+    int m = Arrays.binarySearch(_offsets[b], code);
+    return m < 0 ? -m - 2 : m;
+  }
+
+  public void remove() {
+    for (Key k : _keys) k.remove();
+  }
+
+  // Rows of a sample, every stride-th row, where each column is non-zero; as
+  // one bit per sampled row
+  private static class SampleNonZeros extends MRTask<SampleNonZeros> {
+    final long _stride;
+    final int _nsamples;
+    long[][] _nzs;
+
+    SampleNonZeros(long stride, int nsamples) {
+      _stride = stride;
+      _nsamples = nsamples;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      _nzs = new long[cs.length][(_nsamples + 63) >> 6];
+      long start = cs[0].start();
+      for (int c = 0; c < cs.length; c++)
+        for (int r = cs[c].nextNZ(-1); r < cs[c]._len; r = cs[c].nextNZ(r)) {
+          long row = start + r;
+          if (row % _stride != 0 || cs[c].atd(r) == 0) continue;
+          long s = row / _stride;
+          _nzs[c][(int) (s >> 6)] |= 1L << s;
+        }
+    }
+
+    @Override public void reduce(SampleNonZeros snz) {
+      if (snz._nzs == null) return;
+      if (_nzs == null) {
+        _nzs = snz._nzs;
+        return;
+      }
+      for (int c = 0; c < _nzs.length; c++)
+        for (int i = 0; i < _nzs[c].length; i++) _nzs[c][i] |= snz._nzs[c][i];
+    }
+  }
+
+  // The code of every row of every bundle, from the columns (and then their
+  // bin indices) of each bundle in turn
+  private static class Encode extends MRTask<Encode> {
+    final int[][] _offsets;
+    long _conflicts;
+    Encode(int[][] offsets) { _offsets = offsets; }
+
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      int len = cs[0]._len;
+      int[] codes = new int[len];
+      for (int b = 0, i = 0; b < ncs.length; b++) {
+        Arrays.fill(codes, 0);
+        for (int m = 0; m < _offsets[b].length - 1; m++, i += 2) {
+          Chunk vals = cs[i], bins = cs[i + 1];
+          for (int r = vals.nextNZ(-1); r < len; r = vals.nextNZ(r)) {
+            if (vals.atd(r) == 0) continue;
+            codes[r] = codes[r] == 0 ? _offsets[b][m] + (int) bins.at8(r) + 1 : -1;
+          }
+        }
+        NewChunk nc = ncs[b];
+        int zeros = 0;
+        for (int r = 0; r < len; r++) {
+          if (codes[r] == 0) {
+            zeros++;
+            continue;
+          }
+          if (zeros > 0) nc.addZeros(zeros);
+          zeros = 0;
+          if (codes[r] < 0) {
+            nc.addNA();
+            _conflicts++;
+          } else nc.addNum(codes[r], 0);
+        }
+        if (zeros > 0) nc.addZeros(zeros);
+      }
+    }
+
+    @Override public void reduce(Encode enc) { _conflicts += enc._conflicts; }
+  }
+}
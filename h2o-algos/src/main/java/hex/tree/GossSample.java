@@ -0,0 +1,167 @@
+package hex.tree;
+
+import water.MRTask;
+import water.fvec.C4VolatileChunk;
+import water.fvec.C8DVolatileChunk;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
+import water.util.RandomUtils;
+
+import java.util.Random;
+
+/**
+ * Gradient-based one-side sampling (GOSS, Ke et al., "LightGBM: A Highly
+ * Efficient Gradient Boosting Decision Tree").
+ * <p>
+ * Rows with small gradients are already fit well, and say little about where
+ * to split.  GOSS keeps all the rows with the largest absolute gradients (the
+ * residuals in the work column), and only a random fraction p of the others,
+ * weighted by 1/p to stand for those left out, so that the histograms stay
+ * unbiased.  Rows left out are flagged out-of-bag in the NIDs, as in {@link
+ * Sample}; the row weights of the tree, zero for rows left out, go to a
+ * weights Vec of their own.
+ * <p>
+ * The gradient threshold is found from a histogram of the absolute gradients
+ * in 8 bins per power of 2, so slightly more than the top fraction may be
+ * kept; the chance p of keeping any other row takes the actual count into
+ * account.
+ */
+public class GossSample extends MRTask<GossSample> {
+  final DTree _tree;
+  final double _threshold; // Rows with |gradient| from here up are all kept
+  final double _otherRate; // Chance of keeping any other row
+  final boolean _hasWeights;
+  public long _top, _other; // Rows kept
+
+  private GossSample(DTree tree, double threshold, double otherRate, boolean hasWeights) {
+    _tree = tree;
+    _threshold = threshold;
+    _otherRate = otherRate;
+    _hasWeights = hasWeights;
+  }
+
+  /**
+   * Start counting the rows of one tree by absolute gradient; the trees of
+   * all classes may be counted at once.
+   * @param work residuals (negative gradients) of the tree
+   * @param weights user weights, or null
+   */
+  public static GradientHisto gradients(Vec response, Vec work, Vec weights, boolean runLocal) {
+    Frame fr = new Frame(response, work);
+    if (weights != null) fr.add("weights", weights);
+    return new GradientHisto().dfork(null, fr, runLocal);
+  }
+
+  /**
+   * Start sampling the rows of one tree, once its gradients are counted.
+   * @param gh gradient counts of the tree, from {@link #gradients}
+   * @param nids node ids of the tree, rows left out are flagged out-of-bag
+   * @param work residuals (negative gradients) of the tree
+   * @param weights user weights, or null
+   * @param treeWeights output: weights of the rows for this tree
+   * @param topRate fraction of rows with the largest gradients to keep
+   * @param otherRate fraction of all rows to keep among the others
+   */
+  public static GossSample sample(DTree tree, GradientHisto gh, Vec nids, Vec response, Vec work, Vec weights, Vec treeWeights,
+                                  double topRate, double otherRate, boolean runLocal) {
+    long[] counts = gh.getResult()._counts;
+    if (counts == null) counts = new long[GradientHisto.NBINS];
+    int b = topBin(counts, topRate);
+    Frame sfr = new Frame(nids, response, work);
+    if (weights != null) sfr.add("weights", weights);
+    sfr.add("tree_weights", treeWeights);
+    double threshold = b == GradientHisto.NBINS ? Double.POSITIVE_INFINITY : GradientHisto.lower(b);
+    return new GossSample(tree, threshold, otherChance(counts, b, otherRate), weights != null).dfork(null, sfr, runLocal);
+  }
+
+  // First of the bins of the largest gradients which hold at least topRate
+  // of the rows; NBINS if none are kept
+  static int topBin(long[] counts, double topRate) {
+    long target = (long) Math.ceil(topRate * ArrayUtils.sum(counts)), top = 0;
+    int b = GradientHisto.NBINS;
+    while (b > 0 && top < target) top += counts[--b];
+    return b;
+  }
+
+  // Chance of keeping a row below bin b, so that otherRate of all the rows
+  // are kept from there
+  static double otherChance(long[] counts, int b, double otherRate) {
+    long n = ArrayUtils.sum(counts), rest = 0;
+    for (int i = 0; i < b; i++) rest += counts[i];
+    return rest <= 0 ? 1 : Math.min(1, otherRate * n / rest);
+  }
+
+  @Override protected boolean modifiesVolatileVecs() { return true; }
+
+  @Override public void map(Chunk[] cs) {
+    C4VolatileChunk nids = (C4VolatileChunk) cs[0];
+    Chunk ys = cs[1], gs = cs[2], ws = _hasWeights ? cs[3] : null;
+    double[] tws = ((C8DVolatileChunk) cs[cs.length - 1]).getValues();
+    int[] is = nids.getValues();
+    Random rand = RandomUtils.getRNG(_tree._seed);
+    for (int row = 0; row < nids._len; row++) {
+      double w = ws == null ? 1 : ws.atd(row);
+      boolean skip = ys.isNA(row) || w == 0;
+      if (!skip) {
+        if (Math.abs(gs.atd(row)) >= _threshold) _top++;
+        else {
+          rand.setSeed(_tree._seed + row + nids.start()); //seeding is independent of chunking
+          skip = rand.nextFloat() >= _otherRate;
+          if (!skip) {
+            w /= _otherRate;
+            _other++;
+          }
+        }
+      }
+      if (skip) {
+        is[row] = ScoreBuildHistogram.OUT_OF_BAG; // Flag row as being ignored by sampling
+        w = 0;
+      }
+      tws[row] = w;
+    }
+  }
+
+  @Override public void reduce(GossSample gs) {
+    _top += gs._top;
+    _other += gs._other;
+  }
+
+  // Row counts by absolute gradient, 8 bins per power of 2 from 2^MIN_EXP to
+  // 2^MAX_EXP, plus a bin for smaller and one for larger gradients
+  public static class GradientHisto extends MRTask<GradientHisto> {
+    static final int MIN_EXP = -64, MAX_EXP = 64, SUB = 8;
+    static final int NBINS = 2 + (MAX_EXP - MIN_EXP) * SUB;
+    long[] _counts;
+
+    static int bin(double a) {
+      if (!(a >= Math.scalb(1.0, MIN_EXP))) return 0;
+      if (a >= Math.scalb(1.0, MAX_EXP)) return NBINS - 1;
+      int e = Math.getExponent(a);
+      double m = Math.scalb(a, -e); // In [1,2)
+      return 1 + (e - MIN_EXP) * SUB + (int) ((m - 1) * SUB);
+    }
+
+    // Smallest absolute gradient of bin b
+    static double lower(int b) {
+      if (b == 0) return 0;
+      if (b == NBINS - 1) return Math.scalb(1.0, MAX_EXP);
+      return Math.scalb(1 + (double) ((b - 1) % SUB) / SUB, MIN_EXP + (b - 1) / SUB);
+    }
+
+    @Override public void map(Chunk[] cs) {
+      _counts = new long[NBINS];
+      Chunk ys = cs[0], gs = cs[1], ws = cs.length > 2 ? cs[2] : null;
+      for (int row = 0; row < ys._len; row++) {
+        if (ys.isNA(row) || (ws != null && ws.atd(row) == 0)) continue;
+        _counts[bin(Math.abs(gs.atd(row)))]++;
+      }
+    }
+
+    @Override public void reduce(GradientHisto gh) {
+      if (_counts == null) _counts = gh._counts;
+      else ArrayUtils.add(_counts, gh._counts);
+    }
+  }
+}
@@ -161,6 +161,10 @@ public class ScoreBuildHistogram extends MRTask<ScoreBuildHistogram> {
       // Score row against current decisions & assign new split
       boolean oob = isOOBRow(nid);
       if( oob ) nid = oob2Nid(nid); // sampled away - we track the position in the tree
+      if( _tree.node(nid) instanceof DTree.UndecidedNode ) { // Leaf queued by best-first growth, not split yet
+        nnids[row] = nid-_leaf;    // Stays put, and is not histogrammed again
+        continue;
+      }
       DTree.DecidedNode dn = _tree.decided(nid);
       if( dn == null || dn._split == null ) { // Might have a leftover non-split
         if( DTree.isRootNode(dn) ) { nnids[row] = nid-_leaf; continue; }
@@ -64,9 +64,24 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   transient double [][] _ws;
   transient int [][] _nhs;
   transient int [][] _rss;
+  transient Vec [] _binned;
+  transient int [][] _leafOf;      // Leaf of every row (negative if none), for the sparse columns
+  transient double [][] _leafSums; // Rows, weight, wY and wYY of every leaf, for the zeros of the sparse columns
+  transient Vec [] _bundled;
   Frame _fr2;
+  Key [] _binnedKeys;
+  FeatureBundles _bundles;
+  // Histograms of the bundles (see BundleHistogram), per leaf and bundle; null where not histogrammed
+  BundleHistogram [][] _bhs;
   final int _numLeafs;
   final IcedBitSet _activeCols;
+  // Columns are histogrammed from their non-zeros, in the chunks where at most this fraction of the rows is stored
+  static final double SPARSE_FRACTION = 0.25;
+
+  /** Whether the rows of a column chunk are histogrammed from its non-zeros only, see {@link DHistogram#addZeros} */
+  public static boolean isSparse(Chunk chk) {
+    return chk.isSparseZero() && chk.sparseLenZero() <= SPARSE_FRACTION * chk._len;
+  }
 
   public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int weightIdx, int workIdx, int nidIdxs) {
     super(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, weightIdx, workIdx, nidIdxs);
@@ -88,6 +103,22 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     _hcs = ArrayUtils.transpose(_hcs);
   }
 
+  /** Histogram the global bin indices of the pre-binned columns (see {@link FeatureBins}) */
+  public ScoreBuildHistogram2 withBinned(Key [] binnedKeys) {
+    _binnedKeys = binnedKeys;
+    return this;
+  }
+
+  /** Histogram the bundled columns (see {@link FeatureBundles}) a bundle at a time, into one {@link BundleHistogram}
+   *  per bundle per leaf (see {@link #bundleHistograms}) rather than into their own histograms */
+  public ScoreBuildHistogram2 withBundles(FeatureBundles bundles) {
+    _bundles = bundles;
+    return this;
+  }
+
+  /** The histograms of the bundles, per leaf and bundle: of the bundles with any column to histogram for the leaf */
+  public BundleHistogram [][] bundleHistograms() { return _bhs; }
+
   @Override
   public ScoreBuildHistogram dfork2(byte[] types, Frame fr, boolean run_local) {
     _fr2 = fr;
@@ -131,6 +162,10 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       // Score row against current decisions & assign new split
       boolean oob = isOOBRow(nid);
       if( oob ) nid = oob2Nid(nid); // sampled away - we track the position in the tree
+      if( _tree.node(nid) instanceof DTree.UndecidedNode ) { // Leaf queued by best-first growth, not split yet
+        res[row] = nid - _leaf;    // Stays put, and is not histogrammed again
+        continue;
+      }
       DTree.DecidedNode dn = _tree.decided(nid);
       if( dn._split == null ) { // Might have a leftover non-split
         if( DTree.isRootNode(dn) ) { res[row] = nid - _leaf; continue; }
@@ -159,11 +194,22 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     Vec v = _fr2.anyVec();
     assert(v!=null);
     _cids = VecUtils.getLocalChunkIds(v);
+    if (_binnedKeys != null) {
+      _binned = new Vec[_binnedKeys.length];
+      for (int i = 0; i < _binned.length; ++i)
+        if (_binnedKeys[i] != null) _binned[i] = DKV.getGet(_binnedKeys[i]);
+    }
+    if (_bundles != null) {
+      _bundled = _bundles.vecs();
+      _bhs = new BundleHistogram[_numLeafs][_bundles.numBundles()];
+    }
     _chks = new Chunk[_cids.length][_fr2.numCols()];
     _ys = new double[_cids.length][];
     _ws = new double[_cids.length][];
     _nhs = new int[_cids.length][];
     _rss = new int[_cids.length][];
+    _leafOf = new int[_cids.length][];
+    _leafSums = new double[_cids.length][];
     long [] espc = v.espc();
     int largestChunkSz = 0;
     for(int i = 1; i < espc.length; ++i){
@@ -212,7 +258,7 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
         for (int row = 0; row < nnids.length; row++)
           if (nnids[row] >= 0)
             rows[nh[nnids[row]]++] = row;
-
+        _leafOf[id] = nnids;
       }
       @Override
       protected void map(int id) {
@@ -228,26 +274,42 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           int len = resChk.len();
           if(resChk instanceof C8DVolatileChunk){
             _ys[id] = ((C8DVolatileChunk)resChk).getValues();
-          } else _ys[id] = resChk.getDoubles(MemoryManager.malloc8d(len), 0, len);
-          if(_weightIdx != -1){
-            _ws[id] = chks[_weightIdx].getDoubles(MemoryManager.malloc8d(len), 0, len);
+          } else resChk.decode(_ys[id] = MemoryManager.malloc8d(len), null, 0, len);
+          if(_weightIdx != -1)
+            chks[_weightIdx].decode(_ws[id] = MemoryManager.malloc8d(len), null, 0, len);
+          // Totals per leaf, from which the sparse columns get their zeros
+          int [] nnids = _leafOf[id];
+          double [] ys = _ys[id], ws = _ws[id];
+          double [] sums = _leafSums[id] = new double[4*_numLeafs];
+          for (int row = 0; row < len; row++) {
+            int n = nnids[row];
+            if (n < 0 || ws[row] == 0) continue;
+            double wy = ws[row]*ys[row];
+            sums[4*n  ]++;
+            sums[4*n+1] += ws[row];
+            sums[4*n+2] += wy;
+            sums[4*n+3] += wy*ys[row];
           }
         }
       }
     },new H2O.H2OCountedCompleter(this){
       public void onCompletion(CountedCompleter cc){
         final int ncols = _ncols;
-        final int [] active_cols = _activeCols == null?null:new int[Math.max(1,_activeCols.cardinality())];
-        int nactive_cols = active_cols == null?ncols:active_cols.length;
-        final int numWrks = _hcs.length*nactive_cols < 16*1024?H2O.NUMCPUS:Math.min(H2O.NUMCPUS,Math.max(4*H2O.NUMCPUS/nactive_cols,1));
-        final int rem = H2O.NUMCPUS-numWrks*ncols;
-        ScoreBuildHistogram2.this.addToPendingCount(1+nactive_cols);
-        if(active_cols != null) {
+        int [] acs = _activeCols == null?null:new int[Math.max(1,_activeCols.cardinality())];
+        if(acs != null) {
           int j = 0;
           for (int i = 0; i < ncols; ++i)
             if (_activeCols.contains(i))
-              active_cols[j++] = i;
+              acs[j++] = i;
         }
+        // Bundled columns are histogrammed a bundle at a time, each by a single task
+        final int [] bundles = _bundles == null || _numLeafs == 0 ? new int[0] : _bundles.active(_activeCols);
+        if (bundles.length > 0) acs = _bundles.unbundled(acs, ncols);
+        final int [] active_cols = acs;
+        final int nactive_cols = active_cols == null?ncols:active_cols.length;
+        final int numWrks = _hcs.length*nactive_cols < 16*1024?H2O.NUMCPUS:Math.min(H2O.NUMCPUS,Math.max(4*H2O.NUMCPUS/Math.max(nactive_cols,1),1));
+        final int rem = H2O.NUMCPUS-numWrks*ncols;
+        ScoreBuildHistogram2.this.addToPendingCount(1+nactive_cols+bundles.length);
         // MRTask (over columns) launching MrTasks (over number of workers) for each column.
         // We want FJ to start processing all the columns before parallelizing within column to reduce memory overhead.
         // (running single column in n threads means n-copies of the histogram)
@@ -260,14 +322,74 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
         new LocalMR(new MrFun() {
           @Override
           protected void map(int c) {
+            if (c >= nactive_cols) {
+              new LocalMR(new ComputeBundleThread(bundles[c - nactive_cols], fLargestChunkSz), 1, ScoreBuildHistogram2.this).fork();
+              return;
+            }
             c = active_cols == null?c:active_cols[c];
             new LocalMR(new ComputeHistoThread(_hcs.length == 0?new DHistogram[0]:_hcs[c],c,fLargestChunkSz,new AtomicInteger()),numWrks + (c < rem?1:0),ScoreBuildHistogram2.this).fork();
           }
-        },nactive_cols,ScoreBuildHistogram2.this).fork();
+        },nactive_cols+bundles.length,ScoreBuildHistogram2.this).fork();
       }
     }).fork();
   }
 
+  // Histograms of one bundle (see FeatureBundles), one per leaf with any of
+  // its columns to histogram: the non-zero rows of all its columns from the
+  // one bundle chunk, by code, and the totals of the leaves for the zeros
+  private class ComputeBundleThread extends MrFun<ComputeBundleThread> {
+    final int _b;
+    final int _maxChunkSz;
+
+    ComputeBundleThread(int b, int maxChunkSz) {
+      _b = b; _maxChunkSz = maxChunkSz;
+    }
+
+    @Override
+    protected void map(int id) {
+      final int [] cols = _bundles._cols[_b];
+      final int [] offsets = _bundles._offsets[_b];
+      final int ncols = cols.length;
+      BundleHistogram [] bhs = new BundleHistogram[_numLeafs];
+      for (int n = 0; n < _numLeafs; n++) {
+        int sCols[] = _tree.undecided(n + _leaf)._scoreCols;
+        for (int m = 0; m < ncols; m++)
+          if (_hcs[cols[m]][n] != null && (_activeCols == null || _activeCols.contains(cols[m]))
+              && (sCols == null || ArrayUtils.find(sCols, cols[m]) >= 0)) {
+            bhs[n] = new BundleHistogram(_bundles.ncodes(_b));
+            break;
+          }
+      }
+      double [] vals = MemoryManager.malloc8d(_maxChunkSz);
+      int [] ids = MemoryManager.malloc4(_maxChunkSz);
+      for (int i = 0; i < _cids.length; i++) {
+        double [] sums = _leafSums[i];
+        for (int n = 0; n < _numLeafs; n++)
+          if (bhs[n] != null) bhs[n].addTotals(sums[4*n+1], sums[4*n+2], sums[4*n+3]);
+        int [] leafOf = _leafOf[i];
+        double [] ys = _ys[i], ws = _ws[i];
+        Chunk [] chks = _chks[i];
+        int nz = _bundled[_b].chunkForChunkIdx(_cids[i]).getSparseDoubles(vals, ids);
+        for (int k = 0; k < nz; k++) {
+          int row = ids[k];
+          int n = leafOf[row];
+          if (n < 0 || bhs[n] == null || ws[row] == 0 || vals[k] == 0) continue;
+          double wy = ws[row] * ys[row];
+          if (Double.isNaN(vals[k])) { // More than one non-zero column in this row
+            for (int m = 0; m < ncols; m++) {
+              if (chks[cols[m]].atd(row) == 0) continue;
+              int g = (int) _binned[cols[m]].chunkForChunkIdx(_cids[i]).at8(row);
+              bhs[n].addRow(offsets[m] + g, ws[row], wy, wy * ys[row]);
+            }
+          } else
+            bhs[n].addRow((int) vals[k] - 1, ws[row], wy, wy * ys[row]);
+        }
+      }
+      for (int n = 0; n < _numLeafs; n++)
+        _bhs[n][_b] = bhs[n];
+    }
+  }
+
   private static void mergeHistos(DHistogram [] hcs, DHistogram [] hcs2){
     // Distributed histograms need a little work
     for( int i=0; i< hcs.length; i++ ) {
@@ -285,6 +407,10 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
 
     AtomicInteger _cidx;
     private boolean _done;
+    // Sparse chunks: the histograms of the leaves scoring this column, and
+    // the rows, weight, wY and wYY of the zeros not yet added per leaf
+    private DHistogram [] _scored;
+    private double [] _zeros;
 
     public boolean isDone(){return _done || (_done = _cidx.get() >= _cids.length);}
 
@@ -301,21 +427,76 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     @Override
     protected void map(int id){
       double [] cs = null;
+      int [] gs = null;
       for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
         if(cs == null) cs = MemoryManager.malloc8d(_maxChunkSz);
-        computeChunk(i,cs,_ws[i]);
+        if(gs == null) gs = MemoryManager.malloc4(_maxChunkSz); // Bin indices, or row ids of the non-zeros
+        computeChunk(i,cs,gs,_ws[i]);
+      }
+      if (_zeros != null) { // The zeros of the sparse chunks, all at once per leaf
+        for (int n = 0; n < _scored.length; n++) {
+          DHistogram h = _scored[n];
+          if (h == null || _zeros[4*n] < 0.5) continue;
+          if (h._vals == null) h.init();
+          h.addZeros(_zeros[4*n+1], _zeros[4*n+2], _zeros[4*n+3]);
+        }
+        _zeros = null;
       }
     }
 
-    private void computeChunk(int id, double [] cs, double [] ws){
+    // Sparse chunk: add the non-zero rows now, and only count the zeros of
+    // each leaf (all its rows, taking away the non-zero ones)
+    private void computeSparse(int id, Chunk chk, double [] cs, int [] ids, double [] ws) {
+      if (_scored == null) {
+        _scored = new DHistogram[_lh.length];
+        for (int n = 0; n < _lh.length; n++) {
+          int sCols[] = _tree.undecided(n + _leaf)._scoreCols;
+          if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) _scored[n] = _lh[n];
+        }
+      }
+      if (_zeros == null) _zeros = new double[4*_lh.length];
+      ArrayUtils.add(_zeros, _leafSums[id]);
+      int [] leafOf = _leafOf[id];
+      double [] ys = ScoreBuildHistogram2.this._ys[id];
+      Chunk bins = _binned != null && _binned[_col] != null ? _binned[_col].chunkForChunkIdx(_cids[id]) : null;
+      int nz = chk.getSparseDoubles(cs, ids);
+      for (int i = 0; i < nz; i++) {
+        int row = ids[i];
+        int n = leafOf[row];
+        if (n < 0) continue;
+        DHistogram h = _scored[n];
+        double w = ws[row];
+        if (h == null || w == 0) continue;
+        if (h._vals == null) h.init();
+        double y = ys[row];
+        double wy = w * y;
+        double wyy = wy * y;
+        if (bins != null && h.isPrebinned())
+          h.addRowBinned(Double.isNaN(cs[i]) ? -1 : (int) bins.at8(row), w, wy, wyy);
+        else
+          h.addRow(cs[i], w, wy, wyy);
+        _zeros[4*n  ]--;
+        _zeros[4*n+1] -= w;
+        _zeros[4*n+2] -= wy;
+        _zeros[4*n+3] -= wyy;
+      }
+    }
+
+    private void computeChunk(int id, double [] cs, int [] gs, double [] ws){
       int [] nh = _nhs[id];
       int [] rs = _rss[id];
       Chunk resChk = _chks[id][_workIdx];
       int len = resChk._len;
       double [] ys = ScoreBuildHistogram2.this._ys[id];
-      if(_weightIdx != -1) _chks[id][_weightIdx].getDoubles(ws, 0, len);
+      if(_weightIdx != -1) _chks[id][_weightIdx].decode(ws, null, 0, len);
+      Chunk chk = _chks[id][_col];
+      if (isSparse(chk)) {
+        computeSparse(id, chk, cs, gs, ws);
+        return;
+      }
+      if (_binned == null || _binned[_col] == null) gs = null;
       final int hcslen = _lh.length;
-      boolean extracted = false;
+      boolean extracted = false, extractedBins = false;
       for (int n = 0; n < hcslen; n++) {
         int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
         if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) {
@@ -324,8 +505,16 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
           int lo = (n == 0 ? 0 : nh[n - 1]);
           if (hi == lo || h == null) continue; // Ignore untracked columns in this split
           if (h._vals == null) h.init();
+          if (gs != null && h.isPrebinned()) {
+            if (!extractedBins) {
+              _binned[_col].chunkForChunkIdx(_cids[id]).getIntegers(gs, 0, len, -1);
+              extractedBins = true;
+            }
+            h.updateHistoBinned(ws, gs, ys, rs, hi, lo);
+            continue;
+          }
           if (!extracted) {
-            _chks[id][_col].getDoubles(cs,0,len);
+            _chks[id][_col].decode(cs,null,0,len);
             extracted = true;
           }
           h.updateHisto(ws, cs, ys, rs, hi, lo);
@@ -340,6 +529,17 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }
   }
 
+  @Override public void reduce(ScoreBuildHistogram sbh) {
+    super.reduce(sbh);
+    BundleHistogram [][] bhs = ((ScoreBuildHistogram2) sbh)._bhs;
+    if (bhs == _bhs) return;
+    for (int n = 0; n < _bhs.length; n++)
+      for (int b = 0; b < _bhs[n].length; b++) {
+        if (_bhs[n][b] == null) _bhs[n][b] = bhs[n][b];
+        else if (bhs[n][b] != null) _bhs[n][b].add(bhs[n][b]);
+      }
+  }
+
   @Override public void postGlobal(){
     _hcs = ArrayUtils.transpose(_hcs);
     for(DHistogram [] ary:_hcs)
@@ -347,5 +547,9 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
         if(dh == null) continue;
         dh.reducePrecision();
       }
+    if (_bhs != null)
+      for (BundleHistogram [] bhs : _bhs)
+        for (BundleHistogram bh : bhs)
+          if (bh != null) bh.reducePrecision();
   }
 }
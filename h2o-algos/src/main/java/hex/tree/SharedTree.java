@@ -56,6 +56,16 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
   // Initially predicted value (for zero trees)
   protected double _initialPrediction;
 
+  // Row weights of each tree (per class), for builders that weigh rows differently per tree (e.g. GOSS in
+  // GBM); null to build all trees with the weights column
+  protected transient Vec[] _treeWeights;
+
+  // Keys of the global bin index Vecs of the predictors, if pre-binned (null for columns not binned)
+  protected Key[] _binnedKeys;
+
+  // Bundles of the sparse pre-binned predictors, histogrammed a bundle at a time; null if none
+  protected FeatureBundles _bundles;
+
   // Sum of variable empirical improvement in squared-error.  The value is not scaled.
   private transient float[/*nfeatures*/] _improvPerVar;
 
@@ -66,6 +76,9 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
 
   public boolean isSupervised(){return true;}
 
+  /** Bundles of the sparse predictors (see {@link FeatureBundles}), null if none; their Vecs are gone once built */
+  public FeatureBundles bundles() { return _bundles; }
+
   @Override public boolean haveMojo() { return true; }
   @Override public boolean havePojo() { return true; }
 
@@ -141,6 +154,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     if (_parms._nbins_top_level < _parms._nbins) error ("_nbins_top_level", "nbins_top_level must be >= nbins (" + _parms._nbins + ").");
     if (_parms._nbins_top_level >= 1<<16) error ("_nbins_top_level", "nbins_top_level must be < " + (1<<16));
     if (_parms._max_depth <= 0) error ("_max_depth", "_max_depth must be > 0.");
+    if (_parms._max_leaves < 0 || _parms._max_leaves == 1) error ("_max_leaves", "_max_leaves must be 0 (grow level by level) or >= 2.");
     if (_parms._min_rows <=0) error ("_min_rows", "_min_rows must be > 0.");
     if (_parms._r2_stopping!=Double.MAX_VALUE) warn("_r2_stopping", "_r2_stopping is no longer supported - please use stopping_rounds, stopping_metric and stopping_tolerance instead.");
     if (_parms._score_tree_interval < 0) error ("_score_tree_interval", "_score_tree_interval must be >= 0.");
@@ -300,6 +314,22 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
           DKV.remove(rndKey);
         }
 
+        // Global bins of the numerical columns, and the bin index of every row
+        if (_parms._prebin_features) {
+          Vec[] binned = FeatureBins.make(_train, _ncols, _parms._nbins_top_level, getGlobalQuantilesKeys());
+          _binnedKeys = new Key[_ncols];
+          int nbinned = 0;
+          for (int i = 0; i < _ncols; i++)
+            if (binned[i] != null) {
+              _binnedKeys[i] = binned[i]._key;
+              nbinned++;
+            }
+          Log.info("Pre-binned " + nbinned + " of " + _ncols + " columns.");
+          _bundles = FeatureBundles.make(_train, _ncols, binned);
+          if (_bundles != null)
+            Log.info("Bundled " + _bundles.numBundled() + " sparse columns into " + _bundles.numBundles() + " bundles, with " + _bundles.conflicts() + " conflicting rows.");
+        }
+
         // Also add to the basic working Frame these sets:
         //   nclass Vecs of current forest results (sum across all trees)
         //   nclass Vecs of working/temp data
@@ -340,6 +370,8 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       } finally {
         if( _model!=null ) _model.unlock(_job);
         for (Key k : getGlobalQuantilesKeys()) if (k!=null) k.remove();
+        if (_binnedKeys != null) for (Key k : _binnedKeys) if (k!=null) k.remove();
+        if (_bundles != null) _bundles.remove();
       }
     }
 
@@ -355,7 +387,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     // Helpers to store quantiles in DKV - keep a cache on each node (instead of sending around over and over)
     protected Key getGlobalQuantilesKey(int i) {
       if (_model==null || _model._key == null || _parms._histogram_type!= SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
-              && _parms._histogram_type!= SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin) return null;
+              && _parms._histogram_type!= SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin && !_parms._prebin_features) return null;
       return Key.makeSystem(_model._key+"_quantiles_col_"+i);
     }
     protected Key[] getGlobalQuantilesKeys() {
@@ -414,6 +446,12 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     }
   }
 
+  // Most passes of buildLayer a tree can take: one per level, or growing
+  // best-first, at most one per split
+  protected int maxPasses() {
+    return _parms._max_leaves > 0 ? _parms._max_leaves : _parms._max_depth;
+  }
+
   // --------------------------------------------------------------------------
   // Build an entire layer of all K trees
   protected DHistogram[][][] buildLayer(final Frame fr, final int nbins, int nbins_cats, final DTree ktrees[], final int leafs[], final DHistogram hcs[][][], boolean build_tree_one_node) {
@@ -438,6 +476,9 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       fr2.add(fr._names[idx_tree(k)],vecs[idx_tree(k)]);                              //tree predictions
       int workIdx = fr2.numCols(); fr2.add(fr._names[idx_work(k)],vecs[idx_work(k)]); //target value to fit (copy of actual response for DRF, residual for GBM)
       int nidIdx  = fr2.numCols(); fr2.add(fr._names[idx_nids(k)],vecs[idx_nids(k)]); //node indices for tree construction
+      if (_treeWeights != null) { // row weights of this tree, instead of the weights column
+        weightIdx = fr2.numCols(); fr2.add(fr._names[fr.find(_treeWeights[k])], _treeWeights[k]);
+      }
       if (DEV_DEBUG) {
         System.out.println("Building a layer for class " + k + ":\n" + fr2.toTwoDimTable());
       }
@@ -492,6 +533,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       _nbins= nbins;
       _nbins_cats= nbins_cats;
       _tree = tree;
+      _tree._bundles = st._bundles;
       _leafOffsets = leafs;
       _hcs  = hcs;
       _fr2  = fr2;
@@ -512,12 +554,26 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       // got assigned into.  Collect counts, mean, variance, min, max per bin,
       // per column.
 //      new ScoreBuildHistogram(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
-      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
+      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).withBinned(_st._binnedKeys).withBundles(_st._bundles).dfork2(null,_fr2,_build_tree_one_node);
     }
     @Override public void onCompletion(CountedCompleter caller) {
       ScoreBuildHistogram sbh = (ScoreBuildHistogram) caller;
       final int leafOffset = _leafOffsets[_k];
       int tmax = _tree.len();   // Number of total splits in tree K
+      BundleHistogram[][] bhs = ((ScoreBuildHistogram2) sbh).bundleHistograms();
+      if (bhs != null)
+        for (int leaf = leafOffset; leaf < tmax; leaf++)
+          _tree.undecided(leaf)._bhs = bhs[leaf - leafOffset];
+      for (int leaf = leafOffset; leaf < tmax; leaf++) { // Histogram subtraction, for the leaves not histogrammed
+        DTree.UndecidedNode udn = _tree.undecided(leaf);
+        if (udn.isDerived())
+          sbh._hcs[leaf - leafOffset] = udn.derive(sbh._hcs[leaf - leafOffset], sbh._hcs[udn.siblingNid() - leafOffset]);
+      }
+      _tree.releaseRetained();
+      if (_tree._parms._max_leaves > 0) {
+        splitBestLeaves(sbh._hcs, leafOffset, tmax);
+        return;
+      }
       for (int leaf = leafOffset; leaf < tmax; leaf++) { // Visit all the new splits (leaves)
         DTree.UndecidedNode udn = _tree.undecided(leaf);
 //        System.out.println((_st._nclass==1?"Regression":("Class "+_st._response.domain()[_k]))+",\n  Undecided node:"+udn);
@@ -527,20 +583,66 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
         if (dn._split == null) udn.do_not_split();
         else {
           _did_split = true;
-          DTree.Split s = dn._split; // Accumulate squared error improvements per variable
-          float improvement = (float) (s.pre_split_se() - s.se());
-          assert (improvement >= 0);
-          AtomicUtils.FloatArray.add(_improvPerVar, s.col(), improvement);
+          improved(dn._split);
         }
       }
       _leafOffsets[_k] = tmax;          // Setup leafs for next tree level
       int new_leafs = _tree.len() - tmax; //new_leafs can be 0 if no actual splits were made
       _hcs[_k] = new DHistogram[new_leafs][/*ncol*/];
       for (int nl = tmax; nl < _tree.len(); nl++)
-        _hcs[_k][nl - tmax] = _tree.undecided(nl)._hs;
+        _hcs[_k][nl - tmax] = _tree.undecided(nl).histosToBuild();
 //      if (_did_split && new_leafs > 0) _tree._depth++;
       if (_did_split) _tree._depth++; //
     }
+
+    // Best-first growth: queue up the leaves just histogrammed, then split
+    // only the best of all the queued leaves.  Leaves never split stay as
+    // DecidedNodes without a split, like those that cannot be split when
+    // growing level by level.
+    private void splitBestLeaves(DHistogram[][] hcs, int leafOffset, int tmax) {
+      for (int leaf = leafOffset; leaf < tmax; leaf++) {
+        DTree.UndecidedNode udn = _tree.undecided(leaf);
+        if (!_tree.offer(udn, hcs[leaf - leafOffset])) {
+          _st.makeDecided(udn, null, null);
+          udn.do_not_split();
+        }
+      }
+      for (DTree.UndecidedNode udn : _tree.pollBest()) {
+        DTree.DecidedNode dn = _st.makeDecided(udn, udn._bestHs, udn._bestSplit);
+        improved(dn._split);
+        _tree._depth = Math.max(_tree._depth, dn.depth() + 1);
+      }
+      // Histogram the new leaves in the next pass, while more splits are allowed
+      _did_split = _tree.leafBudget() > 0 && _tree.len() > tmax;
+      if (!_did_split) {
+        for (DTree.UndecidedNode udn : _tree.drainCandidates()) {
+          _st.makeDecided(udn, null, null);
+          udn.do_not_split();
+        }
+        _tree.releaseRetained(); // No next pass to subtract in
+        _leafOffsets[_k] = _tree.len();
+        _hcs[_k] = new DHistogram[0][];
+        return;
+      }
+      _leafOffsets[_k] = tmax;
+      _hcs[_k] = new DHistogram[_tree.len() - tmax][];
+      for (int nl = tmax; nl < _tree.len(); nl++) {
+        DTree.UndecidedNode udn = _tree.undecided(nl);
+        _hcs[_k][nl - tmax] = udn.depth() < _tree._parms._max_depth ? udn.histosToBuild()
+            : new DHistogram[_st._ncols]; // Too deep to split, nothing to build
+      }
+    }
+
+    // Accumulate squared error improvements per variable
+    private void improved(DTree.Split s) {
+      float improvement = (float) (s.pre_split_se() - s.se());
+      assert (improvement >= 0);
+      AtomicUtils.FloatArray.add(_improvPerVar, s.col(), improvement);
+    }
+    @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
+      _tree.releaseRetained();
+      return true;
+    }
   }
 
   // --------------------------------------------------------------------------
@@ -578,6 +680,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     public int work0Index;
     public int nids0Index;
     public int oobtIndex;
+    public int treeWeights0Index;
 
     public FrameMap() {}  // For Externalizable interface
     public FrameMap(SharedTree t) {
@@ -588,6 +691,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       work0Index = t.idx_work(0);
       nids0Index = t.idx_nids(0);
       oobtIndex = t.idx_oobt();
+      treeWeights0Index = t._treeWeights == null ? -1 : t._train.find(t._treeWeights[0]);
     }
   }
 
@@ -598,6 +702,9 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
   }
 
   // Builder-specific decision node
+  protected DTree.DecidedNode makeDecided( DTree.UndecidedNode udn, DHistogram hs[], DTree.Split split ) {
+    return new DTree.DecidedNode(udn, hs, split);
+  }
   protected DTree.DecidedNode makeDecided( DTree.UndecidedNode udn, DHistogram hs[] ) {
     return new DTree.DecidedNode(udn, hs);
   }
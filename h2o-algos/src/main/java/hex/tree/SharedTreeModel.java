@@ -47,6 +47,8 @@ public abstract class SharedTreeModel<
 
     public int _max_depth = 5; // Maximum tree depth. Grid Search, comma sep values:5,7
 
+    public int _max_leaves = 0; // Grow trees best-first up to this many leaves (still no deeper than _max_depth); 0 grows them level by level
+
     public double _min_rows = 10; // Fewest allowed observations in a leaf (in R called 'nodesize'). Grid Search, comma sep values
 
     public int _nbins = 20; // Numerical (real/int) cols: Build a histogram of this many bins, then split at the best point
@@ -58,6 +60,8 @@ public abstract class SharedTreeModel<
     public enum HistogramType { AUTO, UniformAdaptive, Random, QuantilesGlobal, RoundRobin }
     public HistogramType _histogram_type = HistogramType.AUTO; // What type of histogram to use for finding optimal split points
 
+    public boolean _prebin_features = false; // Bin numeric columns once up front (at most _nbins_top_level global bins), and histogram the bin indices
+
     public double _r2_stopping = Double.MAX_VALUE; // Stop when the r^2 metric equals or exceeds this value
 
     public int _nbins_top_level = 1<<10; //hardcoded maximum top-level number of bins for real-valued columns
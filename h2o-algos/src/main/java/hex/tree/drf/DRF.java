@@ -198,10 +198,10 @@ public class DRF extends SharedTree<hex.tree.drf.DRFModel, hex.tree.drf.DRFModel
         if( ss[k] != null ) ss[k].getResult();
 
       // ----
-      // One Big Loop till the ktrees are of proper depth.
+      // One Big Loop till the ktrees are of proper depth (or have max_leaves leaves).
       // Adds a layer to the trees each pass.
       int depth=0;
-      for( ; depth<_parms._max_depth; depth++ ) {
+      for( ; depth<maxPasses(); depth++ ) {
         hcs = buildLayer(_train, _parms._nbins, _parms._nbins_cats, ktrees, leafs, hcs, _parms._build_tree_one_node);
         // If we did not make any new splits, then the tree is split-to-death
         if( hcs == null ) break;
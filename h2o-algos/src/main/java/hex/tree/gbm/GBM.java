@@ -142,6 +142,16 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       error("_max_abs_leafnode_pred", "max_abs_leafnode_pred must be larger than 0.");
     if (_parms._pred_noise_bandwidth < 0)
       error("_pred_noise_bandwidth", "pred_noise_bandwidth must be >= 0.");
+    if (_parms._goss_top_rate != 0) {
+      if (!(0 < _parms._goss_top_rate && _parms._goss_top_rate < 1))
+        error("_goss_top_rate", "goss_top_rate must be between 0 and 1");
+      if (!(0 < _parms._goss_other_rate && _parms._goss_top_rate + _parms._goss_other_rate <= 1))
+        error("_goss_other_rate", "goss_other_rate must be larger than 0, and at most 1 together with goss_top_rate");
+      if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null)
+        error("_goss_top_rate", "GOSS sampling cannot be combined with sample_rate or sample_rate_per_class");
+      if (_parms._distribution == DistributionFamily.laplace || _parms._distribution == DistributionFamily.huber || _parms._distribution == DistributionFamily.quantile)
+        error("_goss_top_rate", "GOSS sampling is not supported for the " + _parms._distribution + " distribution");
+    }
   }
 
   // ----------------------
@@ -150,6 +160,12 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
 
     @Override protected boolean doOOBScoring() { return false; }
     @Override protected void initializeModelSpecifics() {
+      if (_parms._goss_top_rate > 0) { // Row weights of every tree, from its GOSS sample
+        String[] names = new String[_nclass];
+        for (int k = 0; k < _nclass; k++) names[k] = "GOSS_Weights_" + k;
+        _treeWeights = _response.makeVolatileDoubles(_nclass);
+        _train.add(names, _treeWeights);
+      }
       frameMap = new FrameMap(GBM.this);
       _mtry_per_tree = Math.max(1, (int)(_parms._col_sample_rate_per_tree * _ncols)); //per-tree
       if (!(1 <= _mtry_per_tree && _mtry_per_tree <= _ncols)) throw new IllegalArgumentException("Computed mtry_per_tree should be in interval <1,"+_ncols+"> but it is " + _mtry_per_tree);
@@ -409,7 +425,24 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       }
 
       // Sample - mark the lines by putting 'OUT_OF_BAG' into nid(<klass>) vector
-      if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null) {
+      if (_parms._goss_top_rate > 0) {
+        Vec weights = hasWeightCol() ? _weights : null;
+        GossSample.GradientHisto ghs[] = new GossSample.GradientHisto[_nclass];
+        for (int k = 0; k < _nclass; k++)
+          if (ktrees[k] != null)
+            ghs[k] = GossSample.gradients(_response, vec_work(_train, k), weights, _parms._build_tree_one_node);
+        GossSample gss[] = new GossSample[_nclass];
+        for (int k = 0; k < _nclass; k++)
+          if (ghs[k] != null)
+            gss[k] = GossSample.sample(ktrees[k], ghs[k], vec_nids(_train, k), _response, vec_work(_train, k), weights,
+                _treeWeights[k], _parms._goss_top_rate, _parms._goss_other_rate, _parms._build_tree_one_node);
+        for (int k = 0; k < _nclass; k++) {
+          if (gss[k] != null) {
+            GossSample gs = gss[k].getResult();
+            Log.info("GOSS sampled " + gs._top + " rows with large gradients and " + gs._other + " others for class " + k + ".");
+          }
+        }
+      } else if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null) {
         Sample ss[] = new Sample[_nclass];
         for (int k = 0; k < _nclass; k++)
           if (ktrees[k] != null)
@@ -426,10 +459,10 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
 
       // ----
       // ESL2, page 387.  Step 2b ii.
-      // One Big Loop till the ktrees are of proper depth.
+      // One Big Loop till the ktrees are of proper depth (or have max_leaves leaves).
       // Adds a layer to the trees each pass.
       int depth = 0;
-      for (; depth < _parms._max_depth; depth++) {
+      for (; depth < maxPasses(); depth++) {
         hcs = buildLayer(_train, _parms._nbins, _parms._nbins_cats, ktrees, leaves, hcs, _parms._build_tree_one_node);
         // If we did not make any new splits, then the tree is split-to-death
         if (hcs == null) break;
@@ -973,7 +1006,8 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
         final Chunk ress = chks[fm.work0Index + k];  // Residuals for this tree/class
         final Chunk offset = fm.offsetIndex >= 0 ? chks[fm.offsetIndex] : new C0DChunk(0, chks[0]._len);
         final Chunk preds = chks[fm.tree0Index + k];
-        final Chunk weights = fm.weightIndex >= 0 ? chks[fm.weightIndex] : new C0DChunk(1, chks[0]._len);
+        final Chunk weights = fm.treeWeights0Index >= 0 ? chks[fm.treeWeights0Index + k] : // GOSS sample weights
+            fm.weightIndex >= 0 ? chks[fm.weightIndex] : new C0DChunk(1, chks[0]._len);
 
         // If we have all constant responses, then we do not split even the
         // root and the residuals should be zero.
@@ -14,6 +14,8 @@ public class GBMModel extends SharedTreeModel<GBMModel, GBMModel.GBMParameters,
     public double _col_sample_rate;
     public double _max_abs_leafnode_pred;
     public double _pred_noise_bandwidth;
+    public double _goss_top_rate;   // GOSS sampling: fraction of rows with the largest gradients always kept, 0 to disable
+    public double _goss_other_rate; // GOSS sampling: fraction of rows sampled (and up-weighted) among the others
 
     public GBMParameters() {
       super();
@@ -25,6 +27,8 @@ public class GBMModel extends SharedTreeModel<GBMModel, GBMModel.GBMParameters,
       _max_depth = 5;
       _max_abs_leafnode_pred = Double.MAX_VALUE;
       _pred_noise_bandwidth =0;
+      _goss_top_rate = 0;
+      _goss_other_rate = 0.1;
     }
 
     public String algoName() { return "GBM"; }
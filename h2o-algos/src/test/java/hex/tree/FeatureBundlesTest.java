@@ -0,0 +1,199 @@
+package hex.tree;
+
+import hex.genmodel.utils.DistributionFamily;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.MRTask;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+/**
+ * The codes of the bundle Vecs of {@link FeatureBundles}: the column and
+ * global bin of the one non-zero column of each row, and NA where the row
+ * sample missed a conflict.  And their histograms: one per bundle per leaf,
+ * from which each column is split on as if histogrammed on its own.
+ */
+public class FeatureBundlesTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testOneHot() {
+    checkCodes(frame(20000, false), 0);
+  }
+
+  @Test public void testConflicts() {
+    // Odd rows are not in the sample (every 2nd row), so the conflicts there
+    // do not keep the columns apart
+    checkCodes(frame(20000, true), 20000 / 40);
+  }
+
+  // Bundle the columns of fr but the last, all into one bundle, and check the
+  // code of every row against the columns
+  private static void checkCodes(Frame fr, long nconflicts) {
+    int ncols = fr.numCols() - 1;
+    Key[] keys = new Key[ncols];
+    for (int i = 0; i < ncols; i++) keys[i] = Key.make();
+    Vec[] binned = null;
+    FeatureBundles fb = null;
+    try {
+      binned = FeatureBins.make(fr, ncols, 1024, keys);
+      fb = FeatureBundles.make(fr, ncols, binned);
+      assertNotNull(fb);
+      assertEquals(1, fb.numBundles());
+      assertEquals(ncols, fb.numBundled());
+      assertEquals(nconflicts, fb.conflicts());
+      Vec codes = fb.vecs()[0];
+      assertEquals(nconflicts, codes.naCnt());
+      for (long row = 0; row < fr.numRows(); row++) {
+        int nz = -1;
+        for (int m = 0; m < ncols; m++)
+          if (fr.vec(m).at(row) != 0) nz = nz == -1 ? m : -2;
+        if (nz == -2) {
+          assertTrue(codes.isNA(row));
+          continue;
+        }
+        assertTrue(nz >= 0);
+        int code = (int) codes.at8(row) - 1;
+        int m = fb.column(0, code);
+        assertEquals(nz, fb._cols[0][m]);
+        assertEquals(binned[nz].at8(row), code - fb._offsets[0][m]);
+      }
+    } finally {
+      if (fb != null) fb.remove();
+      if (binned != null) for (Vec v : binned) if (v != null) v.remove();
+      for (Key k : keys) k.remove();
+      fr.delete();
+    }
+  }
+
+  @Test public void testBundleHistograms() {
+    Frame fr = frame(20000, true);
+    int ncols = fr.numCols() - 1;
+    Key[] keys = new Key[ncols];
+    Key[] binnedKeys = new Key[ncols];
+    for (int i = 0; i < ncols; i++) keys[i] = Key.make();
+    Vec[] binned = null;
+    FeatureBundles fb = null;
+    Vec nids = null;
+    DTree tree = null;
+    try {
+      binned = FeatureBins.make(fr, ncols, 1024, keys);
+      for (int i = 0; i < ncols; i++) binnedKeys[i] = binned[i]._key;
+      fb = FeatureBundles.make(fr, ncols, binned);
+      assertEquals(1, fb.numBundles());
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._prebin_features = true;
+      tree = new DTree(fr, ncols, (char) 1, ncols, ncols, 0xDECAF, parms);
+      tree._bundles = fb;
+      DHistogram[] hs = DHistogram.initialHist(fr, ncols, 20, new DHistogram[ncols], 0xDECAF, parms, keys);
+      DTree.UndecidedNode root = new DTree.UndecidedNode(tree, DTree.NO_PARENT, hs);
+      nids = fr.anyVec().makeVolatileInts(new int[]{0})[0];
+      Frame fr2 = new Frame(fr.names(), fr.vecs());
+      fr2.add("nids", nids);
+
+      // The root: one histogram for the bundle, none for its columns
+      ScoreBuildHistogram sbh = histogram(tree, 0, new DHistogram[][]{hs}, fr2, binnedKeys, fb);
+      BundleHistogram[][] bhs = ((ScoreBuildHistogram2) sbh).bundleHistograms();
+      assertEquals(1, bhs.length);
+      assertEquals(fb.numBundles(), bhs[0].length);
+      assertNotNull(bhs[0][0]);
+      assertEquals(fb.ncodes(0), bhs[0][0]._ncodes);
+      assertEquals(fr.numRows(), bhs[0][0]._w, 0);
+      for (int c = 0; c < ncols; c++) assertNull(sbh._hcs[0][c]._vals);
+      root._bhs = bhs[0];
+      checkColumns(tree, root, fr, binned, nids);
+
+      // Split the root, and derive the bigger child's bundle from the smaller one's
+      DTree.DecidedNode dn = new DTree.DecidedNode(root, sbh._hcs[0]);
+      assertNotNull(dn._split);
+      for (int c = 0; c < ncols; c++) assertNull(hs[c]._vals); // Filled just to split
+      int small = dn._split._n0 <= dn._split._n1 ? dn._nids[0] : dn._nids[1];
+      int big = dn._nids[0] + dn._nids[1] - small;
+      assertTrue(tree.undecided(big).isDerived());
+      DHistogram[][] hcs = new DHistogram[2][];
+      for (int n = 1; n <= 2; n++) hcs[n - 1] = tree.undecided(n).histosToBuild();
+      sbh = histogram(tree, 1, hcs, fr2, binnedKeys, fb);
+      bhs = ((ScoreBuildHistogram2) sbh).bundleHistograms();
+      assertEquals(2, bhs.length);
+      assertNotNull(bhs[small - 1][0]);
+      assertNull(bhs[big - 1][0]);
+      for (int n = 1; n <= 2; n++) tree.undecided(n)._bhs = bhs[n - 1];
+      tree.undecided(big).derive(sbh._hcs[big - 1], sbh._hcs[small - 1]);
+      tree.releaseRetained();
+      assertNotNull(tree.undecided(big)._bhs[0]);
+      assertEquals(fr.numRows(), tree.undecided(small)._bhs[0]._w + tree.undecided(big)._bhs[0]._w, 1e-6);
+      checkColumns(tree, tree.undecided(small), fr, binned, nids);
+      checkColumns(tree, tree.undecided(big), fr, binned, nids);
+    } finally {
+      if (tree != null) tree.releaseRetained();
+      if (nids != null) nids.remove();
+      if (fb != null) fb.remove();
+      if (binned != null) for (Vec v : binned) if (v != null) v.remove();
+      for (Key k : keys) k.remove();
+      fr.delete();
+    }
+  }
+
+  // Histogram the leaves from the given one on, with the response as the work column
+  private static ScoreBuildHistogram histogram(DTree tree, int leaf, DHistogram[][] hcs, Frame fr2, Key[] binnedKeys, FeatureBundles fb) {
+    int ncols = binnedKeys.length;
+    return new ScoreBuildHistogram2(null, 0, ncols, 20, 20, tree, leaf, hcs, DistributionFamily.gaussian, -1, ncols, ncols + 1)
+        .withBinned(binnedKeys).withBundles(fb).dfork2(null, fr2, false).getResult();
+  }
+
+  // The histograms of the columns of a leaf, as filled from its bundle to
+  // split on, against the same histograms built from the rows of the leaf
+  private static void checkColumns(DTree tree, DTree.UndecidedNode udn, Frame fr, Vec[] binned, Vec nids) {
+    int ncols = binned.length;
+    DHistogram[] expected = new DHistogram[ncols];
+    for (int c = 0; c < ncols; c++) {
+      if (udn._hs[c] == null) continue;
+      expected[c] = (DHistogram) udn._hs[c].clone();
+      expected[c].init();
+    }
+    Vec y = fr.vec(ncols);
+    for (long row = 0; row < fr.numRows(); row++) {
+      if (nids.at8(row) != udn.nid()) continue;
+      double yr = y.at(row);
+      for (int c = 0; c < ncols; c++)
+        if (expected[c] != null) expected[c].addRowBinned((int) binned[c].at8(row), 1, yr, yr * yr);
+    }
+    tree.fillBundled(udn, udn._hs);
+    try {
+      for (int c = 0; c < ncols; c++) {
+        if (expected[c] == null) continue;
+        assertNotNull(udn._hs[c]._vals);
+        assertArrayEquals(expected[c]._vals, udn._hs[c]._vals, 1e-6);
+      }
+    } finally {
+      tree.freeBundled(udn, udn._hs);
+    }
+  }
+
+  // 3 sparse columns, non-zero in turn every 20 rows, and a response; with
+  // conflicts, the 1st column is non-zero too every 40 rows from the 2nd
+  private static Frame frame(int nrows, final boolean conflicts) {
+    Vec v = Vec.makeZero(nrows);
+    try {
+      return new MRTask() {
+        @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+          for (int r = 0; r < cs[0]._len; r++) {
+            long row = cs[0].start() + r;
+            ncs[0].addNum(row % 20 == 0 || (conflicts && row % 40 == 1) ? 1 + row % 3 : 0);
+            ncs[1].addNum(row % 20 == 1 ? 2 : 0);
+            ncs[2].addNum(row % 20 == 2 ? 5 : 0);
+            ncs[3].addNum(row % 7);
+          }
+        }
+      }.doAll(4, Vec.T_NUM, new Frame(v)).outputFrame(Key.<Frame>make(), new String[]{"a", "b", "c", "y"}, null);
+    } finally {
+      v.remove();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package hex.tree;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * The gradient bins of {@link GossSample}, and the threshold and chance of
+ * keeping the other rows chosen from their counts.
+ */
+public class GossSampleTest {
+  private static final int NBINS = GossSample.GradientHisto.NBINS;
+
+  @Test public void testBins() {
+    assertEquals(0, GossSample.GradientHisto.bin(0));
+    assertEquals(0, GossSample.GradientHisto.bin(Double.NaN));
+    assertEquals(0, GossSample.GradientHisto.bin(Math.scalb(1.0, -70)));
+    assertEquals(1, GossSample.GradientHisto.bin(Math.scalb(1.0, -64)));
+    assertEquals(1 + 64 * 8, GossSample.GradientHisto.bin(1));
+    assertEquals(1 + 64 * 8 + 4, GossSample.GradientHisto.bin(1.5));
+    assertEquals(1 + 65 * 8, GossSample.GradientHisto.bin(2));
+    assertEquals(NBINS - 2, GossSample.GradientHisto.bin(Math.nextAfter(Math.scalb(1.0, 64), 0)));
+    assertEquals(NBINS - 1, GossSample.GradientHisto.bin(Math.scalb(1.0, 64)));
+    assertEquals(NBINS - 1, GossSample.GradientHisto.bin(Double.POSITIVE_INFINITY));
+
+    // Each bin starts at its lower bound, and ends where the next one starts
+    assertEquals(0, GossSample.GradientHisto.lower(0), 0);
+    for (int b = 1; b < NBINS; b++) {
+      double lo = GossSample.GradientHisto.lower(b);
+      assertTrue(lo > GossSample.GradientHisto.lower(b - 1));
+      assertEquals(b, GossSample.GradientHisto.bin(lo));
+      assertEquals(b - 1, GossSample.GradientHisto.bin(Math.nextAfter(lo, 0)));
+    }
+    Random rand = new Random(0xDECAF);
+    for (int i = 0; i < 10000; i++) {
+      double a = Math.abs(rand.nextGaussian()) * Math.scalb(1.0, rand.nextInt(100) - 50);
+      int b = GossSample.GradientHisto.bin(a);
+      assertTrue(GossSample.GradientHisto.lower(b) <= a);
+      assertTrue(a < GossSample.GradientHisto.lower(b + 1));
+    }
+  }
+
+  @Test public void testThreshold() {
+    long[] counts = new long[NBINS];
+    counts[600] = 50;
+    counts[500] = 30;
+    counts[100] = 20;
+    // Whole bins from the top, until there are enough rows
+    assertEquals(NBINS, GossSample.topBin(counts, 0));
+    assertEquals(600, GossSample.topBin(counts, 0.1));
+    assertEquals(600, GossSample.topBin(counts, 0.5));
+    assertEquals(500, GossSample.topBin(counts, 0.51));
+    assertEquals(100, GossSample.topBin(counts, 0.9));
+    assertEquals(100, GossSample.topBin(counts, 1));
+    // The others are kept so as to sum to otherRate of all the rows
+    assertEquals(0.1, GossSample.otherChance(counts, NBINS, 0.1), 1e-12);
+    assertEquals(0.2, GossSample.otherChance(counts, 600, 0.1), 1e-12);
+    assertEquals(0.5, GossSample.otherChance(counts, 500, 0.1), 1e-12);
+    assertEquals(1, GossSample.otherChance(counts, 500, 0.3), 0);
+    assertEquals(1, GossSample.otherChance(counts, 0, 0.1), 0);
+    assertEquals(1, GossSample.otherChance(new long[NBINS], NBINS, 0.1), 0);
+  }
+}
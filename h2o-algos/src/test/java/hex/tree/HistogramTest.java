@@ -1,9 +1,12 @@
 package hex.tree;
 
+import hex.tree.gbm.GBMModel;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import water.*;
+import water.fvec.Chunk;
+import water.fvec.NewChunk;
 import water.util.*;
 
 import java.util.Arrays;
@@ -153,6 +156,134 @@ public class HistogramTest extends TestUtil {
       k.remove();
     }
   }
+  @Test public void testSubtraction() {
+    int G = 64;
+    double[] edges = new double[G + 1];
+    for (int g = 0; g <= G; ++g) edges[g] = 100. * g / G;
+    Key k = Key.make();
+    DKV.put(new DHistogram.HistoQuantiles(k, edges));
+    try {
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._prebin_features = true;
+      DHistogram parent = DHistogram.make("x", G, (byte) 0, 0, 100, 1234, parms, k);
+      DHistogram left = DHistogram.make("x", G / 2, (byte) 0, 0, 30, 1234, parms, k);
+      DHistogram right = DHistogram.make("x", G / 2, (byte) 0, 30, 100, 1234, parms, k);
+      DHistogram derived = DHistogram.make("x", G / 2, (byte) 0, 30, 100, 1234, parms, k);
+      Assert.assertTrue(derived.canSubtract(parent, left));
+      Assert.assertFalse(left.canSubtract(parent, right)); // Bins of the left child are finer
+
+      int N = 10000;
+      Random rng = new Random(0xDECAF);
+      double[] ws = new double[N], ys = new double[N];
+      int[] gs = new int[N], all = new int[N], rowsL = new int[N], rowsR = new int[N];
+      int nl = 0, nr = 0;
+      for (int i = 0; i < N; ++i) {
+        double x = rng.nextDouble() * 100;
+        ws[i] = rng.nextInt(3) * 0.5;
+        ys[i] = rng.nextGaussian();
+        gs[i] = i % 100 == 0 ? -1 : FeatureBins.bin(edges, x);
+        all[i] = i;
+        if (gs[i] >= 0 && x < 30) rowsL[nl++] = i;
+        else rowsR[nr++] = i;
+      }
+      parent.init();
+      parent.updateHistoBinned(ws, gs, ys, all, N, 0);
+      left.init();
+      left.updateHistoBinned(ws, gs, ys, rowsL, nl, 0);
+      right.init();
+      right.updateHistoBinned(ws, gs, ys, rowsR, nr, 0);
+      derived.subtract(parent, left);
+
+      Assert.assertEquals(right.nbins(), derived.nbins());
+      for (int b = 0; b <= right.nbins(); ++b) { // With the NAs
+        Assert.assertEquals(right.w(b), derived.w(b), 1e-8);
+        Assert.assertEquals(right.wY(b), derived.wY(b), 1e-8);
+        Assert.assertEquals(right.wYY(b), derived.wYY(b), 1e-8);
+      }
+      Assert.assertEquals(right.find_min(), derived.find_min(), 0);
+      Assert.assertEquals(right.find_maxIn(), derived.find_maxIn(), 0);
+    } finally {
+      k.remove();
+    }
+  }
+
+  // A sparse chunk histogrammed as ScoreBuildHistogram2 does, its stored rows
+  // one at a time and then its zeros all at once from the totals of the leaf,
+  // gives the same histogram as all its rows in turn
+  @Test public void testSparseAccumulation() {
+    int G = 64;
+    double[] edges = new double[G + 1];
+    for (int g = 0; g <= G; ++g) edges[g] = -50 + 100. * g / G;
+    Key k = Key.make();
+    DKV.put(new DHistogram.HistoQuantiles(k, edges));
+    try {
+      int N = 10000;
+      Random rng = new Random(0xDECAF);
+      NewChunk nc = new NewChunk(null, 0);
+      double[] ws = new double[N], ys = new double[N];
+      int[] all = new int[N];
+      for (int i = 0; i < N; ++i) {
+        int r = rng.nextInt(40);
+        if (r == 0) nc.addNA();
+        else if (r < 3) nc.addNum(rng.nextDouble() * 100 - 50);
+        else nc.addNum(0);
+        ws[i] = rng.nextInt(3) * 0.5;
+        ys[i] = rng.nextGaussian();
+        all[i] = i;
+      }
+      Chunk chk = nc.compress();
+      Assert.assertTrue(ScoreBuildHistogram2.isSparse(chk));
+      double[] cs = new double[N];
+      chk.getDoubles(cs, 0, N);
+      int[] gs = new int[N];
+      for (int i = 0; i < N; ++i) gs[i] = Double.isNaN(cs[i]) ? -1 : FeatureBins.bin(edges, cs[i]);
+
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      for (boolean prebinned : new boolean[]{false, true}) {
+        parms._prebin_features = prebinned;
+        DHistogram dense = DHistogram.make("x", G / 4, (byte) 0, -50, 50, 1234, parms, k);
+        dense.init();
+        if (prebinned) dense.updateHistoBinned(ws, gs, ys, all, N, 0);
+        else dense.updateHisto(ws, cs, ys, all, N, 0);
+
+        DHistogram sparse = DHistogram.make("x", G / 4, (byte) 0, -50, 50, 1234, parms, k);
+        sparse.init();
+        double w = 0, wy = 0, wyy = 0;
+        for (int i = 0; i < N; ++i) {
+          w += ws[i];
+          wy += ws[i] * ys[i];
+          wyy += ws[i] * ys[i] * ys[i];
+        }
+        double[] vals = new double[N];
+        int[] ids = new int[N];
+        int nz = chk.getSparseDoubles(vals, ids);
+        Assert.assertEquals(chk.sparseLenZero(), nz);
+        for (int j = 0; j < nz; ++j) {
+          int i = ids[j];
+          if (ws[i] == 0) continue;
+          double rwy = ws[i] * ys[i];
+          if (prebinned) sparse.addRowBinned(gs[i], ws[i], rwy, rwy * ys[i]);
+          else sparse.addRow(vals[j], ws[i], rwy, rwy * ys[i]);
+          w -= ws[i];
+          wy -= rwy;
+          wyy -= rwy * ys[i];
+        }
+        sparse.addZeros(w, wy, wyy);
+
+        Assert.assertEquals(dense.nbins(), sparse.nbins());
+        for (int b = 0; b <= dense.nbins(); ++b) { // With the NAs
+          Assert.assertEquals(dense.w(b), sparse.w(b), 1e-8);
+          Assert.assertEquals(dense.wY(b), sparse.wY(b), 1e-8);
+          Assert.assertEquals(dense.wYY(b), sparse.wYY(b), 1e-8);
+        }
+        Assert.assertEquals(dense.find_min(), sparse.find_min(), 0);
+        Assert.assertEquals(dense.find_maxIn(), sparse.find_maxIn(), 0);
+      }
+    } finally {
+      k.remove();
+    }
+  }
+
   @Test public void testUniformAdaptiveRange() {
     int nbins = 13;
     int nbins_cats = nbins;
@@ -2,6 +2,9 @@ package hex.tree.gbm;
 
 import hex.*;
 import hex.genmodel.utils.DistributionFamily;
+import hex.tree.DTree;
+import hex.tree.GossSample;
+import hex.tree.ScoreBuildHistogram2;
 import hex.tree.SharedTreeModel;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -12,6 +15,7 @@ import water.api.StreamingSchema;
 import water.exceptions.H2OModelBuilderIllegalArgumentException;
 import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.NewChunk;
 import water.fvec.RebalanceDataSet;
 import water.fvec.Vec;
 import water.parser.ParseDataset;
@@ -29,6 +33,8 @@ import java.util.TreeMap;
 import static hex.genmodel.utils.DistributionFamily.*;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static water.fvec.FVecTest.makeByteVec;
 
@@ -2009,6 +2015,255 @@ public class GBMTest extends TestUtil {
     }
   }
 
+  @Test public void testPrebinFeatures() {
+    Frame tfr = null;
+    Key[] ksplits = null;
+    GBMModel gbm = null;
+    try {
+      Scope.enter();
+      tfr = parse_test_file("smalldata/covtype/covtype.20k.data");
+      int resp = 54;
+      Scope.track(tfr.replace(resp, tfr.vecs()[resp].toCategoricalVec()));
+      DKV.put(tfr);
+      SplitFrame sf = new SplitFrame(tfr, new double[]{0.5, 0.5}, new Key[]{Key.make("train.hex"), Key.make("valid.hex")});
+      sf.exec().get();
+      ksplits = sf._destination_frames;
+      SharedTreeModel.SharedTreeParameters.HistogramType[] histoType = {
+          SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive,
+          SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal };
+      for (SharedTreeModel.SharedTreeParameters.HistogramType ht : histoType) {
+        double[] loglosses = new double[2];
+        for (int i = 0; i < 2; ++i) {
+          GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+          parms._train = ksplits[0];
+          parms._valid = ksplits[1];
+          parms._response_column = tfr.names()[resp];
+          parms._learn_rate = 0.05f;
+          parms._histogram_type = ht;
+          parms._prebin_features = i == 1;
+          parms._ntrees = 10;
+          parms._score_tree_interval = parms._ntrees;
+          parms._max_depth = 5;
+          parms._seed = 0xDECAFFEE;
+
+          gbm = new GBM(parms).trainModel().get();
+          loglosses[i] = gbm._output._scored_valid[gbm._output._scored_valid.length - 1]._logloss;
+          gbm.delete();
+          gbm = null;
+        }
+        Log.info("histoType: " + ht + " -> validation logloss: " + loglosses[0] + ", pre-binned: " + loglosses[1]);
+        assertEquals(loglosses[0], loglosses[1], 0.05 * loglosses[0]);
+      }
+    } finally {
+      if (gbm!=null) gbm.delete();
+      if (tfr!=null) tfr.delete();
+      if (ksplits[0]!=null) ksplits[0].remove();
+      if (ksplits[1]!=null) ksplits[1].remove();
+      Scope.exit();
+    }
+  }
+
+  @Test public void testMaxLeaves() {
+    Frame tfr = null;
+    Key[] ksplits = null;
+    GBMModel gbm = null;
+    try {
+      Scope.enter();
+      tfr = parse_test_file("smalldata/covtype/covtype.20k.data");
+      int resp = 54;
+      Scope.track(tfr.replace(resp, tfr.vecs()[resp].toCategoricalVec()));
+      DKV.put(tfr);
+      SplitFrame sf = new SplitFrame(tfr, new double[]{0.5, 0.5}, new Key[]{Key.make("train.hex"), Key.make("valid.hex")});
+      sf.exec().get();
+      ksplits = sf._destination_frames;
+      for (boolean prebin : new boolean[]{false, true}) {
+        double[] loglosses = new double[2];
+        for (int i = 0; i < 2; ++i) {
+          GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+          parms._train = ksplits[0];
+          parms._valid = ksplits[1];
+          parms._response_column = tfr.names()[resp];
+          parms._learn_rate = 0.05f;
+          parms._prebin_features = prebin;
+          parms._ntrees = 10;
+          parms._score_tree_interval = parms._ntrees;
+          parms._max_depth = i == 0 ? 4 : 10; // Level by level, or best-first to as many leaves
+          parms._max_leaves = i == 0 ? 0 : 16;
+          parms._seed = 0xDECAFFEE;
+
+          gbm = new GBM(parms).trainModel().get();
+          loglosses[i] = gbm._output._scored_valid[gbm._output._scored_valid.length - 1]._logloss;
+          if (i == 1) assertTrue(gbm._output._treeStats._max_leaves <= 16);
+          gbm.delete();
+          gbm = null;
+        }
+        Log.info("prebin: " + prebin + " -> validation logloss depth 4: " + loglosses[0] + ", 16 leaves best-first: " + loglosses[1]);
+        assertTrue(loglosses[1] < 1.05 * loglosses[0]);
+      }
+    } finally {
+      if (gbm!=null) gbm.delete();
+      if (tfr!=null) tfr.delete();
+      if (ksplits[0]!=null) ksplits[0].remove();
+      if (ksplits[1]!=null) ksplits[1].remove();
+      Scope.exit();
+    }
+  }
+
+  // One-hot columns: sparse, and never non-zero together, so pre-binned they
+  // are bundled; the trees should be the same as without pre-binning.  Then
+  // the same with some rows of two non-zero columns, which the row sample of
+  // the bundling does not see: they are histogrammed from the columns.
+  @Test public void testSparseBundles() {
+    Frame fr = null;
+    GBMModel gbm = null;
+    try {
+      Scope.enter();
+      final int ncats = 40;
+      for (boolean conflicts : new boolean[]{false, true}) {
+        fr = oneHot(ncats, 20000, conflicts);
+        // Both runs histogram the columns from their non-zeros
+        for (int j = 0; j < ncats; j++)
+          for (int c = 0; c < fr.vec(j).nChunks(); c++)
+            assertTrue(ScoreBuildHistogram2.isSparse(fr.vec(j).chunkForChunkIdx(c)));
+        double[] mses = new double[2];
+        for (int i = 0; i < 2; ++i) {
+          GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+          parms._train = fr._key;
+          parms._response_column = "y";
+          parms._ntrees = 10;
+          parms._max_depth = 5;
+          parms._prebin_features = i == 1;
+          parms._seed = 0xDECAFFEE;
+
+          GBM job = new GBM(parms);
+          gbm = job.trainModel().get();
+          mses[i] = gbm._output._training_metrics.mse();
+          gbm.delete();
+          gbm = null;
+          if (i == 0) assertNull(job.bundles());
+          else {
+            assertNotNull(job.bundles());
+            assertEquals(ncats, job.bundles().numBundled());
+            assertEquals(conflicts ? 20000 / 40 : 0, job.bundles().conflicts());
+          }
+        }
+        Log.info("training MSE: " + mses[0] + ", pre-binned and bundled: " + mses[1] + (conflicts ? ", with conflicts" : ""));
+        assertEquals(mses[0], mses[1], 1e-3 * mses[0]);
+        fr.delete();
+        fr = null;
+      }
+    } finally {
+      if (gbm!=null) gbm.delete();
+      if (fr!=null) fr.delete();
+      Scope.exit();
+    }
+  }
+
+  // ncats one-hot columns and a response; with conflicts, every 40th row from
+  // the 2nd on (odd rows, which the bundling sample skips) has the next column
+  // non-zero too
+  private static Frame oneHot(final int ncats, int nrows, final boolean conflicts) {
+    String[] names = new String[ncats + 1];
+    for (int j = 0; j < ncats; j++) names[j] = "C" + j;
+    names[ncats] = "y";
+    Vec v = Scope.track(Vec.makeZero(nrows));
+    Frame fr = new MRTask() {
+      @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+        for (int r = 0; r < cs[0]._len; r++) {
+          long row = cs[0].start() + r;
+          int c = (int) ((row * 2654435761L) % ncats);
+          int c2 = conflicts && row % 40 == 1 ? (c + 1) % ncats : c;
+          for (int j = 0; j < ncats; j++) ncs[j].addNum(j == c || j == c2 ? 1 : 0);
+          ncs[ncats].addNum(c % 7 + 0.5 * (c2 % 3) + (row * 7919 % 100) / 100.0);
+        }
+      }
+    }.doAll(ncats + 1, Vec.T_NUM, new Frame(v)).outputFrame(Key.<Frame>make("sparse.hex"), names, null);
+    DKV.put(fr);
+    return fr;
+  }
+
+  @Test public void testGOSS() {
+    Frame tfr = null;
+    Key[] ksplits = null;
+    GBMModel gbm = null;
+    try {
+      Scope.enter();
+      tfr = parse_test_file("smalldata/covtype/covtype.20k.data");
+      int resp = 54;
+      Scope.track(tfr.replace(resp, tfr.vecs()[resp].toCategoricalVec()));
+      DKV.put(tfr);
+      SplitFrame sf = new SplitFrame(tfr, new double[]{0.5, 0.5}, new Key[]{Key.make("train.hex"), Key.make("valid.hex")});
+      sf.exec().get();
+      ksplits = sf._destination_frames;
+      double[] loglosses = new double[2];
+      for (int i = 0; i < 2; ++i) {
+        GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+        parms._train = ksplits[0];
+        parms._valid = ksplits[1];
+        parms._response_column = tfr.names()[resp];
+        parms._learn_rate = 0.05f;
+        parms._goss_top_rate = i == 1 ? 0.2 : 0;
+        parms._goss_other_rate = 0.1;
+        parms._ntrees = 10;
+        parms._score_tree_interval = parms._ntrees;
+        parms._max_depth = 5;
+        parms._seed = 0xDECAFFEE;
+
+        gbm = new GBM(parms).trainModel().get();
+        loglosses[i] = gbm._output._scored_valid[gbm._output._scored_valid.length - 1]._logloss;
+        gbm.delete();
+        gbm = null;
+      }
+      Log.info("validation logloss: " + loglosses[0] + ", GOSS: " + loglosses[1]);
+      assertEquals(loglosses[0], loglosses[1], 0.1 * loglosses[0]);
+
+      // The rows kept for one tree, with the centered elevation for gradients
+      Frame train = DKV.getGet(ksplits[0]);
+      Vec y = train.vec(resp);
+      final double mean = train.vec(0).mean();
+      Vec g = Scope.track(new MRTask() {
+        @Override public void map(Chunk c, NewChunk nc) {
+          for (int row = 0; row < c._len; row++) nc.addNum(c.atd(row) - mean);
+        }
+      }.doAll(Vec.T_NUM, train.vec(0)).outputFrame().anyVec());
+      Vec nids = Scope.track(y.makeVolatileInts(new int[]{0})[0]);
+      Vec tw = Scope.track(y.makeVolatileDoubles(1)[0]);
+      DTree tree = new DTree(train, train.numCols() - 1, (char) y.cardinality(), 1, 1, 0xDECAFFEE, new GBMModel.GBMParameters());
+      GossSample gs = GossSample.sample(tree, GossSample.gradients(y, g, null, false), nids, y, g, null, tw, 0.2, 0.1, false).getResult();
+      long n = train.numRows();
+      Log.info("GOSS kept " + gs._top + " top and " + gs._other + " other rows of " + n);
+      assertTrue(gs._top >= 0.2 * n);
+      assertTrue(gs._top < 0.3 * n); // Over by at most a bin, an 8th of an octave
+      assertEquals(0.1 * n, gs._other, 0.02 * n);
+      // Rows left out weigh 0, the others stand for them
+      TreeWeights tws = new TreeWeights().doAll(tw);
+      assertEquals(gs._top + gs._other, tws._kept);
+      assertEquals(n, tws._sum, 0.1 * n);
+    } finally {
+      if (gbm!=null) gbm.delete();
+      if (tfr!=null) tfr.delete();
+      if (ksplits[0]!=null) ksplits[0].remove();
+      if (ksplits[1]!=null) ksplits[1].remove();
+      Scope.exit();
+    }
+  }
+
+  private static class TreeWeights extends MRTask<TreeWeights> {
+    long _kept;
+    double _sum;
+    @Override public void map(Chunk c) {
+      for (int row = 0; row < c._len; row++) {
+        double w = c.atd(row);
+        if (w != 0) _kept++;
+        _sum += w;
+      }
+    }
+    @Override public void reduce(TreeWeights tw) {
+      _kept += tw._kept;
+      _sum += tw._sum;
+    }
+  }
+
   // PUBDEV-2822
   @Test public void testNA() {
     String xy = ",0\n1,0\n2,0\n3,0\n4,-10\n,0";
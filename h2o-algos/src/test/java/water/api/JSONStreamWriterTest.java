@@ -0,0 +1,102 @@
+package water.api;
+
+import hex.tree.gbm.GBM;
+import hex.tree.gbm.GBMModel;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.AutoBuffer;
+import water.DKV;
+import water.H2O;
+import water.Job;
+import water.Key;
+import water.TestUtil;
+import water.api.schemas3.*;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * The schemas served a page at a time (see {@link StreamsJSON}) must give the
+ * same JSON as when built whole, including the responses longer than a page.
+ */
+public class JSONStreamWriterTest extends TestUtil {
+  @BeforeClass public static void setup() {
+    stall_till_cloudsize(1);
+    H2O.finalizeRegistration();
+  }
+
+  @Test public void testFrames() {
+    Frame fr = parse_test_file(Key.make("iris.hex"), "smalldata/iris/iris_wheader.csv");
+    Frame wide = null;
+    try {
+      assertSameJSON(new FramesHandler().list(3, new FramesV3()));
+      assertSameJSON(new FramesHandler().fetch(3, frames(fr)));
+      assertSameJSON(new FramesHandler().summary(3, frames(fr)));
+      // A summary of many pages, as it is streamed a buffer at a time
+      wide = new Frame(Key.<Frame>make("wide.hex"), null, Vec.makeZero(100).makeCons(2000, 0, null, null));
+      DKV.put(wide);
+      FramesV3 s = new FramesHandler().summary(3, frames(wide));
+      assertTrue(s.toJsonString().length() > 4 * AutoBuffer.TCP_BUF_SIZ);
+      assertSameJSON(s);
+    } finally {
+      fr.delete();
+      if (wide != null) wide.delete();
+    }
+  }
+
+  @Test public void testJobsAndModels() {
+    Frame fr = parse_test_file(Key.make("iris.hex"), "smalldata/iris/iris_wheader.csv");
+    GBMModel gbm = null;
+    try {
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = fr._key;
+      parms._response_column = "class";
+      parms._ntrees = 3;
+      Job<GBMModel> job = new GBM(parms).trainModel();
+      gbm = job.get();
+
+      assertSameJSON(new JobsHandler().list(3, new JobsV3()));
+      JobsV3 js = new JobsV3();
+      js.job_id = new KeyV3.JobKeyV3(job._key);
+      assertSameJSON(new JobsHandler().fetch(3, js));
+
+      assertSameJSON(new ModelsHandler().list(3, new ModelsV3()));
+      ModelsV3 ms = new ModelsV3();
+      ms.model_id = new KeyV3.ModelKeyV3(gbm._key);
+      assertSameJSON(new ModelsHandler().fetch(3, ms));
+    } finally {
+      fr.delete();
+      if (gbm != null) gbm.delete();
+    }
+  }
+
+  @Test public void testRapids() {
+    Frame fr = parse_test_file(Key.make("iris.hex"), "smalldata/iris/iris_wheader.csv");
+    try {
+      RapidsSchemaV3 rs = new RapidsSchemaV3();
+      rs.ast = "(ncol iris.hex)";
+      RapidsSchemaV3 res = new RapidsHandler().exec(3, rs);
+      assertTrue(res instanceof RapidsNumberV3);
+      assertSameJSON(res);
+      assertSameJSON(new RapidsFrameV3(fr));
+    } finally {
+      fr.delete();
+    }
+  }
+
+  private static FramesV3 frames(Frame fr) {
+    FramesV3 s = new FramesV3();
+    s.frame_id = new KeyV3.FrameKeyV3(fr._key);
+    return s;
+  }
+
+  private static void assertSameJSON(Schema s) {
+    assertTrue(s instanceof StreamsJSON);
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    new JSONStreamWriter(s).writeTo(os);
+    assertEquals(s.toJsonString(), new String(os.toByteArray()));
+  }
+}
@@ -94,6 +94,47 @@ public class ChunkBench {
     return sum;
   }
 
+  @Benchmark
+  public double colsRowsWithDecode() {
+    double sum = 0;
+    double [] vals = new double[chunks[0]._len];
+    for (int col = 0; col < cols; ++col) {
+      chunks[col].decode(vals, null, 0, rows);
+      for (int i = 0; i < rows; ++i)
+        sum += vals[i];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double colsRowsWithDecodeNAs() {
+    double sum = 0;
+    double [] vals = new double[chunks[0]._len];
+    long [] nas = new long[(chunks[0]._len + 63) >> 6];
+    for (int col = 0; col < cols; ++col) {
+      if (chunks[col].decode(vals, nas, 0, rows) == 0) {
+        for (int i = 0; i < rows; ++i)
+          sum += vals[i];
+      } else {
+        for (int i = 0; i < rows; ++i)
+          if (!Chunk.isNA(nas, i)) sum += vals[i];
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long colsRowsWithDecodeLongs() {
+    long sum = 0;
+    long [] vals = new long[chunks[0]._len];
+    for (int col = 0; col < cols; ++col) {
+      chunks[col].decode(vals, null, 0, rows);
+      for (int i = 0; i < rows; ++i)
+        sum += vals[i];
+    }
+    return sum;
+  }
+
   @Benchmark
   public double colsRowsReadWithFinalChunk() {
     double sum = 0;
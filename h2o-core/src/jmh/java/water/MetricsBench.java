@@ -0,0 +1,69 @@
+package water;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.util.AtomicHistogram;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the always-on {@link Metrics} histograms: a bare record, a record
+ * from several threads into the same histogram, the per-peer lookup and
+ * record done on each message, and the queue wait timing of a task submitted
+ * to a pool next to the same submission without it.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBench {
+
+  private final AtomicHistogram hist = new AtomicHistogram();
+  private ForkJoinPool pool;
+  private long v;
+
+  @Setup
+  public void setup() { pool = new ForkJoinPool(1); }
+
+  @TearDown
+  public void tearDown() { pool.shutdown(); }
+
+  @Benchmark
+  public void record() { hist.record(v++ & 0xFFFF); }
+
+  @Benchmark
+  @Threads(4)
+  public void recordContended() { hist.record(System.identityHashCode(this) & 0xFFFF); }
+
+  @Benchmark
+  public void recordQueueWait() { Metrics.recordQueueWait(H2O.MIN_PRIORITY, v++ & 0xFFFF); }
+
+  @Benchmark
+  public void submitBare() throws ExecutionException, InterruptedException {
+    pool.submit(new Runnable() { @Override public void run() { } }).get();
+  }
+
+  @Benchmark
+  public void submitTimed() throws ExecutionException, InterruptedException {
+    final long submitted = System.nanoTime();
+    pool.submit(new Runnable() {
+      @Override public void run() { Metrics.recordQueueWait(H2O.MIN_PRIORITY, System.nanoTime() - submitted); }
+    }).get();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(MetricsBench.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
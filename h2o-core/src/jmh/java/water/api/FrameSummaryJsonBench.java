@@ -0,0 +1,115 @@
+package water.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import water.DKV;
+import water.H2O;
+import water.Key;
+import water.api.schemas3.FramesV3;
+import water.api.schemas3.KeyV3;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory of the JSON of a wide Frame summary (/3/Frames/{frame_id}/summary), built into a String as before, or
+ * streamed to the response.  With the GC profiler, gc.alloc.rate.norm is the bytes allocated per response; that is
+ * churn, not footprint, so main() first prints the peak heap held while writing one response of each kind: the heap
+ * still live after a full collection at each write to the socket, above what was live before.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FrameSummaryJsonBench {
+
+  @Param({"10000"})
+  private int cols;
+
+  private Frame frame;
+  private FramesV3 summary;
+
+  @Setup
+  public void setup() {
+    H2O.main(new String[]{"-name", "FrameSummaryJsonBench"});
+    H2O.waitForCloudSize(1, 30000);
+    Vec[] vecs = Vec.makeZero(1000).makeCons(cols, 0, null, null);
+    String[] names = new String[cols];
+    for (int i = 0; i < cols; i++) names[i] = "C" + (i + 1);
+    frame = new Frame(Key.<Frame>make(), names, vecs);
+    DKV.put(frame);
+    FramesV3 s = new FramesV3();
+    s.frame_id = new KeyV3.FrameKeyV3(frame._key);
+    s.row_count = 10;
+    summary = new FramesHandler().summary(3, s);
+  }
+
+  @TearDown
+  public void tearDown() {
+    frame.remove();
+  }
+
+  @Benchmark
+  public int jsonString() { return writeString(new CountingOutputStream(false)).count; }
+
+  @Benchmark
+  public int jsonStream() { return writeStream(new CountingOutputStream(false)).count; }
+
+  private CountingOutputStream writeString(CountingOutputStream os) {
+    new NanoResponse(RequestServer.HTTP_OK, RequestServer.MIME_JSON, summary.toJsonString()).writeTo(os);
+    return os;
+  }
+
+  private CountingOutputStream writeStream(CountingOutputStream os) {
+    new NanoStreamResponse(RequestServer.HTTP_OK, RequestServer.MIME_JSON, new JSONStreamWriter(summary)).writeTo(os);
+    return os;
+  }
+
+  // Stands in for the socket; measuring, it keeps the most heap live at any write
+  private static class CountingOutputStream extends OutputStream {
+    final boolean measure;
+    final long base;
+    int count;
+    long peak;
+    CountingOutputStream(boolean measure) { this.measure = measure; this.base = measure ? liveHeap() : 0; }
+    @Override public void write(int b) { count++; measure(); }
+    @Override public void write(byte[] b, int off, int len) { count += len; measure(); }
+    private void measure() { if (measure) peak = Math.max(peak, liveHeap() - base); }
+  }
+
+  private static long liveHeap() {
+    System.gc();
+    Runtime rt = Runtime.getRuntime();
+    return rt.totalMemory() - rt.freeMemory();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    FrameSummaryJsonBench b = new FrameSummaryJsonBench();
+    b.cols = 10000;
+    b.setup();
+    try {
+      // The summary itself stays live throughout, and is not counted
+      CountingOutputStream string = b.writeString(new CountingOutputStream(true));
+      CountingOutputStream stream = b.writeStream(new CountingOutputStream(true));
+      System.out.printf("%d byte response: peak heap held %d KB as a String, %d KB streamed%n",
+          stream.count, string.peak >> 10, stream.peak >> 10);
+    } finally {
+      b.tearDown();
+    }
+
+    Options opt = new OptionsBuilder()
+        .include(FrameSummaryJsonBench.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -232,6 +232,17 @@ public abstract class Model<M extends Model<M,P,O>, P extends Model.Parameters,
      */
     public double _max_runtime_secs = 0;
 
+    /**
+     * Share of the threads of each node for the build under -fair_share,
+     * relative to the other running jobs; see {@link water.JobScheduler}.
+     */
+    public double _cpu_weight = 1;
+
+    /**
+     * Most threads of each node for the build under -fair_share. Use 0 for no cap.
+     */
+    public int _max_threads = 0;
+
     /**
      * Early stopping based on convergence of stopping_metric.
      * Stop if simple moving average of the stopping_metric does not improve by stopping_tolerance for
@@ -229,6 +229,8 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     if (error_count() > 0)
       throw H2OModelBuilderIllegalArgumentException.makeFromBuilder(this);
     _start_time = System.currentTimeMillis();
+    _job._cpu_weight = _parms._cpu_weight;
+    _job._max_threads = _parms._max_threads;
     if( !nFoldCV() )
       return _job.start(trainModelImpl(), _parms.progressUnits(), _parms._max_runtime_secs);
 
@@ -1121,6 +1123,12 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
     if (_parms._max_runtime_secs < 0) {
       error("_max_runtime_secs", "Max runtime (in seconds) must be greater than 0 (or 0 for unlimited).");
     }
+    if (!(_parms._cpu_weight > 0)) {
+      error("_cpu_weight", "CPU weight must be greater than 0.");
+    }
+    if (_parms._max_threads < 0) {
+      error("_max_threads", "Max threads must be greater than 0 (or 0 for no cap).");
+    }
   }
 
   /**
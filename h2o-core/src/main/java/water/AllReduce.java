@@ -0,0 +1,177 @@
+package water;
+
+import jsr166y.ForkJoinPool;
+import water.nbhm.NonBlockingHashMap;
+
+/**
+ * Allreduce: every node of the cloud contributes a value, and every node gets
+ * back the reduction of all of them.
+ * <p>
+ * Runs by recursive doubling over the RPC (TCP) channels between nodes: in
+ * log2(cloud size) rounds, each node swaps its partial result with the node
+ * whose index differs in one bit, and reduces the two.  In a cloud whose size
+ * is not a power of 2, the extra nodes first fold their value into a partner,
+ * and get the result back from it at the end.  Pairs always reduce the lower
+ * index's value with the higher one's, so every node ends with the same
+ * result, bit for bit.
+ * <p>
+ * {@link #allreduce} must be called exactly once on every node of the cloud
+ * for each round of use of a key, e.g. from an {@link MRTask}'s node-local
+ * hooks (see {@link MRTask#allreduce(Key)}); it blocks until all the nodes
+ * have contributed.  Keys may be reused: the calls on each node are matched
+ * up by their order.
+ * <p>
+ * Tasks may keep their result node-local under the key (see {@link
+ * #putLocal}), for the next task of the key to start from.  Keys made for a
+ * job by {@link #key(Key, String)} are forgotten on all the nodes when the
+ * job ends, done or failed, along with their node-local results.
+ */
+public abstract class AllReduce<T extends Freezable> {
+  /** Reduce b into a */
+  protected abstract void reduce( T a, T b );
+
+  // Partial results received, by key, round and sender; and the rounds of use
+  // of each key seen on this node
+  private static final NonBlockingHashMap<String,byte[]> INBOX = new NonBlockingHashMap<>();
+  private static final NonBlockingHashMap<Key,Integer> EPOCHS = new NonBlockingHashMap<>();
+  // Node-local results by key; and the job of each key made by key(), on the
+  // node which made it
+  private static final NonBlockingHashMap<Key,Object> LOCAL = new NonBlockingHashMap<>();
+  private static final NonBlockingHashMap<Key,Key> JOBS = new NonBlockingHashMap<>();
+
+  /** Reduce the value of this node with those of all the other nodes.
+   *  @param id key naming this allreduce; the same on all nodes
+   *  @param local the value of this node; may be null for none
+   *  @return the reduction of all the values, null if all were null */
+  public final T allreduce( Key id, T local ) {
+    H2ONode[] nodes = H2O.CLOUD._memary;
+    int n = nodes.length, rank = H2O.SELF.index();
+    if( rank < 0 ) throw new IllegalStateException("Only nodes of the cloud take part in an allreduce");
+    String slot = id + "/" + nextEpoch(id) + "/";
+    if( n == 1 ) return local;
+    int p2 = Integer.highestOneBit(n);
+    if( rank >= p2 ) {          // Extra node: fold into a partner, then get the result from it
+      RPC<Part> rpc = send(nodes[rank - p2], slot, -1, rank, local);
+      T res = receive(slot, -2, rank - p2, n);
+      rpc.get();
+      return res;
+    }
+    T acc = local;
+    if( rank + p2 < n ) acc = combine(rank, acc, rank + p2, this.<T>receive(slot, -1, rank + p2, n));
+    for( int d = 1; d < p2; d <<= 1 ) {
+      int peer = rank ^ d;
+      RPC<Part> rpc = send(nodes[peer], slot, d, rank, acc);
+      T other = receive(slot, d, peer, n);
+      rpc.get();                // Sent acc before reducing into it
+      acc = combine(rank, acc, peer, other);
+    }
+    if( rank + p2 < n ) send(nodes[rank + p2], slot, -2, rank, acc).get();
+    return acc;
+  }
+
+  private static synchronized int nextEpoch( Key id ) {
+    Integer e = EPOCHS.get(id);
+    int res = e == null ? 0 : e + 1;
+    EPOCHS.put(id, res);
+    return res;
+  }
+
+  /** Forget the rounds of use of a key on this node, when done with it, and
+   *  its node-local result.  Must happen on all nodes before the key is used
+   *  again, e.g. from a doAllNodes task. */
+  public static void remove( Key id ) {
+    EPOCHS.remove(id);
+    LOCAL.remove(id);
+    String prefix = id + "/";   // Parts of an allreduce which failed part way
+    for( String k : INBOX.keySet() )
+      if( k.startsWith(prefix) ) INBOX.remove(k);
+  }
+
+  /** A key for the allreduces of a job, forgotten on all the nodes (see
+   *  {@link #removeAll}) when the job ends, done or failed.  Call on the node
+   *  the job runs on. */
+  public static Key key( Key<Job> job, String name ) {
+    Key id = Key.make(job + "_" + name);
+    JOBS.put(id, job);
+    return id;
+  }
+
+  /** Forget the keys made for a job by {@link #key(Key, String)}; called by
+   *  the job when it ends. */
+  static void removeJob( Key<Job> job ) {
+    for( Key id : JOBS.keySet() )
+      if( job.equals(JOBS.get(id)) ) {
+        removeAll(id);
+        JOBS.remove(id);
+      }
+  }
+
+  /** Keep a node-local value under a key, e.g. the result of an allreduce
+   *  (see {@link MRTask#postAllreduce}) for the next task of the key on this
+   *  node; it goes with the key. */
+  public static void putLocal( Key id, Object o ) { LOCAL.put(id, o); }
+
+  /** The node-local value kept under a key, or null */
+  @SuppressWarnings("unchecked")
+  public static <X> X getLocal( Key id ) { return id == null ? null : (X)LOCAL.get(id); }
+
+  /** Forget the rounds of use of a key on all the nodes of the cloud */
+  public static void removeAll( final Key id ) {
+    new MRTask() { @Override protected void setupLocal() { remove(id); } }.doAllNodes();
+  }
+
+  /** True if this node can start an allreduce over the cloud: it is a
+   *  member, and there is more than one. */
+  public static boolean enabled() { return H2O.CLOUD.size() > 1 && H2O.SELF.index() >= 0; }
+
+  // Reduce the values of two nodes in a fixed order: the lower index's first
+  private T combine( int rank, T mine, int peer, T other ) {
+    if( mine == null ) return other;
+    if( other == null ) return mine;
+    if( rank < peer ) { reduce(mine, other); return mine; }
+    reduce(other, mine);
+    return other;
+  }
+
+  // The value is serialized up front, so that it can be reduced into while
+  // the RPC is still pending (and maybe resent)
+  private static RPC<Part> send( H2ONode node, String slot, int round, int rank, Freezable f ) {
+    return new RPC<>(node, new Part(slot + round + "/" + rank, new AutoBuffer().put(f).buf())).call();
+  }
+
+  private <X extends Freezable> X receive( final String slot, int round, int peer, final int n ) {
+    final String key = slot + round + "/" + peer;
+    try {
+      ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+        @Override public boolean isReleasable() { return INBOX.containsKey(key); }
+        @Override public boolean block() throws InterruptedException {
+          synchronized( INBOX ) {
+            while( !isReleasable() ) {
+              if( H2O.CLOUD.size() != n ) throw new IllegalStateException("Cloud changed during allreduce " + slot);
+              INBOX.wait(1000);
+            }
+          }
+          return true;
+        }
+      });
+    } catch( InterruptedException e ) {
+      throw new RuntimeException(e);
+    }
+    return new AutoBuffer(INBOX.remove(key)).get();
+  }
+
+  // A partial result, delivered to a node's inbox
+  private static class Part extends DTask<Part> {
+    private String _key;
+    private byte[] _bytes;
+    Part( String key, byte[] bytes ) { super(H2O.PUT_KEY_PRIORITY); _key = key; _bytes = bytes; }
+    @Override public void compute2() {
+      if( _bytes != null ) {    // Not a resend of a delivered part
+        INBOX.put(_key, _bytes);
+        synchronized( INBOX ) { INBOX.notifyAll(); }
+      }
+      _bytes = null;            // Nothing to send back
+      tryComplete();
+    }
+  }
+}
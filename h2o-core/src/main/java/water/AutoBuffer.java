@@ -7,8 +7,10 @@ import java.nio.*;
 import java.nio.channels.*;
 import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 import water.network.SocketChannelUtils;
+import water.util.LZ4;
 import water.util.Log;
 import water.util.StringUtils;
 import water.util.TwoDimTable;
@@ -152,6 +154,7 @@ public final class AutoBuffer {
     _firstPage = true;
     // Read Inet from socket, port from the stream, figure out H2ONode
     if(remoteAddress!=null) {
+      readCodec();
       _h2o = H2ONode.intern(remoteAddress, getPort());
     }else{
       // In case the communication originates from non-h2o node, we set _h2o node to null.
@@ -265,6 +268,17 @@ public final class AutoBuffer {
     else put1(0);
   }
 
+  /** Write plain bytes, e.g. JSON, to a Stream a page at a time: no header
+   *  and no TypeMap info, so not to be read back as an AutoBuffer. */
+  public AutoBuffer( OutputStream os ) {
+    _bb = ByteBuffer.wrap(MemoryManager.malloc1(BBP_BIG._size)).order(ByteOrder.nativeOrder());
+    _read = false;
+    _chan = Channels.newChannel(os);
+    _h2o = null;
+    _firstPage = true;
+    _persist = 0;
+  }
+
   /** Read from a persistent Stream (including all TypeMap info) into same
    *  exact rev of H2O). */
   public AutoBuffer( InputStream is ) {
@@ -390,6 +404,45 @@ public final class AutoBuffer {
   static BBPool BBP_BIG = new BBPool(64*1024); // Bytebuffer "common  big  size", for TCP
   public static int TCP_BUF_SIZ = BBP_BIG._size;
 
+  // Bulk transfers: byte payloads of at least BULK_MIN bytes written to
+  // another Node skip the copy through the 64K staging buffer.  Direct
+  // sources (off-heap and memory-mapped Values) are written straight to the
+  // socket, files are sent with FileChannel.transferTo, and heap arrays go
+  // through a larger direct buffer pooled per target Node, each gathered with
+  // the buffered bytes into one write.  The bytes on the wire are unchanged.
+  static final int BULK_MIN = Integer.getInteger(H2O.OptArgs.SYSTEM_PROP_PREFIX + "net.bulk.min", 256*1024);
+  static final int BULK_BUF_SIZ = 512*1024;
+
+  // Wire compression: with -wire_compress_min agreed on by the cloud, TCP
+  // messages to other Nodes are compressed with LZ4 (byte payloads which
+  // would be bulk transfers included).  Every TCP message from a Node starts
+  // with a codec byte.  A compressed message follows as one frame per buffer
+  // flushed: the raw and the compressed lengths, then the compressed bytes -
+  // or the raw bytes, with a compressed length of 0, when compression saves
+  // less than 1/8th.
+  static final int WIRE_RAW = 0, WIRE_LZ4 = 1;
+  // Stats: messages compressed, bytes in and out of the frames, and time
+  // spent both ways
+  static final AtomicLong WIRE_MSGS      = new AtomicLong();
+  static final AtomicLong WIRE_RAW_BYTES = new AtomicLong();
+  static final AtomicLong WIRE_BYTES     = new AtomicLong();
+  static final AtomicLong WIRE_ENCODE_NS = new AtomicLong();
+  static final AtomicLong WIRE_DECODE_NS = new AtomicLong();
+
+  public static long wireMessages()    { return WIRE_MSGS     .get(); }
+  public static long wireRawBytes()    { return WIRE_RAW_BYTES.get(); }
+  public static long wireBytes()       { return WIRE_BYTES    .get(); }
+  public static long wireEncodeNanos() { return WIRE_ENCODE_NS.get(); }
+  public static long wireDecodeNanos() { return WIRE_DECODE_NS.get(); }
+
+  private ByteBuffer _hdr;      // Writing: codec byte, sent with the first write
+  private boolean _compress;    // Writing: sending compressed frames
+  private boolean _closing;     // Writing: close() is sending the last bytes
+  private ByteBuffer _zin;      // Reading: compressed frames read ahead; null if raw
+  private ByteBuffer _zout;     // Writing: the frame to send
+  private byte[] _zraw;         // Raw bytes of the frame at hand
+  private int _zpos, _zlen;     // Reading: raw bytes of the frame handed out, and in all
+
   private int bbFree() {
     if(_bb != null && _bb.isDirect())
       BBPool.FREE(_bb);
@@ -445,6 +498,7 @@ public final class AutoBuffer {
             // do not close actually reader socket; recycle it in TCPReader thread
           } else {              // Writer?
             put1(0xab);         // Write one-more byte  ; might set _chan from null to not-null
+            _closing = true;
             sendPartial();      // Finish partial writes; might set _chan from null to not-null
             assert _chan != null; // _chan is set not-null now!
             // Read the writer-handshake-byte.
@@ -473,6 +527,10 @@ public final class AutoBuffer {
     } finally {
       bbFree();
       _time_close_ms = System.currentTimeMillis();
+      if( _h2o != null && _h2o != H2O.SELF ) { // Message sizes per peer
+        if( _read ) Metrics.recordReceived(_h2o, _size);
+        else        Metrics.recordSent    (_h2o, _size);
+      }
 //      TimeLine.record_IOclose(this,_persist); // Profile AutoBuffer connections
       assert isClosed();
     }
@@ -481,12 +539,34 @@ public final class AutoBuffer {
 
   // Need a sock for a big read or write operation.
   // See if we got one already, else open a new socket.
-  private void tcpOpen() throws IOException {
+  private void tcpOpen( boolean mayCompress ) throws IOException {
     assert _firstPage && _bb.limit() >= 1+2+4; // At least something written
     assert _chan == null;
 //    assert _bb.position()==0;
     _chan = _h2o.getTCPSocket();
     raisePriority();
+    // Compress messages of at least -wire_compress_min bytes.  Unless closing,
+    // more bytes follow than the buffer has room for
+    long len = _closing ? _bb.limit() : _bb.capacity() + 1L;
+    _compress = mayCompress && _h2o.wireCompress() && len >= H2O.ARGS.wire_compress_min;
+    if( _compress ) WIRE_MSGS.incrementAndGet();
+    _hdr = ByteBuffer.wrap(new byte[]{(byte)(_compress ? WIRE_LZ4 : WIRE_RAW)});
+  }
+
+  // Read the codec byte ahead of a TCP message from a Node, and for a
+  // compressed message move the bytes read ahead over to the frame decoder.
+  private void readCodec() throws IOException {
+    int codec = get1U();
+    _bb.compact();              // The message starts at 0, for the early-byte getters
+    _bb.flip();
+    _firstPage = true;
+    if( codec == WIRE_LZ4 ) {
+      _zin = ByteBuffer.allocate(8 + LZ4.maxCompressedLength(BBP_BIG._size));
+      _zin.put(_bb).flip();
+      _bb.clear();
+      _bb.limit(0);
+    } else if( codec != WIRE_RAW )
+      throw new IOException("Unknown wire codec " + codec + " from " + _chan);
   }
 
   // Just close the channel here without reading anything.  Without the task
@@ -567,9 +647,11 @@ public final class AutoBuffer {
     if( _h2o==H2O.SELF ) {      // SELF-send is the multi-cast signal
       water.init.NetworkInit.multicast(_bb, _msg_priority);
     } else {                    // Else single-cast send
-      if(H2O.ARGS.useUDP)       // Send via UDP directly
-        water.init.NetworkInit.CLOUD_DGRAM.send(_bb, _h2o._key);
-      else                      // Send via bulk TCP
+      if(H2O.ARGS.useUDP) {     // Send via UDP, batched with other small messages to the node
+        byte[] bs = MemoryManager.malloc1(_size); // Copied out, as the DBB is freed on close
+        _bb.get(bs);
+        _h2o.sendMessage(ByteBuffer.wrap(bs).order(ByteOrder.nativeOrder()), _msg_priority);
+      } else                    // Send via bulk TCP
         _h2o.sendMessage(_bb, _msg_priority);
     }
     return 0;                   // Flow-coding
@@ -640,6 +722,7 @@ public final class AutoBuffer {
   }
 
   private int readAnInt() throws IOException {
+    if (_zin != null) return readFrame();
     if (_is == null) return ((ReadableByteChannel) _chan).read(_bb);
 
     final byte[] array = _bb.array();
@@ -676,14 +759,12 @@ public final class AutoBuffer {
     _bb.flip(); // Prep for writing.
     try {
       if( _chan == null )
-        tcpOpen(); // This is a big operation.  Open a TCP socket as-needed.
+        tcpOpen(true); // This is a big operation.  Open a TCP socket as-needed.
       //for( int i=0; i < _bb.limit(); i++ ) if( _bb.get(i)==0 ) _zeros++;
+      if( _compress ) writeFrame();
       long ns = System.nanoTime();
-      while( _bb.hasRemaining() ) {
-        ((WritableByteChannel) _chan).write(_bb);
-        if( RANDOM_TCP_DROP != null && SocketChannelUtils.isSocketChannel(_chan) && RANDOM_TCP_DROP.nextInt(100) == 0 )
-          throw new IOException("Random TCP Write Fail");
-      }
+      if( _compress ) chanWrite(_zout);
+      else chanWrite(_bb);
       _time_io_ns += (System.nanoTime()-ns);
     } catch( IOException e ) {  // Some kind of TCP fail?
       // Change to an unchecked exception (so we don't have to annotate every
@@ -699,6 +780,173 @@ public final class AutoBuffer {
     return _bb;
   }
 
+  // Write all of the buffers, after the codec byte if not yet sent; gathered
+  // into one write where the channel allows.
+  private void chanWrite( ByteBuffer... bbs ) throws IOException {
+    if( _hdr != null ) {
+      ByteBuffer[] all = new ByteBuffer[bbs.length+1];
+      all[0] = _hdr;
+      System.arraycopy(bbs, 0, all, 1, bbs.length);
+      bbs = all;
+      _hdr = null;
+    }
+    for( int i = 0; i < bbs.length; ) {
+      if( !bbs[i].hasRemaining() ) { i++; continue; }
+      if( _chan instanceof GatheringByteChannel ) ((GatheringByteChannel)_chan).write(bbs, i, bbs.length - i);
+      else ((WritableByteChannel)_chan).write(bbs[i]);
+      if( RANDOM_TCP_DROP != null && SocketChannelUtils.isSocketChannel(_chan) && RANDOM_TCP_DROP.nextInt(100) == 0 )
+        throw new IOException("Random TCP Write Fail");
+    }
+  }
+
+  // Compress the flipped _bb into a frame in _zout, emptying _bb
+  private void writeFrame() {
+    int len = _bb.remaining();
+    if( _zraw == null || _zraw.length < len ) _zraw = new byte[len];
+    _bb.get(_zraw, 0, len);
+    int max = 8 + LZ4.maxCompressedLength(len);
+    if( _zout == null || _zout.capacity() < max ) _zout = ByteBuffer.allocate(max);
+    long ns = System.nanoTime();
+    int clen = len == 0 ? 0 : LZ4.compress(_zraw, 0, len, _zout.array(), 8);
+    WIRE_ENCODE_NS.addAndGet(System.nanoTime() - ns);
+    _zout.clear();
+    if( clen == 0 ) {           // Nothing to send but maybe the codec byte
+      _zout.limit(0);
+      return;
+    }
+    if( clen > len - (len >> 3) ) { // Saves too little: store raw
+      _zout.putInt(len).putInt(0).put(_zraw, 0, len);
+      clen = len;
+    } else
+      _zout.putInt(len).putInt(clen).position(8 + clen);
+    _zout.flip();
+    WIRE_RAW_BYTES.addAndGet(len);
+    WIRE_BYTES.addAndGet(8 + clen);
+  }
+
+  // Decode the next frames into _bb, as far as it has room
+  private int readFrame() throws IOException {
+    while( _zpos == _zlen ) {   // Frame all handed out; decode the next
+      fillFrame(8);
+      int len = _zin.getInt(), clen = _zin.getInt();
+      fillFrame(clen == 0 ? len : clen);
+      if( _zraw == null || _zraw.length < len ) _zraw = new byte[len];
+      if( clen == 0 ) _zin.get(_zraw, 0, len);
+      else {
+        long ns = System.nanoTime();
+        LZ4.decompress(_zin.array(), _zin.arrayOffset() + _zin.position(), clen, _zraw, 0, len);
+        WIRE_DECODE_NS.addAndGet(System.nanoTime() - ns);
+        _zin.position(_zin.position() + clen);
+      }
+      _zpos = 0;
+      _zlen = len;
+    }
+    int n = Math.min(_zlen - _zpos, _bb.remaining());
+    _bb.put(_zraw, _zpos, n);
+    _zpos += n;
+    return n;
+  }
+
+  // Read from the channel until _zin holds at least n unread bytes
+  private void fillFrame( int n ) throws IOException {
+    if( _zin.remaining() >= n ) return;
+    _zin.compact();
+    if( _zin.capacity() < n ) {
+      _zin.flip();
+      _zin = ByteBuffer.allocate(n).put(_zin);
+    }
+    while( _zin.position() < n )
+      if( ((ReadableByteChannel)_chan).read(_zin) < 0 )
+        throw new EOFException("Reading a compressed frame of " + n + " bytes, AB=" + this);
+    _zin.flip();
+  }
+
+  // True if a byte payload of len bytes is sent by a bulk transfer; not if
+  // the message is, or will be, compressed
+  boolean isBulk( long len ) {
+    return !_read && _h2o != null && len >= BULK_MIN && !(_chan == null ? _h2o.wireCompress() : _compress);
+  }
+
+  // Ship the buffered bytes and then all of the direct src, gathered into one
+  // write where the channel allows.
+  private AutoBuffer writeBulk( ByteBuffer src ) {
+    _size += _bb.position() + src.remaining();
+    if( _chan == null )
+      TimeLine.record_send(this, true);
+    _bb.flip();
+    try {
+      if( _chan == null )
+        tcpOpen(false); // This is a big operation.  Open a TCP socket as-needed.
+      assert !_compress;
+      long ns = System.nanoTime();
+      chanWrite(_bb, src);
+      _time_io_ns += (System.nanoTime()-ns);
+    } catch( IOException e ) {
+      throw new AutoBufferException(e);
+    }
+    _firstPage = false;
+    _bb.clear();
+    return this;
+  }
+
+  // Bulk-send a heap array through the target Node's pooled direct buffer,
+  // rather than have the JDK make (and cache, per thread) a temporary direct
+  // buffer as large as the whole array.
+  private AutoBuffer putBulk( byte[] ary, int sofar, int length ) {
+    ByteBuffer buf = _h2o.getBulkBuffer();
+    try {
+      while( sofar < length ) {
+        int len = Math.min(length - sofar, buf.capacity());
+        buf.clear();
+        buf.put(ary, sofar, len).flip();
+        writeBulk(buf);
+        sofar += len;
+      }
+    } finally {
+      _h2o.freeBulkBuffer(buf);
+    }
+    return this;
+  }
+
+  /** Write the remaining bytes of src as a byte array, to be read back with
+   *  {@link #getA1()}.  A large direct src going to another Node is written
+   *  straight from src, without a copy. */
+  public AutoBuffer putA1Direct( ByteBuffer src ) {
+    int len = src.remaining();
+    putInt(len);
+    if( isBulk(len) && src.isDirect() ) return writeBulk(src);
+    byte[] b = MemoryManager.malloc1(len);
+    src.get(b);
+    return putA1(b, len);
+  }
+
+  /** Write len bytes of fc from position pos as a byte array, to be read back
+   *  with {@link #getA1()}.  Large arrays going to another Node are sent with
+   *  {@link FileChannel#transferTo}, so the bytes never reach the Java heap. */
+  public AutoBuffer putA1File( FileChannel fc, long pos, int len ) {
+    putInt(len);
+    try {
+      if( !isBulk(len) ) {
+        ByteBuffer bb = ByteBuffer.wrap(MemoryManager.malloc1(len));
+        while( bb.hasRemaining() )
+          if( fc.read(bb, pos + bb.position()) < 0 ) throw new EOFException("Short file reading " + len + " bytes at " + pos);
+        return putA1(bb.array(), len);
+      }
+      sendPartial();            // Ship the buffered bytes; opens the socket as needed
+      long ns = System.nanoTime();
+      for( long done = 0; done < len; ) {
+        long n = fc.transferTo(pos + done, len - done, (WritableByteChannel)_chan);
+        if( n <= 0 ) throw new EOFException("Short file sending " + len + " bytes at " + pos);
+        done += n;
+      }
+      _size += len;
+      _time_io_ns += (System.nanoTime()-ns);
+    } catch( IOException e ) {
+      throw new AutoBufferException(e);
+    }
+    return this;
+  }
+
   // Called when the byte buffer doesn't have enough room
   // If buffer is array backed, and the needed room is small,
   // increase the size of the backing array,
@@ -1262,6 +1510,7 @@ public final class AutoBuffer {
   }
   public AutoBuffer putA1( byte[] ary, int length ) { return putA1(ary,0,length); }
   public AutoBuffer putA1( byte[] ary, int sofar, int length ) {
+    if( isBulk(length - sofar) ) return putBulk(ary, sofar, length);
     if (length - sofar > _bb.remaining()) expandByteBuffer(length-sofar);
     while( sofar < length ) {
       int len = Math.min(length - sofar, _bb.remaining());
@@ -0,0 +1,82 @@
+package water;
+
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+
+/** Bulk prefetch of the remote Chunks an {@link MRTask} will read on this
+ *  node.
+ *  <p>
+ *  Started next to the local map calls, it gathers the Keys of the remote
+ *  Chunks for the locally mapped chunk indices (see {@link
+ *  Vec#addRemoteChunkKeys}), and fetches them with a bounded window of
+ *  pipelined gets instead of one round trip at a time per map call.  The
+ *  fetched Values land in the local K/V cache, where the map calls find them;
+ *  a map call reaching a Key still in flight joins its fetch.
+ *  <p>
+ *  With runLocal nearly all the Chunks are remote, so only those of the first
+ *  window's worth of chunk indices are prefetched, not the whole Frame; the
+ *  map calls fetch the rest as they go.
+ *  <p>
+ *  The window is set with the {@code sys.ai.h2o.mr.prefetch.window} system
+ *  property, 32 by default; 0 turns prefetching off.
+ */
+class ChunkPrefetch extends H2O.H2OCountedCompleter<ChunkPrefetch> {
+  static final int WINDOW = Integer.getInteger(H2O.OptArgs.SYSTEM_PROP_PREFIX + "mr.prefetch.window", 32);
+
+  private final Frame _fr;
+  private final int _lo, _hi;
+  private final boolean _runLocal;
+
+  private ChunkPrefetch(byte prior, Frame fr, int lo, int hi, boolean runLocal) {
+    super(prior);
+    _fr = fr; _lo = lo; _hi = hi; _runLocal = runLocal;
+  }
+
+  /** Start prefetching for chunks [lo,hi) of fr, mapped on this node if homed
+   *  here, or all of them if runLocal.  Does not block. */
+  static void start(Frame fr, int lo, int hi, boolean runLocal, byte prior) {
+    if( WINDOW <= 0 || H2O.CLOUD.size() == 1 || lo >= hi ) return;
+    // Block on the gets from below their priority
+    H2O.submitTask(new ChunkPrefetch((byte)Math.min(prior, H2O.GET_KEY_PRIORITY-1), fr, lo, hi, runLocal));
+  }
+
+  /** The Keys of the remote Chunks to prefetch for chunks [lo,hi) of fr, in
+   *  chunk order: for the chunks homed here, or with runLocal for the first
+   *  {@link #WINDOW} chunks with any. */
+  static LinkedHashSet<Key> remoteKeys(Frame fr, int lo, int hi, boolean runLocal) {
+    Vec[] vecs = fr.vecs();
+    Vec v0 = fr.anyVec();
+    LinkedHashSet<Key> keys = new LinkedHashSet<>();
+    int nchunks = 0;            // Chunks with remote Keys, with runLocal
+    for( int c = lo; c < hi; c++ ) {
+      boolean local = v0.chunkKey(c).home();
+      if( !local && !runLocal ) continue; // Mapped elsewhere
+      int n = keys.size();
+      for( Vec v : vecs )
+        if( v != null ) v.addRemoteChunkKeys(c, local, keys);
+      if( runLocal && keys.size() > n && ++nchunks == WINDOW ) break;
+    }
+    return keys;
+  }
+
+  @Override public void compute2() {
+    try {
+      LinkedHashSet<Key> keys = remoteKeys(_fr, _lo, _hi, _runLocal);
+      ArrayDeque<RPC<TaskGetKey>> inflight = new ArrayDeque<>();
+      for( Key k : keys ) {
+        if( inflight.size() == WINDOW ) inflight.poll().get();
+        RPC<TaskGetKey> rpc = DKV.fetch(k);
+        if( rpc != null ) inflight.add(rpc);
+      }
+      for( RPC<TaskGetKey> rpc : inflight ) rpc.get();
+    } catch( Throwable t ) {
+      // Only a hint; the map calls fetch, and fail, on their own
+      Log.debug("Chunk prefetch failed: " + t);
+    }
+    tryComplete();
+  }
+}
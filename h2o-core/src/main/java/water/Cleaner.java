@@ -83,6 +83,7 @@ class Cleaner extends Thread {
       // the desired cache levels. Inverse: go back to sleep if the cache
       // is below desired levels & nothing has been dirty awhile.
       if( h._cached < DESIRED && // Cache is low and
+          !MemoryManager.offHeapFull() && // off-heap tier is below its high-water mark and
           (now-dirty < 5000) ) { // not dirty a long time
         // Block asleep, waking every 5 secs to check for stuff, or when poked
         block_store_cleaner();
@@ -93,26 +94,29 @@ class Cleaner extends Thread {
       _dirty = Long.MAX_VALUE; // Reset, since we are going write stuff out
       MemoryManager.set_goals("preclean",false);
 
-      // The age beyond which we need to toss out things to hit the desired
-      // caching levels. If forced, be exact (toss out the minimal amount).
-      // If lazy, store-to-disk things down to 1/2 the desired cache level
-      // and anything older than 5 secs.
+      // The policy score below which we need to toss out things to hit the
+      // desired caching levels. If forced, be exact (toss out the minimal
+      // amount).  If lazy, store-to-disk things down to 1/2 the desired cache
+      // level and anything older than 5 secs.
+      SwapPolicy policy = h._policy;
+      policy.sweep();
       boolean force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
       if( force && diskFull )   // Try to clean the diskFull flag
         diskFull = isDiskFull();
-      long clean_to_age = h.clean_to(force ? DESIRED : (DESIRED>>1));
-      // If not forced cleaning, expand the cleaning age to allows Values
-      // more than 5sec old
-      if( !force ) clean_to_age = Math.max(clean_to_age,now-5000);
-      if( DESIRED == -1 ) clean_to_age = now;  // Test mode: clean all
+      long clean_to = h.clean_to(force ? DESIRED : (DESIRED>>1));
+      // If not forced cleaning, also clean Values more than 5sec old
+      long lazy_age = force ? Long.MIN_VALUE : now-5000;
+      if( DESIRED == -1 ) clean_to = Long.MAX_VALUE;  // Test mode: clean all
 
       // No logging if under memory pressure: can deadlock the cleaner thread
-      String s = h+" DESIRED="+(DESIRED>>20)+"M dirtysince="+(now-dirty)+" force="+force+" clean2age="+(now-clean_to_age);
+      String s = h+" DESIRED="+(DESIRED>>20)+"M dirtysince="+(now-dirty)+" force="+force+" policy="+policy.name()+" clean2score="+clean_to;
       if( MemoryManager.canAlloc() ) Log.debug(s);
       else                           System.err.println(s);
       long cleaned = 0;         // Disk i/o bytes
       long freed = 0;           // memory freed bytes
       long io_ns = 0;           // i/o ns writing
+      long offheaped = 0;       // bytes moved to the off-heap tier
+      long evicted = 0;         // bytes evicted from the off-heap tier
 
       // For faster K/V store walking get the NBHM raw backing array,
       // and walk it directly.
@@ -125,15 +129,24 @@ class Cleaner extends Thread {
         if( !(ok instanceof Key  ) ) continue; // Ignore tombstones and Primes and null's
         if( !(ov instanceof Value) ) continue; // Ignore tombstones and Primes and null's
         Value val = (Value)ov;
+        policy.age(val);
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
-        if( m == null && p == null ) continue; // Nothing to throw out
+        boolean offHeap = val.isOffHeap(); // Only Chunks are ever off-heap
+        if( m == null && p == null && !offHeap ) continue; // Nothing to throw out
         if( val.isLockable() ) continue; // we do not want to throw out Lockables.
-        boolean isChunk = p instanceof Chunk && !((Chunk)p).isVolatile();
-        // Ignore things younger than the required age.  In particular, do
-        // not spill-to-disk all dirty things we find.
+        boolean isChunk = offHeap || (p instanceof Chunk && !((Chunk)p).isVolatile());
+        if( policy.pinned(val) ) continue; // Never swap pinned Values
+        // Off-heap tier above its high-water mark?  Then off-heap Values
+        // take the disk path like any other Chunk, and drop the off-heap copy
+        // once written.  Rechecked per Value: stops once below the mark.
+        boolean evict = offHeap && MemoryManager.offHeapFull();
+
+        // Ignore things scoring above the required level.  In particular, do
+        // not spill-to-disk all dirty things we find.  Off-heap Values to
+        // evict also go once more than 5sec old, even when forced cleaning.
         long touched = val._lastAccessedTime;
-        if( touched > clean_to_age ) { // Too recently touched?
+        if( policy.score(val) > clean_to && touched > (evict ? now-5000 : lazy_age) ) { // Too recently touched?
           // But can toss out a byte-array if already deserialized & on disk
           // (no need for both forms).  Note no savings for Chunks, for which m==p._mem
           if( val.isPersisted() && m != null && p != null && !isChunk ) {
@@ -143,8 +156,20 @@ class Cleaner extends Thread {
           dirty_store(touched); // But may write it out later
           continue;             // Too young
         }
-        // Spiller turned off?
-        if( !H2O.ARGS.cleaner ) continue;
+        // Under pressure, move Chunks to the off-heap tier in preference to
+        // the disk: reloading is a memcpy, and the GC no longer traces them.
+        if( isChunk && force && !evict && (m != null || p != null) &&
+            (offHeap || val.storeOffHeap()) ) {
+          val.freeMem ();
+          val.freePOJO();
+          freed += val._max;    // Chunk _mem and POJO share the same bytes
+          if( !offHeap ) offheaped += val._max;
+          policy.swapped(val);
+          continue;
+        }
+
+        // Spiller turned off?  Evicting from the off-heap tier spills anyway.
+        if( !H2O.ARGS.cleaner && !evict ) continue;
 
         // CNC - Memory cleaning turned off, except for Chunks
         // Too many POJOs are written to dynamically; cannot spill & reload
@@ -152,7 +177,9 @@ class Cleaner extends Thread {
 
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() && // && (force || (lazyPersist() && lazy_clean(key)))) {
+            (m != null || p != null || evict) ) { // Off-heap only copies are written just when evicting
+
           long now_ns = System.nanoTime();
           try { val.storePersist(); } // Write to disk
           catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
@@ -169,10 +196,12 @@ class Cleaner extends Thread {
           io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
         }
         // And, under pressure, free all
-        if( isChunk && force && (val.isPersisted() || !((Key)ok).home()) ) {
+        if( isChunk && (force || evict) && (val.isPersisted() || !((Key)ok).home()) ) {
+          if( m != null || p != null ) policy.swapped(val);
           val.freeMem ();  if( m != null ) freed += val._max;  m = null;
           val.freePOJO();  if( p != null ) freed += val._max;  p = null;
           if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
+          if( evict ) { val.freeOffHeap(); evicted += val._max; }
         }
         // If we have both forms, toss the byte[] form - can be had by
         // serializing again.
@@ -191,7 +220,8 @@ class Cleaner extends Thread {
       h = Histo.current(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
-      String s2 = h+" diski_o="+PrettyPrint.bytes(cleaned)+", freed="+(freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
+      String s2 = h+" diski_o="+PrettyPrint.bytes(cleaned)+", freed="+(freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M"+
+        (MemoryManager.offHeapEnabled() ? ", offheap+="+(offheaped>>20)+"M, offheap-="+(evicted>>20)+"M" : "");
       if( MemoryManager.canAlloc() ) Log.debug(s1,s2);
       else                           System.err.println(s1+"\n"+s2);
       // For testing thread
@@ -214,43 +244,53 @@ class Cleaner extends Thread {
     // will be only computed into one-at-a-time.
     synchronized static Histo current( boolean force ) {
       final Histo h = H; // Grab current best histogram
+      final SwapPolicy policy = SwapPolicy.current();
+      if( h != null && h._policy != policy ) // Policy set at startup; scores are not comparable
+        return (H = new Histo(policy, 0, 0));
       if( !force && System.currentTimeMillis() < h._when+2000 )
         return h; // It is recent; use it
       if( h != null && h._clean && _dirty==Long.MAX_VALUE )
         return h; // No change to the K/V store, so no point
-      // Use last oldest value for computing the next histogram in-place
-      return (H = new Histo(h==null ? 0 : h._oldest)); // Record current best histogram & return it
+      // Use last oldest & newest scores for computing the next histogram in-place
+      return (H = h==null ? new Histo(policy, 0, 0) : new Histo(policy, h._oldest, h._newest)); // Record current best histogram & return it
     }
 
     // Latest best-effort cached amount, without forcing a histogram to be
     // built nor blocking for one being in-progress.
     static long cached() { return H._cached; }
     static long swapped(){ return H._swapped;}
+    static long offHeap(){ return H._offheap;}
 
     final long[] _hs = new long[128];
-    long _oldest; // Time of the oldest K/V discovered this pass
-    long _eldest; // Time of the eldest K/V found in some prior pass
-    long _hStep;  // Histogram step: (now-eldest)/histogram.length
+    final SwapPolicy _policy; // Policy giving the scores; time of last access for LRU
+    long _oldest; // Score of the oldest K/V discovered this pass
+    long _newest; // Score of the newest K/V discovered this pass
+    long _eldest; // Score of the eldest K/V found in some prior pass
+    long _hStep;  // Histogram step: (ceiling-eldest)/histogram.length
     long _cached; // Total alive data in the histogram
     long _total;  // Total data in local K/V
     long _when;   // When was this histogram computed
     long _swapped;// On-disk stuff
+    long _offheap;// Off-heap stuff; not part of _cached
     Value _vold;  // For assertions: record the oldest Value
     boolean _clean; // Was "clean" K/V when built?
 
     // Compute a histogram
-    Histo( long eldest ) {
+    Histo( SwapPolicy policy, long eldest, long ceiling ) {
       Arrays.fill(_hs, 0);
+      _policy = policy;
       _when = System.currentTimeMillis();
       _eldest = eldest; // Eldest seen in some prior pass
-      _hStep = Math.max(1,(_when-eldest)/_hs.length);
+      _hStep = Math.max(1,(policy.ceiling(ceiling,_when)-eldest)/_hs.length);
       boolean clean = _dirty==Long.MAX_VALUE;
       // Compute the hard way
       Object[] kvs = H2O.STORE.raw_array();
       long cached = 0; // Total K/V cached in ram
       long total = 0;  // Total K/V in local node
       long swapped=0;  // Total K/V persisted
-      long oldest = Long.MAX_VALUE; // K/V with the longest time since being touched
+      long offheap=0;  // Total K/V held off-heap
+      long oldest = Long.MAX_VALUE; // K/V with the lowest score, e.g. longest time since being touched
+      long newest = Long.MIN_VALUE; // K/V with the highest score
       Value vold = null;
       // Start the walk at slot 2, because slots 0,1 hold meta-data
       for( int i=2; i<kvs.length; i += 2 ) {
@@ -262,6 +302,7 @@ class Cleaner extends Thread {
         if( val.isNull() ) { Value.STORE_get(val._key); continue; } // Another flavor of NULL
         total += val._max;
         if( val.isPersisted() ) swapped += val._max;
+        if( val.isOffHeap() ) offheap += val._max;
         int len = 0;
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
@@ -270,13 +311,16 @@ class Cleaner extends Thread {
         if( m != null && p instanceof Chunk ) len -= val._max; // Do not double-count Chunks
         if( len == 0 ) continue;
         cached += len; // Accumulate total amount of cached keys
+        if( policy.pinned(val) ) continue; // Cached, but cannot be swapped
 
-        if( val._lastAccessedTime < oldest ) { // Found an older Value?
+        long score = policy.score(val);
+        if( score < oldest ) { // Found an older Value?
           vold = val; // Record oldest Value seen
-          oldest = val._lastAccessedTime;
+          oldest = score;
         }
+        if( score > newest ) newest = score;
         // Compute histogram bucket
-        int idx = (int)((val._lastAccessedTime - eldest)/_hStep);
+        int idx = (int)((score - eldest)/_hStep);
         if( idx < 0 ) idx = 0;
         else if( idx >= _hs.length ) idx = _hs.length-1;
         _hs[idx] += len;      // Bump histogram bucket
@@ -284,13 +328,15 @@ class Cleaner extends Thread {
       _cached = cached; // Total cached; NOTE: larger than sum of histogram buckets
       _total = total;   // Total used data
       _swapped = swapped;
-      _oldest = oldest; // Oldest seen in this pass
+      _offheap = offheap;
+      _oldest = oldest == Long.MAX_VALUE ? eldest : oldest; // Oldest seen in this pass
+      _newest = newest == Long.MIN_VALUE ? _when  : newest; // Newest seen in this pass
       _vold = vold;
       _clean = clean && _dirty==Long.MAX_VALUE; // Looks like a clean K/V the whole time?
     }
 
-    // Compute the time (in msec) for which we need to throw out things
-    // to throw out enough things to hit the desired cached memory level.
+    // Compute the score (for LRU, the time in msec) below which we need to
+    // throw out things to hit the desired cached memory level.
     long clean_to( long desired ) {
       long age = _eldest;       // Age of bucket zero
       if( _cached < desired ) return age; // Already there; nothing to remove
@@ -307,7 +353,7 @@ class Cleaner extends Thread {
     @Override public String toString() {
       long x = _eldest;
       long now = System.currentTimeMillis();
-      return "H(cached:"+(_cached>>20)+"M, eldest:"+x+"L < +"+(_oldest-x)+"ms <...{"+_hStep+"ms}...< +"+(_hStep*_hs.length)+"ms < +"+(now-x)+")";
+      return "H("+_policy.name()+", cached:"+(_cached>>20)+"M, offheap:"+(_offheap>>20)+"M, eldest:"+x+"L < +"+(_oldest-x)+"ms <...{"+_hStep+"ms}...< +"+(_hStep*_hs.length)+"ms < +"+(now-x)+")";
     }
   }
 }
@@ -186,13 +186,27 @@ public abstract class DKV {
    *  Non-blocking. */
   static public void prefetch( String key_name ) {        get(Key.make(key_name),false); }
 
+  /** Start fetching the Value for Key <em>key</em> into the local cache,
+   *  unless it is cached, homed here, or mid-put from here.  Concurrent gets
+   *  of the same Key share the fetch.
+   *  @return The pending fetch, or null if there is nothing to fetch */
+  static RPC<TaskGetKey> fetch( Key key ) {
+    H2O cloud = H2O.CLOUD;
+    Value val = Value.STORE_get(key);
+    if( val != null && (val.rawMem() != null || val.rawPOJO() != null || val.isOffHeap() || val.isPersisted()) )
+      return null;
+    H2ONode home = cloud._memary[key.home(cloud)];
+    if( home == H2O.SELF || home.pendingPutKey(key) != null ) return null;
+    return TaskGetKey.start(home,key);
+  }
+
   static private Value get( Key key, boolean blocking ) {
     // Read the Cloud once per put-attempt, to keep a consistent snapshot.
     H2O cloud = H2O.CLOUD;
     Value val = Value.STORE_get(key);
     // Hit in local cache?
     if( val != null ) {
-      if( val.rawMem() != null || val.rawPOJO() != null || val.isPersisted() )
+      if( val.rawMem() != null || val.rawPOJO() != null || val.isOffHeap() || val.isPersisted() )
         return val;
       assert !key.home(); // Master must have *something*; we got nothing & need to fetch
     }
@@ -0,0 +1,148 @@
+package water;
+
+import water.nbhm.NonBlockingHashMap;
+import water.util.Log;
+import water.util.PhiAccrual;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Liveness of the other nodes, on a channel of its own.
+ * <p>
+ * The {@link HeartBeatThread} multicasts its big heartbeat once a second over
+ * the same socket, threads and buffers as all the other traffic, so under
+ * heavy load heartbeats are late or lost, and a node is only suspected after
+ * a minute of silence.  Here every node sends a tiny ping every
+ * -liveness_interval msec to every other node, member or client, from a UDP
+ * socket, thread and pair of packet buffers used for nothing else, and run at
+ * the highest priority.  The port is picked by the OS, and published in the
+ * {@link HeartBeat}.
+ * <p>
+ * The pings of each peer feed a {@link PhiAccrual} detector; once its phi
+ * passes -phi_threshold the peer is suspected (see {@link #suspect}), which
+ * with the default settings is about 3 seconds after its last ping, where
+ * regular heartbeats say nothing for the first 60.
+ */
+public final class FailureDetector extends Thread {
+  private static final int MAGIC = 0x4832504c;
+  private static final int PING_SIZE = 10; // magic, cloud name hash, port
+  private static final int WINDOW = 100;      // Intervals to estimate from
+  private static final long MIN_STD_MS = 100; // Jitter always tolerated
+  private static final long PAUSE_MS = 2000;  // GC pauses always tolerated
+
+  private static final NonBlockingHashMap<H2ONode,PhiAccrual> DETECTORS = new NonBlockingHashMap<>();
+  private static volatile FailureDetector THE_DETECTOR;
+
+  private final DatagramSocket _sock;
+  private final long _interval;
+  // The buffer budget of the channel: one packet each way, never more
+  private final byte[] _out = new byte[PING_SIZE], _in = new byte[PING_SIZE];
+
+  private FailureDetector( DatagramSocket sock, long interval ) {
+    super("Liveness");
+    setDaemon(true);
+    setPriority(MAX_PRIORITY);
+    _sock = sock;
+    _interval = interval;
+  }
+
+  /** Open the liveness socket and start pinging, unless -liveness_interval
+   *  is 0; publishes the port in the self heartbeat. */
+  static void startDetector() {
+    if( H2O.ARGS.liveness_interval <= 0 ) return;
+    try {
+      DatagramSocket sock = new DatagramSocket(new InetSocketAddress(H2O.SELF_ADDRESS, 0));
+      sock.setSendBufferSize(64 * PING_SIZE);
+      sock.setReceiveBufferSize(64 * PING_SIZE);
+      sock.setTrafficClass(0x10); // IPTOS_LOWDELAY
+      FailureDetector fd = THE_DETECTOR = new FailureDetector(sock, H2O.ARGS.liveness_interval);
+      H2O.SELF._heartbeat._liveness_port = (char)sock.getLocalPort();
+      fd.start();
+      Log.info("Liveness pings every " + H2O.ARGS.liveness_interval + " msec on UDP port " + sock.getLocalPort());
+    } catch( IOException e ) {
+      Log.warn("Cannot open the liveness socket, failure detection falls back to heartbeats: " + e);
+    }
+  }
+
+  static void stopDetector() {
+    FailureDetector fd = THE_DETECTOR;
+    if( fd != null ) fd._sock.close();
+    THE_DETECTOR = null;
+  }
+
+  private static PhiAccrual detector( H2ONode h2o ) {
+    PhiAccrual d = DETECTORS.get(h2o);
+    if( d != null ) return d;
+    PhiAccrual old = DETECTORS.putIfAbsent(h2o, d = new PhiAccrual(WINDOW, MIN_STD_MS, PAUSE_MS));
+    return old == null ? d : old;
+  }
+
+  /** Suspicion level of a node at time now: 0 for this node, and for nodes
+   *  not (yet) pinging */
+  public static double phi( H2ONode h2o, long now ) {
+    PhiAccrual d = h2o == H2O.SELF ? null : DETECTORS.get(h2o);
+    return d == null ? 0 : d.phi(now);
+  }
+
+  /** True if the pings of this node are so overdue that it has likely failed */
+  public static boolean suspect( H2ONode h2o, long now ) {
+    return THE_DETECTOR != null && phi(h2o, now) > H2O.ARGS.phi_threshold;
+  }
+
+  @Override public void run() {
+    ByteBuffer.wrap(_out).putInt(MAGIC).putInt(H2O.ARGS.name.hashCode()).putChar((char)H2O.H2O_PORT);
+    DatagramPacket in = new DatagramPacket(_in, _in.length);
+    long next = 0;
+    while( !_sock.isClosed() ) {
+      try {
+        long now = System.currentTimeMillis();
+        if( now >= next ) {
+          ping();
+          next = now + _interval;
+        }
+        _sock.setSoTimeout((int)Math.max(1, next - now));
+        try {
+          in.setLength(_in.length);
+          _sock.receive(in);
+        } catch( SocketTimeoutException e ) {
+          continue;
+        }
+        received(in);
+      } catch( IOException e ) {
+        if( _sock.isClosed() ) break; // Shutdown
+        Log.err("Liveness socket error", e);
+        try { Thread.sleep(_interval); } catch( InterruptedException ignore ) { }
+      }
+    }
+  }
+
+  // Ping every other node that listens for pings
+  private void ping() throws IOException {
+    ArrayList<H2ONode> peers = new ArrayList<>();
+    for( H2ONode h2o : H2O.CLOUD._memary ) peers.add(h2o);
+    peers.addAll(H2O.getClients());
+    for( H2ONode h2o : peers ) {
+      int port = h2o._heartbeat._liveness_port;
+      if( h2o == H2O.SELF || port == 0 ) continue;
+      try {
+        _sock.send(new DatagramPacket(_out, _out.length, h2o._key.getAddress(), port));
+      } catch( IOException e ) {
+        Log.trace("Liveness ping to " + h2o + " failed: " + e);
+      }
+    }
+  }
+
+  private void received( DatagramPacket in ) {
+    if( in.getLength() != PING_SIZE ) return;
+    ByteBuffer bb = ByteBuffer.wrap(_in);
+    if( bb.getInt() != MAGIC || bb.getInt() != H2O.ARGS.name.hashCode() ) return; // Not ours
+    H2ONode h2o = H2ONode.intern(in.getAddress(), bb.getChar());
+    detector(h2o).heartbeat(System.currentTimeMillis());
+  }
+}
@@ -281,6 +281,37 @@ final public class H2O {
     /** -flatfile=flatfile; Specify a list of cluster IP addresses */
     public String flatfile;
 
+    /** -msg_linger_us=us; hold a batch of small messages to a node open this
+     *  many microseconds for more messages before sending; 0 sends as soon as
+     *  the send queue drains */
+    public int msg_linger_us = 0;
+
+    /** -wire_compress_min=bytes; compress TCP messages to other nodes of at
+     *  least this many bytes, up to the TCP buffer size (64K), if every node in
+     *  the cloud enables it; 0 disables */
+    public int wire_compress_min = 0;
+
+    /** -mr_fanout=k; number of children per node in the tree MRTasks spread
+     *  over the cloud and reduce their results along */
+    public int mr_fanout = 2;
+
+    /** -rack=name; rack of this node; nodes of a rack are kept together in
+     *  the MRTask reduce tree, so that each rack sends one result across racks */
+    public String rack;
+
+    /** -fair_share; share the threads of each node among the running Jobs by
+     *  their weights, rather than first come, first served */
+    public boolean fair_share = false;
+
+    /** -liveness_interval=msec; time between the pings each node sends every
+     *  other node on its own channel, to tell failed nodes quickly; 0 relies on
+     *  the heartbeats alone */
+    public int liveness_interval = 250;
+
+    /** -phi_threshold=phi; suspicion level past which a node not pinging is
+     *  taken as failed: the log10 of the odds against a wrong suspicion */
+    public double phi_threshold = 10;
+
     //-----------------------------------------------------------------------------------
     // Node configuration
     //-----------------------------------------------------------------------------------
@@ -290,6 +321,20 @@ final public class H2O {
     /** -cleaner; enable user-mode spilling of big data to disk in ice_root */
     public boolean cleaner = false;
 
+    /** -off_heap_mb=off_heap_mb; size in megabytes of the off-heap tier holding
+     *  Chunk payloads freed from the Java heap by the Cleaner; 0 disables it */
+    public int off_heap_mb = 0;
+
+    /** -ice_mmap; swap to large memory-mapped segment files in ice_root
+     *  instead of one file per Value */
+    public boolean ice_mmap = false;
+
+    /** -cleaner_policy=lru|lfu|gds|pin; eviction policy for the Cleaner swap */
+    public String cleaner_policy = "lru";
+
+    /** -ice_compress; LZ4-compress Values swapped to ice_root */
+    public boolean ice_compress = false;
+
     /** -nthreads=nthreads; Max number of F/J threads in the low-priority batch queue */
     public short nthreads= (short)Runtime.getRuntime().availableProcessors();
 
@@ -412,6 +457,13 @@ final public class H2O {
       return 0;
     }
 
+    public double parseDouble(String a) {
+      try { return Double.parseDouble(a); }
+      catch (Exception e) { }
+      parseFailed("Argument " + _lastMatchedFor + " must be a number (was given '" + a + "')" );
+      return 0;
+    }
+
     public int parsePort(String portString){
       int portNum = parseInt(portString);
       if(portNum < 0 || portNum > 65535){
@@ -550,6 +602,47 @@ final public class H2O {
       else if(s.matches("cleaner")) {
         trgt.cleaner = true;
       }
+      else if (s.matches("off_heap_mb")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.off_heap_mb = s.parseInt(args[i]);
+      }
+      else if(s.matches("ice_mmap")) {
+        trgt.ice_mmap = true;
+      }
+      else if (s.matches("cleaner_policy")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.cleaner_policy = args[i];
+      }
+      else if (s.matches("ice_compress")) {
+        trgt.ice_compress = true;
+      }
+      else if (s.matches("msg_linger_us")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.msg_linger_us = s.parseInt(args[i]);
+      }
+      else if (s.matches("wire_compress_min")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.wire_compress_min = s.parseInt(args[i]);
+      }
+      else if (s.matches("mr_fanout")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.mr_fanout = s.parseInt(args[i]);
+      }
+      else if (s.matches("rack")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.rack = args[i];
+      }
+      else if (s.matches("fair_share")) {
+        trgt.fair_share = true;
+      }
+      else if (s.matches("liveness_interval")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.liveness_interval = s.parseInt(args[i]);
+      }
+      else if (s.matches("phi_threshold")) {
+        i = s.incrementAndCheck(i, args);
+        trgt.phi_threshold = s.parseDouble(args[i]);
+      }
       else if (s.matches("jks")) {
         i = s.incrementAndCheck(i, args);
         trgt.jks = args[i];
@@ -613,6 +706,32 @@ final public class H2O {
       }
     }
 
+    if (!Arrays.asList(SwapPolicy.NAMES).contains(ARGS.cleaner_policy.toLowerCase())) {
+      parseFailed("Unknown -cleaner_policy " + ARGS.cleaner_policy + ", expected one of " + Arrays.toString(SwapPolicy.NAMES));
+    }
+
+    if (ARGS.msg_linger_us < 0 || ARGS.msg_linger_us > 10000) {
+      parseFailed("-msg_linger_us must be between 0 and 10000 (was given " + ARGS.msg_linger_us + ")");
+    }
+
+    // The codec of a message is picked at its first write, when only up to a
+    // buffer of it is known
+    if (ARGS.wire_compress_min < 0 || ARGS.wire_compress_min > AutoBuffer.TCP_BUF_SIZ) {
+      parseFailed("-wire_compress_min must be between 0 and " + AutoBuffer.TCP_BUF_SIZ + " (was given " + ARGS.wire_compress_min + ")");
+    }
+
+    if (ARGS.mr_fanout < 2 || ARGS.mr_fanout > 64) {
+      parseFailed("-mr_fanout must be between 2 and 64 (was given " + ARGS.mr_fanout + ")");
+    }
+
+    if (ARGS.liveness_interval < 0 || ARGS.liveness_interval >= HeartBeatThread.SLEEP * 10) {
+      parseFailed("-liveness_interval must be between 0 and " + (HeartBeatThread.SLEEP * 10) + " msec (was given " + ARGS.liveness_interval + ")");
+    }
+
+    if (!(ARGS.phi_threshold > 0)) {
+      parseFailed("-phi_threshold must be positive (was given " + ARGS.phi_threshold + ")");
+    }
+
     int login_arg_count = 0;
     if (ARGS.hash_login) login_arg_count++;
     if (ARGS.ldap_login) login_arg_count++;
@@ -682,6 +801,7 @@ final public class H2O {
 
   public static void closeAll() {
     try { NetworkInit._udpSocket.close(); } catch( IOException ignore ) { }
+    FailureDetector.stopDetector();
     try { H2O.getJetty().stop(); } catch( Exception ignore ) { }
     try { NetworkInit._tcpSocket.close(); } catch( IOException ignore ) { }
     PersistManager PM = H2O.getPM();
@@ -1106,6 +1226,7 @@ final public class H2O {
   // made public for ddply
   public static class FJWThr extends ForkJoinWorkerThread {
     public int _priority;
+    Key<Job> _job;              // Job of the task running; see JobScheduler
     FJWThr(ForkJoinPool pool) {
       super(pool);
       _priority = ((PrioritizedForkJoinPool)pool)._priority;
@@ -1166,6 +1287,7 @@ final public class H2O {
     assert MIN_PRIORITY <= priority && priority <= MAX_PRIORITY:"priority " + priority + " is out of range, expected range is < " + MIN_PRIORITY + "," + MAX_PRIORITY + ">";
     if( FJPS[priority]==null )
       synchronized( H2O.class ) { if( FJPS[priority] == null ) FJPS[priority] = new PrioritizedForkJoinPool(priority,-1); }
+    task._submitNanos = System.nanoTime();
     FJPS[priority].submit(task);
     return task;
   }
@@ -1198,6 +1320,10 @@ final public class H2O {
     public T reloadFromBytes(byte [] ary){ return read(new AutoBuffer(ary));}
 
     private /*final*/ byte _priority;
+    // The Job this task works for, by default that of the task creating it
+    transient Key<Job> _schedJob = JobScheduler.current();
+    // When submitted to its priority queue, for the queue wait histogram
+    transient long _submitNanos;
     // Without a completer, we expect this task will be blocked on - so the
     // blocking thread is not available in the current thread pool, so the
     // launched task needs to run at a higher priority.
@@ -1231,6 +1357,7 @@ final public class H2O {
     @Override public final void compute() {
       FJWThr t = (FJWThr)Thread.currentThread();
       int pp = ((PrioritizedForkJoinPool)t.getPool())._priority;
+      final Key<Job> job = t._job;  // Restored after, as compute() nests on joins
       // Drain the high priority queues before the normal F/J queue
       H2OCountedCompleter h2o = null;
       boolean set_t_prior = false;
@@ -1245,6 +1372,8 @@ final public class H2O {
             t._priority = p;      // Set & do it now!
             t.setPriority(Thread.MAX_PRIORITY-1);
             set_t_prior = true;
+            t._job = h2o._schedJob;
+            h2o.queueWaitDone(p);
             h2o.compute2();       // Do it ahead of normal F/J work
             p++;                  // Check again the same queue
           }
@@ -1256,11 +1385,24 @@ final public class H2O {
         else { ex.printStackTrace(); throw ex; }
       } finally {
         t._priority = pp;
+        t._job = job;
         if( pp == MIN_PRIORITY && set_t_prior ) t.setPriority(Thread.NORM_PRIORITY-1);
       }
       // Now run the task as planned
-      if( this instanceof DTask ) icer().compute1(this);
-      else compute2();
+      queueWaitDone(pp);
+      t._job = _schedJob;
+      try {
+        if( this instanceof DTask ) icer().compute1(this);
+        else compute2();
+      } finally {
+        t._job = job;
+      }
+    }
+
+    private void queueWaitDone( int priority ) {
+      if( _submitNanos == 0 ) return; // Forked, not submitted
+      Metrics.recordQueueWait(priority, System.nanoTime() - _submitNanos);
+      _submitNanos = 0;
     }
 
     public void compute1() { compute2(); }
@@ -1498,6 +1640,8 @@ final public class H2O {
     SELF._heartbeat._jar_md5 = JarHash.JARHASH;
     SELF._heartbeat._client = ARGS.client;
     SELF._heartbeat._cloud_name_hash = ARGS.name.hashCode();
+    SELF._heartbeat._wire_compress = ARGS.wire_compress_min > 0;
+    SELF._heartbeat._rack = ARGS.rack;
 
     if(ARGS.client){
       reportClient(H2O.SELF); // report myself as the client to myself
@@ -1524,6 +1668,9 @@ final public class H2O {
       new H2ONode.AckAckTimeOutThread().start();
     }
 
+    // Start the liveness pings, before the first heartbeat publishes their port
+    FailureDetector.startDetector();
+
     // Start the MultiReceiverThread, to listen for multi-cast requests from
     // other Cloud Nodes. There should be only 1 of these, and it never shuts
     // down. Started soon, so we can start parsing multi-cast UDP packets
@@ -1533,6 +1680,7 @@ final public class H2O {
     // mappings periodically to disk. There should be only 1 of these, and it
     // never shuts down.  Needs to start BEFORE the HeartBeatThread to build
     // an initial histogram state.
+    SwapPolicy.POLICY = SwapPolicy.make(ARGS.cleaner_policy);
     Cleaner.THE_CLEANER.start();
 
     // Start the TCPReceiverThread, to listen for TCP requests from other Cloud
@@ -1755,6 +1903,7 @@ final public class H2O {
     // If the K/V mapping is changing, let the store cleaner just overwrite.
     // If the K/V mapping is new, let the store cleaner just create
     if( old != null && val == null ) old.removePersist(); // Remove the old guy
+    else if( old != null ) old.freeOffHeap(); // Overwritten; return any off-heap budget
     if( val != null ) {
       Cleaner.dirty_store(); // Start storing the new guy
       if( old==null ) Scope.track_internal(key); // New Key - start tracking
@@ -18,7 +18,9 @@ import java.nio.channels.DatagramChannel;
 import java.nio.channels.SocketChannel;
 import java.util.*;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A <code>Node</code> in an <code>H2O</code> Cloud.
@@ -130,7 +132,7 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
 
   public boolean isHealthy() { return isHealthy(System.currentTimeMillis()); }
   public boolean isHealthy(long now) {
-    return (now - _last_heard_from) < HeartBeatThread.TIMEOUT;
+    return (now - _last_heard_from) < HeartBeatThread.TIMEOUT && !FailureDetector.suspect(this, now);
   }
 
   // ---------------
@@ -294,6 +296,23 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
     notify();
   }
 
+  // Direct buffers for bulk writes to this node (see AutoBuffer.putA1), made
+  // lazily.  A bulk write holds a TCP socket, so one per socket is kept; any
+  // extra is left to the GC.
+  private transient ByteBuffer _bulkBufs[] = new ByteBuffer[_socks.length];
+  private transient int _bulkAvail = 0;
+  synchronized ByteBuffer getBulkBuffer() {
+    if( _bulkAvail > 0 ) return _bulkBufs[--_bulkAvail];
+    return ByteBuffer.allocateDirect(AutoBuffer.BULK_BUF_SIZ).order(ByteOrder.nativeOrder());
+  }
+  synchronized void freeBulkBuffer( ByteBuffer bb ) {
+    if( _bulkAvail < _bulkBufs.length ) _bulkBufs[_bulkAvail++] = bb;
+  }
+
+  // True if large TCP messages to this node are compressed: agreed on by the
+  // cloud, and offered by this node (clients are not part of the agreement).
+  boolean wireCompress() { return Paxos._wireCompress && _heartbeat._wire_compress; }
+
   // ---------------
   // Send UDP via batched TCP.  Note: has to happen out-of-band with the
   // standard AutoBuffer writing, which can hit the case of needing a TypeId
@@ -302,6 +321,9 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
   // messages which are presented in their entirety (not streamed) thus never
   // need another (nested) TCP channel.
   private transient UDP_TCP_SendThread _sendThread = null; // set notnull if properly interned, and done before first sendMessage
+  // Small message batching stats, across all the send and read threads
+  public static final AtomicLong MSGS_SENT = new AtomicLong(), BATCHES_SENT = new AtomicLong(), SEND_CALLS = new AtomicLong();
+  public static final AtomicLong MSGS_RECV = new AtomicLong(), RECV_CALLS = new AtomicLong();
   public void sendMessage( ByteBuffer bb, byte msg_priority ) { _sendThread.sendMessage(bb,msg_priority); }
 
   /**
@@ -387,17 +409,20 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
         while (!_stopRequested) {            // Forever loop
           try {
             ByteBuffer bb = _msgQ.take(); // take never returns null but blocks instead
+            final long linger = H2O.ARGS.msg_linger_us * 1000L; // See -msg_linger_us
+            final long deadline = System.nanoTime() + linger;
             while( bb != null ) {         // while have an BB to process
               assert !bb.isDirect() : "Direct BBs already got recycled";
-              assert bb.limit()+1+2 <= _bb.capacity() : "Small message larger than the output buffer";
-              if( _bb.remaining() < bb.limit()+1+2 )
-                sendBuffer();     // Send full batch; reset _bb so taken bb fits
-              _bb.putChar((char)bb.limit());
-              _bb.put(bb.array(),0,bb.limit()); // Jam this BB into the existing batch BB, all in one go (it all fits)
-              _bb.put((byte)0xef);// Sentinel byte
+              if( H2O.ARGS.useUDP ) batchDatagram(bb);
+              else batchTCP(bb);
               bb = _msgQ.poll();  // Go get more, same batch
+              if( bb == null && linger > 0 ) { // Hold the batch open a little for more
+                long wait = deadline - System.nanoTime();
+                if( wait > 0 ) bb = _msgQ.poll(wait, TimeUnit.NANOSECONDS);
+              }
             }
-            sendBuffer();         // Send final trailing BBs
+            if( H2O.ARGS.useUDP ) sendDatagram();
+            else sendBuffer();    // Send final trailing BBs
           } catch (IllegalMonitorStateException imse) { /* ignore */
           } catch (InterruptedException e) { /*ignore*/ }
         }
@@ -407,13 +432,31 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
         _chan = null;
       }
     }
-  
+
+    private int _nmsgs;         // Messages in the current batch
+
+    private void batchTCP(ByteBuffer bb) {
+      assert bb.limit()+1+2 <= _bb.capacity() : "Small message larger than the output buffer";
+      if( _bb.remaining() < bb.limit()+1+2 )
+        sendBuffer();     // Send full batch; reset _bb so taken bb fits
+      _bb.putChar((char)bb.limit());
+      _bb.put(bb.array(),0,bb.limit()); // Jam this BB into the existing batch BB, all in one go (it all fits)
+      _bb.put((byte)0xef);// Sentinel byte
+      _nmsgs++;
+    }
+
     void sendBuffer(){
       int retries = 0;
       _bb.flip();                 // limit set to old position; position set to 0
+      if( _nmsgs > 0 ) {
+        MSGS_SENT.addAndGet(_nmsgs);
+        BATCHES_SENT.incrementAndGet();
+        _nmsgs = 0;
+      }
       while( !_stopRequested && _bb.hasRemaining()) {
         try {
           ByteChannel chan = _chan == null ? (_chan=openChan()) : _chan;
+          SEND_CALLS.incrementAndGet();
           chan.write(_bb);
         } catch(IOException ioe) {
           _bb.rewind();           // Position to zero; limit unchanged; retry the operation
@@ -436,7 +479,58 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
       }
       _bb.clear();            // Position set to 0; limit to capacity
     }
-  
+
+    // With -useUDP, messages are batched into datagrams of up to an MTU: a
+    // batch header (ctrl and port, as any packet) then the messages framed as
+    // for TCP.  A lone message goes out as is, without the batch header.
+    private ByteBuffer _first;  // First message of the datagram batch
+
+    void batchDatagram(ByteBuffer bb) {
+      if( !fitsDatagram(bb) )
+        sendDatagram();
+      if( _nmsgs == 0 ) { _first = bb; _bb.position(1+2); }
+      _bb.putChar((char)bb.limit());
+      _bb.put(bb.array(),0,bb.limit());
+      _bb.put((byte)0xef);
+      _nmsgs++;
+    }
+
+    // True if message bb goes in the current datagram, rather than a new one
+    boolean fitsDatagram(ByteBuffer bb) {
+      return _nmsgs == 0 || _bb.position()+2+bb.limit()+1 <= AutoBuffer.MTU;
+    }
+
+    // The datagram batched so far, null if none; clearDatagram() once sent
+    ByteBuffer datagram() {
+      if( _nmsgs == 0 ) return null;
+      if( _nmsgs == 1 ) return ByteBuffer.wrap(_first.array(),0,_first.limit());
+      _bb.put(0,(byte)UDP.udp.batch.ordinal());
+      _bb.putChar(1,(char)H2O.H2O_PORT);
+      _bb.flip();
+      return _bb;
+    }
+
+    void clearDatagram() {
+      _nmsgs = 0;
+      _first = null;
+      _bb.clear();
+    }
+
+    private void sendDatagram() {
+      ByteBuffer bb = datagram();
+      if( bb == null ) return;
+      MSGS_SENT.addAndGet(_nmsgs);
+      BATCHES_SENT.incrementAndGet();
+      SEND_CALLS.incrementAndGet();
+      try {
+        water.init.NetworkInit.CLOUD_DGRAM.send(bb, _key);
+      } catch( IOException ioe ) { // UDP is unreliable anyways; the RPCs resend
+        if( !_stopRequested && !H2O.getShutdownRequested() )
+          Log.warn("Got IO error when sending batch UDP packet: ",ioe);
+      }
+      clearDatagram();
+    }
+
     // Open channel on first write attempt
     private ByteChannel openChan() throws IOException {
       return H2ONode.openChan(TCPReceiverThread.TCP_SMALL, _socketFactory, _key.getAddress(), _key.getPort());
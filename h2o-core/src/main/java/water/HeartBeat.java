@@ -12,6 +12,9 @@ public class HeartBeat extends Iced<HeartBeat> {
   int _cloud_hash;              // Cloud-membership hash
   int _cloud_name_hash;         // Hash of this cloud's name
   boolean _common_knowledge;    // Cloud shares common knowledge
+  boolean _wire_compress;       // Offers to compress large TCP messages
+  String _rack;                 // Rack name, or null; see MRTopology
+  char _liveness_port;          // UDP port of the FailureDetector, or 0
   char _cloud_size;             // Cloud-size this guy is reporting
   long _jvm_boot_msec;          // Boot time of JVM
   public long jvmBootTimeMsec(){return _jvm_boot_msec;}
@@ -140,9 +140,11 @@ public class HeartBeatThread extends Thread {
       // Look for napping Nodes & propose removing from Cloud
       for( H2ONode h2o : cloud._memary ) {
         long delta = now - h2o._last_heard_from;
-        if( delta > SUSPECT ) {// We suspect this Node has taken a dirt nap
+        // We suspect this Node has taken a dirt nap: its pings are overdue, or
+        // without pings, we have not heard from it in a long time
+        if( delta > SUSPECT || FailureDetector.suspect(h2o, now) ) {
           if( !h2o._announcedLostContact ) {
-            Paxos.print("hart: announce suspect node",cloud._memary,h2o.toString());
+            Paxos.print("hart: announce suspect node (phi "+FailureDetector.phi(h2o, now)+")",cloud._memary,h2o.toString());
             h2o._announcedLostContact = true;
           }
         } else if( h2o._announcedLostContact ) {
@@ -6,6 +6,7 @@ import org.eclipse.jetty.server.handler.AbstractHandler;
 import org.eclipse.jetty.server.handler.HandlerCollection;
 import org.eclipse.jetty.server.handler.HandlerWrapper;
 import org.eclipse.jetty.servlet.ServletContextHandler;
+import water.api.ArrowServlet;
 import water.api.DatasetServlet;
 import water.api.NpsBinServlet;
 import water.api.PostFileServlet;
@@ -111,6 +112,8 @@ public class JettyHTTPD extends AbstractHTTPD {
     context.addServlet(PostFileServlet.class, "/3/PostFile");
     context.addServlet(DatasetServlet.class,  "/3/DownloadDataset");
     context.addServlet(DatasetServlet.class,  "/3/DownloadDataset.bin");
+    context.addServlet(ArrowServlet.class,    "/3/DownloadDataset.arrow");
+    context.addServlet(ArrowServlet.class,    "/3/PostFile.arrow");
     context.addServlet(RequestServer.class,   "/");
 
     // Handlers that can only be invoked for an authenticated user (if auth is enabled)
@@ -135,6 +135,14 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     return (Throwable)AutoBuffer.javaSerializeReadPojo(_ex);
   }
 
+  /** Share of the threads of each node this Job's map calls get under
+   *  -fair_share, relative to the other running Jobs; set before start.  See
+   *  {@link JobScheduler}. */
+  public double _cpu_weight = 1;
+  /** Most threads of each node this Job's map calls may use at once under
+   *  -fair_share, or 0 for no cap; set before start. */
+  public int _max_threads;
+
   /** Total expected work. */
   public long _work;            // Total work to-do
   public long _max_runtime_msecs;
@@ -271,7 +279,8 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
         return old;
       }
     }.invoke(LIST);
-    // 4 - Fire off the FJTASK
+    // 4 - Fire off the FJTASK, and all work it starts, in this Job's share
+    fjtask._schedJob = _key;
     H2O.submitTask(fjtask);
     return this;
   }
@@ -295,10 +304,12 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     Barrier1(CountedCompleter cc) { super(cc,0); }
     @Override public void compute() { }
     @Override public void onCompletion(CountedCompleter caller) {
+      removeAllreduceKeys();
       new Barrier1OnCom().apply(Job.this);
       _barrier = null;          // Free for GC
     }
     @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
+      removeAllreduceKeys();
       if(Job.isCancelledException(ex)) {
         new Barrier1OnCom().apply(Job.this);
         _barrier = null;
@@ -313,6 +324,16 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     }
   }
 
+  // Free the allreduce keys of this job on all the nodes, before it is seen
+  // to end
+  private void removeAllreduceKeys() {
+    try {
+      AllReduce.removeJob(_key);
+    } catch (Throwable t) {
+      Log.err(t);
+    }
+  }
+
   static public boolean isCancelledException(Throwable ex) {
     return ex instanceof JobCancelledException || ex.getCause() != null && ex.getCause() instanceof JobCancelledException;
   }
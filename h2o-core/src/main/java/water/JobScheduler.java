@@ -0,0 +1,280 @@
+package water;
+
+import water.nbhm.NonBlockingHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Shares out the map work of a node among the {@link Job}s running on it.
+ *  <p>
+ *  All F/J work of a priority level goes through the same pool, so by
+ *  default a big model build and an interactive query compete chunk for chunk,
+ *  and the query waits behind most of the build.  Tasks are tagged with the
+ *  Job they work for: a Job's top-level task, and every task created while it
+ *  (or a task tagged in turn) runs, including the remote parts of its {@link
+ *  MRTask}s.  Work outside any Job, e.g. Rapids from the REST API, shares one
+ *  untagged bucket.
+ *  <p>
+ *  Every MRTask map call (over one chunk, or one node) is accounted to its
+ *  Job here; with -fair_share it must also be admitted first.  Each active
+ *  Job is entitled to a slice of the node's threads in proportion to its
+ *  {@link Job#_cpu_weight}, and never to more than its {@link
+ *  Job#_max_threads}.  A Job over its slice still runs while no other Job
+ *  waits, so the node stays busy; else its map calls queue until a thread
+ *  frees up, and are then handed out to the Job furthest below its slice.
+ *  Map calls nested in the map calls of their own Job are always admitted,
+ *  as the outer ones may be blocked on them.
+ */
+public final class JobScheduler {
+  private JobScheduler() {}
+
+  /** Per-node share of the map work of a Job */
+  static final class Share {
+    final Key<Job> _job;
+    final double _weight;
+    final int _max_threads;
+    final AtomicInteger _running = new AtomicInteger();
+    final int[] _runningAt = new int[H2O.MAX_PRIORITY+1]; // By priority
+    final ConcurrentLinkedQueue<MRTask> _queue = new ConcurrentLinkedQueue<>();
+    final AtomicInteger _queued = new AtomicInteger();
+    final AtomicLong _tasks = new AtomicLong();
+    final AtomicLong _nanos = new AtomicLong();
+    final long _allNanos0 = ALL_NANOS.get(); // All map time of the node before this Job
+    volatile long _lastUsed = System.currentTimeMillis();
+    Share( Key<Job> job, double weight, int max_threads ) { _job = job; _weight = weight; _max_threads = max_threads; }
+
+    private boolean active() { return _running.get() > 0 || _queued.get() > 0; }
+    private synchronized boolean nested( int priority ) {
+      for( int p = 0; p < priority; p++ ) if( _runningAt[p] > 0 ) return true;
+      return false;
+    }
+    private synchronized void run( int priority, int delta ) { _runningAt[priority] += delta; }
+  }
+
+  private static final AtomicLong ALL_NANOS = new AtomicLong(); // All map time of the node
+  private static final NonBlockingHashMap<Key<Job>,Share> SHARES = new NonBlockingHashMap<>();
+  private static final Share NONE = new Share(null, 1, 0); // Work outside of any Job
+  private static final long IDLE_MS = 10*60*1000; // Forget Jobs idle this long
+
+  /** Job of the task running on this thread, if any */
+  static Key<Job> current() {
+    Thread t = Thread.currentThread();
+    return t instanceof H2O.FJWThr ? ((H2O.FJWThr)t)._job : null;
+  }
+
+  static Share share( Key<Job> job ) {
+    if( job == null ) return NONE;
+    Share s = SHARES.get(job);
+    if( s != null ) return s;
+    double weight = 1;
+    int max_threads = 0;
+    Value val = DKV.get(job);
+    if( val != null && val.isJob() ) {
+      Job j = val.get();
+      weight = j._cpu_weight;
+      max_threads = j._max_threads;
+    }
+    s = new Share(job, weight, max_threads);
+    Share old = SHARES.putIfAbsent(job, s);
+    if( old != null ) return old;
+    sweep();
+    return s;
+  }
+
+  // Drop the Jobs not seen in a while
+  private static void sweep() {
+    long now = System.currentTimeMillis();
+    for( Share s : SHARES.values() )
+      if( !s.active() && now - s._lastUsed > IDLE_MS ) SHARES.remove(s._job, s);
+  }
+
+  private static int threads() { return H2O.ARGS.nthreads > 0 ? H2O.ARGS.nthreads : H2O.NUMCPUS; }
+
+  /** May a map call of s run now, given the other Jobs? */
+  private static boolean admissible( Share s, boolean nested ) {
+    int running = s._running.get();
+    if( s._max_threads > 0 && running >= s._max_threads ) return false;
+    return nested || running < slice(s) || !othersWaiting(s);
+  }
+
+  // Threads this Job is entitled to, out of the node's
+  private static double slice( Share s ) {
+    double sum = s == NONE || NONE.active() ? NONE._weight : 0;
+    for( Share x : SHARES.values() )
+      if( x == s || x.active() ) sum += x._weight;
+    return Math.max(1, threads() * s._weight / sum);
+  }
+
+  private static boolean othersWaiting( Share s ) {
+    if( s != NONE && NONE._queued.get() > 0 ) return true;
+    for( Share x : SHARES.values() )
+      if( x != s && x._queued.get() > 0 ) return true;
+    return false;
+  }
+
+  /** Admit a map call of t to run now, or queue it to be resubmitted once
+   *  admitted.
+   *  @return true if t runs now */
+  static boolean admit( MRTask t ) {
+    Share s = share(t._schedJob);
+    s._lastUsed = System.currentTimeMillis();
+    if( H2O.ARGS.fair_share ) {
+      synchronized( JobScheduler.class ) {
+        if( !admissible(s, s.nested(t.priority())) ) {
+          s._queued.incrementAndGet();
+          s._queue.add(t);
+          return false;
+        }
+        start(s, t);
+      }
+    } else start(s, t);
+    return true;
+  }
+
+  private static void start( Share s, MRTask t ) {
+    s._running.incrementAndGet();
+    s.run(t.priority(), 1);
+  }
+
+  /** A map call of t admitted earlier is done, after nanos of work; hand its
+   *  thread over to the queued map calls */
+  static void release( MRTask t, long nanos ) {
+    finish(t, nanos);
+    if( H2O.ARGS.fair_share ) dispatch();
+  }
+
+  static void finish( MRTask t, long nanos ) {
+    Share s = share(t._schedJob);
+    s.run(t.priority(), -1);
+    s._running.decrementAndGet();
+    s._tasks.incrementAndGet();
+    s._nanos.addAndGet(nanos);
+    ALL_NANOS.addAndGet(nanos);
+  }
+
+  // Resubmit queued map calls for as long as there are any that may run
+  private static void dispatch() {
+    MRTask t;
+    while( (t = next()) != null ) {
+      t._admitted = true;
+      H2O.submitTask(t);
+    }
+  }
+
+  /** The queued map call to run next, of the Job furthest below its slice,
+   *  now started; or null if none may run */
+  static MRTask next() {
+    synchronized( JobScheduler.class ) {
+      Share best = null;
+      double bestUse = Double.MAX_VALUE;
+      for( Share s : candidates() ) {
+        if( s._queued.get() == 0 || !admissible(s, false) ) continue;
+        double use = s._running.get() / slice(s);
+        if( use < bestUse ) { best = s; bestUse = use; }
+      }
+      if( best == null ) return null;
+      MRTask t = best._queue.poll();
+      if( t == null ) return null;
+      best._queued.decrementAndGet();
+      start(best, t);
+      return t;
+    }
+  }
+
+  private static ArrayList<Share> candidates() {
+    ArrayList<Share> res = new ArrayList<>(SHARES.values());
+    res.add(NONE);
+    return res;
+  }
+
+  /** Per-node statistics of the map work of a Job */
+  public static class Stats extends Iced<Stats> {
+    public int _running;        // Map calls running now
+    public int _queued;         // Map calls waiting to be admitted
+    public long _tasks;         // Map calls done
+    public long _cpu_nanos;     // Time spent in map calls
+    public long _all_nanos;     // Time spent in map calls of all Jobs meanwhile
+    void add( Stats s ) {
+      _running += s._running;  _queued += s._queued;  _tasks += s._tasks;
+      _cpu_nanos += s._cpu_nanos;  _all_nanos += s._all_nanos;
+    }
+    /** Fraction of the map work done for this Job, while it ran */
+    public double cpuShare() { return _all_nanos == 0 ? 0 : (double)_cpu_nanos / _all_nanos; }
+  }
+
+  static Stats localStats( Key<Job> job ) {
+    Stats res = new Stats();
+    Share s = job == null ? NONE : SHARES.get(job);
+    if( s == null ) return res;
+    res._running = s._running.get();
+    res._queued = s._queued.get();
+    res._tasks = s._tasks.get();
+    res._cpu_nanos = s._nanos.get();
+    res._all_nanos = ALL_NANOS.get() - s._allNanos0;
+    return res;
+  }
+
+  // Statistics of all the Jobs known to the nodes, summed over the cloud, and
+  // when they were gathered
+  static final long STATS_TTL_MS = 1000;
+  private static volatile HashMap<Key<Job>,Stats> CLOUD_STATS;
+  private static volatile long CLOUD_STATS_MS;
+
+  /** Statistics of the map work of these Jobs, summed over the cloud; up to
+   *  {@link #STATS_TTL_MS} old, so that polling the Jobs does not run a task
+   *  over the cloud every time */
+  public static Stats[] stats( Key<Job>[] jobs ) { return stats(jobs, STATS_TTL_MS); }
+
+  static Stats[] stats( Key<Job>[] jobs, long maxAgeMs ) {
+    HashMap<Key<Job>,Stats> all = cloudStats(maxAgeMs);
+    Stats[] res = new Stats[jobs.length];
+    for( int i = 0; i < jobs.length; i++ ) {
+      Stats s = all.get(jobs[i]);
+      res[i] = s == null ? new Stats() : s;
+    }
+    return res;
+  }
+
+  private static HashMap<Key<Job>,Stats> cloudStats( long maxAgeMs ) {
+    synchronized( StatsTask.class ) { // One gathering at a time; the others wait for it
+      if( CLOUD_STATS == null || System.currentTimeMillis() - CLOUD_STATS_MS >= maxAgeMs ) {
+        long now = System.currentTimeMillis();
+        StatsTask t = new StatsTask().doAllNodes();
+        HashMap<Key<Job>,Stats> all = new HashMap<>();
+        for( int i = 0; i < t._jobs.length; i++ ) all.put(t._jobs[i], t._stats[i]);
+        CLOUD_STATS = all;
+        CLOUD_STATS_MS = now;
+      }
+      return CLOUD_STATS;
+    }
+  }
+
+  // The statistics of the Jobs of every node, merged by Job.  Runs ahead of
+  // the map work it reports on, which it takes no part in.
+  private static class StatsTask extends MRTask<StatsTask> {
+    Key<Job>[] _jobs;
+    Stats[] _stats;
+    StatsTask() { super(H2O.GUI_PRIORITY); }
+    @Override protected void setupLocal() {
+      ArrayList<Key<Job>> jobs = new ArrayList<>(SHARES.keySet());
+      _jobs = jobs.toArray(new Key[jobs.size()]);
+      _stats = new Stats[_jobs.length];
+      for( int i = 0; i < _jobs.length; i++ ) _stats[i] = localStats(_jobs[i]);
+    }
+    @Override public void reduce( StatsTask t ) {
+      HashMap<Key<Job>,Stats> all = new HashMap<>();
+      for( int i = 0; i < _jobs.length; i++ ) all.put(_jobs[i], _stats[i]);
+      for( int i = 0; i < t._jobs.length; i++ ) {
+        Stats s = all.get(t._jobs[i]);
+        if( s == null ) all.put(t._jobs[i], t._stats[i]);
+        else s.add(t._stats[i]);
+      }
+      _jobs = all.keySet().toArray(new Key[all.size()]);
+      _stats = new Stats[_jobs.length];
+      for( int i = 0; i < _jobs.length; i++ ) _stats[i] = all.get(_jobs[i]);
+    }
+  }
+}
@@ -70,12 +70,13 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   *
   *    internal "top-level" fields
   *    ---------------------------
-  *     - RPC<T> _nleft, _nrite: "child" node/JVMs that are doing work
+  *     - RPC<T>[] _nrpcs      : "child" node/JVMs that are doing work
   *     - boolean _topLocal    : "root" MRTask on a local machine
   *     - boolean _topGlobal   : "root" MRTask on the "root" node
   *     - T _left, _rite       : "child" MRTasks on a local machine
   *     - T _res               : "result" MRTask (everything reduced into here)
   *     - int _nlo,_nhi        : range of nodes to do remote work on (divide-conquer; see Diagram 2)
+  *     - short[] _nodes       : node order of the tree, if not by index (see MRTopology)
   *     - Futures _fs          : _topLocal task blocks on _fs for _left and _rite to complete
   *
   *       Diagram 1: N is for Node; T is for Task
@@ -83,7 +84,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   *              3 node cloud              Inside one of the 'N' nodes:
   *                   N1                               T  _topLocal**
   *                 /   \                            /  \
-  *         N2 (_nleft)  N3 (_nrite)         T (_left)   T (_rite)
+  *         N2 (_nrpcs)  N3 (_nrpcs)         T (_left)   T (_rite)
   *
   *                  **: T is also _topGlobal if N==N1
   *
@@ -101,9 +102,9 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   *                ==>       setupLocal0 on N1
   *                            - topLocal=true
   *                            - _fs = new Futures()
-  *                            - nmid = (_nlo + _nhi) >> 1 => split the range of nodes (divide-conquer)
-  *                            - _nleft = remote_compute(_nlo,nmid) => chooses a node in range and does new RPC().call()
-  *                            - _nrite = remote_compute(nmid,_nhi)    serializing MRTask and call dinvoke on remote.
+  *                            - MRTopology.split => split the range of nodes (divide-conquer), in 2 by default
+  *                            - _nrpcs[i] = remote_compute(lo,hi) => chooses a node in range and does new RPC().call()
+  *                                                                   serializing MRTask and call dinvoke on remote.
   *                           /                                 \
   *                         /                                     \
   *                       /                                         \
@@ -149,8 +150,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
    *  style, can not be passed via K/V store).*/
   protected AppendableVec[] _appendables;
 
-  /** Internal field to track the left &amp; right remote nodes/JVMs to work on */
-  transient protected RPC<T> _nleft, _nrite;
+  /** Internal field to track the child remote nodes/JVMs to work on */
+  transient protected RPC<T>[] _nrpcs;
 
   /** Internal field to track if this is a top-level local call */
   transient protected boolean _topLocal; // Top-level local call, returning results over the wire
@@ -167,6 +168,16 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** The range of Nodes to work on remotely */
   protected short _nlo, _nhi;
 
+  /** Node order of the reduce tree, for a cloud with racks; null to go by
+   *  node index from _nlo */
+  private short[] _nodes;
+
+  /** Job whose share of the nodes the map calls run in, if any; see {@link
+   *  JobScheduler} */
+  private Key<Job> _ownerJob;
+  /** Map call admitted by the JobScheduler while queued; resubmitted to run */
+  transient volatile boolean _admitted;
+
   /** Internal field to track a range of local Chunks to work on */
   transient protected int _lo, _hi;
 
@@ -185,6 +196,33 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** Used to invoke profiling.  Call as: <code>new MRTask().profile().doAll();*/
   public T profile() { _profile = new MRProfile(this); return (T)this; }
 
+  /** Key of the allreduce of the node results, or null to reduce up the tree */
+  private Key _allreduceKey;
+  transient private boolean _allreduced;
+
+  /** Reduce the results of the nodes with an {@link AllReduce} among all of
+   *  them, instead of up the tree to the caller: after their local map and
+   *  reduce calls and closeLocal, the nodes swap partial results directly,
+   *  and each ends up with the global result.  {@link #postAllreduce} is then
+   *  called on the global result on every node, and the caller gets it back
+   *  from doAll as usual; the other nodes do not send it back.  For tasks run
+   *  over the whole cloud, from a cloud node, without output Vecs.  Opt-in:
+   *  it only pays off for a task overriding {@link #postAllreduce} to use the
+   *  result on every node, since each node receives log2(cloud size) partial
+   *  results instead of sending one.  Call as:
+   *  <code>new MyTask().allreduce(key).doAll(fr);</code>
+   *  @param key names the allreduce; may be reused by later tasks */
+  public T allreduce( Key key ) { _allreduceKey = key; return self(); }
+
+  /** Override to keep node-local state from the global result of an
+   *  allreduce (see {@link #allreduce(Key)}), e.g. for the next iteration of
+   *  an algorithm to start from.  Called on every node, on the task object
+   *  holding the global result, before postGlobal on the caller. */
+  protected void postAllreduce() { }
+
+  /** The key of the allreduce of this task, or null if not allreduced */
+  protected final Key allreduceKey() { return _allreduceKey; }
+
   /** Get the resulting Frame from this invoked MRTask.  <b>This Frame is not
    *  in the DKV.</b> AppendableVec instances are closed into Vec instances,
    *  which then appear in the DKV.
@@ -301,6 +339,13 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   private int addShift( int x ) { x += _nlo; int sz = H2O.CLOUD.size(); return x < sz ? x : x-sz; }
   private int subShift( int x ) { x -= _nlo; int sz = H2O.CLOUD.size(); return x <  0 ? x+sz : x; }
   private short selfidx() { int idx = H2O.SELF.index(); if( idx>= 0 ) return (short)idx; assert H2O.SELF._heartbeat._client; return 0; }
+  // Whole cloud, in the reduce tree order seen from here
+  private void allNodes() {
+    if( _allreduceKey != null && H2O.ARGS.client )
+      throw new IllegalArgumentException("Only nodes of the cloud take part in an allreduce");
+    _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size();
+    _nodes = H2O.ARGS.client ? null : MRTopology.order(_nlo);
+  }
 
   // Profiling support.  Time for each subpart of a single M/R task, plus any
   // nested MRTasks.  All numbers are CTM stamps or millisecond times.
@@ -405,7 +450,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   public void dfork(Key... keys ) {
     _topGlobal = true;
     _keys = keys;
-    _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size(); // Do Whole Cloud
+    allNodes();                 // Do Whole Cloud
+    _ownerJob = _schedJob;
     setupLocal0();              // Local setup
     H2O.submitTask(this);       // Begin normal execution on a FJ thread
   }
@@ -446,13 +492,16 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
    *  for any length.
    */
   public final T dfork( byte[] types, Frame fr, boolean run_local) {
+    if( _allreduceKey != null && (run_local || (types != null && types.length > 0)) )
+      throw new IllegalArgumentException("An allreduce runs over the whole cloud, without output Vecs");
     _topGlobal = true;
     _output_types = types;
     if( types != null && types.length > 0 )
       _vid = fr.anyVec().group().reserveKeys(types.length);
     _fr = fr;                   // Record vectors to work on
-    _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size(); // Do Whole Cloud
+    allNodes();                 // Do Whole Cloud
     _run_local = run_local;     // Run locally by copying data, or run globally?
+    _ownerJob = _schedJob;
     setupLocal0();              // Local setup
     H2O.submitTask(this);       // Begin normal execution on a FJ thread
     return self();
@@ -498,6 +547,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** Called once on remote at top level, probably with a subset of the cloud.
    *  Called internal by D/F/J.  Not expected to be user-called.  */
   @Override public final void dinvoke(H2ONode sender) {
+    _schedJob = _ownerJob;      // Work for the caller's Job here too
     setupLocal0();              // Local setup
     H2O.submitTask(this);
   }
@@ -509,6 +559,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
    * chunks; call user's init.
    */
   private void setupLocal0() {
+    if( _fr != null ) SwapPolicy.inUse(_fr); // Pin the working set while in use
     if(_profile != null)
       (_profile = new MRProfile(this))._localstart = System.currentTimeMillis();
     // Make a blockable Futures for both internal and user work to block on.
@@ -520,18 +571,20 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     _topLocal = true;
     // Check for global vs local work
     int selfidx = selfidx();
-    int nlo = subShift(selfidx);
+    int nlo = _nodes == null ? subShift(selfidx) : MRTopology.position(_nodes, selfidx);
     assert nlo < _nhi;
-    final int nmid = (nlo+_nhi)>>>1; // Mid-point
 
     // Run remote IF:
     // - Not forced to run local (no remote jobs allowed) AND
     // - - There's remote work, or Client mode (always remote work)
     if( (!_run_local) && ((nlo+1 < _nhi) || H2O.ARGS.client) ) {
       if(_profile!=null) _profile._rpcLstart = System.currentTimeMillis();
-      _nleft = remote_compute(H2O.ARGS.client ? nlo : nlo+1,nmid);
-      if(_profile!=null) _profile._rpcRstart = System.currentTimeMillis();
-      _nrite = remote_compute( nmid,_nhi);
+      int[] cuts = MRTopology.split(MRTopology.racks(_nodes), H2O.ARGS.client ? nlo : nlo+1, _nhi, H2O.ARGS.mr_fanout);
+      _nrpcs = new RPC[cuts.length-1];
+      for( int i = 0; i < _nrpcs.length; i++ ) {
+        _nrpcs[i] = remote_compute(cuts[i], cuts[i+1]);
+        if(_profile!=null && i == 0) _profile._rpcRstart = System.currentTimeMillis();
+      }
       if(_profile!=null) _profile._rpcRdone  = System.currentTimeMillis();
     } else {
       if(_profile!=null)
@@ -542,6 +595,9 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       _lo = 0;  _hi = _fr.numCols()==0 ? 0 : _fr.anyVec().nChunks(); // Do All Chunks
       // get the Vecs from the K/V store, to avoid racing fetches from the map calls
       _fr.vecs();
+      // Fetch the remote chunks the map calls will read, in bulk, alongside them
+      if( !H2O.ARGS.client || _run_local )
+        ChunkPrefetch.start(_fr, _lo, _hi, _run_local, priority());
     } else if( _keys != null ) {    // Else doing a set of Keys
       _lo = 0;  _hi = _keys.length; // Do All Keys
     }
@@ -555,10 +611,13 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   // pending completion to self, so that we complete when the RPC completes.
   private RPC<T> remote_compute( int nlo, int nhi ) {
     if( nlo < nhi ) {  // have remote work
-      int node = addShift(nlo);
+      int node = _nodes == null ? addShift(nlo) : _nodes[nlo];
       assert node != H2O.SELF.index(); // Not the same as selfidx() if this is a client
       T mrt = copyAndInit();
       mrt._nhi = (short) nhi;
+      // With an allreduce, the local work completes ahead of the RPC, and
+      // takes part in the allreduce the RPC waits on
+      if( _allreduceKey != null ) return new RPC<>(H2O.CLOUD._memary[node], mrt).call();
       addToPendingCount(1); // Not complete until the RPC returns
       // Set self up as needing completion by this RPC: when the ACK comes back
       // we'll get a wakeup.
@@ -592,7 +651,24 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       if(_profile!=null) _profile._mapdone = System.currentTimeMillis();
       return;                   // Not complete until the fork completes
     }
-    // Zero or 1 chunks, and further chunk might not be homed here
+    // Zero or 1 chunks, and further chunk might not be homed here.  A map
+    // call runs in its Job's share of the node.
+    boolean work = _hi > _lo && (_fr == null ? _keys[_lo].home() : _run_local || _fr.anyVec().chunkKey(_lo).home());
+    if( work && !_admitted && !JobScheduler.admit(this) )
+      return;                   // Queued; resubmitted once admitted
+    long start = System.nanoTime();
+    try {
+      map0();
+    } finally {
+      if( work ) { _admitted = false; JobScheduler.release(this, System.nanoTime() - start); }
+    }
+    if(_profile!=null)
+      _profile._mapdone = System.currentTimeMillis();
+    tryComplete();
+  }
+
+  // The map calls over zero or 1 chunks, or keys, or the node
+  private void map0() {
     if( _fr==null ) {           // No Frame, so doing Keys?
       if( _keys == null ||     // Once-per-node mode
           _hi > _lo && _keys[_lo].home() ) {
@@ -664,9 +740,6 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         if( _output_types != null) for(NewChunk nch:appendableChunks)nch.close(_lo, _fs);
       }
     }
-    if(_profile!=null)
-      _profile._mapdone = System.currentTimeMillis();
-    tryComplete();
   }
 
   /** OnCompletion - reduce the left and right into self.  Called internal by
@@ -707,14 +780,16 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   private void postLocal0() {
     closeLocal();               // User's node-local cleanup
     if(_profile!=null) _profile._closeLocalDone = System.currentTimeMillis();
-    reduce3(_nleft);            // Reduce global results from neighbors.
-    reduce3(_nrite);
+    if( _allreduceKey != null ) allreduce0();
+    else if( _nrpcs != null )   // Reduce global results from neighbors.
+      for( RPC<T> rpc : _nrpcs ) reduce3(rpc);
     if(_profile!=null) _profile._remoteBlkDone = System.currentTimeMillis();
     _fs.blockForPending();      // Block any pending user tasks
     if(_profile!=null) _profile._localBlkDone = System.currentTimeMillis();
     // Finally, must return all results in 'this' because that is the API -
     // what the user expects
     if( _res == null ) _nhi=-1; // Flag for no local results *at all*
+    else if( _allreduceKey != null && !_topGlobal ) _nhi=-1; // Caller has the allreduced results
     else if( _res != this ) {   // There is a local result, and its not self
       _res._profile = _profile; // Use my profile (not child's)
       copyOver(_res);           // So copy into self
@@ -727,6 +802,19 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
 
   }
 
+  // Allreduce the local results with all other nodes, then block for the RPCs
+  // to complete; their results were part of the allreduce
+  private void allreduce0() {
+    _allreduced = true;
+    _res = new AllReduce<T>() {
+      @Override protected void reduce( T a, T b ) { a.reduce4(b); }
+    }.allreduce(_allreduceKey, _res);
+    if( _nrpcs != null )
+      for( RPC<T> rpc : _nrpcs )
+        if( rpc != null ) rpc.get();
+    if( _res != null ) _res.postAllreduce();
+  }
+
   // Block for RPCs to complete, then reduce global results into self results
   private void reduce3( RPC<T> rpc ) {
     if( rpc == null ) return;
@@ -768,6 +856,13 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
    *  expected to be user-called.  */
   @Override public final boolean onExceptionalCompletion( Throwable ex, CountedCompleter caller ) {
     self_cancel1();
+    // Take part in the allreduce regardless, or the other nodes wait forever
+    if( _allreduceKey != null && _topLocal && !_allreduced ) {
+      _allreduced = true;
+      try {
+        new AllReduce<T>() { @Override protected void reduce( T a, T b ) { } }.allreduce(_allreduceKey, null);
+      } catch( Throwable ignore ) { }
+    }
     // Block for completion - we don't want the work, but we want all the
     // workers stopped before we complete this task.  Otherwise this task quits
     // early and begins post-task processing (generally cleanup from the
@@ -776,8 +871,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
 
     // Since blocking can throw (generally the same exception, again and again)
     // catch & ignore, keeping only the first one we already got.
-    RPC<T> nl = _nleft; if( nl != null ) try { nl.get(); } catch( Throwable ignore ) { } _nleft = null;
-    RPC<T> nr = _nrite; if( nr != null ) try { nr.get(); } catch( Throwable ignore ) { } _nrite = null;
+    RPC<T>[] rpcs = _nrpcs;
+    if( rpcs != null )
+      for( RPC<T> rpc : rpcs )
+        if( rpc != null ) try { rpc.get(); } catch( Throwable ignore ) { }
+    _nrpcs = null;
     return true;
   }
 
@@ -787,7 +885,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     x._topGlobal = false;
     x.setCompleter(this); // Set completer, what used to be a final field
     x._topLocal = false;  // Not a top job
-    x._nleft = x._nrite = null;
+    x._nrpcs = null;
     x. _left = x. _rite = null;
     x._fs = _fs;
     if( _profile!=null )  x._profile = new MRProfile(this);
@@ -0,0 +1,100 @@
+package water;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** The tree an {@link MRTask} spreads over the cloud along, and reduces its
+ *  results back along.  Each node does its local work, launches its children
+ *  on the sub-ranges of nodes under it, and reduces their results into its
+ *  own before returning them to its parent; so both the latency and the
+ *  per-node bandwidth of a reduction grow with the depth of the tree, not the
+ *  size of the cloud.
+ *  <p>
+ *  Nodes are placed in the tree by position, the caller at 0.  By default a
+ *  position is a node index, counted around the cloud from the caller.  Each
+ *  node splits the positions under it into -mr_fanout (2 by default) equal
+ *  sub-ranges, one per child; a larger fanout makes for a shallower tree, at
+ *  the cost of more results reduced per node.
+ *  <p>
+ *  When nodes name their rack with -rack, the positions instead follow an
+ *  explicit order shipped with the task: the caller's rack first, then the
+ *  other racks each in one run.  Sub-ranges are cut on rack boundaries
+ *  where there are any, so that a whole rack sits under one child, and
+ *  sends a single result across racks.
+ */
+final class MRTopology {
+  private MRTopology() {}
+
+  /** Nodes in tree order from self, for a cloud with racks; null for the
+   *  default order by node index. */
+  static short[] order( int self ) {
+    final H2ONode[] nodes = H2O.CLOUD._memary;
+    boolean racks = false;
+    for( H2ONode n : nodes ) racks |= n._heartbeat._rack != null;
+    if( !racks || self < 0 ) return null;
+    final String selfRack = rack(nodes[self]);
+    Short[] order = new Short[nodes.length];
+    for( int i = 0; i < nodes.length; i++ ) order[i] = (short)((self + i) % nodes.length);
+    // Stable sort: the caller, then its rack, then the other racks by name
+    Arrays.sort(order, 1, order.length, new Comparator<Short>() {
+      @Override public int compare( Short a, Short b ) {
+        String ra = rack(nodes[a]), rb = rack(nodes[b]);
+        if( ra.equals(rb) ) return 0;
+        if( ra.equals(selfRack) ) return -1;
+        if( rb.equals(selfRack) ) return 1;
+        return ra.compareTo(rb);
+      }
+    });
+    short[] res = new short[order.length];
+    for( int i = 0; i < res.length; i++ ) res[i] = order[i];
+    return res;
+  }
+
+  /** Position of node idx in order */
+  static int position( short[] order, int idx ) {
+    for( int i = 0; i < order.length; i++ )
+      if( order[i] == idx ) return i;
+    throw new IllegalStateException("Node " + idx + " is not in the reduce tree " + Arrays.toString(order));
+  }
+
+  /** Racks of the nodes in order; null for the default order */
+  static String[] racks( short[] order ) {
+    if( order == null ) return null;
+    String[] res = new String[order.length];
+    for( int i = 0; i < order.length; i++ ) res[i] = rack(H2O.CLOUD._memary[order[i]]);
+    return res;
+  }
+
+  private static String rack( H2ONode n ) { String r = n._heartbeat._rack; return r == null ? "" : r; }
+
+  /** Split positions [lo,hi) among the children of a node: at rack
+   *  boundaries if racks is given and there are any, else evenly.
+   *  @return the cut points, lo first and hi last, at most fanout+1 of them */
+  static int[] split( String[] racks, int lo, int hi, int fanout ) {
+    assert lo < hi && fanout >= 2;
+    if( racks != null ) {
+      ArrayList<Integer> cuts = new ArrayList<>();
+      cuts.add(lo);
+      for( int i = lo + 1; i < hi; i++ )
+        if( !racks[i].equals(racks[i-1]) ) cuts.add(i);
+      cuts.add(hi);
+      if( cuts.size() > 2 ) {
+        // Too many racks: merge the neighbors smallest together
+        while( cuts.size() - 1 > fanout ) {
+          int best = 1;
+          for( int j = 2; j < cuts.size() - 1; j++ )
+            if( cuts.get(j+1) - cuts.get(j-1) < cuts.get(best+1) - cuts.get(best-1) ) best = j;
+          cuts.remove(best);
+        }
+        int[] res = new int[cuts.size()];
+        for( int j = 0; j < res.length; j++ ) res[j] = cuts.get(j);
+        return res;
+      }
+    }
+    int n = Math.min(fanout, hi - lo);
+    int[] res = new int[n + 1];
+    for( int j = 0; j <= n; j++ ) res[j] = lo + (int)((long)(hi - lo) * j / n);
+    return res;
+  }
+}
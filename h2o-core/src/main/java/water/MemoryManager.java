@@ -1,6 +1,7 @@
 package water;
 
 import java.lang.management.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.management.Notification;
@@ -313,7 +314,7 @@ abstract public class MemoryManager {
    * @param m - requested number of bytes
    * @return true if there is enough free memory
    */
-  static boolean tryReserveTaskMem(long m){
+  public static boolean tryReserveTaskMem(long m){
     if(!CAN_ALLOC)return false;
     if( m == 0 ) return true;
     assert m >= 0:"m < 0: " + m;
@@ -346,11 +347,78 @@ abstract public class MemoryManager {
    * Free the memory successfully reserved by task.
    * @param m
    */
-  static void freeTaskMem(long m){
+  public static void freeTaskMem(long m){
     if(m == 0)return;
     _taskMem.addAndGet(m);
     synchronized(_taskMemLock){
       _taskMemLock.notifyAll();
     }
   }
+
+  // Off-heap memory held by Chunk payloads (see Value.storeOffHeap).  Direct
+  // buffers are released by GC once unreferenced, so this is the amount the
+  // K/V store is accountable for, not the amount the JVM has yet to reclaim.
+  static final AtomicLong _offHeapMem = new AtomicLong(0);
+  // Size of the last allocation the tier had no room for, until one succeeds
+  static final AtomicLong _offHeapWant = new AtomicLong(0);
+
+  /** Size of the off-heap tier in bytes, from -off_heap_mb.  Zero if the
+   *  tier is disabled. */
+  static long offHeapMax() { return (long)H2O.ARGS.off_heap_mb << 20; }
+  static boolean offHeapEnabled() { return H2O.ARGS.off_heap_mb > 0; }
+  /** Bytes currently held off-heap by Values */
+  static long offHeapUsed() { return _offHeapMem.get(); }
+  /** High-water mark of the off-heap tier: 90% of its size.  Above it, the
+   *  Cleaner evicts old off-heap Values, so that new ones still fit. */
+  static long offHeapHighWater() { return offHeapMax() / 10 * 9; }
+  /** True if the off-heap tier is above its high-water mark, counting the
+   *  last allocation it had no room for, and the Cleaner should evict (spill
+   *  to disk) off-heap Values. */
+  static boolean offHeapFull() {
+    return offHeapEnabled() && _offHeapMem.get() + _offHeapWant.get() > offHeapHighWater();
+  }
+
+  /**
+   * Allocate a direct buffer for an off-heap Value copy, or return null if
+   * the off-heap tier is disabled or the allocation would exceed its budget.
+   * Never blocks; the caller falls back to spilling to disk, and the Cleaner
+   * evicts old off-heap Values until the allocation would fit.
+   *
+   * @param bytes - requested number of bytes
+   * @return a direct buffer of exactly bytes capacity, or null
+   */
+  static ByteBuffer mallocOffHeap(int bytes) {
+    if( !offHeapEnabled() ) return null;
+    long current = _offHeapMem.addAndGet(bytes);
+    if( current > offHeapMax() ) {
+      _offHeapMem.addAndGet(-bytes);
+      return wantOffHeap(bytes);
+    }
+    try {
+      ByteBuffer bb = ByteBuffer.allocateDirect(bytes);
+      _offHeapWant.set(0);
+      return bb;
+    } catch( OutOfMemoryError e ) {
+      // Hit -XX:MaxDirectMemorySize; same as being over budget
+      _offHeapMem.addAndGet(-bytes);
+      return wantOffHeap(bytes);
+    }
+  }
+
+  // Ask the Cleaner to make room for a failed allocation, if it can ever fit
+  private static ByteBuffer wantOffHeap(int bytes) {
+    if( bytes <= offHeapHighWater() ) {
+      _offHeapWant.set(bytes);
+      Cleaner.kick_store_cleaner();
+    }
+    return null;
+  }
+
+  /**
+   * Return the budget for a dropped off-heap Value copy.
+   * @param bytes - capacity of the released buffer
+   */
+  static void freeOffHeap(int bytes) {
+    _offHeapMem.addAndGet(-bytes);
+  }
 }
@@ -0,0 +1,132 @@
+package water;
+
+import water.nbhm.NonBlockingHashMap;
+import water.util.AtomicHistogram;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Always-on latency and traffic histograms for the node, next to the raw
+ * packet events of {@link TimeLine}:
+ * <ul>
+ * <li>h2o_rpc_latency_seconds: from the start of an {@link RPC} to its answer,
+ *     by task class;</li>
+ * <li>h2o_queue_wait_seconds: from the submission of a task to a priority
+ *     queue to a thread starting it, by priority;</li>
+ * <li>h2o_sent_bytes and h2o_received_bytes: sizes of the messages to and
+ *     from each other node.</li>
+ * </ul>
+ * Each is an {@link AtomicHistogram}, recorded into without locking; the
+ * snapshots of all nodes are served as JSON at /3/Metrics, and in the
+ * Prometheus text format at /3/Metrics/prometheus.
+ */
+public final class Metrics {
+  private Metrics() {}
+
+  private static final NonBlockingHashMap<String,AtomicHistogram> RPC_LATENCY = new NonBlockingHashMap<>();
+  private static final AtomicHistogram[] QUEUE_WAIT = new AtomicHistogram[H2O.MAX_PRIORITY+1];
+  private static final NonBlockingHashMap<H2ONode,AtomicHistogram> SENT = new NonBlockingHashMap<>();
+  private static final NonBlockingHashMap<H2ONode,AtomicHistogram> RECEIVED = new NonBlockingHashMap<>();
+
+  private static <K> AtomicHistogram hist( NonBlockingHashMap<K,AtomicHistogram> map, K k ) {
+    AtomicHistogram h = map.get(k);
+    if( h != null ) return h;
+    AtomicHistogram old = map.putIfAbsent(k, h = new AtomicHistogram());
+    return old == null ? h : old;
+  }
+
+  static void recordRPC( DTask dt, long nanos ) { hist(RPC_LATENCY, dt.getClass().getName()).record(nanos); }
+
+  static void recordQueueWait( int priority, long nanos ) {
+    AtomicHistogram h = QUEUE_WAIT[priority];
+    if( h == null )
+      synchronized( QUEUE_WAIT ) {
+        if( (h = QUEUE_WAIT[priority]) == null ) QUEUE_WAIT[priority] = h = new AtomicHistogram();
+      }
+    h.record(nanos);
+  }
+
+  static void recordSent( H2ONode h2o, long bytes ) { hist(SENT, h2o).record(bytes); }
+  static void recordReceived( H2ONode h2o, long bytes ) { hist(RECEIVED, h2o).record(bytes); }
+
+  /** The histograms of one node */
+  public static class Snapshot extends Iced<Snapshot> {
+    public String _node;
+    public String[] _names;     // Metric names
+    public String[] _labels;    // Prometheus labels, e.g. task="water.TaskGetKey"
+    public boolean[] _seconds;  // Recorded in nanoseconds, reported in seconds
+    public AtomicHistogram.Snapshot[] _hists;
+  }
+
+  static Snapshot localSnapshot() {
+    ArrayList<String> names = new ArrayList<>(), labels = new ArrayList<>();
+    ArrayList<AtomicHistogram.Snapshot> hists = new ArrayList<>();
+    for( Map.Entry<String,AtomicHistogram> e : RPC_LATENCY.entrySet() ) {
+      names.add("h2o_rpc_latency_seconds");  labels.add("task=\"" + e.getKey() + "\"");  hists.add(e.getValue().snapshot());
+    }
+    for( int p = 0; p < QUEUE_WAIT.length; p++ )
+      if( QUEUE_WAIT[p] != null ) {
+        names.add("h2o_queue_wait_seconds");  labels.add("priority=\"" + p + "\"");  hists.add(QUEUE_WAIT[p].snapshot());
+      }
+    int nsec = names.size();
+    for( Map.Entry<H2ONode,AtomicHistogram> e : SENT.entrySet() ) {
+      names.add("h2o_sent_bytes");  labels.add("peer=\"" + e.getKey() + "\"");  hists.add(e.getValue().snapshot());
+    }
+    for( Map.Entry<H2ONode,AtomicHistogram> e : RECEIVED.entrySet() ) {
+      names.add("h2o_received_bytes");  labels.add("peer=\"" + e.getKey() + "\"");  hists.add(e.getValue().snapshot());
+    }
+    Snapshot s = new Snapshot();
+    s._node = H2O.SELF.toString();
+    s._names = names.toArray(new String[names.size()]);
+    s._labels = labels.toArray(new String[labels.size()]);
+    s._hists = hists.toArray(new AtomicHistogram.Snapshot[hists.size()]);
+    s._seconds = new boolean[s._names.length];
+    for( int i = 0; i < nsec; i++ ) s._seconds[i] = true;
+    return s;
+  }
+
+  /** The histograms of every node of the cloud, by node index */
+  public static Snapshot[] snapshots() { return new SnapshotTask().doAllNodes()._snaps; }
+
+  private static class SnapshotTask extends MRTask<SnapshotTask> {
+    Snapshot[] _snaps;
+    @Override protected void setupLocal() {
+      _snaps = new Snapshot[H2O.CLOUD.size()];
+      int idx = H2O.SELF.index();
+      if( idx >= 0 ) _snaps[idx] = localSnapshot();
+    }
+    @Override public void reduce( SnapshotTask t ) {
+      for( int i = 0; i < _snaps.length; i++ )
+        if( _snaps[i] == null ) _snaps[i] = t._snaps[i];
+    }
+  }
+
+  public static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  private static final String[] FAMILIES = {"h2o_rpc_latency_seconds", "h2o_queue_wait_seconds", "h2o_sent_bytes", "h2o_received_bytes"};
+
+  /** All the histograms of the cloud, in the Prometheus text exposition
+   *  format, as summaries with a node label */
+  public static String prometheus() {
+    Snapshot[] snaps = snapshots();
+    StringBuilder sb = new StringBuilder();
+    for( String name : FAMILIES ) {
+      sb.append("# TYPE ").append(name).append(" summary\n");
+      for( Snapshot s : snaps ) {
+        if( s == null ) continue;
+        for( int i = 0; i < s._names.length; i++ ) {
+          if( !name.equals(s._names[i]) ) continue;
+          String labels = "node=\"" + s._node + "\"," + s._labels[i];
+          AtomicHistogram.Snapshot h = s._hists[i];
+          double scale = s._seconds[i] ? 1e-9 : 1;
+          for( double q : QUANTILES )
+            sb.append(name).append('{').append(labels).append(",quantile=\"").append(q).append("\"} ")
+              .append(h.quantile(q) * scale).append('\n');
+          sb.append(name).append("_sum{").append(labels).append("} ").append(h.sum() * scale).append('\n');
+          sb.append(name).append("_count{").append(labels).append("} ").append(h.count()).append('\n');
+        }
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -29,6 +29,9 @@ public abstract class Paxos {
   // Whether or not we're allowing distributed-writes.  The cloud is not
   // allowed to change shape once we begin writing.
   public static volatile boolean _cloudLocked = false;
+  // Whether large TCP messages are compressed: agreed on with the cloud, only
+  // if every member offers it.
+  public static volatile boolean _wireCompress = false;
 
   public static final NonBlockingHashMap<H2Okey,H2ONode> PROPOSED = new NonBlockingHashMap<>();
 
@@ -122,6 +125,12 @@ public abstract class Paxos {
     for( H2ONode h2o2 : h2os )
       if( !h2o2._heartbeat._common_knowledge )
         return print("Missing common knowledge from all nodes!" ,PROPOSED);
+    boolean wire_compress = H2O.SELF._heartbeat._wire_compress;
+    for( H2ONode h2o2 : h2os )
+      wire_compress &= h2o2._heartbeat._wire_compress;
+    if( wire_compress != _wireCompress )
+      Log.info("Compression of large TCP messages ", wire_compress ? "enabled" : "disabled", " for the cloud");
+    _wireCompress = wire_compress;
     _commonKnowledge = true;    // Yup!  Have global consensus
 
     Paxos.class.notifyAll(); // Also, wake up a worker thread stuck in DKV.put
@@ -67,6 +67,7 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
 
   // Time we started this sucker up.  Controls re-send behavior.
   final long _started;
+  private final long _startNanos; // For the latency histogram
   long _retry;                  // When we should attempt a retry
 
   int _resendsCnt;
@@ -116,6 +117,7 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
     _target = target;
     _dt = dtask;
     _started = System.currentTimeMillis();
+    _startNanos = System.nanoTime();
     _retry = RETRY_MS;
   }
   RPC<V> setTaskNum() {
@@ -599,6 +601,7 @@ public class RPC<V extends DTask> implements Future<V>, Delayed, ForkJoinPool.Ma
           if (!isCancelled())       // Can be canceled already (locally by MRTask while recieving remote answer)
             _dt.onAck();            // One time only execute (before sending ACKACK)
           _done = true;             // Only read one (of many) response packets
+          Metrics.recordRPC(_dt, System.nanoTime() - _startNanos);
           ab._h2o.taskRemove(_tasknum); // Flag as task-completed, even if the result is null
           notifyAll();              // And notify in any case
         }
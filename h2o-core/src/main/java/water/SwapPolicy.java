@@ -0,0 +1,140 @@
+package water;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import water.fvec.Frame;
+import water.nbhm.NonBlockingHashMap;
+
+/** Eviction policy for the {@link Cleaner} user-mode swap.
+ *  <p>
+ *  The Cleaner builds a histogram of cached bytes over a per-Value score, and
+ *  swaps out the Values with the lowest scores until the cache is back under
+ *  the desired level.  The policy supplies the score; the historic behavior
+ *  (score by last access time) is {@link LRU}.  Pinned Values are never
+ *  swapped.  Selected at startup with {@code -cleaner_policy}.
+ *  <p>
+ *  Each policy counts bytes swapped out of the heap, bytes reloaded, and
+ *  bytes re-swapped - swapped again after a reload, a sign of thrashing.
+ *  These are reported by {@link water.util.WaterMeterIo}.
+ */
+public abstract class SwapPolicy {
+  /** Names accepted by -cleaner_policy */
+  public static final String[] NAMES = new String[]{"lru","lfu","gds","pin"};
+
+  // The active policy; LRU until startup reads -cleaner_policy
+  static volatile SwapPolicy POLICY = new LRU();
+  public static SwapPolicy current() { return POLICY; }
+
+  static SwapPolicy make( String name ) {
+    switch( name.toLowerCase() ) {
+    case "lru": return new LRU();
+    case "lfu": return new LFU();
+    case "gds": return new GreedyDualSize();
+    case "pin": return new PinRunning();
+    default: throw new IllegalArgumentException("Unknown cleaner policy "+name+", expected one of lru, lfu, gds, pin");
+    }
+  }
+
+  /** Short name, as given to -cleaner_policy */
+  public abstract String name();
+
+  /** Eviction score; Values with lower scores are swapped first */
+  abstract long score( Value v );
+
+  /** Upper end of the histogram range for the next pass.
+   *  @param newest highest score seen in the last pass
+   *  @param now current time in msec */
+  long ceiling( long newest, long now ) { return newest; }
+
+  /** True if the Value must not be swapped out at all */
+  boolean pinned( Value v ) { return false; }
+
+  /** Called once per Value on every Cleaner sweep; used to age scores */
+  void age( Value v ) { }
+
+  /** Called once at the start of every Cleaner sweep */
+  void sweep() { }
+
+  // --- Counters
+  private final AtomicLong _swapped   = new AtomicLong();
+  private final AtomicLong _reloaded  = new AtomicLong();
+  private final AtomicLong _reswapped = new AtomicLong();
+  public long swappedBytes()   { return _swapped  .get(); }
+  public long reloadedBytes()  { return _reloaded .get(); }
+  public long reswappedBytes() { return _reswapped.get(); }
+
+  // The Cleaner freed the on-heap forms of v
+  void swapped( Value v ) {
+    _swapped.addAndGet(v._max);
+    if( v._reloaded ) { v._reloaded = false; _reswapped.addAndGet(v._max); }
+  }
+  // v was reloaded from disk or the off-heap tier
+  void reloaded( Value v ) {
+    v._reloaded = true;
+    _reloaded.addAndGet(v._max);
+  }
+
+  /** Least recently used: score by last access time */
+  static class LRU extends SwapPolicy {
+    @Override public String name() { return "lru"; }
+    @Override long score( Value v ) { return v._lastAccessedTime; }
+    @Override long ceiling( long newest, long now ) { return now; }
+  }
+
+  /** Least frequently used: score by access count, halved every sweep so
+   *  that formerly hot Values eventually age out. */
+  static class LFU extends SwapPolicy {
+    @Override public String name() { return "lfu"; }
+    @Override long score( Value v ) { return v._hits; }
+    @Override void age( Value v ) { v._hits >>= 1; }
+  }
+
+  /** GreedyDual-Size, with the clock standing in for the inflation value L:
+   *  score = last access + cost/size.  Small Values earn more credit than
+   *  big ones, so big stale Values go first and many small hot ones stay. */
+  static class GreedyDualSize extends SwapPolicy {
+    // Credit in msec for a 1Mb Value; scales inversely with size
+    static final long CREDIT_MS_PER_MB = 1000;
+    static final long MAX_CREDIT_MS = 60*1000;
+    @Override public String name() { return "gds"; }
+    @Override long score( Value v ) {
+      long credit = (CREDIT_MS_PER_MB<<20)/Math.max(v._max,1);
+      return v._lastAccessedTime + Math.min(credit,MAX_CREDIT_MS);
+    }
+    @Override long ceiling( long newest, long now ) { return Math.max(newest,now); }
+  }
+
+  /** LRU, except that Chunks of Frames in use by running Jobs are pinned.  A
+   *  Frame is in use while MRTasks run over it on this node, and for a linger
+   *  period afterwards so the gaps between an iterative Job's passes do not
+   *  unpin its training data. */
+  static class PinRunning extends LRU {
+    static final long LINGER_MS = 60*1000;
+    // Vec Key -> last time an MRTask started on it
+    private final NonBlockingHashMap<Key,Long> _inUse = new NonBlockingHashMap<>();
+    @Override public String name() { return "pin"; }
+    @Override boolean pinned( Value v ) {
+      if( !v._key.isChunkKey() ) return false;
+      Long t = _inUse.get(v._key.getVecKey());
+      return t != null && System.currentTimeMillis() - t < LINGER_MS;
+    }
+    @Override void sweep() {    // Expire lingering entries
+      long now = System.currentTimeMillis();
+      for( Map.Entry<Key,Long> e : _inUse.entrySet() )
+        if( now - e.getValue() >= LINGER_MS )
+          _inUse.remove(e.getKey(),e.getValue());
+    }
+    void markInUse( Frame fr ) {
+      Long now = System.currentTimeMillis();
+      for( Key k : fr.keys() )
+        if( k != null ) _inUse.put(k,now);
+    }
+  }
+
+  /** Note that an MRTask is starting over this Frame on this node; used to
+   *  pin the Frame's Chunks.  Cheap no-op for the other policies. */
+  static void inUse( Frame fr ) {
+    SwapPolicy p = POLICY;
+    if( p instanceof PinRunning ) ((PinRunning)p).markInUse(fr);
+  }
+}
@@ -215,6 +215,7 @@ public class TCPReceiverThread extends Thread {
         _bb.compact();            // move data down to 0, set position to remaining bytes
         while(_bb.position() < n) {
           int res = _chan.read(_bb); // Slide position forward (up to limit)
+          H2ONode.RECV_CALLS.incrementAndGet();
           if (res <= 0) throw new IOException("Didn't read any data: res=" + res);         // no eof & progress made
           _h2o._last_heard_from = System.currentTimeMillis();
         }
@@ -237,6 +238,7 @@ public class TCPReceiverThread extends Thread {
           int sentinel = read(sz+1).get(ary,0,sz).get(); // extract the message bytes, then the sentinel byte
           assert (0xFF & sentinel) == 0xef : "Missing expected sentinel (0xef) at the end of the message from " + _h2o + ", likely out of sync, size = " + sz + ", position = " + _bb.position() +", bytes = " + printBytes(_bb, _bb.position(), sz);
           // package the raw bytes into an array and pass it on to FJQ for further processing
+          H2ONode.MSGS_RECV.incrementAndGet();
           UDPReceiverThread.basic_packet_handling(new AutoBuffer(_h2o, ary, 0, sz));
         }
       } catch(Throwable t) {
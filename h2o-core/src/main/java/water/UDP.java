@@ -40,7 +40,8 @@ public abstract class UDP {
     // We'll hang on to these packets; filter out dup sends and auto-reply
     // identical result ACK packets.
     exec(false,new RPC.RemoteHandler(),H2O.DESERIAL_PRIORITY), // Remote hi-q execution request
-    i_o (false,new UDP.IO_record(),(byte)-1); // Only used to profile I/O
+    i_o (false,new UDP.IO_record(),(byte)-1), // Only used to profile I/O
+    batch(true,new UDP.Batch(),(byte)-1);     // Small messages coalesced into one datagram
 
     final UDP _udp;           // The Callable S.A.M. instance
     final byte _prior;        // Priority
@@ -73,6 +74,11 @@ public abstract class UDP {
     UnsafeUtils.set8(pbuf, 8, hi);
     return udp.UDPS[(int)(lo&0xFF)]._udp.print16(new AutoBuffer(pbuf));
   }
+  // Split up by the receiver into its messages, which are each handled (and
+  // checked for Cloud membership) on their own
+  private static class Batch extends UDP {
+    AutoBuffer call(AutoBuffer ab) { throw H2O.fail(); }
+  }
   private static class IO_record extends UDP {
     AutoBuffer call(AutoBuffer ab) { throw H2O.fail(); }
     String print16( AutoBuffer ab ) {
@@ -1,6 +1,7 @@
 package water;
 
 import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Random;
 
@@ -88,6 +89,10 @@ public class UDPReceiverThread extends Thread {
     // Cloud... because we use Timelines to diagnose Paxos failures.
     int ctrl = ab.getCtrl();
     ab.getPort(); // skip the port bytes
+    if( ctrl == UDP.udp.batch.ordinal() ) {
+      batch_packet_handling(ab);
+      return;
+    }
     if( ctrl == UDP.udp.timeline.ordinal() ) {
       UDP.udp.timeline._udp.call(ab);
       return;
@@ -145,4 +150,36 @@ public class UDPReceiverThread extends Thread {
 
     H2O.submitTask(new FJPacket(ab,ctrl));
   }
+
+  // A datagram of several small messages, framed as on the batched TCP
+  // channel: 2 bytes of size, the message, and a 0xef sentinel.  Each message
+  // is handled as if it came in its own packet.
+  static private void batch_packet_handling( AutoBuffer ab ) throws java.io.IOException {
+    H2ONode.RECV_CALLS.incrementAndGet();
+    for( byte[] ary : unbatch(ab) ) {
+      H2ONode.MSGS_RECV.incrementAndGet();
+      basic_packet_handling(new AutoBuffer(ab._h2o, ary, 0, ary.length));
+    }
+    ab.close();
+  }
+
+  // The messages of a batch datagram, past its ctrl and port, up to the first
+  // truncated or malformed one
+  static ArrayList<byte[]> unbatch( AutoBuffer ab ) {
+    ArrayList<byte[]> msgs = new ArrayList<>();
+    while( ab.position() < ab._size ) {
+      int sz = ab.position()+2 <= ab._size ? ab.get2() : -1;
+      if( sz < 0 || ab.position()+sz+1 > ab._size ) {
+        Log.warn("Dropping truncated UDP batch from "+ab._h2o);
+        break;
+      }
+      byte[] ary = ab.getA1(sz);
+      if( ab.get1U() != 0xef ) {
+        Log.warn("Dropping malformed UDP batch from "+ab._h2o);
+        break;
+      }
+      msgs.add(ary);
+    }
+    return msgs;
+  }
 }
@@ -1,6 +1,7 @@
 package water;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import jsr166y.ForkJoinPool;
@@ -94,16 +95,61 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private volatile Freezable _pojo;
   Freezable rawPOJO() { return _pojo; }
 
+  // ---
+  // An off-heap copy of the _mem array, or NULL.  Only Chunks are moved
+  // off-heap, and only by the Cleaner when the off-heap tier is enabled
+  // (-off_heap_mb).  Once set, the Cleaner may free both _mem and _pojo
+  // without a disk write; memOrLoad materializes a fresh on-heap byte[] from
+  // here when the Chunk is next used.  Budgeted by the MemoryManager, and
+  // dropped when the Value is deleted or evicted to disk.
+  private volatile ByteBuffer _offHeap;
+  private static final AtomicReferenceFieldUpdater<Value,ByteBuffer> OFFHEAP_UPDATER =
+    AtomicReferenceFieldUpdater.newUpdater(Value.class,ByteBuffer.class, "_offHeap");
+  /** Check if a copy of the byte[] is held in off-heap memory */
+  public final boolean isOffHeap() { return _offHeap != null; }
+
+  /** Copy the byte[] form into off-heap memory, so the Cleaner can free the
+   *  on-heap forms without a disk write.  Only called by the Cleaner.
+   *  @return false if the off-heap tier has no room for this Value */
+  boolean storeOffHeap() {
+    if( _offHeap != null ) return true;
+    if( isDeleted() ) return false;
+    byte[] mem = memOrLoad();
+    ByteBuffer bb = MemoryManager.mallocOffHeap(mem.length);
+    if( bb == null ) return false;
+    bb.put(mem);
+    if( OFFHEAP_UPDATER.compareAndSet(this,null,bb) ) return true;
+    MemoryManager.freeOffHeap(bb.capacity()); // Racing store; keep the other copy
+    return true;
+  }
+  /** Drop the off-heap copy, if any, and return its budget to the
+   *  MemoryManager.  Called by the Cleaner after evicting to disk, and when
+   *  the Value is removed from the K/V store. */
+  void freeOffHeap() {
+    ByteBuffer bb = OFFHEAP_UPDATER.getAndSet(this,null);
+    if( bb != null ) MemoryManager.freeOffHeap(bb.capacity());
+  }
+  // Materialize an on-heap copy of the off-heap bytes, or null if none
+  private byte[] loadOffHeap() {
+    ByteBuffer bb = _offHeap;   // Read once!
+    if( bb == null ) return null;
+    byte[] mem = MemoryManager.malloc1(bb.capacity());
+    ByteBuffer dup = bb.duplicate(); // Private position; racing readers are fine
+    dup.clear();
+    dup.get(mem);
+    return mem;
+  }
+
   /** Invalidate byte[] cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freeMem() {
-    assert isPersisted() || _pojo != null || _key.isChunkKey();
+    assert isPersisted() || isOffHeap() || _pojo != null || _key.isChunkKey();
     _mem = null;
   }
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || isOffHeap() || _mem != null;
     _pojo = null;
   }
 
@@ -117,11 +163,17 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     if( pojo != null )          // Has the POJO, make raw bytes
       return _mem = pojo.asBytes();
     if( _max == 0 ) return (_mem = new byte[0]);
-    return (_mem = loadPersist());
+    mem = loadOffHeap(); // Off-heap is cheaper than disk
+    if( mem == null ) {
+      mem = loadPersist();
+      if( !onICE() ) return (_mem = mem); // First read of file data, not a swap-in
+    }
+    SwapPolicy.current().reloaded(this);
+    return (_mem = mem);
   }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _offHeap == null && !isPersisted(); }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
@@ -155,9 +207,13 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   }
 
   // ---
-  // Time of last access to this value.
+  // Time of last access to this value, and a racy count of accesses which
+  // the LFU SwapPolicy decays over time.
   transient long _lastAccessedTime = System.currentTimeMillis();
-  private void touch() {_lastAccessedTime = System.currentTimeMillis();}
+  transient int _hits;
+  private void touch() {_lastAccessedTime = System.currentTimeMillis(); _hits++;}
+  // Reloaded after being swapped out; for the SwapPolicy re-swap counter
+  transient volatile boolean _reloaded;
   // Exposed and used for testing only; used to trigger premature cleaning/disk-swapping
   void touchAt(long time) {_lastAccessedTime = time;}
 
@@ -221,6 +277,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     // 01       double delete; do nothing
     // 10 -> 11 delete
     // 11       double delete; do nothing
+    freeOffHeap();              // Off-heap copy goes regardless of backend
     if( !onICE() ) return;      // Wrong filestore?
     if( isDeleted() ) return;   // Already deleted?
     setDel();                   // Set del bit BEFORE testing isPersist
@@ -357,7 +414,19 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   // and the normal serializer then might ship over a null instead of the
   // intended byte[].  Also, the value is NOT on the deserialize'd machines disk
   public final AutoBuffer write_impl( AutoBuffer ab ) {
-    return ab.put1(_persist).put2(_type).putA1(memOrLoad());
+    ab.put1(_persist).put2(_type);
+    // A large Value with no on-heap bytes is bulk-sent straight from its
+    // off-heap copy or from storage, rather than loaded into the heap first
+    if( _mem == null && _pojo == null && ab.isBulk(_max) ) {
+      ByteBuffer bb = _offHeap; // Read once!
+      if( bb != null ) {
+        ByteBuffer dup = bb.duplicate(); // Private position; racing readers are fine
+        dup.clear();
+        return ab.putA1Direct(dup);
+      }
+      if( isPersisted() && H2O.getPM().putA1(backend(), this, ab) ) return ab;
+    }
+    return ab.putA1(memOrLoad());
   }
   // Custom serializer: set _max from _mem length; set replicas & timestamp.
   public final Value read_impl(AutoBuffer bb) {
@@ -0,0 +1,22 @@
+package water.api;
+
+import water.AutoBuffer;
+
+import java.io.OutputStream;
+
+/**
+ * Writes the JSON of a Schema straight to the output stream; see {@link StreamsJSON}.
+ */
+public class JSONStreamWriter extends StreamWriter {
+
+  private final Schema schema;
+
+  public JSONStreamWriter(Schema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  public void writeTo(OutputStream os) {
+    schema.writeJSON(new AutoBuffer(os)).close();
+  }
+}
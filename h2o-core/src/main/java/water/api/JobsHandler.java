@@ -25,9 +25,19 @@ public class JobsHandler extends Handler {
       catch (H2ONotFoundArgumentException e) { s.jobs[i] = new JobV3().fillFromImpl(j); }
       i++; // Java does the increment before the function call which throws?!
     }
+    fillSchedStats(s.jobs, jobs);
     return s;
   }
 
+  // Queue depths and CPU use of the jobs' map calls, over the cloud; up to a
+  // second old
+  private static void fillSchedStats(JobV3[] schemas, Job[] jobs) {
+    Key<Job>[] keys = new Key[jobs.length];
+    for (int i = 0; i < jobs.length; i++) keys[i] = jobs[i]._key;
+    JobScheduler.Stats[] stats = JobScheduler.stats(keys);
+    for (int i = 0; i < jobs.length; i++) schemas[i].fillSchedStats(stats[i]);
+  }
+
   @SuppressWarnings("unused") // called through reflection by RequestServer
   public JobsV3 fetch(int version, JobsV3 s) {
     Key key = s.job_id.key();
@@ -42,6 +52,7 @@ public class JobsHandler extends Handler {
     try { s.jobs[0] = (JobV3) SchemaServer.schema(version, j).fillFromImpl(j); }
     // no special schema for this job subclass, so fall back to JobV3
     catch (H2ONotFoundArgumentException e) { s.jobs[0] = new JobV3().fillFromImpl(j); }
+    fillSchedStats(s.jobs, new Job[]{j});
     return s;
   }
 
@@ -0,0 +1,36 @@
+package water.api;
+
+import water.Metrics;
+import water.api.schemas3.MetricsV3;
+import water.util.AtomicHistogram;
+
+import java.util.ArrayList;
+
+public class MetricsHandler extends Handler {
+  @SuppressWarnings("unused") // called through reflection by RequestServer
+  public MetricsV3 fetch(int version, MetricsV3 s) {
+    ArrayList<MetricsV3.MetricV3> res = new ArrayList<>();
+    for (Metrics.Snapshot snap : Metrics.snapshots()) {
+      if (snap == null) continue;
+      for (int i = 0; i < snap._names.length; i++) {
+        AtomicHistogram.Snapshot h = snap._hists[i];
+        double scale = snap._seconds[i] ? 1e-9 : 1;
+        MetricsV3.MetricV3 m = new MetricsV3.MetricV3();
+        m.node = snap._node;
+        m.name = snap._names[i];
+        m.labels = snap._labels[i];
+        m.count = h.count();
+        m.sum = h.sum() * scale;
+        m.mean = h.mean() * scale;
+        m.p50 = h.quantile(0.5) * scale;
+        m.p90 = h.quantile(0.9) * scale;
+        m.p99 = h.quantile(0.99) * scale;
+        m.p999 = h.quantile(0.999) * scale;
+        m.max = h.max() * scale;
+        res.add(m);
+      }
+    }
+    s.metrics = res.toArray(new MetricsV3.MetricV3[res.size()]);
+    return s;
+  }
+}
@@ -79,6 +79,12 @@ public class RegisterV3Api extends AbstractRegister {
             "GET /3/Timeline", TimelineHandler.class, "fetch",
             "Debugging tool that provides information on current communication between nodes.");
 
+    context.registerEndpoint("metrics",
+            "GET /3/Metrics", MetricsHandler.class, "fetch",
+            "Latency and message size histograms of all nodes: RPC latency by task, queue wait by priority, bytes by peer.");
+
+    // Note:  "/3/Metrics/prometheus" serves the same in the Prometheus text format, cut out before routing.
+
     context.registerEndpoint("profiler",
             "GET /3/Profiler", ProfilerHandler.class, "fetch",
             "Report real-time profiling information for all nodes (sorted, aggregated stack traces).");
@@ -653,6 +653,8 @@ public class RequestServer extends HttpServlet {
       String[] path = uri.getPath();
       if (path[2].equals("")) return redirectToFlow();
       if (path[2].equals("Logs") && path[3].equals("download")) return downloadLogs();
+      if (path[2].equals("Metrics") && path[3].equals("prometheus"))
+        return new NanoResponse(HTTP_OK, "text/plain; version=0.0.4", Metrics.prometheus());
       if (path[2].equals("NodePersistentStorage.bin") && path.length == 6) return downloadNps(path[3], path[4]);
     }
     return null;
@@ -694,6 +696,8 @@ public class RequestServer extends HttpServlet {
     switch (type) {
       case html: // return JSON for html requests
       case json:
+        if (s instanceof StreamsJSON)
+          return new NanoStreamResponse(http_response_header, MIME_JSON, new JSONStreamWriter(s));
         return new NanoResponse(http_response_header, MIME_JSON, s.toJsonString());
       case xml:
         throw H2O.unimpl("Unknown type: " + type.toString());
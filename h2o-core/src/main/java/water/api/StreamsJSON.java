@@ -0,0 +1,10 @@
+package water.api;
+
+/**
+ * Interface which allows a Schema, if returned by a handler method, to be written to the HTTP response as its JSON is
+ * serialized, a page at a time, rather than built up whole in a String first.  For the responses that grow with the
+ * data, e.g. the summary of a wide Frame.  An error while writing can only cut the response short, since the status
+ * is sent by then.
+ */
+public interface StreamsJSON {
+}
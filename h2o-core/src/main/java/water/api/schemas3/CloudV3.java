@@ -99,9 +99,12 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
     @API(help="IP address and port in the form a.b.c.d:e", direction=API.Direction.OUTPUT)
     public String ip_port;
 
-    @API(help="(now-last_ping)<HeartbeatThread.TIMEOUT", direction=API.Direction.OUTPUT)
+    @API(help="(now-last_ping)<HeartbeatThread.TIMEOUT, and phi below -phi_threshold", direction=API.Direction.OUTPUT)
     public boolean healthy;
 
+    @API(help="Suspicion level of the failure detector: -log10 of the odds of pings this late from a live node", direction=API.Direction.OUTPUT)
+    public double phi;
+
     @API(help="Time (in msec) of last ping", direction=API.Direction.OUTPUT)
     public long last_ping;
 
@@ -174,6 +177,7 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
       ip_port = h2o.getIpPortString();
       healthy = h2o.isHealthy();
       last_ping = h2o._last_heard_from;
+      phi = FailureDetector.phi(h2o, System.currentTimeMillis());
       sys_load = hb._system_load_average;
       gflops = hb._gflops;
       mem_bw = hb._membw;
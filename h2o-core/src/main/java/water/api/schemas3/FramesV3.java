@@ -2,9 +2,10 @@ package water.api.schemas3;
 
 import water.api.API;
 import water.api.FramesHandler.Frames;
+import water.api.StreamsJSON;
 import water.fvec.Frame;
 
-public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> {
+public class FramesV3 extends RequestSchemaV3<Frames, FramesV3> implements StreamsJSON {
 
   // Input fields
   @API(help="Name of Frame of interest", json=false)
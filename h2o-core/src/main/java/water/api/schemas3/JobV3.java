@@ -48,6 +48,27 @@ public class JobV3 extends SchemaV3<Job, JobV3> {
   @API(help="ready for view", direction=API.Direction.OUTPUT)
   public boolean ready_for_view;
 
+  @API(help="Share of the threads of each node for this job under -fair_share, relative to other jobs", direction=API.Direction.OUTPUT)
+  public double cpu_weight;
+
+  @API(help="Most threads of each node for this job under -fair_share, 0 for no cap", direction=API.Direction.OUTPUT)
+  public int max_threads;
+
+  @API(help="Map calls of this job running now, over all nodes", direction=API.Direction.OUTPUT)
+  public int running_tasks;
+
+  @API(help="Map calls of this job waiting for their share of a node, over all nodes", direction=API.Direction.OUTPUT)
+  public int queued_tasks;
+
+  @API(help="Map calls of this job done, over all nodes", direction=API.Direction.OUTPUT)
+  public long map_calls;
+
+  @API(help="Time spent in map calls of this job, over all nodes, in milliseconds", direction=API.Direction.OUTPUT)
+  public long cpu_ms;
+
+  @API(help="Fraction of the map call time of all jobs that went to this job, while it ran", direction=API.Direction.OUTPUT)
+  public double cpu_share;
+
   //==========================
   // Custom adapters go here
 
@@ -96,6 +117,16 @@ public class JobV3 extends SchemaV3<Job, JobV3> {
     return this;
   }
 
+  /** Fill in the statistics of the job's map calls, gathered by {@link JobScheduler#stats} */
+  public JobV3 fillSchedStats( JobScheduler.Stats s ) {
+    running_tasks = s._running;
+    queued_tasks = s._queued;
+    map_calls = s._tasks;
+    cpu_ms = s._cpu_nanos / 1000000;
+    cpu_share = s.cpuShare();
+    return this;
+  }
+
   //==========================
   // Helper so Jobs can link to JobPoll
   public static String link(Key key) { return "/Jobs/"+key; }
@@ -2,8 +2,9 @@ package water.api.schemas3;
 
 import water.Iced;
 import water.api.API;
+import water.api.StreamsJSON;
 
-public class JobsV3 extends RequestSchemaV3<Iced,JobsV3> {
+public class JobsV3 extends RequestSchemaV3<Iced,JobsV3> implements StreamsJSON {
   // Input fields
   @API(help="Optional Job identifier")
   public KeyV3.JobKeyV3 job_id;
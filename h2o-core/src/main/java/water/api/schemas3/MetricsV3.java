@@ -0,0 +1,45 @@
+package water.api.schemas3;
+
+import water.Iced;
+import water.api.API;
+
+public class MetricsV3 extends RequestSchemaV3<Iced, MetricsV3> {
+
+  public static class MetricV3 extends SchemaV3<Iced, MetricV3> {
+    @API(help="Node recording the metric", direction = API.Direction.OUTPUT)
+    public String node;
+
+    @API(help="Metric name", direction = API.Direction.OUTPUT)
+    public String name;
+
+    @API(help="Metric labels, in the Prometheus format", direction = API.Direction.OUTPUT)
+    public String labels;
+
+    @API(help="Number of values recorded", direction = API.Direction.OUTPUT)
+    public long count;
+
+    @API(help="Sum of the values recorded", direction = API.Direction.OUTPUT)
+    public double sum;
+
+    @API(help="Mean value", direction = API.Direction.OUTPUT)
+    public double mean;
+
+    @API(help="Median value", direction = API.Direction.OUTPUT)
+    public double p50;
+
+    @API(help="90th percentile value", direction = API.Direction.OUTPUT)
+    public double p90;
+
+    @API(help="99th percentile value", direction = API.Direction.OUTPUT)
+    public double p99;
+
+    @API(help="99.9th percentile value", direction = API.Direction.OUTPUT)
+    public double p999;
+
+    @API(help="Largest value recorded", direction = API.Direction.OUTPUT)
+    public double max;
+  }
+
+  @API(help="Latency (seconds) and message size (bytes) histograms of all nodes", direction = API.Direction.OUTPUT)
+  public MetricV3[] metrics;
+}
@@ -154,6 +154,12 @@ public class ModelParametersSchemaV3<P extends Model.Parameters, S extends Model
   @API(help = "Maximum allowed runtime in seconds for model training. Use 0 to disable.", level = API.Level.secondary, direction=API.Direction.INOUT, gridable = true)
   public double max_runtime_secs;
 
+  @API(help = "Share of the threads of each node for this build under -fair_share, relative to other jobs.", level = API.Level.expert, direction=API.Direction.INOUT)
+  public double cpu_weight;
+
+  @API(help = "Most threads of each node for this build under -fair_share. Use 0 for no cap.", level = API.Level.expert, direction=API.Direction.INOUT)
+  public int max_threads;
+
   /**
    * Metric to use for convergence checking, only for _stopping_rounds > 0
    */
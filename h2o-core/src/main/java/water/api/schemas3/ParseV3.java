@@ -53,6 +53,12 @@ public class ParseV3 extends RequestSchemaV3<Iced, ParseV3> {
   @API(help="Key-reference to an initialized instance of a Decryption Tool")
   public KeyV3.DecryptionToolKeyV3 decrypt_tool;
 
+  @API(help="Indices of columns not to parse at all; only supported by columnar parsers (Parquet, ORC)")
+  public int[] skipped_columns;
+
+  @API(help="Predicates like \"age >= 18\" that columnar parsers (Parquet, ORC) use to skip whole row groups or stripes by their statistics; non-matching rows may still be parsed")
+  public String[] filters;
+
   // Output fields
   @API(help="Parse job", direction=API.Direction.OUTPUT)
   public JobV3 job;
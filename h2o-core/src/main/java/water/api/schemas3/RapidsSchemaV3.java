@@ -2,10 +2,12 @@ package water.api.schemas3;
 
 import water.Iced;
 import water.api.API;
+import water.api.StreamsJSON;
 
 /**
  */
-public class RapidsSchemaV3<I extends Iced, S extends RapidsSchemaV3<I, S>> extends RequestSchemaV3<I, S> {
+public class RapidsSchemaV3<I extends Iced, S extends RapidsSchemaV3<I, S>> extends RequestSchemaV3<I, S>
+    implements StreamsJSON {
 
   @API(help="A Rapids AstRoot expression", direction=API.Direction.INPUT, required=true)
   public String ast;
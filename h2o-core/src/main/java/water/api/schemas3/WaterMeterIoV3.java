@@ -11,6 +11,12 @@ public class WaterMeterIoV3 extends RequestSchemaV3<WaterMeterIo, WaterMeterIoV3
   @API(help="array of IO info", direction = API.Direction.OUTPUT)
   public WaterMeterIo.IoStatsEntry persist_stats[];
 
+  @API(help="small message batching info", direction = API.Direction.OUTPUT)
+  public WaterMeterIo.MsgStatsEntry msg_stats;
+
+  @API(help="wire compression info", direction = API.Direction.OUTPUT)
+  public WaterMeterIo.WireStatsEntry wire_stats;
+
   // Version&Schema-specific filling into the implementation object
   public WaterMeterIo createImpl() {
     WaterMeterIo obj = new WaterMeterIo();
@@ -0,0 +1,378 @@
+package water.arrow;
+
+import water.DKV;
+import water.Futures;
+import water.Key;
+import water.fvec.AppendableVec;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.util.UnsafeUtils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static water.arrow.ArrowStreamWriter.*;
+
+/**
+ * Reads an Arrow IPC stream into a new Frame, one Chunk per non-empty record
+ * batch, filling {@link NewChunk}s straight from the Arrow buffers instead of
+ * going through the text parser.
+ * <p>
+ * Supported columns: signed and unsigned Int, Float32/64 and Bool become
+ * numeric; Utf8 and LargeUtf8 become strings, or categoricals when dictionary
+ * encoded; Timestamp and Date become times (ms since the epoch); and
+ * FixedSizeBinary(16) becomes UUID.  Nested types and compressed batches are
+ * rejected.
+ */
+public class ArrowStreamReader {
+  private final InputStream _is;
+  private final byte[] _int = new byte[4];
+  private Column[] _cols;
+  private final HashMap<Long,String[]> _dicts = new HashMap<>();
+  private int _cidx;            // Next Chunk index, one per non-empty record batch
+  private final Futures _fs = new Futures();
+
+  // One Arrow field, and the Vec it is read into
+  private static final class Column {
+    String _name;
+    byte _type;                 // Arrow type; the value type if dictionary encoded
+    int _bits = 64;             // Int bit width, or dictionary index width
+    boolean _signed = true;
+    short _precision, _unit;
+    int _width;                 // FixedSizeBinary width
+    long _dictId = -1;
+    AppendableVec _av;
+  }
+
+  private ArrowStreamReader(InputStream is) { _is = is; }
+
+  /** Read an Arrow IPC stream into a new Frame under key */
+  public static Frame read(Key<Frame> key, InputStream is) throws IOException {
+    return new ArrowStreamReader(is).read(key);
+  }
+
+  private Frame read(Key<Frame> key) throws IOException {
+    while( true ) {
+      int len = readInt();
+      if( len == CONTINUATION ) len = readInt(); // Pre-1.0 streams have no continuation marker
+      if( len == 0 ) break;     // End of stream
+      ByteBuffer bb = FlatBuffers.wrap(readFully(len));
+      int msg = FlatBuffers.root(bb);
+      byte headerType = FlatBuffers.getByte(bb, msg, 1, (byte)0);
+      int header = FlatBuffers.child(bb, msg, 2);
+      long bodyLen = FlatBuffers.getLong(bb, msg, 3, 0);
+      if( bodyLen > Integer.MAX_VALUE )
+        throw new IllegalArgumentException("Arrow record batches over 2GB are not supported");
+      byte[] body = readFully((int)bodyLen);
+      switch( headerType ) {
+      case HEADER_SCHEMA:           schema(bb, header);            break;
+      case HEADER_DICTIONARY_BATCH: dictionary(bb, header, body);  break;
+      case HEADER_RECORD_BATCH:     recordBatch(bb, header, body); break;
+      default: throw new IllegalArgumentException("Unsupported Arrow message type " + headerType);
+      }
+    }
+    if( _cols == null ) throw new EOFException("Arrow stream has no schema");
+    AppendableVec[] avs = new AppendableVec[_cols.length];
+    String[] names = new String[_cols.length];
+    for( int c = 0; c < _cols.length; c++ ) {
+      avs[c] = _cols[c]._av;
+      names[c] = _cols[c]._name;
+      if( _cidx == 0 ) new NewChunk(avs[c], 0).close(0, _fs); // No rows at all
+      if( _cols[c]._dictId >= 0 ) avs[c].setDomain(_dicts.get(_cols[c]._dictId));
+    }
+    Vec[] vecs = AppendableVec.closeAll(avs, _fs);
+    _fs.blockForPending();
+    Frame fr = new Frame(key, names, vecs);
+    if( key != null ) DKV.put(fr);
+    return fr;
+  }
+
+  private int readInt() throws IOException {
+    readFully(_int);
+    return UnsafeUtils.get4(_int, 0);
+  }
+  private byte[] readFully(int len) throws IOException { return readFully(new byte[len]); }
+  private byte[] readFully(byte[] bs) throws IOException {
+    for( int off = 0; off < bs.length; ) {
+      int n = _is.read(bs, off, bs.length - off);
+      if( n < 0 ) throw new EOFException("Truncated Arrow stream");
+      off += n;
+    }
+    return bs;
+  }
+
+  // ------------------------------------------------------------------------
+  // Schema
+
+  private void schema(ByteBuffer bb, int schema) {
+    if( _cols != null ) throw new IllegalArgumentException("Arrow stream has more than one schema");
+    int[] fields = FlatBuffers.tables(bb, schema, 1);
+    _cols = new Column[fields.length];
+    Key<Vec>[] keys = new Vec.VectorGroup().addVecs(fields.length);
+    for( int c = 0; c < fields.length; c++ ) {
+      int f = fields[c];
+      Column col = _cols[c] = new Column();
+      col._name = FlatBuffers.getString(bb, f, 0);
+      if( col._name == null ) col._name = "C" + (c+1);
+      col._type = FlatBuffers.getByte(bb, f, 2, (byte)0);
+      int type = FlatBuffers.child(bb, f, 3);
+      if( FlatBuffers.vecLen(bb, FlatBuffers.child(bb, f, 5)) > 0 )
+        throw new IllegalArgumentException("Nested Arrow column '" + col._name + "' is not supported");
+      byte vtype;
+      switch( col._type ) {
+      case TYPE_INT:
+        col._bits = FlatBuffers.getInt(bb, type, 0, 32);
+        col._signed = FlatBuffers.getBool(bb, type, 1);
+        vtype = Vec.T_NUM;
+        break;
+      case TYPE_FLOATING_POINT:
+        col._precision = FlatBuffers.getShort(bb, type, 0, PRECISION_HALF);
+        if( col._precision == PRECISION_HALF )
+          throw new IllegalArgumentException("Half-precision Arrow column '" + col._name + "' is not supported");
+        vtype = Vec.T_NUM;
+        break;
+      case TYPE_BOOL:
+        vtype = Vec.T_NUM;
+        break;
+      case TYPE_UTF8:
+      case TYPE_LARGE_UTF8:
+        vtype = Vec.T_STR;
+        break;
+      case TYPE_TIMESTAMP:
+        col._unit = FlatBuffers.getShort(bb, type, 0, UNIT_SECOND);
+        vtype = Vec.T_TIME;
+        break;
+      case TYPE_DATE:
+        col._unit = FlatBuffers.getShort(bb, type, 0, UNIT_MILLISECOND);
+        vtype = Vec.T_TIME;
+        break;
+      case TYPE_FIXED_SIZE_BINARY:
+        col._width = FlatBuffers.getInt(bb, type, 0, 0);
+        if( col._width != 16 )
+          throw new IllegalArgumentException("Only 16 byte (UUID) fixed size binary Arrow columns are supported, column '" + col._name + "'");
+        vtype = Vec.T_UUID;
+        break;
+      default:
+        throw new IllegalArgumentException("Arrow column '" + col._name + "' has unsupported type " + col._type);
+      }
+      int dict = FlatBuffers.child(bb, f, 4);
+      if( dict != 0 ) {
+        if( vtype != Vec.T_STR )
+          throw new IllegalArgumentException("Only string dictionaries are supported, Arrow column '" + col._name + "'");
+        col._dictId = FlatBuffers.getLong(bb, dict, 0, 0);
+        int idx = FlatBuffers.child(bb, dict, 1);
+        col._bits = idx == 0 ? 32 : FlatBuffers.getInt(bb, idx, 0, 32);
+        col._signed = idx == 0 || FlatBuffers.getBool(bb, idx, 1);
+        vtype = Vec.T_CAT;
+      }
+      col._av = new AppendableVec(keys[c], vtype);
+    }
+  }
+
+  // ------------------------------------------------------------------------
+  // Batches
+
+  // Walks the field nodes and buffers of one record batch, in order
+  private static final class Batch {
+    final ByteBuffer _bb;
+    final byte[] _body;
+    final int _nodes, _bufs;
+    int _node, _buf;
+    Batch(ByteBuffer bb, int rb, byte[] body) {
+      if( FlatBuffers.child(bb, rb, 3) != 0 )
+        throw new IllegalArgumentException("Compressed Arrow record batches are not supported");
+      _bb = bb;
+      _body = body;
+      _nodes = FlatBuffers.child(bb, rb, 1);
+      _bufs = FlatBuffers.child(bb, rb, 2);
+    }
+    // Length and null count of the next field
+    long nodeLen() { return _bb.getLong(FlatBuffers.vecStruct(_nodes, _node, 16)); }
+    long nodeNulls() { return _bb.getLong(FlatBuffers.vecStruct(_nodes, _node, 16) + 8); }
+    void nextNode() { _node++; }
+    // Body offset of the next buffer, checking it holds at least minLen bytes
+    int buffer(long minLen) throws IOException {
+      int p = FlatBuffers.vecStruct(_bufs, _buf++, 16);
+      long off = _bb.getLong(p), len = _bb.getLong(p+8);
+      if( len < minLen || off < 0 || off + len > _body.length )
+        throw new IOException("Corrupt Arrow record batch: buffer " + (_buf-1) + " out of bounds");
+      return (int)off;
+    }
+    // Body offset of the next buffer as a validity bitmap, or -1 if all valid
+    int validity(int len, long nulls) throws IOException {
+      int p = FlatBuffers.vecStruct(_bufs, _buf, 16);
+      if( nulls == 0 || _bb.getLong(p+8) == 0 ) { _buf++; return -1; }
+      return buffer((len+7) >> 3);
+    }
+    boolean isValid(int validity, int i) {
+      return validity < 0 || (_body[validity + (i >> 3)] & (1 << (i & 7))) != 0;
+    }
+  }
+
+  private void dictionary(ByteBuffer bb, int db, byte[] body) throws IOException {
+    long id = FlatBuffers.getLong(bb, db, 0, 0);
+    int rb = FlatBuffers.child(bb, db, 1);
+    boolean isDelta = FlatBuffers.getBool(bb, db, 2);
+    Column valueCol = null;
+    for( Column col : _cols )
+      if( col._dictId == id ) valueCol = col;
+    if( valueCol == null ) throw new IllegalArgumentException("Arrow dictionary " + id + " is not used by any column");
+    Batch batch = new Batch(bb, rb, body);
+    int len = (int)batch.nodeLen();
+    String[] vals = new String[len];
+    BufferedString tmp = new BufferedString();
+    strings(batch, valueCol._type == TYPE_LARGE_UTF8, len, vals, null, tmp);
+    String[] old = _dicts.get(id);
+    if( isDelta && old != null ) {
+      String[] all = Arrays.copyOf(old, old.length + len);
+      System.arraycopy(vals, 0, all, old.length, len);
+      vals = all;
+    } else if( old != null && _cidx > 0 )
+      throw new IllegalArgumentException("Replacing Arrow dictionary " + id + " after it was used is not supported");
+    for( int i = 0; i < vals.length; i++ )
+      if( vals[i] == null ) throw new IllegalArgumentException("Arrow dictionary " + id + " has a missing value");
+    _dicts.put(id, vals);
+  }
+
+  private void recordBatch(ByteBuffer bb, int rb, byte[] body) throws IOException {
+    if( _cols == null ) throw new IllegalArgumentException("Arrow record batch before the schema");
+    long rows = FlatBuffers.getLong(bb, rb, 0, 0);
+    if( rows == 0 ) return;
+    if( rows > Integer.MAX_VALUE ) throw new IllegalArgumentException("Arrow record batch of " + rows + " rows is too large");
+    Batch batch = new Batch(bb, rb, body);
+    BufferedString tmp = new BufferedString();
+    for( Column col : _cols ) {
+      NewChunk nc = new NewChunk(col._av, _cidx);
+      int len = (int)batch.nodeLen();
+      if( len != rows ) throw new IOException("Corrupt Arrow record batch: column '" + col._name + "' has " + len + " of " + rows + " rows");
+      if( col._dictId >= 0 ) categoricals(batch, col, len, nc);
+      else if( col._type == TYPE_UTF8 || col._type == TYPE_LARGE_UTF8 )
+        strings(batch, col._type == TYPE_LARGE_UTF8, len, null, nc, tmp);
+      else if( col._type == TYPE_FIXED_SIZE_BINARY ) uuids(batch, len, nc);
+      else numbers(batch, col, len, nc);
+      nc.close(_cidx, _fs);
+    }
+    _cidx++;
+  }
+
+  // Utf8 values, into vals if given, else appended to nc
+  private static void strings(Batch b, boolean large, int len, String[] vals, NewChunk nc, BufferedString tmp) throws IOException {
+    int valid = b.validity(len, b.nodeNulls());
+    b.nextNode();
+    int offs = b.buffer((long)(len+1) * (large ? 8 : 4));
+    int data = b.buffer(0);
+    byte[] body = b._body;
+    for( int i = 0; i < len; i++ ) {
+      boolean na = !b.isValid(valid, i);
+      int start = (int)(large ? UnsafeUtils.get8(body, offs + 8*i) : UnsafeUtils.get4(body, offs + 4*i));
+      int end = (int)(large ? UnsafeUtils.get8(body, offs + 8*i + 8) : UnsafeUtils.get4(body, offs + 4*i + 4));
+      if( !na && (start < 0 || end < start || data + end > body.length) )
+        throw new IOException("Corrupt Arrow string offsets at row " + i);
+      if( vals != null ) vals[i] = na ? null : tmp.set(body, data + start, end - start).toString();
+      else if( na ) nc.addNA();
+      else nc.addStr(tmp.set(body, data + start, end - start));
+    }
+  }
+
+  private void categoricals(Batch b, Column col, int len, NewChunk nc) throws IOException {
+    String[] dict = _dicts.get(col._dictId);
+    int valid = b.validity(len, b.nodeNulls());
+    b.nextNode();
+    int width = col._bits >> 3;
+    int data = b.buffer((long)len * width);
+    for( int i = 0; i < len; i++ ) {
+      if( !b.isValid(valid, i) ) { nc.addNA(); continue; }
+      long idx = intAt(b._body, data, i, col._bits, col._signed);
+      if( dict == null || idx < 0 || idx >= dict.length )
+        throw new IllegalArgumentException("Arrow column '" + col._name + "' index " + idx + " is outside its dictionary");
+      nc.addNum(idx, 0);
+    }
+  }
+
+  private static void uuids(Batch b, int len, NewChunk nc) throws IOException {
+    int valid = b.validity(len, b.nodeNulls());
+    b.nextNode();
+    int data = b.buffer(16L * len);
+    byte[] body = b._body;
+    for( int i = 0; i < len; i++ ) {
+      if( !b.isValid(valid, i) ) { nc.addNA(); continue; }
+      long hi = 0, lo = 0;
+      for( int k = 0; k < 8; k++ ) {
+        hi = (hi << 8) | (body[data + 16*i + k] & 0xFF);
+        lo = (lo << 8) | (body[data + 16*i + 8 + k] & 0xFF);
+      }
+      nc.addUUID(lo, hi);
+    }
+  }
+
+  private static void numbers(Batch b, Column col, int len, NewChunk nc) throws IOException {
+    int valid = b.validity(len, b.nodeNulls());
+    b.nextNode();
+    byte[] body = b._body;
+    switch( col._type ) {
+    case TYPE_BOOL: {
+      int data = b.buffer((len+7) >> 3);
+      for( int i = 0; i < len; i++ )
+        if( !b.isValid(valid, i) ) nc.addNA();
+        else nc.addNum((body[data + (i >> 3)] >> (i & 7)) & 1, 0);
+      break;
+    }
+    case TYPE_FLOATING_POINT: {
+      boolean dbl = col._precision == PRECISION_DOUBLE;
+      int data = b.buffer((long)len * (dbl ? 8 : 4));
+      for( int i = 0; i < len; i++ )
+        if( !b.isValid(valid, i) ) nc.addNA();
+        else nc.addNum(dbl ? UnsafeUtils.get8d(body, data + 8*i) : UnsafeUtils.get4f(body, data + 4*i));
+      break;
+    }
+    case TYPE_INT: {
+      int data = b.buffer((long)len * (col._bits >> 3));
+      for( int i = 0; i < len; i++ ) {
+        if( !b.isValid(valid, i) ) { nc.addNA(); continue; }
+        long l = intAt(body, data, i, col._bits, col._signed);
+        if( !col._signed && col._bits == 64 && l < 0 ) nc.addNum(2.0 * (l >>> 1) + (l & 1)); // Beyond Long.MAX_VALUE
+        else nc.addNum(l, 0);
+      }
+      break;
+    }
+    default: {                  // Timestamp or Date, as ms since the epoch
+      boolean days = col._type == TYPE_DATE && col._unit == DATE_DAY;
+      int data = b.buffer((long)len * (days ? 4 : 8));
+      for( int i = 0; i < len; i++ )
+        if( !b.isValid(valid, i) ) nc.addNA();
+        else if( days ) nc.addNum(UnsafeUtils.get4(body, data + 4*i) * 86400000L, 0);
+        else nc.addNum(toMillis(UnsafeUtils.get8(body, data + 8*i), col._type == TYPE_DATE ? UNIT_MILLISECOND : col._unit), 0);
+    }
+    }
+  }
+
+  private static long intAt(byte[] body, int data, int i, int bits, boolean signed) {
+    switch( bits ) {
+    case 8:  { long l = body[data + i];                           return signed ? l : l & 0xFFL; }
+    case 16: { long l = (short)UnsafeUtils.get2(body, data + 2*i); return signed ? l : l & 0xFFFFL; }
+    case 32: { long l = UnsafeUtils.get4(body, data + 4*i);        return signed ? l : l & 0xFFFFFFFFL; }
+    case 64: return UnsafeUtils.get8(body, data + 8*i);
+    default: throw new IllegalArgumentException("Unsupported Arrow integer width " + bits);
+    }
+  }
+
+  // Time in the given unit to ms, rounding towards negative infinity
+  private static long toMillis(long t, short unit) {
+    switch( unit ) {
+    case UNIT_SECOND:      return t * 1000;
+    case UNIT_MILLISECOND: return t;
+    case UNIT_MICROSECOND: return floorDiv(t, 1000);
+    default:               return floorDiv(t, 1000000);
+    }
+  }
+  private static long floorDiv(long a, long b) {
+    long q = a / b;
+    return (a % b != 0 && (a < 0)) ? q - 1 : q;
+  }
+}
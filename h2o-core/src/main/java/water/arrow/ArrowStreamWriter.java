@@ -0,0 +1,243 @@
+package water.arrow;
+
+import water.MemoryManager;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.util.UnsafeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static water.arrow.FlatBuffers.Structs;
+import static water.arrow.FlatBuffers.Table;
+
+/**
+ * Writes a Frame as an Arrow IPC stream: the schema, one dictionary batch per
+ * categorical column, then one record batch per Chunk index, filled straight
+ * from the Chunks' bulk decode - no text formatting on either end.
+ * <p>
+ * Column mapping: integer columns become Int64, other numeric columns
+ * Float64, categoricals Int32 indices into a Utf8 dictionary of the domain,
+ * strings Utf8, times Timestamp(ms) and UUIDs FixedSizeBinary(16).  Missing
+ * values are cleared validity bits.
+ * <p>
+ * See https://arrow.apache.org/docs/format/Columnar.html for the format.
+ */
+public class ArrowStreamWriter {
+  // Arrow IPC constants, shared with the reader
+  static final int CONTINUATION = 0xFFFFFFFF;
+  static final short METADATA_V5 = 4;
+  static final byte HEADER_SCHEMA = 1, HEADER_DICTIONARY_BATCH = 2, HEADER_RECORD_BATCH = 3;
+  static final byte TYPE_INT = 2, TYPE_FLOATING_POINT = 3, TYPE_BINARY = 4, TYPE_UTF8 = 5, TYPE_BOOL = 6,
+      TYPE_DATE = 8, TYPE_TIMESTAMP = 10, TYPE_FIXED_SIZE_BINARY = 15, TYPE_LARGE_BINARY = 19, TYPE_LARGE_UTF8 = 20;
+  static final short PRECISION_HALF = 0, PRECISION_SINGLE = 1, PRECISION_DOUBLE = 2;
+  static final short UNIT_SECOND = 0, UNIT_MILLISECOND = 1, UNIT_MICROSECOND = 2, UNIT_NANOSECOND = 3;
+  static final short DATE_DAY = 0;
+
+  private final Frame _fr;
+  private final OutputStream _os;
+
+  private ArrowStreamWriter(Frame fr, OutputStream os) { _fr = fr; _os = os; }
+
+  /** Write all of fr to os as an Arrow IPC stream; os is not closed */
+  public static void write(Frame fr, OutputStream os) throws IOException {
+    new ArrowStreamWriter(fr, os).write();
+  }
+
+  private void write() throws IOException {
+    Vec[] vecs = _fr.vecs();
+    writeMessage(HEADER_SCHEMA, schema(), new Body());
+    for( int c = 0; c < vecs.length; c++ )
+      if( vecs[c].isCategorical() ) writeDictionary(c, vecs[c].domain());
+    int nchks = vecs.length == 0 ? 0 : vecs[0].nChunks();
+    for( int cidx = 0; cidx < nchks; cidx++ ) {
+      Body body = new Body();
+      int len = vecs[0].chunkForChunkIdx(cidx)._len;
+      for( Vec v : vecs ) column(v.chunkForChunkIdx(cidx), body);
+      writeMessage(HEADER_RECORD_BATCH, body.recordBatch(len), body);
+    }
+    writeInt(CONTINUATION);     // End of stream
+    writeInt(0);
+    _os.flush();
+  }
+
+  // ------------------------------------------------------------------------
+  // Metadata
+
+  private Table schema() {
+    Vec[] vecs = _fr.vecs();
+    String[] names = _fr.names();
+    Table[] fields = new Table[vecs.length];
+    for( int c = 0; c < vecs.length; c++ ) {
+      Vec v = vecs[c];
+      Table f = new Table(7).add(0, names[c]).addBool(1, true).add(5, new Table[0]);
+      if( v.isCategorical() ) {
+        f.add(2, 1, TYPE_UTF8).add(3, new Table(0));
+        f.add(4, new Table(4).add(0, 8, c).add(1, intType(32)).addBool(2, false));
+      } else if( v.isString() ) f.add(2, 1, TYPE_UTF8).add(3, new Table(0));
+      else if( v.isUUID() ) f.add(2, 1, TYPE_FIXED_SIZE_BINARY).add(3, new Table(1).add(0, 4, 16));
+      else if( v.isTime() ) f.add(2, 1, TYPE_TIMESTAMP).add(3, new Table(2).add(0, 2, UNIT_MILLISECOND).add(1, "UTC"));
+      else if( v.isInt() ) f.add(2, 1, TYPE_INT).add(3, intType(64));
+      else f.add(2, 1, TYPE_FLOATING_POINT).add(3, new Table(1).add(0, 2, PRECISION_DOUBLE));
+      fields[c] = f;
+    }
+    return new Table(4).add(0, 2, 0/*little endian*/).add(1, fields);
+  }
+
+  private static Table intType(int bits) { return new Table(2).add(0, 4, bits).addBool(1, true); }
+
+  private void writeDictionary(int id, String[] domain) throws IOException {
+    Body body = new Body();
+    body.strings(domain);
+    writeMessage(HEADER_DICTIONARY_BATCH,
+        new Table(3).add(0, 8, id).add(1, body.recordBatch(domain.length)).addBool(2, false), body);
+  }
+
+  private void writeMessage(byte headerType, Table header, Body body) throws IOException {
+    Table msg = new Table(5).add(0, 2, METADATA_V5).add(1, 1, headerType).add(2, header).add(3, 8, body._len);
+    byte[] meta = FlatBuffers.finish(msg);
+    // Metadata is padded so that the body starts 8-aligned
+    int padded = ((meta.length + 8 + 7) & ~7) - 8;
+    writeInt(CONTINUATION);
+    writeInt(padded);
+    _os.write(meta);
+    _os.write(new byte[padded - meta.length]);
+    for( byte[] b : body._bufs ) {
+      _os.write(b);
+      _os.write(new byte[(8 - (b.length & 7)) & 7]);
+    }
+  }
+
+  private void writeInt(int i) throws IOException {
+    _os.write(i); _os.write(i >>> 8); _os.write(i >>> 16); _os.write(i >>> 24);
+  }
+
+  // ------------------------------------------------------------------------
+  // Record batch bodies
+
+  /** The buffers and field nodes of one record batch, as they are built */
+  private static final class Body {
+    final ArrayList<byte[]> _bufs = new ArrayList<>();
+    final ArrayList<Long> _layout = new ArrayList<>(); // (offset,length) per buffer
+    final ArrayList<Long> _nodes = new ArrayList<>();  // (length,null count) per field
+    long _len;                  // Body length, each buffer padded to 8
+
+    void buffer(byte[] b) {
+      _bufs.add(b);
+      _layout.add(_len);
+      _layout.add((long)b.length);
+      _len += (b.length + 7) & ~7;
+    }
+    void node(int len, int nulls) { _nodes.add((long)len); _nodes.add((long)nulls); }
+
+    Table recordBatch(int len) {
+      return new Table(4).add(0, 8, len).add(1, new Structs(longs(_nodes), 2)).add(2, new Structs(longs(_layout), 2));
+    }
+    private static long[] longs(ArrayList<Long> ls) {
+      long[] res = new long[ls.size()];
+      for( int i = 0; i < res.length; i++ ) res[i] = ls.get(i);
+      return res;
+    }
+
+    // Validity bitmap, and node, from a decode NA bitmap; no buffer needed without NAs
+    void validity(long[] nas, int len, int nulls) {
+      node(len, nulls);
+      if( nulls == 0 ) { buffer(new byte[0]); return; }
+      byte[] bs = MemoryManager.malloc1((len+7) >> 3);
+      for( int i = 0; i < bs.length; i++ ) bs[i] = (byte)~(nas[i >> 3] >>> ((i & 7) << 3));
+      if( (len & 7) != 0 ) bs[bs.length-1] &= (1 << (len & 7)) - 1;
+      buffer(bs);
+    }
+
+    // Utf8 column of the given strings, null for missing
+    void strings(String[] ss) {
+      byte[][] utf8 = new byte[ss.length][];
+      long[] nas = new long[(ss.length+63) >> 6];
+      int nulls = 0, bytes = 0;
+      for( int i = 0; i < ss.length; i++ ) {
+        if( ss[i] == null ) { nas[i >> 6] |= 1L << i; nulls++; continue; }
+        utf8[i] = ss[i].getBytes(StandardCharsets.UTF_8);
+        bytes += utf8[i].length;
+      }
+      validity(nas, ss.length, nulls);
+      byte[] offs = MemoryManager.malloc1(4*(ss.length+1));
+      byte[] data = MemoryManager.malloc1(bytes);
+      int off = 0;
+      for( int i = 0; i < ss.length; i++ ) {
+        if( utf8[i] != null ) {
+          System.arraycopy(utf8[i], 0, data, off, utf8[i].length);
+          off += utf8[i].length;
+        }
+        UnsafeUtils.set4(offs, 4*(i+1), off);
+      }
+      buffer(offs);
+      buffer(data);
+    }
+  }
+
+  // Append the node and buffers of one column's Chunk to the body
+  private static void column(Chunk c, Body body) {
+    Vec v = c.vec();
+    int len = c._len;
+    long[] nas = new long[(len+63) >> 6];
+    if( v.isString() ) {
+      BufferedString tmp = new BufferedString();
+      int nulls = 0, bytes = 0;
+      for( int i = 0; i < len; i++ )
+        if( c.isNA(i) ) { nas[i >> 6] |= 1L << i; nulls++; }
+        else bytes += c.atStr(tmp, i).length();
+      body.validity(nas, len, nulls);
+      byte[] offs = MemoryManager.malloc1(4*(len+1));
+      byte[] data = MemoryManager.malloc1(bytes);
+      int off = 0;
+      for( int i = 0; i < len; i++ ) {
+        if( !Chunk.isNA(nas, i) ) {
+          BufferedString bs = c.atStr(tmp, i);
+          System.arraycopy(bs.getBuffer(), bs.getOffset(), data, off, bs.length());
+          off += bs.length();
+        }
+        UnsafeUtils.set4(offs, 4*(i+1), off);
+      }
+      body.buffer(offs);
+      body.buffer(data);
+    } else if( v.isUUID() ) {
+      int nulls = 0;
+      byte[] data = MemoryManager.malloc1(16*len);
+      for( int i = 0; i < len; i++ ) {
+        if( c.isNA(i) ) { nas[i >> 6] |= 1L << i; nulls++; continue; }
+        // Big-endian, most significant half first, as in the UUID text form
+        long hi = c.at16h(i), lo = c.at16l(i);
+        for( int b = 0; b < 8; b++ ) {
+          data[16*i+b]   = (byte)(hi >>> (56 - 8*b));
+          data[16*i+8+b] = (byte)(lo >>> (56 - 8*b));
+        }
+      }
+      body.validity(nas, len, nulls);
+      body.buffer(data);
+    } else if( v.isCategorical() ) {
+      long[] ls = new long[len];
+      body.validity(nas, len, c.decode(ls, nas, 0, len));
+      byte[] data = MemoryManager.malloc1(4*len);
+      for( int i = 0; i < len; i++ )
+        if( !Chunk.isNA(nas, i) ) UnsafeUtils.set4(data, 4*i, (int)ls[i]);
+      body.buffer(data);
+    } else if( v.isInt() || v.isTime() ) {
+      long[] ls = new long[len];
+      body.validity(nas, len, c.decode(ls, nas, 0, len));
+      byte[] data = MemoryManager.malloc1(8*len);
+      for( int i = 0; i < len; i++ )
+        if( !Chunk.isNA(nas, i) ) UnsafeUtils.set8(data, 8*i, ls[i]);
+      body.buffer(data);
+    } else {
+      double[] ds = new double[len];
+      body.validity(nas, len, c.decode(ds, nas, 0, len));
+      byte[] data = MemoryManager.malloc1(8*len);
+      for( int i = 0; i < len; i++ ) UnsafeUtils.set8d(data, 8*i, ds[i]);
+      body.buffer(data);
+    }
+  }
+}
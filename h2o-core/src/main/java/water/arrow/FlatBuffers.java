@@ -0,0 +1,182 @@
+package water.arrow;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Just enough of the FlatBuffers wire format to write and read Arrow IPC
+ * metadata, without pulling in the flatbuffers and Arrow jars.
+ * <p>
+ * Writing lays a {@link Table} tree out front-to-back: each table's vtable,
+ * then the table, then its children - so every offset to a child points
+ * forward as the format requires.  Reading walks a little-endian
+ * {@link ByteBuffer} by absolute position; a position of 0 means "absent".
+ */
+final class FlatBuffers {
+  private FlatBuffers() {}
+
+  /** A table under construction: per field id, a scalar or a child object */
+  static final class Table {
+    final Object[] _vals;
+    final byte[] _sizes;        // Scalar width in bytes; 0 for a child offset
+    Table(int nfields) { _vals = new Object[nfields]; _sizes = new byte[nfields]; }
+    Table add(int id, int size, long v) { _vals[id] = v; _sizes[id] = (byte)size; return this; }
+    Table addBool(int id, boolean b) { return add(id, 1, b ? 1 : 0); }
+    /** Child: a Table, a String, a Table[] vector or a {@link Structs} vector */
+    Table add(int id, Object child) { _vals[id] = child; _sizes[id] = 0; return this; }
+  }
+
+  /** A vector of inline structs made of longs, e.g. Arrow Buffers and FieldNodes */
+  static final class Structs {
+    final long[] _longs;
+    final int _longsPerStruct;
+    Structs(long[] longs, int longsPerStruct) { _longs = longs; _longsPerStruct = longsPerStruct; }
+  }
+
+  // ------------------------------------------------------------------------
+  // Writing
+
+  /** Serialize the table tree rooted at root; the result is padded to 8 bytes */
+  static byte[] finish(Table root) {
+    Builder b = new Builder();
+    b.reserve(4);
+    b.put4(0, b.writeTable(root));
+    b.align(8);
+    return Arrays.copyOf(b._buf, b._len);
+  }
+
+  private static final class Builder {
+    byte[] _buf = new byte[256];
+    int _len;
+
+    int reserve(int n) {
+      if( _len+n > _buf.length ) _buf = Arrays.copyOf(_buf, Math.max(_buf.length<<1, _len+n));
+      int pos = _len;
+      _len += n;
+      return pos;
+    }
+    void align(int a) { reserve((a - (_len & (a-1))) & (a-1)); }
+    void put(int pos, int size, long v) {
+      for( int i = 0; i < size; i++ ) _buf[pos+i] = (byte)(v >>> (i<<3));
+    }
+    void put4(int pos, int v) { put(pos, 4, v); }
+    // uoffset stored at pos, pointing forward to target
+    void patch(int pos, int target) { put4(pos, target - pos); }
+
+    int writeTable(Table t) {
+      int n = t._vals.length;
+      // Inline layout: the soffset, then fields by decreasing size so they
+      // stay aligned given an 8-aligned table start
+      int[] offs = new int[n];
+      int cursor = 4;
+      for( int size = 8; size >= 1; size >>= 1 )
+        for( int id = 0; id < n; id++ ) {
+          if( t._vals[id] == null || fieldSize(t, id) != size ) continue;
+          cursor = (cursor + size-1) & ~(size-1);
+          offs[id] = cursor;
+          cursor += size;
+        }
+      // vtable just ahead of the table
+      int vtsize = 4 + 2*n;
+      align(2);
+      while( ((_len + vtsize) & 7) != 0 ) reserve(2);
+      int vt = reserve(vtsize);
+      put(vt, 2, vtsize);
+      put(vt+2, 2, cursor);
+      for( int id = 0; id < n; id++ ) put(vt+4+2*id, 2, offs[id]);
+      int tbl = reserve(cursor);
+      put4(tbl, tbl - vt);
+      // Scalars in place, then the children after the table
+      for( int id = 0; id < n; id++ )
+        if( t._vals[id] != null && t._sizes[id] > 0 )
+          put(tbl+offs[id], t._sizes[id], (Long)t._vals[id]);
+      for( int id = 0; id < n; id++ )
+        if( t._vals[id] != null && t._sizes[id] == 0 )
+          patch(tbl+offs[id], writeChild(t._vals[id]));
+      return tbl;
+    }
+
+    private static int fieldSize(Table t, int id) { return t._sizes[id] == 0 ? 4 : t._sizes[id]; }
+
+    int writeChild(Object o) {
+      if( o instanceof Table ) return writeTable((Table)o);
+      if( o instanceof String ) {
+        byte[] bs = ((String)o).getBytes(StandardCharsets.UTF_8);
+        align(4);
+        int pos = reserve(4 + bs.length + 1);
+        put4(pos, bs.length);
+        System.arraycopy(bs, 0, _buf, pos+4, bs.length);
+        return pos;
+      }
+      if( o instanceof Table[] ) {
+        Table[] ts = (Table[])o;
+        align(4);
+        int pos = reserve(4 + 4*ts.length);
+        put4(pos, ts.length);
+        for( int i = 0; i < ts.length; i++ )
+          patch(pos+4+4*i, writeTable(ts[i]));
+        return pos;
+      }
+      Structs s = (Structs)o;
+      align(4);
+      if( (_len & 7) == 0 ) reserve(4); // The structs themselves must be 8-aligned
+      int pos = reserve(4 + 8*s._longs.length);
+      put4(pos, s._longs.length / s._longsPerStruct);
+      for( int i = 0; i < s._longs.length; i++ ) put(pos+4+8*i, 8, s._longs[i]);
+      return pos;
+    }
+  }
+
+  // ------------------------------------------------------------------------
+  // Reading
+
+  static ByteBuffer wrap(byte[] bs) { return ByteBuffer.wrap(bs).order(ByteOrder.LITTLE_ENDIAN); }
+
+  /** Position of the root table */
+  static int root(ByteBuffer bb) { return bb.getInt(0); }
+
+  /** Position of field id of the table at tbl, or 0 if absent */
+  static int field(ByteBuffer bb, int tbl, int id) {
+    int vt = tbl - bb.getInt(tbl);
+    int vtsize = bb.getShort(vt) & 0xFFFF;
+    int o = 4 + 2*id;
+    if( o >= vtsize ) return 0;
+    int off = bb.getShort(vt+o) & 0xFFFF;
+    return off == 0 ? 0 : tbl+off;
+  }
+
+  static long getLong(ByteBuffer bb, int tbl, int id, long dflt) { int p = field(bb,tbl,id); return p == 0 ? dflt : bb.getLong(p); }
+  static int getInt(ByteBuffer bb, int tbl, int id, int dflt) { int p = field(bb,tbl,id); return p == 0 ? dflt : bb.getInt(p); }
+  static short getShort(ByteBuffer bb, int tbl, int id, short dflt) { int p = field(bb,tbl,id); return p == 0 ? dflt : bb.getShort(p); }
+  static byte getByte(ByteBuffer bb, int tbl, int id, byte dflt) { int p = field(bb,tbl,id); return p == 0 ? dflt : bb.get(p); }
+  static boolean getBool(ByteBuffer bb, int tbl, int id) { return getByte(bb,tbl,id,(byte)0) != 0; }
+
+  /** Position of the child (table, vector or string) at field id, or 0 */
+  static int child(ByteBuffer bb, int tbl, int id) {
+    int p = field(bb,tbl,id);
+    return p == 0 ? 0 : p + bb.getInt(p);
+  }
+
+  static String getString(ByteBuffer bb, int tbl, int id) {
+    int p = child(bb,tbl,id);
+    if( p == 0 ) return null;
+    return new String(bb.array(), bb.arrayOffset()+p+4, bb.getInt(p), StandardCharsets.UTF_8);
+  }
+
+  /** Length of the vector at vec; 0 for an absent vector */
+  static int vecLen(ByteBuffer bb, int vec) { return vec == 0 ? 0 : bb.getInt(vec); }
+  /** Position of the i'th table in the vector of tables at vec */
+  static int vecTable(ByteBuffer bb, int vec, int i) { int p = vec+4+4*i; return p + bb.getInt(p); }
+  /** Position of the i'th struct of the given byte size in the vector at vec */
+  static int vecStruct(int vec, int i, int size) { return vec+4+size*i; }
+
+  /** Tables of the vector at field id, as positions */
+  static int[] tables(ByteBuffer bb, int tbl, int id) {
+    int vec = child(bb,tbl,id);
+    int[] res = new int[vecLen(bb,vec)];
+    for( int i = 0; i < res.length; i++ ) res[i] = vecTable(bb,vec,i);
+    return res;
+  }
+}
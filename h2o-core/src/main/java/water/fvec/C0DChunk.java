@@ -1,5 +1,7 @@
 package water.fvec;
 
+import java.util.Arrays;
+
 import water.parser.BufferedString;
 import water.util.UnsafeUtils;
 
@@ -100,4 +102,19 @@ public class C0DChunk extends Chunk {
     return v;
   }
 
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    Arrays.fill(vals,0,to-from,_con);
+    if(Double.isNaN(_con)) return markNAs(vals,nas,to-from);
+    clearNAs(nas,to-from);
+    return 0;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    if(Double.isNaN(_con)) {
+      Arrays.fill(vals,0,to-from,LONG_NA);
+      return markNAs(vals,nas,to-from);
+    }
+    clearNAs(nas,to-from);
+    Arrays.fill(vals,0,to-from,(long)_con);
+    return 0;
+  }
 }
@@ -1,5 +1,7 @@
 package water.fvec;
 
+import java.util.Arrays;
+
 import water.util.UnsafeUtils;
 
 /**
@@ -57,4 +59,15 @@ public class C0LChunk extends Chunk {
         v.addValue(_con);
     return v;
   }
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    Arrays.fill(vals,0,to-from,_con);
+    return 0;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    Arrays.fill(vals,0,to-from,_con);
+    return 0;
+  }
 }
@@ -49,4 +49,16 @@ public class C1NChunk extends Chunk {
     return v;
   }
 
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    for(int i = from; i < to; i++)
+      vals[i-from] = 0xFF&_mem[i];
+    return 0;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    for(int i = from; i < to; i++)
+      vals[i-from] = 0xFF&_mem[i];
+    return 0;
+  }
 }
@@ -100,5 +100,24 @@ public final class C1SChunk extends CSChunk {
     return v;
   }
 
-
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = 0xFF&_mem[_OFF+i];
+      if(x == C1Chunk._NA) { setNABit(nas,i-from); cnt++; }
+      vals[i-from] = getD(x,C1Chunk._NA);
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = 0xFF&_mem[_OFF+i];
+      if(x == C1Chunk._NA) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = (long)getD(x,C1Chunk._NA);
+    }
+    return cnt;
+  }
 }
@@ -86,4 +86,24 @@ public class C2Chunk extends Chunk {
   @Override
   public boolean hasFloat() {return false;}
 
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = UnsafeUtils.get2(_mem,(i<<1)+_OFF);
+      if(x == _NA) { vals[i-from] = Double.NaN; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = x;
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = UnsafeUtils.get2(_mem,(i<<1)+_OFF);
+      if(x == _NA) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = x;
+    }
+    return cnt;
+  }
 }
@@ -88,4 +88,25 @@ public class C2SChunk extends CSChunk {
       v.addValue(getD(getMantissa(i),C2Chunk._NA));
     return v;
   }
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = getMantissa(i);
+      if(x == C2Chunk._NA) { setNABit(nas,i-from); cnt++; }
+      vals[i-from] = getD(x,C2Chunk._NA);
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = getMantissa(i);
+      if(x == C2Chunk._NA) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = (long)getD(x,C2Chunk._NA);
+    }
+    return cnt;
+  }
 }
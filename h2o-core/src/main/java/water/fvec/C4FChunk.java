@@ -63,4 +63,25 @@ public class C4FChunk extends Chunk {
     assert _mem.length == _len <<2;
   }
   @Override public boolean hasFloat() {return true;}
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      double d = UnsafeUtils.get4f(_mem,i<<2);
+      if(Double.isNaN(d)) { setNABit(nas,i-from); cnt++; }
+      vals[i-from] = d;
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      double d = UnsafeUtils.get4f(_mem,i<<2);
+      if(Double.isNaN(d)) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = (long)d;
+    }
+    return cnt;
+  }
 }
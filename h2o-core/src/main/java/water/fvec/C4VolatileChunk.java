@@ -87,5 +87,24 @@ public class C4VolatileChunk extends Chunk {
 //    return fs;
 //  }
 
-
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = _is[i];
+      if(x == _NA) { vals[i-from] = Double.NaN; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = x;
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      int x = _is[i];
+      if(x == _NA) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = x;
+    }
+    return cnt;
+  }
 }
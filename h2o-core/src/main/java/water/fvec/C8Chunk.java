@@ -64,4 +64,25 @@ public class C8Chunk extends Chunk {
     }
     return vals;
   }
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      long x = UnsafeUtils.get8(_mem,i<<3);
+      if(x == _NA) { vals[i-from] = Double.NaN; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = x;
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      long x = UnsafeUtils.get8(_mem,i<<3);
+      if(x == _NA) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = x;
+    }
+    return cnt;
+  }
 }
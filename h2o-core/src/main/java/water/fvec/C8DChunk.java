@@ -71,4 +71,24 @@ public class C8DChunk extends Chunk {
     return vals;
   }
 
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      double d = UnsafeUtils.get8d(_mem,i<<3);
+      if(Double.isNaN(d)) { setNABit(nas,i-from); cnt++; }
+      vals[i-from] = d;
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      double d = UnsafeUtils.get8d(_mem,i<<3);
+      if(Double.isNaN(d)) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = (long)d;
+    }
+    return cnt;
+  }
 }
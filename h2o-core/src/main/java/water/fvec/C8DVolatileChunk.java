@@ -77,4 +77,24 @@ public final class C8DVolatileChunk extends Chunk {
     return v;
   }
 
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      double d = _ds[i];
+      if(Double.isNaN(d)) { setNABit(nas,i-from); cnt++; }
+      vals[i-from] = d;
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int cnt = 0;
+    for(int i = from; i < to; i++) {
+      double d = _ds[i];
+      if(Double.isNaN(d)) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = (long)d;
+    }
+    return cnt;
+  }
 }
@@ -162,4 +162,24 @@ public class CBSChunk extends Chunk {
   @Override
   public boolean hasFloat() {return false;}
 
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int bpv = _bpv, mask = 1 | bpv, cnt = 0;
+    for(int i = from; i < to; i++) {
+      int b = (_mem[_OFF + ((i*bpv)>>3)] >> (bpv*i & 7)) & mask;
+      if(b == _NA) { vals[i-from] = Double.NaN; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = b;
+    }
+    return cnt;
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    int bpv = _bpv, mask = 1 | bpv, cnt = 0;
+    for(int i = from; i < to; i++) {
+      int b = (_mem[_OFF + ((i*bpv)>>3)] >> (bpv*i & 7)) & mask;
+      if(b == _NA) { vals[i-from] = LONG_NA; setNABit(nas,i-from); cnt++; }
+      else vals[i-from] = b;
+    }
+    return cnt;
+  }
 }
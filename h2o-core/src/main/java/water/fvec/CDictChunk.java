@@ -0,0 +1,170 @@
+package water.fvec;
+
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+import java.util.Arrays;
+
+/**
+ * The small-dictionary compression function: up to 256 distinct values are
+ * stored once, and every row holds a 1, 2, 4 or 8 bit index into them.
+ * Picked for low-cardinality columns (prices, rates, codes) which would
+ * otherwise need a wide fixed-point or double encoding.  Random access is
+ * O(1).  Unlike {@link CUDChunk}, the indices are bit-packed to the smallest
+ * width holding the dictionary, and integer dictionaries keep exact longs.
+ *
+ * Layout: 4B len, 4B dictionary size, 1B bits per index, 1B isFloat, 2B
+ * padding; then the dictionary as longs (or double bits if isFloat); then the
+ * packed indices.  Missing values are a dictionary entry of
+ * {@link C8Chunk#_NA} (or NaN if isFloat).
+ */
+public class CDictChunk extends Chunk {
+  static final int _OFF = 4+4+4;
+  public static final int MAX_DICT = 256;
+  private transient int _bits;
+  private transient int _mask;
+  private transient int _idxOff;
+  private transient boolean _isFloat;
+  private transient long [] _ls;
+  private transient double [] _ds;
+
+  CDictChunk(byte [] mem) { _mem = mem; initFromBytes(); }
+
+  /** Smallest index width holding n distinct values */
+  static int bitsFor(int n) { return n <= 2?1:n <= 4?2:n <= 16?4:8; }
+
+  /** In memory size of a dictionary chunk of len rows and n distinct values */
+  static int byteSize(int n, int len) { return _OFF + (n<<3) + (int)(((long)len*bitsFor(n)+7)>>3); }
+
+  /** Dictionary encode len values, drawn from the n distinct values in dict;
+   *  raw and dict are long values (with C8Chunk._NA for missing), or the
+   *  double bits of each value if isFloat. */
+  static CDictChunk make(long [] raw, int len, long [] dict, int n, boolean isFloat) {
+    int bits = bitsFor(n);
+    byte [] mem = MemoryManager.malloc1(byteSize(n,len));
+    UnsafeUtils.set4(mem,0,len);
+    UnsafeUtils.set4(mem,4,n);
+    mem[8] = (byte)bits;
+    mem[9] = (byte)(isFloat?1:0);
+    long [] sorted = Arrays.copyOf(dict,n);
+    Arrays.sort(sorted);
+    for(int j = 0; j < n; ++j)
+      UnsafeUtils.set8(mem,_OFF + (j<<3),sorted[j]);
+    int idxOff = _OFF + (n<<3);
+    for(int i = 0; i < len; ++i) {
+      int j = Arrays.binarySearch(sorted,raw[i]);
+      assert j >= 0;
+      int bit = i*bits;
+      mem[idxOff + (bit>>3)] |= j << (bit&7);
+    }
+    return new CDictChunk(mem);
+  }
+
+  @Override protected final void initFromBytes() {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+    int n = UnsafeUtils.get4(_mem,4);
+    _bits = _mem[8];
+    _mask = (1<<_bits)-1;
+    _isFloat = _mem[9] != 0;
+    _idxOff = _OFF + (n<<3);
+    _ls = new long[n];
+    _ds = new double[n];
+    for(int j = 0; j < n; ++j) {
+      long l = UnsafeUtils.get8(_mem,_OFF + (j<<3));
+      if(_isFloat) {
+        double d = Double.longBitsToDouble(l);
+        _ds[j] = d;
+        _ls[j] = Double.isNaN(d)?C8Chunk._NA:(long)d;
+      } else {
+        _ls[j] = l;
+        _ds[j] = l == C8Chunk._NA?Double.NaN:l;
+      }
+    }
+  }
+
+  public final int dictSize() { return _ls.length; }
+
+  // Dictionary index of row i
+  private int idx(int i) {
+    int bit = i*_bits;
+    return (_mem[_idxOff + (bit>>3)] >> (bit&7)) & _mask;
+  }
+  private void setIdx(int i, int j) {
+    int bit = i*_bits;
+    int b = _idxOff + (bit>>3);
+    _mem[b] = (byte)((_mem[b] & ~(_mask << (bit&7))) | (j << (bit&7)));
+  }
+  // Dictionary index of a value, or -1 if not in the dictionary
+  private int find(double d) {
+    for(int j = 0; j < _ds.length; ++j)
+      if(_ds[j] == d || (Double.isNaN(d) && Double.isNaN(_ds[j]))) return j;
+    return -1;
+  }
+
+  @Override protected final long at8_impl(int i) {
+    long res = _ls[idx(i)];
+    if(res == C8Chunk._NA) throw new IllegalArgumentException("at8_abs but value is missing");
+    return res;
+  }
+  @Override protected final double atd_impl(int i) { return _ds[idx(i)]; }
+  @Override protected final boolean isNA_impl(int i) { return Double.isNaN(_ds[idx(i)]); }
+
+  // Writes of values already in the dictionary are supported
+  @Override boolean set_impl(int idx, long l) {
+    if(_isFloat || l == C8Chunk._NA) return false;
+    for(int j = 0; j < _ls.length; ++j)
+      if(_ls[j] == l) { setIdx(idx,j); return true; }
+    return false;
+  }
+  @Override boolean set_impl(int idx, double d) {
+    if(!_isFloat && !Double.isNaN(d) && (long)d != d) return false;
+    int j = find(d);
+    if(j < 0) return false;
+    setIdx(idx,j);
+    return true;
+  }
+  @Override boolean set_impl(int idx, float f) { return set_impl(idx,(double)f); }
+  @Override boolean setNA_impl(int idx) { return set_impl(idx,Double.NaN); }
+
+  @Override public boolean hasFloat() { return _isFloat; }
+
+  @Override public boolean hasNA() { return find(Double.NaN) >= 0; }
+
+  private void processRow(ChunkVisitor v, int i) {
+    int j = idx(i);
+    if(Double.isNaN(_ds[j])) v.addNAs(1);
+    else if(_isFloat) v.addValue(_ds[j]);
+    else v.addValue(_ls[j]);
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for(int i = from; i < to; ++i) processRow(v,i);
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int [] ids) {
+    for(int i:ids) processRow(v,i);
+    return v;
+  }
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    int bits = _bits, mask = _mask, off = _idxOff;
+    for(int i = from; i < to; ++i) {
+      int bit = i*bits;
+      vals[i-from] = _ds[(_mem[off + (bit>>3)] >> (bit&7)) & mask];
+    }
+    return markNAs(vals,nas,to-from);
+  }
+
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    int bits = _bits, mask = _mask, off = _idxOff;
+    for(int i = from; i < to; ++i) {
+      int bit = i*bits;
+      vals[i-from] = _ls[(_mem[off + (bit>>3)] >> (bit&7)) & mask];
+    }
+    return markNAs(vals,nas,to-from);
+  }
+}
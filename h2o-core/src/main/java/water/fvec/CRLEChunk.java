@@ -0,0 +1,175 @@
+package water.fvec;
+
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+import java.util.Arrays;
+
+/**
+ * The run-length compression function: runs of equal values are stored once,
+ * with the row where the run starts.  Picked for sorted or block-structured
+ * columns (e.g. after a sort by key), where a Chunk holds few long runs.
+ *
+ * Random access is a binary search over the run starts, O(log runs), with the
+ * last run found cached so that sequential access is O(1).
+ *
+ * Layout: 4B len, 4B run count, 1B isFloat, 3B padding; then the run start
+ * rows as ints; then the run values as longs (or double bits if isFloat).
+ * Missing values are stored as {@link C8Chunk#_NA} (or NaN if isFloat).
+ */
+public class CRLEChunk extends Chunk {
+  static final int _OFF = 4+4+4;
+  // Decoded header, run starts (plus a trailing _len) and run values
+  private transient int _nruns;
+  private transient boolean _isFloat;
+  private transient int [] _starts;
+  private transient long [] _ls;
+  private transient double [] _ds;
+  private transient int _lastRun;
+
+  CRLEChunk(byte [] mem) { _mem = mem; initFromBytes(); }
+
+  /** In memory size of a run-length chunk of the given number of runs */
+  static int byteSize(int nruns) { return _OFF + nruns*(4+8); }
+
+  /** Run-length encode len values; raw are long values (with C8Chunk._NA
+   *  for missing), or the double bits of each value if isFloat. */
+  static CRLEChunk make(long [] raw, int len, int nruns, boolean isFloat) {
+    byte [] mem = MemoryManager.malloc1(byteSize(nruns));
+    UnsafeUtils.set4(mem,0,len);
+    UnsafeUtils.set4(mem,4,nruns);
+    mem[8] = (byte)(isFloat?1:0);
+    int voff = _OFF + (nruns<<2);
+    int r = 0;
+    for(int i = 0; i < len; ++i) {
+      if(i > 0 && raw[i] == raw[i-1]) continue;
+      UnsafeUtils.set4(mem,_OFF + (r<<2),i);
+      UnsafeUtils.set8(mem,voff + (r<<3),raw[i]);
+      ++r;
+    }
+    assert r == nruns;
+    return new CRLEChunk(mem);
+  }
+
+  @Override protected final void initFromBytes() {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+    _nruns = UnsafeUtils.get4(_mem,4);
+    _isFloat = _mem[8] != 0;
+    _starts = new int[_nruns+1];
+    _ls = new long[_nruns];
+    _ds = new double[_nruns];
+    int voff = _OFF + (_nruns<<2);
+    for(int r = 0; r < _nruns; ++r) {
+      _starts[r] = UnsafeUtils.get4(_mem,_OFF + (r<<2));
+      long l = UnsafeUtils.get8(_mem,voff + (r<<3));
+      if(_isFloat) {
+        double d = Double.longBitsToDouble(l);
+        _ds[r] = d;
+        _ls[r] = Double.isNaN(d)?C8Chunk._NA:(long)d;
+      } else {
+        _ls[r] = l;
+        _ds[r] = l == C8Chunk._NA?Double.NaN:l;
+      }
+    }
+    _starts[_nruns] = _len;
+    _lastRun = 0;
+  }
+
+  public final int numRuns() { return _nruns; }
+
+  // Index of the run holding row i
+  private int findRun(int i) {
+    int r = _lastRun;
+    if(_starts[r] <= i) {
+      if(i < _starts[r+1]) return r;
+      if(r+1 < _nruns && i < _starts[r+2]) return _lastRun = r+1;
+    }
+    int lb = 0, ub = _nruns;      // Invariant: _starts[lb] <= i < _starts[ub]
+    while(ub - lb > 1) {
+      int mid = (lb + ub) >>> 1;
+      if(_starts[mid] <= i) lb = mid;
+      else ub = mid;
+    }
+    return _lastRun = lb;
+  }
+
+  @Override protected final long at8_impl(int i) {
+    long res = _ls[findRun(i)];
+    if(res == C8Chunk._NA) throw new IllegalArgumentException("at8_abs but value is missing");
+    return res;
+  }
+  @Override protected final double atd_impl(int i) { return _ds[findRun(i)]; }
+  @Override protected final boolean isNA_impl(int i) { return Double.isNaN(_ds[findRun(i)]); }
+
+  // Only writes leaving the run structure intact are supported
+  @Override boolean set_impl(int idx, long l) { return !_isFloat && _ls[findRun(idx)] == l && l != C8Chunk._NA; }
+  @Override boolean set_impl(int idx, double d) { return _ds[findRun(idx)] == d; }
+  @Override boolean set_impl(int idx, float f) { return _ds[findRun(idx)] == f; }
+  @Override boolean setNA_impl(int idx) { return Double.isNaN(_ds[findRun(idx)]); }
+
+  @Override public boolean hasFloat() { return _isFloat; }
+
+  @Override public boolean hasNA() {
+    for(double d:_ds) if(Double.isNaN(d)) return true;
+    return false;
+  }
+
+  private void addRun(ChunkVisitor v, int r, int n) {
+    if(Double.isNaN(_ds[r])) v.addNAs(n);
+    else if(_ds[r] == 0) v.addZeros(n);
+    else if(_isFloat) for(int k = 0; k < n; ++k) v.addValue(_ds[r]);
+    else for(int k = 0; k < n; ++k) v.addValue(_ls[r]);
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    if(from >= to) return v;
+    for(int r = findRun(from), i = from; i < to; ++r) {
+      int end = Math.min(_starts[r+1],to);
+      addRun(v,r,end-i);
+      i = end;
+    }
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int [] ids) {
+    for(int i:ids) addRun(v,findRun(i),1);
+    return v;
+  }
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    if(from >= to) return 0;
+    int cnt = 0;
+    for(int r = findRun(from), i = from; i < to; ++r) {
+      int end = Math.min(_starts[r+1],to);
+      double d = _ds[r];
+      Arrays.fill(vals,i-from,end-from,d);
+      if(Double.isNaN(d)) {
+        cnt += end-i;
+        for(int k = i; k < end; ++k) setNABit(nas,k-from);
+      }
+      i = end;
+    }
+    return cnt;
+  }
+
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    if(from >= to) return 0;
+    int cnt = 0;
+    for(int r = findRun(from), i = from; i < to; ++r) {
+      int end = Math.min(_starts[r+1],to);
+      long l = _ls[r];
+      Arrays.fill(vals,i-from,end-from,l);
+      if(l == C8Chunk._NA) {
+        cnt += end-i;
+        for(int k = i; k < end; ++k) setNABit(nas,k-from);
+      }
+      i = end;
+    }
+    return cnt;
+  }
+}
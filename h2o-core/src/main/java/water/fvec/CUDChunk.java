@@ -56,8 +56,8 @@ public class CUDChunk extends Chunk {
       if(Double.isNaN(uniques[i]))
         uniques[i] = NA;
     }
-    for(int i = 0; i < _len; ++i)
-      vals[i] = uniques[(UnsafeUtils.get1(_mem, 8 + (numUniques << 3) + i)+128)];
+    for(int i = from; i < to; ++i)
+      vals[i-from] = uniques[(UnsafeUtils.get1(_mem, 8 + (numUniques << 3) + i)+128)];
     return vals;
   }
 
@@ -95,4 +95,25 @@ public class CUDChunk extends Chunk {
     numUniques = UnsafeUtils.get4(_mem, 4);
     set_len(_len);
   }
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    double [] uniques = new double[numUniques];
+    for(int i = 0; i < numUniques; ++i)
+      uniques[i] = Double.longBitsToDouble(UnsafeUtils.get8(_mem, 8 + (i << 3)));
+    int off = 8 + (numUniques << 3);
+    for(int i = from; i < to; ++i)
+      vals[i-from] = uniques[UnsafeUtils.get1(_mem, off + i)+128];
+    return markNAs(vals,nas,to-from);
+  }
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    long [] uniques = new long[numUniques];
+    for(int i = 0; i < numUniques; ++i) {
+      double d = Double.longBitsToDouble(UnsafeUtils.get8(_mem, 8 + (i << 3)));
+      uniques[i] = Double.isNaN(d)?LONG_NA:(long)d;
+    }
+    int off = 8 + (numUniques << 3);
+    for(int i = from; i < to; ++i)
+      vals[i-from] = uniques[UnsafeUtils.get1(_mem, off + i)+128];
+    return markNAs(vals,nas,to-from);
+  }
 }
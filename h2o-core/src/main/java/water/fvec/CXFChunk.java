@@ -1,5 +1,7 @@
 package water.fvec;
 
+import java.util.Arrays;
+
 import water.H2O;
 import water.util.UnsafeUtils;
 
@@ -90,4 +92,31 @@ public class CXFChunk extends CXIChunk {
   }
   @Override
   public boolean hasFloat(){return true;}
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    int n = to-from;
+    Arrays.fill(vals,0,n,_isNA?Double.NaN:0);
+    clearNAs(nas,n);
+    int cnt = 0;
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      double d = getVal(x);
+      if(Double.isNaN(d)) cnt++;
+      vals[id-from] = d;
+    }
+    return _isNA?markNAs(vals,nas,n):markStoredNAs(vals,nas,from,to,cnt);
+  }
+
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    int n = to-from;
+    Arrays.fill(vals,0,n,_isNA?LONG_NA:0);
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      double d = getVal(x);
+      vals[id-from] = Double.isNaN(d)?LONG_NA:(long)d;
+    }
+    return markNAs(vals,nas,n);
+  }
 }
@@ -1,5 +1,7 @@
 package water.fvec;
 
+import java.util.Arrays;
+
 import water.H2O;
 import water.util.UnsafeUtils;
 
@@ -213,4 +215,51 @@ public class CXIChunk extends Chunk {
 
   @Override
   public boolean hasFloat(){return false;}
+
+  // Offset of the first stored element at or after row from
+  protected final int firstOffset(int from) {
+    int x = from == 0?_OFF:findOffset(from);
+    return x < 0?-x-1:x;
+  }
+
+  @Override int decode_impl(double [] vals, long [] nas, int from, int to) {
+    int n = to-from;
+    Arrays.fill(vals,0,n,_isNA?Double.NaN:0);
+    clearNAs(nas,n);
+    long na = _NAS[_val_sz];
+    int cnt = 0;
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      long val = getVal(x);
+      if(val == na) { vals[id-from] = Double.NaN; cnt++; }
+      else vals[id-from] = val;
+    }
+    // NA-sparse: most rows are missing, cheaper to count from the values
+    return _isNA?markNAs(vals,nas,n):markStoredNAs(vals,nas,from,to,cnt);
+  }
+
+  @Override int decode_impl(long [] vals, long [] nas, int from, int to) {
+    int n = to-from;
+    Arrays.fill(vals,0,n,_isNA?LONG_NA:0);
+    long na = _NAS[_val_sz];
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      long val = getVal(x);
+      vals[id-from] = val == na?LONG_NA:val;
+    }
+    return markNAs(vals,nas,n);
+  }
+
+  // Zero-sparse: set the NA bits of the few stored missing values only
+  protected final int markStoredNAs(double [] vals, long [] nas, int from, int to, int cnt) {
+    if(cnt == 0 || nas == null) return cnt;
+    for(int x = firstOffset(from); x < _mem.length; x += _elem_sz) {
+      int id = getId(x);
+      if(id >= to) break;
+      if(Double.isNaN(vals[id-from])) setNABit(nas,id-from);
+    }
+    return cnt;
+  }
 }
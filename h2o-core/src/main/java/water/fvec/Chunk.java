@@ -3,6 +3,7 @@ package water.fvec;
 import water.*;
 import water.parser.BufferedString;
 
+import java.util.Arrays;
 import java.util.UUID;
 
 /** A compression scheme, over a chunk of data - a single array of bytes.
@@ -804,4 +805,75 @@ public abstract class Chunk extends Iced<Chunk> implements Vec.Holder {
   public int getSparseDoubles(double [] vals, int [] ids, double NA) {
     return processRows(new ChunkVisitor.SparseDoubleAryVisitor(vals,ids,isSparseNA(),NA),0,_len).sparseLen();
   }
+
+  // -----------------
+  // Vectorized bulk decode
+
+  /** Value {@link #decode(long[],long[],int,int)} stores for missing rows */
+  public static final long LONG_NA = Long.MIN_VALUE;
+
+  /**
+   * Vectorized bulk decode: rows [from,to) into vals[0..to-from).  Every
+   * Chunk flavor decodes its own encoding in one tight loop, instead of a
+   * virtual call (and decode) per row through {@link #atd}.  Missing rows
+   * come out as NaN; if nas is not null, bit (row-from) of the NA bitmap is
+   * set for every missing row and cleared for every other row, see
+   * {@link #isNA(long[],int)}.
+   * @param vals holds the decoded values, length must be >= to-from
+   * @param nas NA bitmap, length must be >= (to-from+63)/64 words, or null
+   * @return number of missing rows in the range
+   */
+  public final int decode(double[] vals, long[] nas, int from, int to) {
+    return _chk2 == null ? decode_impl(vals,nas,from,to) : _chk2.decode_impl(vals,nas,from,to);
+  }
+
+  /**
+   * Vectorized bulk decode of integral values: rows [from,to) into
+   * vals[0..to-from).  Same contract as {@link #decode(double[],long[],int,int)},
+   * except that missing rows come out as {@link #LONG_NA} and floating point
+   * values are truncated, as in {@link #at8}.
+   * @return number of missing rows in the range
+   */
+  public final int decode(long[] vals, long[] nas, int from, int to) {
+    return _chk2 == null ? decode_impl(vals,nas,from,to) : _chk2.decode_impl(vals,nas,from,to);
+  }
+
+  /** Chunk-specific bulk decode; the default goes through {@link #processRows}.
+   *  Subclasses override with a loop over their own encoding. */
+  int decode_impl(double[] vals, long[] nas, int from, int to) {
+    getDoubles(vals,from,to,Double.NaN);
+    return markNAs(vals,nas,to-from);
+  }
+  int decode_impl(long[] vals, long[] nas, int from, int to) {
+    clearNAs(nas,to-from);
+    return processRows(new ChunkVisitor.LongAryVisitor(vals,nas),from,to).naCnt();
+  }
+
+  /** @return true if bit i of an NA bitmap filled in by {@link #decode} is set */
+  public static boolean isNA(long[] nas, int i) { return (nas[i>>6] & (1L<<i)) != 0; }
+
+  // Clear the NA bitmap words covering n rows
+  static void clearNAs(long[] nas, int n) {
+    if( nas != null ) Arrays.fill(nas,0,(n+63)>>6,0L);
+  }
+  // Flag row i as missing
+  static void setNABit(long[] nas, int i) {
+    if( nas != null ) nas[i>>6] |= 1L<<i;
+  }
+  // Fill the NA bitmap from the NaNs of n decoded values, returning the NA count
+  static int markNAs(double[] vals, long[] nas, int n) {
+    clearNAs(nas,n);
+    int cnt = 0;
+    for( int i = 0; i < n; i++ )
+      if( Double.isNaN(vals[i]) ) { cnt++; setNABit(nas,i); }
+    return cnt;
+  }
+  // Fill the NA bitmap from the LONG_NAs of n decoded values, returning the NA count
+  static int markNAs(long[] vals, long[] nas, int n) {
+    clearNAs(nas,n);
+    int cnt = 0;
+    for( int i = 0; i < n; i++ )
+      if( vals[i] == LONG_NA ) { cnt++; setNABit(nas,i); }
+    return cnt;
+  }
 }
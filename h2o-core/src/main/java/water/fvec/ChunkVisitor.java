@@ -189,4 +189,43 @@ public abstract class ChunkVisitor {
       _k = kmax;
     }
   }
+  /**
+   * Chunk visitor for extracting rows from chunks into a long array plus NA
+   * bitmap, see {@link Chunk#decode(long[],long[],int,int)}.
+   */
+  public static final class LongAryVisitor extends ChunkVisitor {
+    public final long [] vals;
+    private final long [] _nas;
+    private int _k = 0;
+    private int _naCnt = 0;
+    LongAryVisitor(long [] vals, long [] nas){this.vals = vals; _nas = nas;}
+    public int naCnt(){return _naCnt;}
+    @Override
+    void addValue(int val) {vals[_k++] = val;}
+    @Override
+    void addValue(long val) {vals[_k++] = val;}
+    @Override
+    void addValue(double val) {
+      if(Double.isNaN(val)) addNAs(1);
+      else vals[_k++] = (long)val;
+    }
+    @Override
+    void addZeros(int zeros) {
+      int k = _k;
+      int kmax = k +zeros;
+      for(;k < kmax; k++) vals[k] = 0;
+      _k = kmax;
+    }
+    @Override
+    void addNAs(int nas) {
+      int k = _k;
+      int kmax = k + nas;
+      for(;k < kmax; k++) {
+        vals[k] = Chunk.LONG_NA;
+        Chunk.setNABit(_nas,k);
+      }
+      _k = kmax;
+      _naCnt += nas;
+    }
+  }
 }
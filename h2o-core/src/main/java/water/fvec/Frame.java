@@ -1021,7 +1021,12 @@ public class Frame extends Lockable<Frame> {
    *  <p>The numbering is 1-based; zero's are not allowed in the lists, nor are out-of-range values.
    *  @return the sliced Frame
    */
-  public Frame deepSlice( Object orows, Object ocols ) {
+  public Frame deepSlice( Object orows, Object ocols ) { return deepSlice(orows, ocols, null); }
+
+  /** Same as {@link #deepSlice(Object, Object)}; if orows is a boolean
+   *  selector Frame and pruned is not null, pruned[0] is set to the number of
+   *  chunks skipped as none of their rows is selected (see {@link DeepSelect}). */
+  public Frame deepSlice( Object orows, Object ocols, long[] pruned ) {
     // ocols is either a long[] or a Frame-of-1-Vec
     long[] cols;
     if( ocols == null ) cols = null;
@@ -1135,7 +1140,9 @@ public class Frame extends Lockable<Frame> {
     }
     Frame ff = new Frame(names, vecs);
     ff.add("predicate", frows.anyVec());
-    return new DeepSelect().doAll(types(c2),ff).outputFrame(names(c2),domains(c2));
+    DeepSelect ds = new DeepSelect(ZoneMap.get(frows.anyVec())).doAll(types(c2),ff);
+    if( pruned != null ) pruned[0] = ds._pruned;
+    return ds.outputFrame(names(c2),domains(c2));
   }
 
   // Slice and return in the form of new chunks.
@@ -1337,8 +1344,13 @@ public class Frame extends Lockable<Frame> {
    *  Last column is a bit vec indicating whether or not to take the row.
    */
   public static class DeepSelect extends MRTask<DeepSelect> {
+    final ZoneMap _zm;          // Zone map of the predicate Vec, if known
+    public long _pruned;        // Chunks skipped, as no row in them is selected
+    public DeepSelect() { this(null); }
+    public DeepSelect( ZoneMap zm ) { _zm = zm; }
     @Override public void map( Chunk[] chks, NewChunk [] nchks ) {
       Chunk pred =  chks[chks.length - 1];
+      if( selectsNone(pred) ) { _pruned++; return; }
       int[] ids = pred.getIntegers(new int[pred._len],0,pred._len,0);
       int zeros = 0;
       for(int i = 0; i < ids.length; ++i)
@@ -1349,6 +1361,15 @@ public class Frame extends Lockable<Frame> {
       for (int c = 0; c < chks.length-1; ++c)
         chks[c].extractRows(nchks[c], ids);
     }
+    // True if a constant predicate Chunk, or the predicate zone map, proves
+    // that no row is selected.  Selection truncates the predicate to an int.
+    private boolean selectsNone( Chunk pred ) {
+      if( pred instanceof C0LChunk || pred instanceof C0DChunk ) return (int)pred.atd(0) != 1;
+      if( _zm == null ) return false;
+      int cidx = pred.cidx();
+      return _zm.isAllNA(cidx) || _zm.max(cidx) < 1 || _zm.min(cidx) >= 2;
+    }
+    @Override public void reduce( DeepSelect ds ) { _pruned += ds._pruned; }
   }
 
   private String[][] domains(int [] cols){
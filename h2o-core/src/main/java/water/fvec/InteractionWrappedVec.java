@@ -6,6 +6,7 @@ import water.util.IcedHashMap;
 import water.util.IcedLong;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -276,6 +277,11 @@ public class InteractionWrappedVec extends WrappedVec {
     }
   }
 
+  @Override public void addRemoteChunkKeys(int cidx, boolean local, Collection<Key> keys) {
+    v1().addRemoteChunkKeys(cidx, local, keys);
+    v2().addRemoteChunkKeys(cidx, local, keys);
+  }
+
   @Override public Chunk chunkForChunkIdx(int cidx) {
     Chunk[] cs = new Chunk[2];
     cs[0] = (_masterVec1!=null?_masterVec1: (_masterVec1=_masterVecKey1.get())).chunkForChunkIdx(cidx);
@@ -997,7 +997,7 @@ public class NewChunk extends Chunk {
   // Study this NewVector and determine an appropriate compression scheme.
   // Return the data so compressed.
   public Chunk compress() {
-    Chunk res = compress2();
+    Chunk res = compressRunsOrDict(compress2());
     byte type = type();
     assert _vec == null ||  // Various testing scenarios do not set a Vec
       type == _vec._type || // Equal types
@@ -1025,6 +1025,91 @@ public class NewChunk extends Chunk {
     return res;
   }
 
+  // Run-length and dictionary encodings only pay off on reasonably long Chunks
+  static final int MIN_RLE_DICT_LEN = 1024;
+  // Rows sampled (in windows of consecutive rows) before trying either
+  static final int RLE_DICT_SAMPLE = 256, RLE_DICT_WINDOW = 64;
+
+  // Try run-length and small-dictionary encodings of the Chunk picked by
+  // compress2, and keep the smallest.  Long runs (sorted columns) and few
+  // distinct values (prices, rates) beat any fixed-width encoding.
+  private static Chunk compressRunsOrDict(Chunk res) {
+    int len = res._len;
+    if( len < MIN_RLE_DICT_LEN || res instanceof C0LChunk || res instanceof C0DChunk ||
+        res instanceof CXIChunk || res instanceof CStrChunk || res instanceof C16Chunk )
+      return res;
+    int limit = (int)(0.8*res._mem.length); // Same 20% savings bar as CUDChunk
+    if( !mayRunOrDict(res,len,limit) ) return res;
+    boolean isFloat = res.hasFloat();
+    long [] raw = MemoryManager.malloc8(len);
+    if( isFloat ) {             // Compare doubles by their (canonical NaN) bits
+      double [] ds = MemoryManager.malloc8d(len);
+      res.decode(ds,null,0,len);
+      for( int i = 0; i < len; i++ ) raw[i] = Double.doubleToLongBits(ds[i]);
+    } else
+      res.decode(raw,null,0,len);
+    // Count runs, giving up once run-length cannot win
+    int maxRuns = (limit - CRLEChunk._OFF)/(4+8);
+    int runs = 1;
+    for( int i = 1; i < len && runs <= maxRuns; i++ )
+      if( raw[i] != raw[i-1] ) runs++;
+    long [] dict = new long[CDictChunk.MAX_DICT];
+    int n = distinct(raw,len,dict);
+    int rleSz  = runs <= maxRuns ? CRLEChunk.byteSize(runs) : Integer.MAX_VALUE;
+    int dictSz = n > 0 ? CDictChunk.byteSize(n,len) : Integer.MAX_VALUE;
+    if( Math.min(rleSz,dictSz) >= limit ) return res;
+    return rleSz <= dictSz
+      ? CRLEChunk.make(raw,len,runs,isFloat)
+      : CDictChunk.make(raw,len,dict,n,isFloat);
+  }
+
+  // Cheap check on a sample of the rows, before decoding the whole Chunk:
+  // false if neither encoding looks like it can save enough.  The value
+  // changes of the sample give an estimate of the runs; a sample with more
+  // than half the dictionary size in distinct values is taken to mean the
+  // Chunk has more than fit.
+  static boolean mayRunOrDict(Chunk res, int len, int limit) {
+    if( Math.min(CRLEChunk.byteSize(1), CDictChunk.byteSize(1,len)) >= limit ) return false;
+    int nwin = RLE_DICT_SAMPLE/RLE_DICT_WINDOW;
+    long [] sample = new long[RLE_DICT_SAMPLE];
+    int changes = 0;
+    for( int w = 0, i = 0; w < nwin; w++ ) {
+      int start = (int)((long)(len - RLE_DICT_WINDOW)*w/(nwin-1));
+      for( int r = start; r < start + RLE_DICT_WINDOW; r++, i++ ) {
+        sample[i] = Double.doubleToLongBits(res.atd(r));
+        if( r > start && sample[i] != sample[i-1] ) changes++;
+      }
+    }
+    long runs = (long)changes*len/(nwin*(RLE_DICT_WINDOW-1));
+    boolean rle = 2*runs <= 3L*(limit - CRLEChunk._OFF)/(4+8); // Within 1.5x
+    long [] dict = new long[CDictChunk.MAX_DICT>>1];
+    int n = distinct(sample,sample.length,dict);
+    boolean dct = n > 0 && CDictChunk.byteSize(n,len) < limit;
+    return rle || dct;
+  }
+
+  // Collect the distinct values of raw into dict; -1 if there are more than
+  // dict.length of them.  Open addressing over a table twice as large.
+  private static int distinct(long [] raw, int len, long [] dict) {
+    int mask = (dict.length<<1)-1;
+    long [] keys = new long[mask+1];
+    boolean [] used = new boolean[mask+1];
+    int n = 0;
+    for( int i = 0; i < len; i++ ) {
+      long k = raw[i];
+      if( i > 0 && k == raw[i-1] ) continue;
+      int h = (int)(k ^ (k>>>32))*0x9E3779B9;
+      int x = (h ^ (h>>>16)) & mask;
+      while( used[x] && keys[x] != k ) x = (x+1) & mask;
+      if( used[x] ) continue;
+      if( n == dict.length ) return -1;
+      used[x] = true;
+      keys[x] = k;
+      dict[n++] = k;
+    }
+    return n;
+  }
+
   private static long leRange(long lemin, long lemax){
     if(lemin < 0 && lemax >= (Long.MAX_VALUE + lemin))
       return Long.MAX_VALUE; // if overflow return 64 as the max possible value
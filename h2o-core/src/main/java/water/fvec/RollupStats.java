@@ -45,6 +45,7 @@ final class RollupStats extends Iced {
   boolean _isInt=true;
   double[] _mins, _maxs;
   long _checksum;
+  ZoneMap _zone;        // Per-chunk min/max/NA count; null for String & UUID Vecs
 
   // Expensive histogram & percentiles
   // Computed in a 2nd pass, on-demand, by calling computeHisto
@@ -261,12 +262,20 @@ final class RollupStats extends Iced {
     protected boolean modifiesVolatileVecs(){return false;}
 
     Roll( H2OCountedCompleter cmp, Key rskey ) { super(cmp); _rskey=rskey; }
-    @Override public void map( Chunk c ) { _rs = new RollupStats(0).map(c); }
-    @Override public void reduce( Roll roll ) { _rs.reduce(roll._rs); }
+    ZoneMap _zone;
+    @Override public void map( Chunk c ) {
+      _rs = new RollupStats(0).map(c);
+      if( !c._vec.isUUID() && !c._vec.isString() ) _zone = zone(c.cidx(),_rs);
+    }
+    @Override public void reduce( Roll roll ) {
+      _rs.reduce(roll._rs);
+      _zone = _zone == null ? roll._zone : _zone.reduce(roll._zone);
+    }
     @Override public void postGlobal() {
       if( _rs == null )
         _rs = new RollupStats(0);
       else {
+        if( _zone != null ) _rs._zone = _zone.dense(_fr.anyVec().nChunks());
         _rs._sigma = Math.sqrt(_rs._sigma/(_rs._rows-1));
         if (_rs._rows == 1) _rs._sigma = 0;
         if (_rs._rows < 5) for (int i=0; i<5-_rs._rows; i++) {  // Fix PUBDEV-150 for files under 5 rows
@@ -290,6 +299,15 @@ final class RollupStats extends Iced {
         _rs._size += vec.nChunks()*(keysize*4/*key+value ptr in DKV, plus 50% fill rate*/);
       }
     }
+    // Zone map entry from the rollups of a single chunk: the rollup min/max
+    // skip infinities and are NaN for an all-NaN constant chunk.
+    private static ZoneMap zone( int cidx, RollupStats rs ) {
+      double min = rs._mins[0], max = rs._maxs[0];
+      if( Double.isNaN(min) || Double.isNaN(max) ) { min = Double.POSITIVE_INFINITY; max = Double.NEGATIVE_INFINITY; }
+      if( rs._ninfs > 0 ) min = Double.NEGATIVE_INFINITY;
+      if( rs._pinfs > 0 ) max = Double.POSITIVE_INFINITY;
+      return ZoneMap.of(cidx,min,max,rs._naCnt);
+    }
     // Just toooo common to report always.  Drowning in multi-megabyte log file writes.
     @Override public boolean logVerbose() { return false; }
 
@@ -2,6 +2,9 @@ package water.fvec;
 
 import water.*;
 
+import java.util.BitSet;
+import java.util.Collection;
+
 /**
  *  A simple wrapper for looking at only a subset of rows
  */
@@ -23,6 +26,21 @@ public class SubsetVec extends WrappedVec {
     return new SubsetChunk(crows,this,masterVec());
   }
 
+  // The rows Chunk, then the master's Chunks holding the selected rows.  Those
+  // are only known from the rows Chunk, so only for a rows Chunk homed here:
+  // a remote one is not fetched just to look, the map call fetches them.
+  @Override public void addRemoteChunkKeys(int cidx, boolean local, Collection<Key> keys) {
+    rows().addRemoteChunkKeys(cidx, local, keys);
+    if( !local ) return;
+    Chunk crows = rows().chunkForChunkIdx(cidx);
+    Vec mvec = masterVec();
+    BitSet mcidxs = new BitSet();
+    for( int i = 0; i < crows._len; i++ )
+      mcidxs.set(mvec.elem2ChunkIdx(crows.at8(i)));
+    for( int mc = mcidxs.nextSetBit(0); mc >= 0; mc = mcidxs.nextSetBit(mc+1) )
+      mvec.addRemoteChunkKeys(mc, mvec.chunkKey(mc).home(), keys);
+  }
+
   @Override public Futures remove_impl(Futures fs) {
     Keyed.remove(_subsetRowsKey,fs);
     return fs;
@@ -9,6 +9,8 @@ import water.rapids.ast.AstRoot;
 import water.rapids.Env;
 import water.rapids.ast.params.AstNum;
 
+import java.util.Collection;
+
 /**
  * This wrapper pushes a transform down into each chunk so that
  * transformations will happen on-the-fly. When wrapped and there
@@ -61,6 +63,11 @@ public class TransformWrappedVec extends WrappedVec {
 
 
 
+  @Override public void addRemoteChunkKeys(int cidx, boolean local, Collection<Key> keys) {
+    for( Key<Vec> k : _masterVecKeys )
+      k.get().addRemoteChunkKeys(cidx, local, keys);
+  }
+
   @Override public Chunk chunkForChunkIdx(int cidx) {
     Chunk[] cs = new Chunk[_masterVecKeys.length];
     if( _masterVecs==null )
@@ -11,6 +11,9 @@ public class UploadFileVec extends FileVec {
   int _nchunks;
   protected UploadFileVec(Key key) { super(key,-1,Value.ICE); }
 
+  /** A Vec to fill with {@link #putChunk}, in any chunk order, then {@link #close(long, Futures)} */
+  public UploadFileVec(Key key, int chunkSize) { this(key); _chunkSize = chunkSize; }
+
   @Override public boolean writable() { return _len==-1; }
 
   public void addAndCloseChunk(Chunk c, Futures fs) {
@@ -29,6 +32,22 @@ public class UploadFileVec extends FileVec {
     _len = l*_chunkSize +c._len;
   }
 
+  /** Put chunk cidx; all chunks but the last must hold exactly {@link #_chunkSize} bytes */
+  public void putChunk(int cidx, byte[] bytes, Futures fs) {
+    assert _len==-1;            // Not closed
+    C1NChunk c = new C1NChunk(bytes);
+    c._vec = this;
+    DKV.put(chunkKey(cidx),c,fs,true);
+  }
+
+  /** Close after all chunks are put, and publish the Vec */
+  public void close(long len, Futures fs) {
+    assert _len==-1;            // Not closed
+    _len = len;
+    _nchunks = nChunks();
+    DKV.put(_key,this,fs);
+  }
+
   private boolean checkMissing(int cidx, Value val) {
     if( val != null ) return true;
     Log.err("Missing chunk " + cidx + " for " + _key);
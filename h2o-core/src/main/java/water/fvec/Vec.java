@@ -6,6 +6,7 @@ import water.parser.BufferedString;
 import water.util.*;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Random;
 import java.util.UUID;
 
@@ -1036,6 +1037,16 @@ public class Vec extends Keyed<Vec> {
     return v==null ? new VectorGroup(gKey,1) : (VectorGroup)v.get();
   }
 
+  /** Add the Keys of the remote Chunks that {@link #chunkForChunkIdx} will
+   *  fetch for chunk cidx, so that they can be fetched in bulk ahead of the
+   *  reads.  Chunks are homed by chunk index alone, so chunk cidx of any Vec
+   *  is remote exactly when it is not {@code local}.  Vecs that read other
+   *  Chunks to make theirs override.
+   *  @param local True if chunk index cidx is homed on this node */
+  public void addRemoteChunkKeys(int cidx, boolean local, Collection<Key> keys) {
+    if( !local ) keys.add(chunkKey(cidx));
+  }
+
   /** The Chunk for a chunk#.  Warning: this pulls the data locally; using this
    *  call on every Chunk index on the same node will probably trigger an OOM!
    *  @return Chunk for a chunk# */
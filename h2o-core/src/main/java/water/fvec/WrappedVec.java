@@ -2,6 +2,8 @@ package water.fvec;
 
 import water.*;
 
+import java.util.Collection;
+
 /**
  * A simple wrapper over another Vec.  Transforms either data values or rows.
  */
@@ -24,6 +26,11 @@ abstract class WrappedVec extends Vec {
     return _masterVec != null ? _masterVec : (_masterVec = _masterVecKey.get());
   }
 
+  /** Wrappers read the master's Chunk of the same index */
+  @Override public void addRemoteChunkKeys(int cidx, boolean local, Collection<Key> keys) {
+    masterVec().addRemoteChunkKeys(cidx, local, keys);
+  }
+
   /** Map from chunk-index to Chunk.  These wrappers are making custom Chunks */
   public abstract Chunk chunkForChunkIdx(int cidx);
 }
@@ -0,0 +1,96 @@
+package water.fvec;
+
+import water.Iced;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-Chunk zone map of a Vec: the min and max of the non-missing values in
+ * every Chunk, plus its count of missing values.  Infinities are included in
+ * the min/max; a Chunk holding only missing values has {@code min > max}.
+ * <p>
+ * Zone maps are built in the same pass as the {@link RollupStats}, which runs
+ * after a Vec is parsed or closed, and are thrown away with them whenever the
+ * Vec is written into - so a zone map is never stale.  Filters use them to
+ * skip whole Chunks where the min/max proves that no row can match, e.g. a
+ * {@code x > 10} over a Chunk whose max is 5.
+ * <p>
+ * While the rollups are computed a zone map holds only the Chunks seen so
+ * far, keyed by Chunk index; {@link #dense} lays it out by Chunk index.
+ */
+public final class ZoneMap extends Iced<ZoneMap> {
+  private int[] _cidxs;         // Chunk index of each entry; null once dense
+  private double[] _mins, _maxs;
+  private int[] _naCnts;
+
+  // Node-wide count of Chunks skipped thanks to a zone map
+  private static final AtomicLong PRUNED = new AtomicLong();
+
+  /** Chunks skipped thanks to zone maps on this node, since startup */
+  public static long prunedChunks() { return PRUNED.get(); }
+  public static void addPrunedChunks(long n) { PRUNED.addAndGet(n); }
+
+  private ZoneMap(int[] cidxs, double[] mins, double[] maxs, int[] naCnts) {
+    _cidxs = cidxs; _mins = mins; _maxs = maxs; _naCnts = naCnts;
+  }
+
+  /** Zone map of the one Chunk cidx */
+  static ZoneMap of(int cidx, double min, double max, long naCnt) {
+    return new ZoneMap(new int[]{cidx}, new double[]{min}, new double[]{max}, new int[]{(int)naCnt});
+  }
+
+  /** Merge another partial zone map, over disjoint Chunks, into this one */
+  ZoneMap reduce(ZoneMap zm) {
+    if( zm == null ) return this;
+    int n = _cidxs.length;
+    _cidxs  = Arrays.copyOf(_cidxs, n+zm._cidxs.length);
+    _mins   = Arrays.copyOf(_mins,  n+zm._cidxs.length);
+    _maxs   = Arrays.copyOf(_maxs,  n+zm._cidxs.length);
+    _naCnts = Arrays.copyOf(_naCnts,n+zm._cidxs.length);
+    System.arraycopy(zm._cidxs, 0,_cidxs, n,zm._cidxs.length);
+    System.arraycopy(zm._mins,  0,_mins,  n,zm._cidxs.length);
+    System.arraycopy(zm._maxs,  0,_maxs,  n,zm._cidxs.length);
+    System.arraycopy(zm._naCnts,0,_naCnts,n,zm._cidxs.length);
+    return this;
+  }
+
+  /** Lay out a complete partial zone map by Chunk index */
+  ZoneMap dense(int nChunks) {
+    assert _cidxs.length == nChunks : "zone map covers "+_cidxs.length+" of "+nChunks+" chunks";
+    double[] mins = new double[nChunks], maxs = new double[nChunks];
+    int[] nas = new int[nChunks];
+    for( int i=0; i<_cidxs.length; i++ ) {
+      mins[_cidxs[i]] = _mins[i];
+      maxs[_cidxs[i]] = _maxs[i];
+      nas [_cidxs[i]] = _naCnts[i];
+    }
+    return new ZoneMap(null, mins, maxs, nas);
+  }
+
+  /** Zone map of Vec vec, if its rollups are already computed; else null.
+   *  Never starts a rollup computation.  String and UUID Vecs have none. */
+  public static ZoneMap get(Vec vec) {
+    if( vec.isString() || vec.isUUID() || vec instanceof InteractionWrappedVec ) return null;
+    RollupStats rs = RollupStats.getOrNull(vec, vec.rollupStatsKey());
+    return rs == null ? null : rs._zone;
+  }
+
+  /** Zone maps of all the Vecs in fr, as with {@link #get(Vec)} */
+  public static ZoneMap[] get(Frame fr) {
+    Vec[] vecs = fr.vecs();
+    ZoneMap[] zms = new ZoneMap[vecs.length];
+    for( int i=0; i<vecs.length; i++ ) zms[i] = get(vecs[i]);
+    return zms;
+  }
+
+  public int nChunks() { return _mins.length; }
+  /** Min of the non-missing values in Chunk cidx */
+  public double min(int cidx) { return _mins[cidx]; }
+  /** Max of the non-missing values in Chunk cidx */
+  public double max(int cidx) { return _maxs[cidx]; }
+  /** Count of missing values in Chunk cidx */
+  public int naCnt(int cidx) { return _naCnts[cidx]; }
+  /** True if Chunk cidx holds only missing values */
+  public boolean isAllNA(int cidx) { return _mins[cidx] > _maxs[cidx]; }
+}
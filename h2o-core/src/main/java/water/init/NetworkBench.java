@@ -34,7 +34,7 @@ public class NetworkBench extends Iced {
     public TwoDimTable to2dTable(){
       // public TwoDimTable(String tableHeader, String tableDescription, String[] rowHeaders, String[] colHeaders, String[] colTypes,
       // String[] colFormats, String colHeaderForRowHeaders) {
-      String title = "Network Bench, sz = " + _msgSz + "B, cnt = " + _msgCnt + ", total sz = " + 0.01*((int)(100*_msgSz*_msgCnt/(1024.0*1024))) + "MB";
+      String title = "Network Bench, sz = " + _msgSz + "B, cnt = " + _msgCnt + ", total sz = " + 0.01*((long)(100.0*_msgSz*_msgCnt/(1024.0*1024))) + "MB";
       String [] rowHeaders = new String[H2O.CLOUD.size() + 1];
       rowHeaders[H2O.CLOUD.size()] = "MrTasks";
       String [] colHeaders = new String[H2O.CLOUD.size()];
@@ -48,11 +48,16 @@ public class NetworkBench extends Iced {
       TwoDimTable td = new TwoDimTable(title, "Network benchmark results, round-trip bandwidth in MB/s", rowHeaders, colHeaders, colTypes, colFormats, "");
       for(int i = 0 ; i < _all2AllTimes.length; ++i) {
         for (int j = 0; j < _all2AllTimes.length; ++j)
-          td.set(i, j, 0.01 * ((int) (_msgSz * _msgCnt / (_all2AllTimes[i][j] * 0.00001))));
-        td.set(H2O.CLOUD.size(),i, 0.01 * ((int) (_msgSz * _msgCnt / (_mrtTimes[i] * 0.00001))));
+          td.set(i, j, mbPerSec(_all2AllTimes[i][j]));
+        td.set(H2O.CLOUD.size(),i, mbPerSec(_mrtTimes[i]));
       }
       return td;
     }
+
+    // All the messages' bytes over the msecs taken, or NaN if not timed
+    private double mbPerSec(long ms) {
+      return ms == 0 ? Double.NaN : 0.01 * (long)(100.0 * _msgSz * _msgCnt / (1024.0*1024) / (ms * 0.001));
+    }
   }
 
   public NetworkBenchResults [] _results;
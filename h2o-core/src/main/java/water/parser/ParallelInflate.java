@@ -0,0 +1,284 @@
+package water.parser;
+
+import jsr166y.ForkJoinTask;
+import jsr166y.RecursiveAction;
+import water.*;
+import water.fvec.ByteVec;
+import water.fvec.Chunk;
+import water.fvec.UploadFileVec;
+import water.fvec.Vec;
+import water.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.*;
+
+import static water.parser.ParseDataset.getByteVec;
+
+/**
+ * Inflates gzip and zip inputs into plain byte Vecs ahead of the parse, so
+ * that they are split into chunks and parsed by many parsers across the
+ * cluster like any plain file, instead of by one stream parse per file.
+ * <p>
+ * Files inflate in parallel, each on the home node of its key.  BGZF files
+ * (gzip as written by bgzip: independent members of at most 64K, each giving
+ * its compressed size in a "BC" extra field and its inflated size in the
+ * trailer) are indexed by a pass over the member headers, and then each
+ * output chunk is inflated by its own task from just the members it overlaps.
+ * Other gzip files, and the first entry of a zip file, are inflated as one
+ * stream - still far cheaper than the parse that follows.
+ */
+class ParallelInflate {
+  private ParallelInflate() {}
+
+  /**
+   * Inflate the eligible keys: compressed files, parsed in parallel, with no
+   * decryption; smaller files are not worth the extra pass.
+   * @return the keys to parse: the inflated byte Vec in place of each inflated key
+   */
+  static Key[] inflate(Key[] fkeys, ParseSetup setup, Key<Job> jobKey) {
+    if( !DecryptionTool.get(setup._decrypt_tool).isTransparent() ) return fkeys;
+    boolean[] eligible = new boolean[fkeys.length];
+    boolean any = false;
+    for( int i = 0; i < fkeys.length; i++ ) {
+      ByteVec vec = getByteVec(fkeys[i]);
+      any |= eligible[i] = ZipUtil.guessCompressionMethod(vec.getFirstBytes()) != ZipUtil.Compression.NONE &&
+          setup._parse_type.parseMethod(fkeys.length, vec.nChunks()) == ParserInfo.ParseMethod.DistributedParse &&
+          vec.length() >= setup._chunk_size;
+    }
+    if( !any ) return fkeys;
+    Key[] pkeys = new InflateTask(eligible, setup._chunk_size, jobKey).doAll(fkeys)._pkeys;
+    for( int i = 0; i < fkeys.length; i++ )
+      if( pkeys[i] == null ) pkeys[i] = fkeys[i];
+    return pkeys;
+  }
+
+  /**
+   * After the parse: remove the inflated Vecs, and release their inputs as
+   * the parse does its own - deleted if deleteOnDone, else read-unlocked.
+   */
+  static void cleanup(Key[] fkeys, Key[] pkeys, Key<Job> jobKey, boolean deleteOnDone) {
+    Futures fs = new Futures();
+    for( int i = 0; i < fkeys.length; i++ ) {
+      if( pkeys[i] == fkeys[i] ) continue;
+      Keyed.remove(pkeys[i], fs);
+      Value val = DKV.get(fkeys[i]);
+      if( val == null ) continue;
+      Iced ice = val.get();
+      if( ice instanceof ByteVec ) {
+        if( deleteOnDone ) ((ByteVec)ice).remove(fs);
+      } else {
+        Lockable lk = (Lockable)ice;
+        if( deleteOnDone ) lk.delete(jobKey, fs);
+        else lk.unlock(jobKey);
+      }
+    }
+    fs.blockForPending();
+  }
+
+  private static class InflateTask extends MRTask<InflateTask> {
+    private final boolean[] _eligible;
+    private final int _chunkSize;
+    private final Key<Job> _jobKey;
+    Key[] _pkeys;               // Per input key, its inflated Vec or null
+
+    InflateTask(boolean[] eligible, int chunkSize, Key<Job> jobKey) { _eligible = eligible; _chunkSize = chunkSize; _jobKey = jobKey; }
+
+    @Override public void setupLocal() { _pkeys = new Key[_keys.length]; }
+
+    @Override public void map( Key key ) {
+      if( !_eligible[_lo] || _jobKey.get().stop_requested() ) return;
+      ByteVec vec = getByteVec(key);
+      ZipUtil.Compression cpr = ZipUtil.guessCompressionMethod(vec.getFirstBytes());
+      Key<Vec> vkey = Vec.newKey();
+      UploadFileVec uv = new UploadFileVec(vkey, _chunkSize);
+      Futures fs = new Futures();
+      long len;
+      try {
+        if( cpr == ZipUtil.Compression.GZIP ) {
+          long[][] idx = bgzfIndex(vec);
+          len = idx != null ? inflateBGZF(vec, idx[0], idx[1], uv, fs) : inflateStream(new GZIPInputStream(vec.openStream(null)), uv, fs);
+        } else {
+          ZipInputStream zis = new ZipInputStream(vec.openStream(null));
+          if( ZipUtil.isZipDirectory(vec) ) zis.getNextEntry(); // First entry describes the directory
+          ZipEntry ze = zis.getNextEntry();
+          if( ze == null || ze.isDirectory() ) return; // Leave it to the stream parse
+          len = inflateStream(zis, uv, fs);
+        }
+        uv.close(len, fs);
+        fs.blockForPending();
+      } catch( IOException e ) {
+        uv.remove(new Futures()).blockForPending();
+        throw new RuntimeException(e);
+      } catch( RuntimeException e ) {
+        uv.remove(new Futures()).blockForPending();
+        throw e;
+      }
+      Log.info("Inflated " + key + " from " + vec.length() + " to " + len + " bytes in " + uv.nChunks() + " chunks");
+      _pkeys[_lo] = vkey;
+    }
+
+    @Override public void reduce( InflateTask it ) {
+      if( _pkeys == it._pkeys ) return; // Same node, shared array
+      for( int i = 0; i < _pkeys.length; i++ )
+        if( _pkeys[i] == null ) _pkeys[i] = it._pkeys[i];
+    }
+
+    // Inflate a stream into consecutive chunks
+    private long inflateStream(InputStream is, UploadFileVec uv, Futures fs) throws IOException {
+      long len = 0;
+      int cidx = 0;
+      while( true ) {
+        byte[] buf = MemoryManager.malloc1(_chunkSize);
+        int n = 0, r;
+        while( n < buf.length && (r = is.read(buf, n, buf.length - n)) != -1 ) n += r;
+        if( n == 0 && cidx > 0 ) break;
+        uv.putChunk(cidx++, n == buf.length ? buf : Arrays.copyOf(buf, n), fs);
+        len += n;
+        if( n < buf.length ) break;
+      }
+      is.close();
+      return len;
+    }
+
+    // Inflate each output chunk in its own task, from the BGZF blocks it overlaps
+    private long inflateBGZF(final ByteVec vec, final long[] coffs, final long[] uoffs, final UploadFileVec uv, final Futures fs) {
+      final long len = uoffs[uoffs.length-1];
+      int nchks = (int)Math.max(1, (len + _chunkSize - 1) / _chunkSize);
+      ArrayList<RecursiveAction> rs = new ArrayList<>();
+      for( int i = 0; i < nchks; i++ ) {
+        final int cidx = i;
+        rs.add(new RecursiveAction() {
+          @Override protected void compute() {
+            long lo = (long)cidx * _chunkSize, hi = Math.min(lo + _chunkSize, len);
+            try {
+              uv.putChunk(cidx, inflateRange(vec, coffs, uoffs, lo, hi), fs);
+            } catch( IOException e ) {
+              throw new RuntimeException(e);
+            }
+          }
+        });
+      }
+      ForkJoinTask.invokeAll(rs);
+      return len;
+    }
+  }
+
+  // --------------------------------------------------------------------------
+  // BGZF
+
+  /**
+   * Index a BGZF file: the compressed and the inflated offset of each block,
+   * each array ending with the total length.  Null if the file is not BGZF
+   * all the way through.
+   */
+  static long[][] bgzfIndex(ByteVec vec) {
+    Cursor cur = new Cursor(vec);
+    long len = vec.length();
+    long[] coffs = new long[1024], uoffs = new long[1024];
+    int n = 0;
+    long off = 0, uoff = 0;
+    while( off < len ) {
+      int bsize = off + 18 <= len ? bgzfBlockSize(cur, off) : -1;
+      if( bsize < 0 || off + bsize > len ) return null;
+      if( n == coffs.length - 1 ) {
+        coffs = Arrays.copyOf(coffs, n << 1);
+        uoffs = Arrays.copyOf(uoffs, n << 1);
+      }
+      coffs[n] = off;
+      uoffs[n++] = uoff;
+      uoff += cur.get4(off + bsize - 4);
+      off += bsize;
+    }
+    if( n == 0 ) return null;
+    coffs[n] = len;
+    uoffs[n++] = uoff;
+    return new long[][]{Arrays.copyOf(coffs, n), Arrays.copyOf(uoffs, n)};
+  }
+
+  // Total size of the BGZF block at off, from its header; -1 if not BGZF
+  private static int bgzfBlockSize(Cursor cur, long off) {
+    if( cur.get(off) != 0x1f || cur.get(off+1) != 0x8b || cur.get(off+2) != 8 || (cur.get(off+3) & 4) == 0 )
+      return -1;
+    long p = off + 12, end = p + cur.get2(off + 10);
+    while( p + 4 <= end ) {
+      int slen = cur.get2(p + 2);
+      if( cur.get(p) == 'B' && cur.get(p+1) == 'C' && slen == 2 )
+        return cur.get2(p + 4) + 1;
+      p += 4 + slen;
+    }
+    return -1;
+  }
+
+  // Inflated bytes [lo,hi) of an indexed BGZF file
+  static byte[] inflateRange(ByteVec vec, long[] coffs, long[] uoffs, long lo, long hi) throws IOException {
+    byte[] res = MemoryManager.malloc1((int)(hi - lo));
+    int nblks = coffs.length - 1;
+    int b = Arrays.binarySearch(uoffs, 0, nblks, lo);
+    if( b < 0 ) b = -b - 2;     // Block holding lo
+    Cursor cur = new Cursor(vec);
+    Inflater inf = new Inflater(true);
+    CRC32 crc = new CRC32();
+    try {
+      for( ; b < nblks && uoffs[b] < hi; b++ ) {
+        int isize = (int)(uoffs[b+1] - uoffs[b]);
+        if( isize == 0 ) continue;
+        byte[] blk = cur.read(coffs[b], (int)(coffs[b+1] - coffs[b]));
+        int hdr = 12 + ((blk[10] & 0xFF) | (blk[11] & 0xFF) << 8);
+        byte[] data = new byte[isize];
+        inf.reset();
+        inf.setInput(blk, hdr, blk.length - hdr - 8);
+        int n = 0;
+        while( n < isize && !inf.finished() ) {
+          int r = inf.inflate(data, n, isize - n);
+          if( r == 0 && (inf.needsInput() || inf.needsDictionary()) ) break;
+          n += r;
+        }
+        crc.reset();
+        crc.update(data, 0, n);
+        int off = blk.length - 8;
+        long expected = (blk[off] & 0xFFL) | (blk[off+1] & 0xFFL) << 8 | (blk[off+2] & 0xFFL) << 16 | (blk[off+3] & 0xFFL) << 24;
+        if( n != isize || crc.getValue() != expected )
+          throw new IOException("Corrupt gzip block at offset " + coffs[b]);
+        long from = Math.max(lo, uoffs[b]), to = Math.min(hi, uoffs[b+1]);
+        System.arraycopy(data, (int)(from - uoffs[b]), res, (int)(from - lo), (int)(to - from));
+      }
+    } catch( DataFormatException e ) {
+      throw new IOException(e);
+    } finally {
+      inf.end();
+    }
+    return res;
+  }
+
+  /** Random reads over the chunks of a ByteVec, one chunk at hand at a time */
+  private static final class Cursor {
+    private final ByteVec _vec;
+    private byte[] _mem;
+    private long _start;
+    Cursor(ByteVec vec) { _vec = vec; }
+
+    private void at(long off) {
+      if( _mem != null && _start <= off && off < _start + _mem.length ) return;
+      Chunk c = _vec.chunkForChunkIdx(_vec.elem2ChunkIdx(off));
+      _mem = c.getBytes();
+      _start = c.start();
+    }
+    int get(long off) { at(off); return _mem[(int)(off - _start)] & 0xFF; }
+    int get2(long off) { return get(off) | get(off+1) << 8; }
+    long get4(long off) { return get2(off) | (long)get2(off+2) << 16; }
+    byte[] read(long off, int len) {
+      byte[] res = new byte[len];
+      int n = 0;
+      while( n < len ) {
+        at(off + n);
+        int p = (int)(off + n - _start), m = Math.min(len - n, _mem.length - p);
+        System.arraycopy(_mem, p, res, n, m);
+        n += m;
+      }
+      return res;
+    }
+  }
+}
@@ -240,9 +240,20 @@ public final class ParseDataset {
     if( fkeys.length == 0) { job.stop();  return pds;  }
 
     job.update(0, "Ingesting files.");
-    VectorGroup vg = getByteVec(fkeys[0]).group();
-    MultiFileParseTask mfpt = pds._mfpt = new MultiFileParseTask(vg,setup,job._key,fkeys,deleteOnDone);
-    mfpt.doAll(fkeys);
+    // Compressed files are inflated up front, so that they parse in parallel like plain files
+    Key[] pkeys = ParallelInflate.inflate(fkeys, setup, job._key);
+    VectorGroup vg = getByteVec(pkeys[0]).group();
+    MultiFileParseTask mfpt = pds._mfpt = new MultiFileParseTask(vg,setup,job._key,pkeys,deleteOnDone);
+    try {
+      mfpt.doAll(pkeys);
+    } finally {
+      if( pkeys != fkeys ) ParallelInflate.cleanup(fkeys, pkeys, job._key, deleteOnDone);
+    }
+    if( pkeys != fkeys && mfpt._errors != null ) // Report errors against the input files
+      for( ParseWriter.ParseErr err : mfpt._errors )
+        for( int i = 0; i < fkeys.length; i++ )
+          if( pkeys[i] != fkeys[i] && FileVec.getPathForKey(pkeys[i]).equals(err._file) )
+            err._file = FileVec.getPathForKey(fkeys[i]);
     Log.trace("Done ingesting files.");
     if( job.stop_requested() ) return pds;
 
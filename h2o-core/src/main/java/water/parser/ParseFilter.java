@@ -0,0 +1,76 @@
+package water.parser;
+
+import water.Iced;
+import water.exceptions.H2OIllegalArgumentException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A simple predicate {@code column op number}, e.g. {@code age >= 18}, that
+ * columnar parsers (Parquet, ORC) push down to skip whole row groups or
+ * stripes whose statistics prove that no row can match.
+ * <p>
+ * Filters are only a hint: data that is read is parsed in full, so rows that
+ * do not match may still appear in the parsed Frame.  Filter again after the
+ * parse for an exact result.  The column is named as in the parse setup.
+ */
+public class ParseFilter extends Iced<ParseFilter> {
+  public enum Op {
+    LT("<"), LE("<="), GT(">"), GE(">="), EQ("==");
+    final String _str;
+    Op(String str) { _str = str; }
+  }
+
+  public final String _column;
+  public final Op _op;
+  public final double _value;
+
+  public ParseFilter(String column, Op op, double value) {
+    _column = column;
+    _op = op;
+    _value = value;
+  }
+
+  private static final Pattern FILTER = Pattern.compile("^\\s*(.+?)\\s*(<=|>=|==|<|>)\\s*(\\S+)\\s*$");
+
+  /** Parse a filter of the form {@code name op number}, op one of {@code < <= > >= ==} */
+  public static ParseFilter parse(String s) {
+    Matcher m = FILTER.matcher(s);
+    if( !m.matches() )
+      throw new H2OIllegalArgumentException("Invalid parse filter '" + s + "', expected 'column op number' with op one of < <= > >= ==");
+    double value;
+    try {
+      value = Double.parseDouble(m.group(3));
+    } catch( NumberFormatException e ) {
+      throw new H2OIllegalArgumentException("Invalid parse filter '" + s + "', only numeric values are supported");
+    }
+    for( Op op : Op.values() )
+      if( op._str.equals(m.group(2)) )
+        return new ParseFilter(m.group(1), op, value);
+    throw new IllegalStateException(); // Unreachable, the pattern only matches known ops
+  }
+
+  /** Parse all the filters; null for none */
+  public static ParseFilter[] parse(String[] ss) {
+    if( ss == null ) return null;
+    ParseFilter[] res = new ParseFilter[ss.length];
+    for( int i = 0; i < ss.length; i++ ) res[i] = parse(ss[i]);
+    return res;
+  }
+
+  /** False only if no value in [min,max] can match; unknown (NaN) bounds always may match */
+  public boolean mayMatch(double min, double max) {
+    if( Double.isNaN(min) || Double.isNaN(max) ) return true;
+    switch( _op ) {
+    case LT: return min <  _value;
+    case LE: return min <= _value;
+    case GT: return max >  _value;
+    case GE: return max >= _value;
+    case EQ: return min <= _value && _value <= max;
+    default: throw new IllegalStateException("Unknown op " + _op);
+    }
+  }
+
+  @Override public String toString() { return _column + " " + _op._str + " " + _value; }
+}
@@ -39,6 +39,11 @@ public class ParseSetup extends Iced {
   String[][] _na_strings;       // Strings for NA in a given column
   String[][] _data;           // First few rows of parsed/tokenized data
 
+  // Columnar parsers only: columns not to read at all, by index into the guessed
+  // columns, and predicates to skip row groups/stripes by their statistics
+  int[] _skipped_columns;
+  ParseFilter[] _filters;
+
   String [] _fileNames = new String[]{"unknown"};
   public  boolean disableParallelParse;
   Key<DecryptionTool> _decrypt_tool;
@@ -60,6 +65,8 @@ public class ParseSetup extends Iced {
          ps._separator, ps._single_quotes, ps._check_header, ps._number_columns,
          ps._column_names, ps._column_types, ps._domains, ps._na_strings, ps._data,
          new ParseWriter.ParseErr[0], ps._chunk_size, ps._decrypt_tool);
+    _skipped_columns = ps._skipped_columns;
+    _filters = ps._filters;
   }
 
 
@@ -210,9 +217,14 @@ public class ParseSetup extends Iced {
   public final ParseSetup getFinalSetup(Key[] inputKeys, ParseSetup demandedSetup) {
     ParserProvider pp = ParserService.INSTANCE.getByInfo(_parse_type);
     if (pp != null) {
+      if (demandedSetup._skipped_columns != null && demandedSetup._skipped_columns.length > 0 && !pp.isProjectionSupported())
+        throw new H2OIllegalArgumentException("Parser " + _parse_type.name() + " cannot skip columns.",
+            "Parser " + _parse_type.name() + " does not support column projection, skipped columns: " + Arrays.toString(demandedSetup._skipped_columns));
       ParseSetup ps = pp.createParserSetup(inputKeys, demandedSetup);
       if (demandedSetup._decrypt_tool != null)
         ps._decrypt_tool = demandedSetup._decrypt_tool;
+      if (ps._filters == null)
+        ps._filters = demandedSetup._filters;
       return ps;
     }
 
@@ -757,4 +769,57 @@ public class ParseSetup extends Iced {
     return this;
   }
 
+  public int[] getSkippedColumns() { return _skipped_columns; }
+
+  public ParseSetup setSkippedColumns(int[] skipped_columns) {
+    this._skipped_columns = skipped_columns;
+    return this;
+  }
+
+  public ParseFilter[] getFilters() { return _filters; }
+
+  public ParseSetup setFilters(ParseFilter[] filters) {
+    this._filters = filters;
+    return this;
+  }
+
+  /**
+   * Columns to read, by index into ncols guessed columns: all but the skipped ones.
+   * @param ncols number of guessed columns
+   * @return sorted indices of the kept columns
+   */
+  public final int[] keptColumns(int ncols) {
+    boolean[] skip = new boolean[ncols];
+    if (_skipped_columns != null)
+      for (int c : _skipped_columns) {
+        if (c < 0 || c >= ncols)
+          throw new H2OIllegalArgumentException("Skipped column " + c + " is out of range, there are " + ncols + " columns.");
+        skip[c] = true;
+      }
+    int[] kept = new int[ncols];
+    int n = 0;
+    for (int c = 0; c < ncols; c++)
+      if (!skip[c]) kept[n++] = c;
+    if (n == 0) throw new H2OIllegalArgumentException("All columns are skipped, nothing to parse.");
+    return Arrays.copyOf(kept, n);
+  }
+
+  /**
+   * Narrows the column names, types, domains and NA strings, still covering all the guessed
+   * columns, to the kept ones.  Called once by the providers of parsers that support column
+   * projection, from {@link ParserProvider#createParserSetup}; the skipped columns stay set so
+   * that the parser knows which of the file's columns to read.
+   * @return this setup
+   */
+  public ParseSetup projectColumns() {
+    if (_skipped_columns == null || _skipped_columns.length == 0) return this;
+    int[] kept = keptColumns(_column_types.length);
+    _column_types = ArrayUtils.select(_column_types, kept);
+    if (_column_names != null) _column_names = ArrayUtils.select(_column_names, kept);
+    if (_domains != null) _domains = ArrayUtils.select(_domains, kept);
+    if (_na_strings != null) _na_strings = ArrayUtils.select(_na_strings, kept);
+    _number_columns = kept.length;
+    return this;
+  }
+
 } // ParseSetup state class
@@ -37,4 +37,11 @@ public abstract class ParserProvider {
    */
 
   public ParseSetup setupLocal(Vec v, ParseSetup setup){ return setup;}
+
+  /**
+   * Whether this parser can skip columns, see {@link ParseSetup#getSkippedColumns()}.  Parsers
+   * that can must narrow the setup with {@link ParseSetup#projectColumns()} in
+   * {@link #createParserSetup}, and read only the kept columns.
+   */
+  public boolean isProjectionSupported() { return false; }
 }
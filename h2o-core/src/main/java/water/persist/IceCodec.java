@@ -0,0 +1,101 @@
+package water.persist;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import water.H2O;
+import water.Freezable;
+import water.MemoryManager;
+import water.TypeMap;
+import water.Value;
+import water.fvec.C0DChunk;
+import water.fvec.C0LChunk;
+import water.fvec.CBSChunk;
+import water.util.LZ4;
+import water.util.UnsafeUtils;
+
+/**
+ * Transparent block compression for Values swapped to the ice directory.
+ * <p>
+ * Enabled with -ice_compress.  The codec is the {@link LZ4} block codec the
+ * wire compression uses too.  A Value is stored compressed only if that
+ * saves at least 1/8th of its bytes, so exactly {@code v._max} stored bytes
+ * means raw.  Compressed Values start with a header, a magic int and the
+ * length of the LZ4 block, so a short stored form which is not a whole
+ * compressed Value (a partial write, or a racy delete) is told apart from
+ * one which is.  Chunk flavors which are already compact (constants,
+ * bitsets) and tiny Values are never tried.
+ */
+public final class IceCodec {
+  // Below this size the codec overhead dominates
+  static final int MIN_SIZE = 256;
+  static final int MAGIC = 0x49434534; // "ICE4"
+  static final int HEADER = 8;         // Magic, block length
+
+  // Stats: bytes in and out of the encoder, and time spent both ways
+  static final AtomicLong RAW_BYTES    = new AtomicLong();
+  static final AtomicLong STORED_BYTES = new AtomicLong();
+  static final AtomicLong ENCODE_NS    = new AtomicLong();
+  static final AtomicLong DECODE_NS    = new AtomicLong();
+
+  public static long rawBytes()    { return RAW_BYTES   .get(); }
+  public static long storedBytes() { return STORED_BYTES.get(); }
+  public static long encodeNanos() { return ENCODE_NS   .get(); }
+  public static long decodeNanos() { return DECODE_NS   .get(); }
+
+  static boolean enabled() { return H2O.ARGS.ice_compress; }
+
+  // Per-chunk-type heuristic: skip already compressed encodings
+  static boolean worthCompressing( Value v ) {
+    if( v._max < MIN_SIZE ) return false;
+    if( v.type() == TypeMap.PRIM_B ) return true;
+    Freezable f = TypeMap.theFreezable(v.type());
+    return !(f instanceof C0LChunk || f instanceof C0DChunk || f instanceof CBSChunk);
+  }
+
+  /** Bytes to store for Value v: compressed if enabled and it pays off,
+   *  otherwise mem itself. */
+  static byte[] encode( Value v, byte[] mem ) {
+    if( !enabled() || !worthCompressing(v) ) return mem;
+    long start = System.nanoTime();
+    try {
+      byte[] buf = MemoryManager.malloc1(HEADER + LZ4.maxCompressedLength(mem.length));
+      int len = HEADER + LZ4.compress(mem, 0, mem.length, buf, HEADER);
+      if( len > mem.length - (mem.length>>3) ) return mem; // Only accept output saving 1/8th
+      UnsafeUtils.set4(buf, 0, MAGIC);
+      UnsafeUtils.set4(buf, 4, len - HEADER);
+      RAW_BYTES.addAndGet(mem.length);
+      STORED_BYTES.addAndGet(len);
+      return MemoryManager.arrayCopyOf(buf,len);
+    } finally {
+      ENCODE_NS.addAndGet(System.nanoTime() - start);
+    }
+  }
+
+  /** True if len stored bytes for Value v are all there: raw, or a whole
+   *  compressed Value.  Anything else is a partial write or a racy delete. */
+  static boolean complete( Value v, byte[] stored, int len ) {
+    if( len == v._max ) return true;
+    return len > HEADER && len < v._max
+        && UnsafeUtils.get4(stored, 0) == MAGIC && UnsafeUtils.get4(stored, 4) == len - HEADER;
+  }
+
+  /** Expand len stored bytes for Value v into its full byte[], or null if
+   *  they are not all there (see {@link #complete}).  Stored bytes of
+   *  exactly v._max length are raw, and returned as-is when they fill the
+   *  whole array. */
+  static byte[] decode( Value v, byte[] stored, int len ) throws IOException {
+    if( !complete(v, stored, len) ) return null;
+    if( len == v._max ) return stored.length == len ? stored : MemoryManager.arrayCopyOf(stored,len);
+    long start = System.nanoTime();
+    try {
+      byte[] mem = MemoryManager.malloc1(v._max);
+      LZ4.decompress(stored, HEADER, len - HEADER, mem, 0, v._max);
+      return mem;
+    } catch( IllegalArgumentException iae ) {
+      throw new IOException("Corrupt swapped Value "+v._key, iae);
+    } finally {
+      DECODE_NS.addAndGet(System.nanoTime() - start);
+    }
+  }
+}
@@ -25,6 +25,29 @@ public abstract class Persist {
   /** Load a previously stored Value */
   abstract public byte[] load(Value v) throws IOException;
 
+  /** Write the stored bytes of Value v to ab, as {@link AutoBuffer#putA1(byte[])}
+   *  would, straight from storage without an on-heap copy.  Used to bulk-send
+   *  large Values to other Nodes.
+   *  @return false, having written nothing, if v must go through {@link #load} */
+  public boolean putA1(Value v, AutoBuffer ab) { return false; }
+
+  // Bulk-send len bytes of file f from pos; false if there is no such file
+  static boolean putA1(File f, long pos, int len, AutoBuffer ab) {
+    if( f.length() < pos + len ) return false; // Short, or racily deleted
+    FileInputStream s;
+    try {
+      s = new FileInputStream(f);
+    } catch( FileNotFoundException e ) {
+      return false;
+    }
+    try {
+      ab.putA1File(s.getChannel(), pos, len);
+    } finally {
+      water.util.FileUtils.close(s);
+    }
+    return true;
+  }
+
   /** Reclaim space from a previously stored Value */
   abstract public void delete(Value v);
 
@@ -34,6 +57,12 @@ public abstract class Persist {
   /** Total storage space, or -1 for unknown */
   public long getTotalSpace() { return /*UNKNOWN*/-1; }
 
+  /** Bytes of storage currently memory-mapped, or 0 if not a mapped store */
+  public long getMappedBytes() { return 0; }
+
+  /** Bytes of mapped storage resident in physical memory, or 0 */
+  public long getResidentBytes() { return 0; }
+
   /** Transform given uri into file vector holding file name. */
   abstract public Key uriToKey(URI uri) throws IOException;
 
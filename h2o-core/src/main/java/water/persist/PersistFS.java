@@ -12,7 +12,7 @@ import water.util.Log;
 /**
  * Persistence backend using local file system.
  */
-final class PersistFS extends Persist {
+class PersistFS extends Persist {
   final File _root;
   final File _dir;
 
@@ -42,17 +42,29 @@ final class PersistFS extends Persist {
 
   @Override public byte[] load(Value v) throws IOException {
     File f = getFile(v);
-    if( f.length() < v._max ) { // Should be fully on disk...
-      // or it's a racey delete of a spilled value
-      assert !v.isPersisted() : f.length() + " " + v._max + " " + v._key;
-      return null; // No value
-    }
+    int len = (int)Math.min(f.length(), v._max);
+    if( len == 0 ) return missing(v, len);
+    byte[] b;
     try (FileInputStream s = new FileInputStream(f)) {
         AutoBuffer ab = new AutoBuffer(s.getChannel(), true, Value.ICE);
-        byte[] b = ab.getA1(v._max);
+        b = ab.getA1(len);
         ab.close();
-        return b;
       }
+    byte[] m = IceCodec.decode(v, b, len); // Stored compressed if shorter
+    return m == null ? missing(v, len) : m;
+  }
+
+  // Should be fully on disk, raw or compressed...
+  // or it's a racey delete of a spilled value
+  static byte[] missing(Value v, int len) {
+    assert !v.isPersisted() : len + " " + v._max + " " + v._key;
+    return null; // No value
+  }
+
+  // Files stored uncompressed are sent with FileChannel.transferTo
+  @Override public boolean putA1(Value v, AutoBuffer ab) {
+    File f = getFile(v);
+    return f.length() == v._max && putA1(f, 0, v._max, ab);
   }
 
   // Store Value v to disk.
@@ -67,7 +79,8 @@ final class PersistFS extends Persist {
           Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
           v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
         }
-        new AutoBuffer(s.getChannel(), false, Value.ICE).putA1(m, m.length).close();
+        byte[] b = IceCodec.encode(v, m);
+        new AutoBuffer(s.getChannel(), false, Value.ICE).putA1(b, b.length).close();
       } catch( AutoBuffer.AutoBufferException abe ) {
       throw abe._ioe;
     }
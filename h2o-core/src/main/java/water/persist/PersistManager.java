@@ -1,5 +1,6 @@
 package water.persist;
 
+import water.AutoBuffer;
 import water.H2O;
 import water.Key;
 import water.MRTask;
@@ -100,10 +101,10 @@ public class PersistManager {
     boolean windowsPath = iceRoot.toString().matches("^[a-zA-Z]:.*");
 
     if (windowsPath) {
-      ice = new PersistFS(new File(iceRoot.toString()));
+      ice = newPersistFS(new File(iceRoot.toString()));
     }
     else if ((iceRoot.getScheme() == null) || Schemes.FILE.equals(iceRoot.getScheme())) {
-      ice = new PersistFS(new File(iceRoot.getPath()));
+      ice = newPersistFS(new File(iceRoot.getPath()));
     }
     else if( Schemes.HDFS.equals(iceRoot.getScheme()) ) {
       Log.err("HDFS ice_root not yet supported.  Exiting.");
@@ -146,6 +147,15 @@ public class PersistManager {
     }
   }
 
+  // Local file system ice; memory-mapped segments if requested by -ice_mmap
+  private static PersistFS newPersistFS(File root) {
+    if (H2O.ARGS.ice_mmap) {
+      Log.info("Swapping to memory-mapped segments in " + root);
+      return new PersistMmap(root);
+    }
+    return new PersistFS(root);
+  }
+
   public void store(int backend, Value v) throws IOException {
     stats[backend].store_count.incrementAndGet();
     I[backend].store(v);
@@ -156,6 +166,15 @@ public class PersistManager {
     I[backend].delete(v);
   }
 
+  /** Write the stored bytes of v straight to ab, if its backend can; see
+   *  {@link Persist#putA1} */
+  public boolean putA1(int backend, Value v, AutoBuffer ab) {
+    if( I[backend] == null || !I[backend].putA1(v, ab) ) return false;
+    stats[backend].load_count.incrementAndGet();
+    stats[backend].load_bytes.addAndGet(v._max);
+    return true;
+  }
+
   public byte[] load(int backend, Value v) throws IOException {
     stats[backend].load_count.incrementAndGet();
     byte[] arr = I[backend].load(v);
@@ -0,0 +1,243 @@
+package water.persist;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import water.AutoBuffer;
+import water.Key;
+import water.MemoryManager;
+import water.Value;
+import water.nbhm.NonBlockingHashMap;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+/**
+ * Persistence backend for user-mode swapping which packs swapped Values into
+ * large preallocated, memory-mapped segment files in the ice directory.
+ * <p>
+ * A store is a memcpy into the mapping and a load is a memcpy out of it, so
+ * re-touching a spilled Chunk costs page faults rather than a read syscall
+ * plus a stream copy.  Deleted Values leave holes in their segment; once a
+ * segment is mostly dead the compactor moves its live Values into the active
+ * segment and drops the file.  Values bigger than a segment fall back to one
+ * file each, as in {@link PersistFS}.
+ * <p>
+ * Mappings are never explicitly unmapped; a dropped segment is released by
+ * the GC once no racing reader holds on to it.  Selected with -ice_mmap.
+ */
+final class PersistMmap extends PersistFS {
+  // Default size of each segment file; sparse on disk until written
+  static final int SEGMENT_SIZE = 1<<28;
+  // Compact a retired segment once this fraction of its bytes are dead
+  static final double COMPACT_RATIO = 0.5;
+
+  private static final class Segment {
+    final File _file;
+    final MappedByteBuffer _buf;
+    int _top;                   // Bump pointer; guarded by the PersistMmap
+    final AtomicLong _dead = new AtomicLong(); // Bytes of deleted Values
+    Segment( File file, MappedByteBuffer buf ) { _file = file; _buf = buf; }
+    boolean isDead() { return _dead.get() >= _top; }
+    @Override public String toString() { return _file.getName()+"[top="+_top+", dead="+_dead.get()+"]"; }
+  }
+
+  // Where a Value lives: a segment and a byte range in it
+  private static final class Slot {
+    final Segment _seg;
+    final int _off, _len;
+    Slot( Segment seg, int off, int len ) { _seg = seg; _off = off; _len = len; }
+  }
+
+  private final NonBlockingHashMap<Key,Slot> _slots = new NonBlockingHashMap<>();
+  private final ArrayList<Segment> _segs = new ArrayList<>(); // Guarded by this
+  private Segment _active;      // Segment taking new stores; guarded by this
+  private int _nextIdx;         // Guarded by this
+
+  // Loads, stores and deletes share; compaction excludes them all
+  private final ReentrantReadWriteLock _compactLock = new ReentrantReadWriteLock();
+
+  final int _segSize;           // Size of each segment file
+
+  PersistMmap(File root) { this(root, SEGMENT_SIZE); }
+  PersistMmap(File root, int segSize) { super(root); _segSize = segSize; }
+
+  @Override public void cleanUp() {
+    synchronized(this) { _segs.clear(); _active = null; }
+    _slots.clear();
+    super.cleanUp();
+  }
+
+  // Store Value v into the active segment.
+  @Override public void store(Value v) throws IOException {
+    assert !v.isPersisted();
+    byte[] m = v.memOrLoad(); // we are not single threaded anymore
+    if( m.length != v._max ) {
+      Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
+      v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
+    }
+    if( m.length > _segSize ) { super.store(v); return; }
+    byte[] b = IceCodec.encode(v, m);
+    compactIfNeeded();          // Stores come from the Cleaner, so it pays for compaction
+    _compactLock.readLock().lock();
+    try {
+      Slot s = alloc(b.length);
+      ByteBuffer bb = s._seg._buf.duplicate();
+      bb.position(s._off);
+      bb.put(b);
+      free(_slots.put(v._key, s)); // Free any stale copy of an older Value
+    } finally {
+      _compactLock.readLock().unlock();
+    }
+  }
+
+  @Override public byte[] load(Value v) throws IOException {
+    _compactLock.readLock().lock();
+    try {
+      Slot s = _slots.get(v._key);
+      if( s == null ) return super.load(v); // Too big for a segment; one file
+      int len = Math.min(s._len, v._max);
+      byte[] b = MemoryManager.malloc1(len);
+      ByteBuffer bb = s._seg._buf.duplicate();
+      bb.position(s._off);
+      bb.get(b);
+      byte[] m = IceCodec.decode(v, b, len); // Stored compressed if shorter
+      return m == null ? missing(v, len) : m;
+    } finally {
+      _compactLock.readLock().unlock();
+    }
+  }
+
+  // Uncompressed Values are sent straight from the mapping.  Compaction
+  // waits for the send, as for a load.
+  @Override public boolean putA1(Value v, AutoBuffer ab) {
+    _compactLock.readLock().lock();
+    try {
+      Slot s = _slots.get(v._key);
+      if( s == null ) return super.putA1(v, ab); // Too big for a segment; one file
+      if( s._len != v._max ) return false;
+      ByteBuffer bb = s._seg._buf.duplicate();
+      bb.limit(s._off + s._len);
+      bb.position(s._off);
+      ab.putA1Direct(bb);
+      return true;
+    } finally {
+      _compactLock.readLock().unlock();
+    }
+  }
+
+  @Override public void delete(Value v) {
+    _compactLock.readLock().lock();
+    try {
+      Slot s = _slots.remove(v._key);
+      if( s == null ) super.delete(v); // Silently ignore errors
+      else free(s);
+    } finally {
+      _compactLock.readLock().unlock();
+    }
+  }
+
+  /** Bytes of segment files currently mapped */
+  @Override public long getMappedBytes() {
+    synchronized(this) { return (long)_segs.size()*_segSize; }
+  }
+
+  /** Bytes of mapped segments which are (probably) resident in physical
+   *  memory.  Coarse: a segment counts once the OS reports all of it loaded. */
+  @Override public long getResidentBytes() {
+    Segment[] segs;
+    synchronized(this) { segs = _segs.toArray(new Segment[_segs.size()]); }
+    long res = 0;
+    for( Segment seg : segs )
+      if( seg._buf.isLoaded() ) res += _segSize;
+    return res;
+  }
+
+  // Bump-allocate len bytes, rolling to a fresh segment as needed
+  private synchronized Slot alloc( int len ) throws IOException {
+    if( _active == null || _active._top + len > _segSize ) {
+      Segment old = _active;
+      _active = newSegment();
+      if( old != null && old.isDead() ) dropSegment(old);
+    }
+    Slot s = new Slot(_active, _active._top, len);
+    _active._top += len;
+    return s;
+  }
+
+  private Segment newSegment() throws IOException {
+    // Writing through a mapping to a full disk is a SIGBUS, not an
+    // IOException; refuse up front so the Cleaner marks the disk full.
+    if( getUsableSpace() < _segSize )
+      throw new IOException("Not enough space in "+_dir+" for a new swap segment");
+    if( !_dir.mkdirs() && !_dir.exists() )
+      throw new IOException("mkdirs failed making "+_dir);
+    File f = new File(_dir, "segment_"+(_nextIdx++)+".mmap");
+    try( RandomAccessFile raf = new RandomAccessFile(f, "rw") ) {
+      raf.setLength(_segSize);
+      // The mapping stays valid after the channel closes
+      MappedByteBuffer buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, _segSize);
+      Segment seg = new Segment(f, buf);
+      _segs.add(seg);
+      return seg;
+    }
+  }
+
+  // Account for a dead Slot; drop its segment if nothing live remains
+  private void free( Slot s ) {
+    if( s == null ) return;
+    s._seg._dead.addAndGet(s._len);
+    if( s._seg.isDead() )
+      synchronized(this) { if( s._seg != _active ) dropSegment(s._seg); }
+  }
+
+  private synchronized void dropSegment( Segment seg ) {
+    if( _segs.remove(seg) )
+      seg._file.delete();       // Silently ignore errors; mapping is freed by GC
+  }
+
+  // Compact the deadest retired segment, if any is dead enough
+  private void compactIfNeeded() throws IOException {
+    Segment worst = null;
+    synchronized(this) {
+      for( Segment seg : _segs )
+        if( seg != _active && seg._dead.get() >= COMPACT_RATIO*seg._top &&
+            (worst == null || seg._dead.get() > worst._dead.get()) )
+          worst = seg;
+    }
+    if( worst != null ) compact(worst);
+  }
+
+  // Move all live Values out of seg, then drop it
+  private void compact( Segment seg ) throws IOException {
+    long start = System.currentTimeMillis();
+    long moved = 0;
+    _compactLock.writeLock().lock();
+    try {
+      for( Map.Entry<Key,Slot> e : _slots.entrySet() ) {
+        Slot s = e.getValue();
+        if( s._seg != seg ) continue;
+        Slot t = alloc(s._len);
+        ByteBuffer src = seg._buf.duplicate();
+        src.position(s._off);
+        src.limit(s._off+s._len);
+        ByteBuffer dst = t._seg._buf.duplicate();
+        dst.position(t._off);
+        dst.put(src);
+        _slots.put(e.getKey(), t);
+        moved += s._len;
+      }
+      dropSegment(seg);
+    } finally {
+      _compactLock.writeLock().unlock();
+    }
+    Log.debug("Compacted swap "+seg+", moved "+PrettyPrint.bytes(moved)+" in "+PrettyPrint.msecs(System.currentTimeMillis()-start,true));
+  }
+}
@@ -71,6 +71,12 @@ public final class PersistNFS extends Persist {
     }
   }
 
+  @Override public boolean putA1(Value v, AutoBuffer ab) {
+    Key k = v._key;
+    long skip = k.isChunkKey() ? water.fvec.NFSFileVec.chunkOffset(k) : 0;
+    return putA1(getFileForKey(k), skip, v._max, ab);
+  }
+
   @Override
   public void store(Value v) {
     // Only the home node does persistence on NFS
@@ -3,6 +3,7 @@ package water.rapids;
 import hex.Model;
 import water.*;
 import water.fvec.Frame;
+import water.fvec.ZoneMap;
 import water.rapids.ast.*;
 import water.rapids.ast.params.AstConst;
 import water.rapids.ast.prims.advmath.*;
@@ -300,10 +301,24 @@ public class Env extends Iced {
 
 
 
+  // Chunks skipped by filters in this query, thanks to their zone maps
+  private long _prunedChunks;
+
   public Env(Session ses) {
     _ses = ses;
   }
 
+  /** Record n Chunks skipped by a filter via their {@link ZoneMap} */
+  public void addPrunedChunks(long n) {
+    _prunedChunks += n;
+    ZoneMap.addPrunedChunks(n);
+  }
+
+  /** Chunks skipped via zone maps so far in this query */
+  public long prunedChunks() {
+    return _prunedChunks;
+  }
+
   public int sp() {
     return _stk.size();
   }
@@ -87,6 +87,8 @@ public class Session {
     env._scope = scope;
     Val val = ast.exec(env);    // Execute
     assert env.sp() == 0;         // Stack balanced at end
+    if (env.prunedChunks() > 0)
+      Log.debug("Rapids query skipped " + env.prunedChunks() + " chunks via zone maps");
     sanity_check_refs(val);
     return val;                 // Can return a frame, which may point to session-shared Vecs
   }
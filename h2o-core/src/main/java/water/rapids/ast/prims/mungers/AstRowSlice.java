@@ -104,7 +104,10 @@ public class AstRowSlice extends AstPrimitive {
       Frame predVec = stk.track(asts[2].exec(env)).getFrame();
       if (predVec.numCols() != 1)
         throw new IllegalArgumentException("Conditional Row Slicing Expression evaluated to " + predVec.numCols() + " columns.  Must be a boolean Vec.");
-      returningFrame = fr.deepSlice(predVec, null);
+      // Boolean selection, skipping chunks where the predicate zone map proves no row is selected
+      long[] pruned = new long[1];
+      returningFrame = fr.deepSlice(predVec, null, pruned);
+      env.addPrunedChunks(pruned[0]);
     } else
       throw new IllegalArgumentException("Row slicing requires a number-list as the last argument, but found a " + asts[2].getClass());
     return new ValFrame(returningFrame);
@@ -7,6 +7,7 @@ import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NewChunk;
 import water.fvec.Vec;
+import water.fvec.ZoneMap;
 import water.parser.BufferedString;
 import water.rapids.*;
 import water.rapids.ast.AstPrimitive;
@@ -37,10 +38,18 @@ abstract public class AstBinOp extends AstPrimitive {
   public Val apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
     Val left = stk.track(asts[1].exec(env));
     Val rite = stk.track(asts[2].exec(env));
-    return prim_apply(left, rite);
+    return prim_apply(left, rite, env);
   }
 
   public Val prim_apply(Val left, Val rite) {
+    return prim_apply(left, rite, null);
+  }
+
+  /**
+   * Apply the op, auto-widening as needed; Chunks skipped thanks to their zone
+   * maps are charged to env, if given.
+   */
+  public Val prim_apply(Val left, Val rite, Env env) {
     switch (left.type()) {
       case Val.NUM:
         final double dlf = left.getNum();
@@ -50,7 +59,7 @@ abstract public class AstBinOp extends AstPrimitive {
           case Val.NUMS:
             return new ValNum(op(dlf, rite.getNums()[0]));
           case Val.FRM:
-            return scalar_op_frame(dlf, rite.getFrame());
+            return scalar_op_frame(dlf, rite.getFrame(), env);
           case Val.ROW:
             double[] lft = new double[rite.getRow().length];
             Arrays.fill(lft, dlf);
@@ -71,7 +80,7 @@ abstract public class AstBinOp extends AstPrimitive {
           case Val.NUMS:
             return new ValNum(op(ddlf, rite.getNums()[0]));
           case Val.FRM:
-            return scalar_op_frame(ddlf, rite.getFrame());
+            return scalar_op_frame(ddlf, rite.getFrame(), env);
           case Val.ROW:
             double[] lft = new double[rite.getRow().length];
             Arrays.fill(lft, ddlf);
@@ -88,9 +97,9 @@ abstract public class AstBinOp extends AstPrimitive {
         Frame flf = left.getFrame();
         switch (rite.type()) {
           case Val.NUM:
-            return frame_op_scalar(flf, rite.getNum());
+            return frame_op_scalar(flf, rite.getNum(), env);
           case Val.NUMS:
-            return frame_op_scalar(flf, rite.getNums()[0]);
+            return frame_op_scalar(flf, rite.getNums()[0], env);
           case Val.STR:
             return frame_op_scalar(flf, rite.getStr());
           case Val.STRS:
@@ -165,20 +174,90 @@ abstract public class AstBinOp extends AstPrimitive {
   }
 
   /**
-   * Auto-widen the scalar to every element of the frame
+   * Override to express a comparison: the result of op between d and every
+   * value in [lo,hi], if it is the same for all of them, else NaN.  Lets
+   * filters fill in whole Chunks from their zone maps without scanning them.
    */
-  private ValFrame scalar_op_frame(final double d, Frame fr) {
-    Frame res = new MRTask() {
-      @Override
-      public void map(Chunk[] chks, NewChunk[] cress) {
-        for (int c = 0; c < chks.length; c++) {
-          Chunk chk = chks[c];
-          NewChunk cres = cress[c];
-          for (int i = 0; i < chk._len; i++)
-            cres.addNum(op(d, chk.atd(i)));
-        }
+  protected double range_op(double lo, double hi, double d, boolean scalarLeft) {
+    return Double.NaN;
+  }
+
+  /**
+   * range_op for ops which are monotone in each argument, such as the ordering
+   * comparisons: the results at both ends of the range decide.
+   */
+  protected final double monotone_range_op(double lo, double hi, double d, boolean scalarLeft) {
+    double a = scalarLeft ? op(d, lo) : op(lo, d);
+    double b = scalarLeft ? op(d, hi) : op(hi, d);
+    return a == b ? a : Double.NaN;
+  }
+
+  /**
+   * Fill cres with the result of op between d and every row of chk, if the
+   * zone map zm proves it constant.  Returns false, filling nothing, if not.
+   */
+  protected final boolean fill_constant(ZoneMap zm, Chunk chk, NewChunk cres, double d, boolean scalarLeft) {
+    if (zm == null || Double.isNaN(d)) return false;
+    int cidx = chk.cidx();
+    double na = scalarLeft ? op(d, Double.NaN) : op(Double.NaN, d);
+    double r = zm.isAllNA(cidx) ? na : range_op(zm.min(cidx), zm.max(cidx), d, scalarLeft);
+    if (Double.isNaN(r) || (zm.naCnt(cidx) > 0 && r != na)) return false;
+    if (r == 0) cres.addZeros(chk._len);
+    else for (int i = 0; i < chk._len; i++) cres.addNum(r);
+    return true;
+  }
+
+  /**
+   * Scalar op every element of the frame, one result column per column.
+   * Chunks with a result proven constant by their zone map are not scanned.
+   */
+  protected class ScalarOpTask extends MRTask<ScalarOpTask> {
+    final double _d;
+    final boolean _scalarLeft;
+    final ZoneMap[] _zms;
+    long _pruned;             // Chunks filled in from their zone map
+
+    public ScalarOpTask(double d, boolean scalarLeft, ZoneMap[] zms) {
+      _d = d;
+      _scalarLeft = scalarLeft;
+      _zms = zms;
+    }
+
+    @Override
+    public void map(Chunk[] chks, NewChunk[] cress) {
+      for (int c = 0; c < chks.length; c++) {
+        if (fill_constant(_zms[c], chks[c], cress[c], _d, _scalarLeft)) _pruned++;
+        else map_column(chks[c], cress[c]);
       }
-    }.doAll(fr.numCols(), Vec.T_NUM, fr).outputFrame(fr._names, null);
+    }
+
+    protected void map_column(Chunk chk, NewChunk cres) {
+      if (_scalarLeft)
+        for (int i = 0; i < chk._len; i++)
+          cres.addNum(op(_d, chk.atd(i)));
+      else
+        for (int i = 0; i < chk._len; i++)
+          cres.addNum(op(chk.atd(i), _d));
+    }
+
+    @Override
+    public void reduce(ScalarOpTask t) {
+      _pruned += t._pruned;
+    }
+
+    /** Charge the Chunks filled in from zone maps to env, if given */
+    public ScalarOpTask charge(Env env) {
+      if (env != null) env.addPrunedChunks(_pruned);
+      return this;
+    }
+  }
+
+  /**
+   * Auto-widen the scalar to every element of the frame
+   */
+  private ValFrame scalar_op_frame(final double d, Frame fr, Env env) {
+    Frame res = new ScalarOpTask(d, true, ZoneMap.get(fr))
+        .doAll(fr.numCols(), Vec.T_NUM, fr).charge(env).outputFrame(fr._names, null);
     return cleanCategorical(fr, res); // Cleanup categorical misuse
   }
 
@@ -186,17 +265,16 @@ abstract public class AstBinOp extends AstPrimitive {
    * Auto-widen the scalar to every element of the frame
    */
   public ValFrame frame_op_scalar(Frame fr, final double d) {
-    Frame res = new MRTask() {
-      @Override
-      public void map(Chunk[] chks, NewChunk[] cress) {
-        for (int c = 0; c < chks.length; c++) {
-          Chunk chk = chks[c];
-          NewChunk cres = cress[c];
-          for (int i = 0; i < chk._len; i++)
-            cres.addNum(op(chk.atd(i), d));
-        }
-      }
-    }.doAll(fr.numCols(), Vec.T_NUM, fr).outputFrame(fr._names, null);
+    return frame_op_scalar(fr, d, null);
+  }
+
+  /**
+   * Auto-widen the scalar to every element of the frame; Chunks skipped
+   * thanks to their zone maps are charged to env, if given.
+   */
+  public ValFrame frame_op_scalar(Frame fr, final double d, Env env) {
+    Frame res = new ScalarOpTask(d, false, ZoneMap.get(fr))
+        .doAll(fr.numCols(), Vec.T_NUM, fr).charge(env).outputFrame(fr._names, null);
     return cleanCategorical(fr, res); // Cleanup categorical misuse
   }
 
@@ -1,11 +1,12 @@
 package water.rapids.ast.prims.operators;
 
-import water.MRTask;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NewChunk;
 import water.fvec.Vec;
+import water.fvec.ZoneMap;
 import water.parser.BufferedString;
+import water.rapids.Env;
 import water.rapids.vals.ValFrame;
 import water.util.MathUtils;
 import water.util.StringUtils;
@@ -22,24 +23,39 @@ public class AstEq extends AstBinOp {
   }
 
   @Override
-  public ValFrame frame_op_scalar(Frame fr, final double d) {
-    return new ValFrame(new MRTask() {
+  public ValFrame frame_op_scalar(Frame fr, final double d, Env env) {
+    // Only numeric columns compare numerically, so only they can be pruned
+    ZoneMap[] zms = ZoneMap.get(fr);
+    for (int c = 0; c < zms.length; c++)
+      if (!fr.vec(c).isNumeric()) zms[c] = null;
+    return new ValFrame(new ScalarOpTask(d, false, zms) {
       @Override
-      public void map(Chunk[] chks, NewChunk[] cress) {
-        for (int c = 0; c < chks.length; c++) {
-          Chunk chk = chks[c];
-          NewChunk cres = cress[c];
-          BufferedString bStr = new BufferedString();
-          if (chk.vec().isString())
-            for (int i = 0; i < chk._len; i++)
-              cres.addNum(str_op(chk.atStr(bStr, i), Double.isNaN(d) ? null : new BufferedString(String.valueOf(d))));
-          else if (!chk.vec().isNumeric()) cres.addZeros(chk._len);
-          else
-            for (int i = 0; i < chk._len; i++)
-              cres.addNum(op(chk.atd(i), d));
-        }
+      protected void map_column(Chunk chk, NewChunk cres) {
+        BufferedString bStr = new BufferedString();
+        if (chk.vec().isString())
+          for (int i = 0; i < chk._len; i++)
+            cres.addNum(str_op(chk.atStr(bStr, i), Double.isNaN(d) ? null : new BufferedString(String.valueOf(d))));
+        else if (!chk.vec().isNumeric()) cres.addZeros(chk._len);
+        else
+          for (int i = 0; i < chk._len; i++)
+            cres.addNum(op(chk.atd(i), d));
       }
-    }.doAll(fr.numCols(), Vec.T_NUM, fr).outputFrame());
+    }.doAll(fr.numCols(), Vec.T_NUM, fr).charge(env).outputFrame());
+  }
+
+  @Override
+  protected double range_op(double lo, double hi, double d, boolean scalarLeft) {
+    return eq_range(lo, hi, d);
+  }
+
+  /**
+   * 1 if every value in [lo,hi] equals d, 0 if none can, else NaN.  Equality
+   * allows one small ulp, so only values further than that from d surely differ.
+   */
+  static double eq_range(double lo, double hi, double d) {
+    if (lo == hi && MathUtils.equalsWithinOneSmallUlp(lo, d)) return 1;
+    double slack = 2 * Math.ulp(d);
+    return d < lo - slack || d > hi + slack ? 0 : Double.NaN;
   }
 
   @Override
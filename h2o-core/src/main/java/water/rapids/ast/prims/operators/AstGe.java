@@ -10,4 +10,9 @@ public class AstGe extends AstBinOp {
   public double op(double l, double r) {
     return l >= r ? 1 : 0;
   }
+
+  @Override
+  protected double range_op(double lo, double hi, double d, boolean scalarLeft) {
+    return monotone_range_op(lo, hi, d, scalarLeft);
+  }
 }
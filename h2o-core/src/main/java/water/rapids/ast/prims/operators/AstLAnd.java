@@ -21,7 +21,7 @@ public class AstLAnd extends AstBinOp {
       if (d == 0) return left;
     }
     Val rite = stk.track(asts[2].exec(env));
-    return prim_apply(left, rite);
+    return prim_apply(left, rite, env);
   }
 
   // 0 trumps NA, and NA trumps 1
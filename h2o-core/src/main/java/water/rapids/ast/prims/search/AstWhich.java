@@ -48,14 +48,36 @@ public class AstWhich extends AstPrimitive {
     Vec vec = f.anyVec();
     if (f.numCols() > 1 || !vec.isInt())
       throw new IllegalArgumentException("which requires a single integer column");
-    Frame f2 = new MRTask() {
-      @Override
-      public void map(Chunk c, NewChunk nc) {
-        long start = c.start();
-        for (int i = 0; i < c._len; ++i)
-          if (c.at8(i) != 0) nc.addNum(start + i);
-      }
-    }.doAll(new byte[]{Vec.T_NUM}, vec).outputFrame();
+    WhichTask t = new WhichTask(ZoneMap.get(vec)).doAll(new byte[]{Vec.T_NUM}, vec);
+    env.addPrunedChunks(t._pruned);
+    Frame f2 = t.outputFrame();
     return new ValFrame(f2);
   }
+
+  // Row numbers of the non-zeros, skipping chunks which are all zeros per their zone map
+  private static class WhichTask extends MRTask<WhichTask> {
+    final ZoneMap _zm;
+    long _pruned;
+
+    WhichTask(ZoneMap zm) {
+      _zm = zm;
+    }
+
+    @Override
+    public void map(Chunk c, NewChunk nc) {
+      int cidx = c.cidx();
+      if (_zm != null && _zm.naCnt(cidx) == 0 && _zm.min(cidx) == 0 && _zm.max(cidx) == 0) {
+        _pruned++;
+        return;
+      }
+      long start = c.start();
+      for (int i = 0; i < c._len; ++i)
+        if (c.at8(i) != 0) nc.addNum(start + i);
+    }
+
+    @Override
+    public void reduce(WhichTask t) {
+      _pruned += t._pruned;
+    }
+  }
 }
@@ -1273,6 +1273,18 @@ public class ArrayUtils {
       res[i] = ary[idxs[i]];
     return res;
   }
+  public static byte[] select(byte[] ary, int[] idxs) {
+    byte [] res = MemoryManager.malloc1(idxs.length);
+    for(int i = 0; i < res.length; ++i)
+      res[i] = ary[idxs[i]];
+    return res;
+  }
+  public static String[][] select(String[][] ary, int[] idxs) {
+    String [][] res = new String[idxs.length][];
+    for(int i = 0; i < res.length; ++i)
+      res[i] = ary[idxs[i]];
+    return res;
+  }
 
   public static double [] expandAndScatter(double [] ary, int N, int [] ids) {
     assert ary.length == ids.length:"ary.length = " + ary.length + " != " + ids.length + " = ids.length";
@@ -0,0 +1,119 @@
+package water.util;
+
+import water.Iced;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative longs (latencies in nanoseconds, sizes
+ * in bytes), cheap enough to record into on every message.
+ * <p>
+ * Buckets are log-linear, as in HDR histograms: values below 16 get a bucket
+ * each, and every power of 2 above is split into 16 equal buckets, so any
+ * value is known to within 1/16th (6.25%) over the whole range of a long, in
+ * 960 buckets.  Recording is one atomic increment of its bucket, and one add
+ * to the sum; there is no lock, and no allocation.
+ */
+public final class AtomicHistogram {
+  private static final int SUB_BITS = 4;
+  private static final int SUB = 1 << SUB_BITS;
+  static final int NBUCKETS = (64 - SUB_BITS) * SUB;
+
+  private final AtomicLongArray _counts = new AtomicLongArray(NBUCKETS);
+  private final AtomicLong _sum = new AtomicLong();
+  private final AtomicLong _max = new AtomicLong();
+
+  static int bucket( long v ) {
+    if( v < SUB ) return (int)Math.max(v, 0);
+    int e = 63 - Long.numberOfLeadingZeros(v);   // >= SUB_BITS
+    return (e - SUB_BITS + 1) * SUB + (int)((v >>> (e - SUB_BITS)) & (SUB - 1));
+  }
+
+  /** Smallest value in bucket i */
+  static long lowest( int i ) {
+    if( i < SUB ) return i;
+    int e = i / SUB + SUB_BITS - 1;
+    return (long)(SUB + i % SUB) << (e - SUB_BITS);
+  }
+
+  /** Largest value in bucket i */
+  static long highest( int i ) { return i + 1 == NBUCKETS ? Long.MAX_VALUE : lowest(i + 1) - 1; }
+
+  /** Record one value */
+  public void record( long v ) {
+    _counts.incrementAndGet(bucket(v));
+    _sum.addAndGet(v);
+    long max = _max.get();
+    while( v > max && !_max.compareAndSet(max, v) ) max = _max.get();
+  }
+
+  /** A copy of the counts so far, for reporting and merging, and to ship
+   *  between nodes: only the buckets in use are kept. */
+  public Snapshot snapshot() {
+    int n = 0;
+    long[] counts = new long[NBUCKETS];
+    for( int i = 0; i < NBUCKETS; i++ )
+      if( (counts[i] = _counts.get(i)) != 0 ) n++;
+    Snapshot s = new Snapshot();
+    s._buckets = new int[n];
+    s._counts = new long[n];
+    for( int i = 0, j = 0; i < NBUCKETS; i++ )
+      if( counts[i] != 0 ) { s._buckets[j] = i; s._counts[j++] = counts[i]; }
+    s._sum = _sum.get();
+    s._max = _max.get();
+    return s;
+  }
+
+  public static class Snapshot extends Iced<Snapshot> {
+    int[] _buckets;             // Buckets in use, ascending
+    long[] _counts;             // Values recorded in each
+    long _sum, _max;
+
+    public long count() { long c = 0; for( long x : _counts ) c += x; return c; }
+    public long sum() { return _sum; }
+    public long max() { return _max; }
+    public double mean() { long c = count(); return c == 0 ? 0 : (double)_sum / c; }
+
+    /** Value at quantile q (0 to 1): the middle of the bucket holding it,
+     *  never above the max, and the max itself at 1 */
+    public long quantile( double q ) {
+      long c = count();
+      if( c == 0 ) return 0;
+      long rank = Math.max(1, (long)Math.ceil(q * c));
+      if( rank >= c ) return _max;
+      long seen = 0;
+      for( int j = 0; j < _buckets.length; j++ ) {
+        seen += _counts[j];
+        if( seen >= rank ) {
+          int i = _buckets[j];
+          long lo = lowest(i), hi = highest(i);
+          return Math.min(lo + (hi - lo) / 2, _max);
+        }
+      }
+      return _max;
+    }
+
+    /** Fold the counts of s into this */
+    public Snapshot add( Snapshot s ) {
+      long[] counts = new long[NBUCKETS];
+      for( int j = 0; j < _buckets.length; j++ ) counts[_buckets[j]] += _counts[j];
+      for( int j = 0; j < s._buckets.length; j++ ) counts[s._buckets[j]] += s._counts[j];
+      int n = 0;
+      for( long x : counts ) if( x != 0 ) n++;
+      _buckets = new int[n];
+      _counts = new long[n];
+      for( int i = 0, j = 0; i < NBUCKETS; i++ )
+        if( counts[i] != 0 ) { _buckets[j] = i; _counts[j++] = counts[i]; }
+      _sum += s._sum;
+      _max = Math.max(_max, s._max);
+      return this;
+    }
+
+    @Override public String toString() {
+      return "count=" + count() + ", mean=" + mean() + ", p50=" + quantile(0.5) + ", p99=" + quantile(0.99) +
+        ", max=" + _max + ", buckets=" + Arrays.toString(_buckets);
+    }
+  }
+}
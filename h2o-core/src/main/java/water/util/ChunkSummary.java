@@ -33,6 +33,8 @@ public class ChunkSummary extends MRTask<ChunkSummary> {
       {"C16","UUIDs"},
       {"CStr","Strings"},
       {"CUD","Unique Reals"},
+      {"CDict","Dictionary"},
+      {"CRLE","Run-Length"},
       {"C8D","64-bit Reals"},
   };
 
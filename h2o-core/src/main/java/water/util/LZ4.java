@@ -0,0 +1,145 @@
+package water.util;
+
+import java.util.Arrays;
+
+/**
+ * A byte[] codec for the LZ4 block format: a fast, greedy LZ77 with a 64K
+ * window, trading compression ratio for speed (hundreds of MB/sec each way).
+ * <p>
+ * A block is a series of sequences, each a token byte (literal length in the
+ * high nibble, match length - 4 in the low), more length bytes when a nibble
+ * is 15, the literals, and a 2-byte little-endian match offset.  The last
+ * sequence has literals only, and always holds the last 5 bytes.  Blocks do
+ * not record their own raw length; callers keep it alongside.
+ */
+public final class LZ4 {
+  private LZ4() {}
+
+  private static final int MIN_MATCH = 4;
+  private static final int LAST_LITERALS = 5;    // Always end in literals
+  private static final int MF_LIMIT = 12;        // No match starts closer to the end
+  private static final int MIN_LENGTH = MF_LIMIT + 1;
+  private static final int MAX_DISTANCE = (1 << 16) - 1;
+  private static final int HASH_LOG = 12;
+  private static final int SKIP_STRENGTH = 6;    // Speed up over incompressible data
+
+  /** Worst-case compressed size of len bytes */
+  public static int maxCompressedLength( int len ) { return len + len / 255 + 16; }
+
+  private static int hash( int i ) { return (i * -1640531535) >>> (32 - HASH_LOG); }
+
+  /**
+   * Compress src[srcOff,srcOff+srcLen) into dst from dstOff, which must have
+   * room for {@link #maxCompressedLength} bytes.
+   * @return the compressed length
+   */
+  public static int compress( byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff ) {
+    final int srcEnd = srcOff + srcLen;
+    final int mfLimit = srcEnd - MF_LIMIT;
+    final int matchLimit = srcEnd - LAST_LITERALS;
+    int sOff = srcOff, anchor = srcOff, dOff = dstOff;
+    if( srcLen >= MIN_LENGTH ) {
+      int[] table = new int[1 << HASH_LOG];
+      Arrays.fill(table, srcOff);
+      sOff++;
+      main:
+      while( true ) {
+        // Find a match, stepping faster the longer none is found
+        int ref, step = 1, attempts = 1 << SKIP_STRENGTH;
+        while( true ) {
+          if( sOff > mfLimit ) break main;
+          int h = hash(UnsafeUtils.get4(src, sOff));
+          ref = table[h];
+          table[h] = sOff;
+          if( sOff - ref <= MAX_DISTANCE && UnsafeUtils.get4(src, ref) == UnsafeUtils.get4(src, sOff) ) break;
+          sOff += step;
+          step = attempts++ >>> SKIP_STRENGTH;
+        }
+        // Extend it backwards over the pending literals, then forwards
+        while( sOff > anchor && ref > srcOff && src[sOff-1] == src[ref-1] ) { sOff--; ref--; }
+        int len = MIN_MATCH;
+        while( sOff + len < matchLimit && src[ref+len] == src[sOff+len] ) len++;
+        dOff = writeSequence(src, anchor, sOff - anchor, dst, dOff, sOff - ref, len);
+        sOff += len;
+        anchor = sOff;
+        if( sOff > mfLimit ) break;
+        table[hash(UnsafeUtils.get4(src, sOff - 2))] = sOff - 2;
+      }
+    }
+    // Last literals
+    int litLen = srcEnd - anchor;
+    dst[dOff++] = (byte)(Math.min(litLen, 15) << 4);
+    if( litLen >= 15 ) dOff = writeLength(dst, dOff, litLen - 15);
+    System.arraycopy(src, anchor, dst, dOff, litLen);
+    return dOff + litLen - dstOff;
+  }
+
+  private static int writeSequence( byte[] src, int litOff, int litLen, byte[] dst, int dOff, int offset, int matchLen ) {
+    int ml = matchLen - MIN_MATCH;
+    dst[dOff++] = (byte)(Math.min(litLen, 15) << 4 | Math.min(ml, 15));
+    if( litLen >= 15 ) dOff = writeLength(dst, dOff, litLen - 15);
+    System.arraycopy(src, litOff, dst, dOff, litLen);
+    dOff += litLen;
+    dst[dOff++] = (byte)offset;
+    dst[dOff++] = (byte)(offset >>> 8);
+    if( ml >= 15 ) dOff = writeLength(dst, dOff, ml - 15);
+    return dOff;
+  }
+
+  private static int writeLength( byte[] dst, int dOff, int len ) {
+    for( ; len >= 255; len -= 255 ) dst[dOff++] = (byte)255;
+    dst[dOff++] = (byte)len;
+    return dOff;
+  }
+
+  /**
+   * Decompress the block src[srcOff,srcOff+srcLen) into exactly dstLen bytes
+   * of dst from dstOff.
+   * @throws IllegalArgumentException if the block is malformed or does not
+   *         inflate to dstLen bytes
+   */
+  public static void decompress( byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen ) {
+    final int srcEnd = srcOff + srcLen, dstEnd = dstOff + dstLen;
+    int sOff = srcOff, dOff = dstOff;
+    while( true ) {
+      if( sOff >= srcEnd ) throw malformed(sOff - srcOff);
+      int token = src[sOff++] & 0xFF;
+      int litLen = token >>> 4;
+      if( litLen == 15 ) {
+        int b;
+        do {
+          if( sOff >= srcEnd ) throw malformed(sOff - srcOff);
+          litLen += b = src[sOff++] & 0xFF;
+        } while( b == 255 );
+      }
+      if( litLen < 0 || litLen > srcEnd - sOff || litLen > dstEnd - dOff ) throw malformed(sOff - srcOff);
+      System.arraycopy(src, sOff, dst, dOff, litLen);
+      sOff += litLen;
+      dOff += litLen;
+      if( sOff == srcEnd ) break; // Last sequence: literals only
+      if( srcEnd - sOff < 2 ) throw malformed(sOff - srcOff);
+      int offset = (src[sOff] & 0xFF) | (src[sOff+1] & 0xFF) << 8;
+      sOff += 2;
+      int ref = dOff - offset;
+      if( offset == 0 || ref < dstOff ) throw malformed(sOff - srcOff);
+      int len = token & 0xF;
+      if( len == 15 ) {
+        int b;
+        do {
+          if( sOff >= srcEnd ) throw malformed(sOff - srcOff);
+          len += b = src[sOff++] & 0xFF;
+        } while( b == 255 );
+      }
+      len += MIN_MATCH;
+      if( len < 0 || len > dstEnd - dOff ) throw malformed(sOff - srcOff);
+      if( offset >= len ) System.arraycopy(dst, ref, dst, dOff, len);
+      else for( int i = 0; i < len; i++ ) dst[dOff+i] = dst[ref+i]; // Overlapping: repeats the last offset bytes
+      dOff += len;
+    }
+    if( dOff != dstEnd ) throw new IllegalArgumentException("LZ4 block inflates to " + (dOff - dstOff) + " bytes, expected " + dstLen);
+  }
+
+  private static IllegalArgumentException malformed( int off ) {
+    return new IllegalArgumentException("Malformed LZ4 block at offset " + off);
+  }
+}
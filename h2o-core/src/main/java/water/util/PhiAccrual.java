@@ -0,0 +1,73 @@
+package water.util;
+
+/**
+ * A phi-accrual failure detector for one peer (Hayashibara et al., "The phi
+ * Accrual Failure Detector").
+ * <p>
+ * Rather than a yes/no after a fixed timeout, phi grows the longer a
+ * heartbeat is overdue, scaled by how regular the heartbeats have been: phi =
+ * -log10(P(a heartbeat comes this late)), with the intervals between recent
+ * heartbeats taken as normally distributed.  A phi of 1 is a 10% chance of
+ * suspecting wrongly, 2 a 1% chance, and so on.  An acceptable pause is added
+ * to the mean interval, so that e.g. a GC pause of either node is not taken
+ * for a failure.
+ */
+public final class PhiAccrual {
+  private final long[] _intervals; // Ring of the most recent intervals, msec
+  private final long _minStd, _pause;
+  private int _n, _pos;
+  private long _sum, _sumSq;
+  private long _last = -1;      // Time of the last heartbeat, msec
+
+  /** @param window number of recent intervals to estimate from
+   *  @param minStd floor of the standard deviation, msec, so that a very
+   *         regular peer is not suspected for a little jitter
+   *  @param pause acceptable pause, msec; longer gaps start a new window */
+  public PhiAccrual( int window, long minStd, long pause ) {
+    _intervals = new long[window];
+    _minStd = minStd;
+    _pause = pause;
+  }
+
+  /** Record a heartbeat received at time now, msec */
+  public synchronized void heartbeat( long now ) {
+    if( _last >= 0 ) {
+      long d = now - _last;
+      if( d > _pause + mean() ) reset(); // Back after a failure: the old intervals say nothing
+      else {
+        if( _n == _intervals.length ) {
+          long old = _intervals[_pos];
+          _sum -= old;  _sumSq -= old * old;
+        } else _n++;
+        _intervals[_pos] = d;
+        _pos = (_pos + 1) % _intervals.length;
+        _sum += d;  _sumSq += d * d;
+      }
+    }
+    _last = now;
+  }
+
+  private void reset() { _n = _pos = 0; _sum = _sumSq = 0; }
+
+  private double mean() { return _n == 0 ? 0 : (double)_sum / _n; }
+
+  /** Number of intervals the estimate is made from */
+  public synchronized int samples() { return _n; }
+
+  /** Suspicion level at time now, msec; 0 until a few intervals are known */
+  public synchronized double phi( long now ) {
+    if( _n < 3 ) return 0;
+    double mean = mean();
+    double std = Math.max(Math.sqrt(Math.max((double)_sumSq / _n - mean * mean, 0)), _minStd);
+    return phi(now - _last, mean + _pause, std);
+  }
+
+  /** -log10 of the chance of an interval of at least t, for intervals
+   *  distributed normally with this mean and standard deviation; uses the
+   *  logistic approximation of the normal CDF, accurate to 1e-4. */
+  static double phi( double t, double mean, double std ) {
+    double y = (t - mean) / std;
+    double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+    return t > mean ? -Math.log10(e / (1.0 + e)) : -Math.log10(1.0 - 1.0 / (1.0 + e));
+  }
+}
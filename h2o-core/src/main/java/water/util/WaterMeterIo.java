@@ -3,6 +3,7 @@ package water.util;
 import water.*;
 import water.api.API;
 import water.api.schemas3.SchemaV3;
+import water.persist.IceCodec;
 import water.persist.PersistManager;
 
 public class WaterMeterIo extends Iced {
@@ -25,6 +26,99 @@ public class WaterMeterIo extends Iced {
 
     @API(help="Cumulative loaded bytes", direction = API.Direction.OUTPUT)
     public long load_bytes;
+
+    @API(help="Bytes of swap space currently memory-mapped", direction = API.Direction.OUTPUT)
+    public long mapped_bytes;
+
+    @API(help="Bytes of memory-mapped swap space resident in physical memory", direction = API.Direction.OUTPUT)
+    public long resident_bytes;
+
+    @API(help="Eviction policy of the user-mode swap", direction = API.Direction.OUTPUT)
+    public String swap_policy;
+
+    @API(help="Cumulative bytes swapped out of the heap", direction = API.Direction.OUTPUT)
+    public long swapped_bytes;
+
+    @API(help="Cumulative bytes reloaded after being swapped out", direction = API.Direction.OUTPUT)
+    public long reloaded_bytes;
+
+    @API(help="Cumulative bytes swapped out again after being reloaded", direction = API.Direction.OUTPUT)
+    public long reswapped_bytes;
+
+    @API(help="Cumulative bytes given to the swap compressor", direction = API.Direction.OUTPUT)
+    public long compress_raw_bytes;
+
+    @API(help="Cumulative compressed bytes stored by the swap compressor", direction = API.Direction.OUTPUT)
+    public long compress_stored_bytes;
+
+    @API(help="Swap compression ratio, raw over stored bytes", direction = API.Direction.OUTPUT)
+    public double compress_ratio;
+
+    @API(help="Cumulative time spent compressing swapped Values (ms)", direction = API.Direction.OUTPUT)
+    public long compress_encode_ms;
+
+    @API(help="Cumulative time spent decompressing swapped Values (ms)", direction = API.Direction.OUTPUT)
+    public long compress_decode_ms;
+
+    void setRatio() {
+      compress_ratio = compress_stored_bytes == 0 ? 1 : (double)compress_raw_bytes/compress_stored_bytes;
+    }
+  }
+
+  public static class MsgStatsEntry extends SchemaV3<Iced, MsgStatsEntry> {
+    @API(help="Small messages sent in batches", direction = API.Direction.OUTPUT)
+    public long messages_sent;
+
+    @API(help="Batches of small messages sent", direction = API.Direction.OUTPUT)
+    public long batches_sent;
+
+    @API(help="Socket write or send calls made for the batches", direction = API.Direction.OUTPUT)
+    public long send_calls;
+
+    @API(help="Average small messages per batch", direction = API.Direction.OUTPUT)
+    public double messages_per_batch;
+
+    @API(help="Send calls saved over one call per message", direction = API.Direction.OUTPUT)
+    public long send_calls_saved;
+
+    @API(help="Small messages received in batches", direction = API.Direction.OUTPUT)
+    public long messages_received;
+
+    @API(help="Socket read or receive calls made for the batches", direction = API.Direction.OUTPUT)
+    public long receive_calls;
+
+    void setRatios() {
+      messages_per_batch = batches_sent == 0 ? 0 : (double)messages_sent/batches_sent;
+      send_calls_saved = Math.max(0, messages_sent - send_calls);
+    }
+  }
+
+  public static class WireStatsEntry extends SchemaV3<Iced, WireStatsEntry> {
+    @API(help="TCP messages sent compressed", direction = API.Direction.OUTPUT)
+    public long messages_compressed;
+
+    @API(help="Cumulative bytes given to the wire compressor", direction = API.Direction.OUTPUT)
+    public long raw_bytes;
+
+    @API(help="Cumulative bytes sent by the wire compressor, frame headers included", direction = API.Direction.OUTPUT)
+    public long wire_bytes;
+
+    @API(help="Cumulative bytes saved by wire compression", direction = API.Direction.OUTPUT)
+    public long bytes_saved;
+
+    @API(help="Wire compression ratio, raw over sent bytes", direction = API.Direction.OUTPUT)
+    public double compress_ratio;
+
+    @API(help="Cumulative time spent compressing messages (ms)", direction = API.Direction.OUTPUT)
+    public long compress_ms;
+
+    @API(help="Cumulative time spent decompressing messages (ms)", direction = API.Direction.OUTPUT)
+    public long decompress_ms;
+
+    void setRatios() {
+      bytes_saved = raw_bytes - wire_bytes;
+      compress_ratio = wire_bytes == 0 ? 1 : (double)raw_bytes/wire_bytes;
+    }
   }
 
   // Input
@@ -32,6 +126,8 @@ public class WaterMeterIo extends Iced {
 
   // Output
   public IoStatsEntry persist_stats[];
+  public MsgStatsEntry msg_stats;
+  public WireStatsEntry wire_stats;
 
   public void doIt(boolean aggregateAllNodes) {
     if (! aggregateAllNodes) {
@@ -47,8 +143,23 @@ public class WaterMeterIo extends Iced {
         for (int j = 0; j < persist_stats.length; j++) {
           persist_stats[j] = new IoStatsEntry();
           persist_stats[j].backend    = io.persist_stats[j].backend;
+          persist_stats[j].swap_policy = io.persist_stats[j].swap_policy;
         }
+        msg_stats = new MsgStatsEntry();
+        wire_stats = new WireStatsEntry();
       }
+      msg_stats.messages_sent += io.msg_stats.messages_sent;
+      msg_stats.batches_sent += io.msg_stats.batches_sent;
+      msg_stats.send_calls += io.msg_stats.send_calls;
+      msg_stats.messages_received += io.msg_stats.messages_received;
+      msg_stats.receive_calls += io.msg_stats.receive_calls;
+      msg_stats.setRatios();
+      wire_stats.messages_compressed += io.wire_stats.messages_compressed;
+      wire_stats.raw_bytes += io.wire_stats.raw_bytes;
+      wire_stats.wire_bytes += io.wire_stats.wire_bytes;
+      wire_stats.compress_ms += io.wire_stats.compress_ms;
+      wire_stats.decompress_ms += io.wire_stats.decompress_ms;
+      wire_stats.setRatios();
 
       for (int j = 0; j < persist_stats.length; j++) {
         persist_stats[j].store_count += io.persist_stats[j].store_count;
@@ -56,6 +167,16 @@ public class WaterMeterIo extends Iced {
         persist_stats[j].delete_count += io.persist_stats[j].delete_count;
         persist_stats[j].load_count += io.persist_stats[j].load_count;
         persist_stats[j].load_bytes += io.persist_stats[j].load_bytes;
+        persist_stats[j].mapped_bytes += io.persist_stats[j].mapped_bytes;
+        persist_stats[j].resident_bytes += io.persist_stats[j].resident_bytes;
+        persist_stats[j].swapped_bytes += io.persist_stats[j].swapped_bytes;
+        persist_stats[j].reloaded_bytes += io.persist_stats[j].reloaded_bytes;
+        persist_stats[j].reswapped_bytes += io.persist_stats[j].reswapped_bytes;
+        persist_stats[j].compress_raw_bytes += io.persist_stats[j].compress_raw_bytes;
+        persist_stats[j].compress_stored_bytes += io.persist_stats[j].compress_stored_bytes;
+        persist_stats[j].compress_encode_ms += io.persist_stats[j].compress_encode_ms;
+        persist_stats[j].compress_decode_ms += io.persist_stats[j].compress_decode_ms;
+        persist_stats[j].setRatio();
       }
     }
   }
@@ -68,10 +189,14 @@ public class WaterMeterIo extends Iced {
     new RPC<>(node, t).call().get();
     Log.trace("IO GetTask completed to node " + idx);
     persist_stats = t._persist_stats;
+    msg_stats = t._msg_stats;
+    wire_stats = t._wire_stats;
   }
 
   private static class GetTask extends DTask<GetTask> {
     private IoStatsEntry _persist_stats[];
+    private MsgStatsEntry _msg_stats;
+    private WireStatsEntry _wire_stats;
 
     public GetTask() { super(H2O.MIN_HI_PRIORITY); _persist_stats = null; }
 
@@ -87,6 +212,17 @@ public class WaterMeterIo extends Iced {
         switch (j) {
           case Value.ICE:
             dest_e.backend = "ice";
+            dest_e.mapped_bytes = H2O.getPM().getIce().getMappedBytes();
+            dest_e.resident_bytes = H2O.getPM().getIce().getResidentBytes();
+            SwapPolicy policy = SwapPolicy.current();
+            dest_e.swap_policy = policy.name();
+            dest_e.swapped_bytes = policy.swappedBytes();
+            dest_e.reloaded_bytes = policy.reloadedBytes();
+            dest_e.reswapped_bytes = policy.reswappedBytes();
+            dest_e.compress_raw_bytes = IceCodec.rawBytes();
+            dest_e.compress_stored_bytes = IceCodec.storedBytes();
+            dest_e.compress_encode_ms = IceCodec.encodeNanos()/1000000;
+            dest_e.compress_decode_ms = IceCodec.decodeNanos()/1000000;
             break;
           case Value.HDFS:
             dest_e.backend = "hdfs";
@@ -106,8 +242,25 @@ public class WaterMeterIo extends Iced {
         dest_e.delete_count = src_e.delete_count.get();
         dest_e.load_count = src_e.load_count.get();
         dest_e.load_bytes = src_e.load_bytes.get();
+        dest_e.setRatio();
       }
 
+      _msg_stats = new MsgStatsEntry();
+      _msg_stats.messages_sent = H2ONode.MSGS_SENT.get();
+      _msg_stats.batches_sent = H2ONode.BATCHES_SENT.get();
+      _msg_stats.send_calls = H2ONode.SEND_CALLS.get();
+      _msg_stats.messages_received = H2ONode.MSGS_RECV.get();
+      _msg_stats.receive_calls = H2ONode.RECV_CALLS.get();
+      _msg_stats.setRatios();
+
+      _wire_stats = new WireStatsEntry();
+      _wire_stats.messages_compressed = AutoBuffer.wireMessages();
+      _wire_stats.raw_bytes = AutoBuffer.wireRawBytes();
+      _wire_stats.wire_bytes = AutoBuffer.wireBytes();
+      _wire_stats.compress_ms = AutoBuffer.wireEncodeNanos()/1000000;
+      _wire_stats.decompress_ms = AutoBuffer.wireDecodeNanos()/1000000;
+      _wire_stats.setRatios();
+
       int[] backendsToZeroCheck = new int[] {0, 5, 6, 7};
       for (int j : backendsToZeroCheck) {
         PersistManager.PersistStatsEntry src_e = s[j];
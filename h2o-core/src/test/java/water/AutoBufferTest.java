@@ -5,7 +5,10 @@ import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
-import java.io.Serializable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -57,6 +60,26 @@ public class AutoBufferTest extends TestUtil {
     ab.close();
   }
 
+  @Test
+  public void testPutA1FromBufferAndFile() throws IOException {
+    byte[] data = new byte[100000];
+    new Random(42).nextBytes(data);
+    ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+    direct.put(data).flip();
+    File f = File.createTempFile("autobuffer", ".bin");
+    try {
+      try (FileOutputStream os = new FileOutputStream(f)) { os.write(data); }
+      AutoBuffer ab = new AutoBuffer();
+      ab.putA1Direct(direct);
+      try (FileInputStream is = new FileInputStream(f)) { ab.putA1File(is.getChannel(), 1000, 5000); }
+      AutoBuffer rd = new AutoBuffer(ab.buf());
+      assertArrayEquals(data, rd.getA1());
+      assertArrayEquals(Arrays.copyOfRange(data, 1000, 6000), rd.getA1());
+    } finally {
+      f.delete();
+    }
+  }
+
   static class XYZZY implements Serializable {
     int i = 1;
     String s = "hi";
@@ -0,0 +1,95 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.NFSFileVec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Large byte payloads between real nodes: the bulk transfer paths of
+ * AutoBuffer (heap arrays through the H2ONode buffer pool, off-heap Values
+ * written from their direct buffer, and file-backed Values sent with
+ * transferTo) must put the same bytes on the wire as the buffered path.
+ */
+public class BulkTransferTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(3); }
+
+  // Sends its bytes, or else the bytes of the Value of its Key fetched from
+  // the home node, to the node it runs on, and back
+  public static class Echo extends DTask<Echo> {
+    byte[] _bytes;
+    Key _key;
+    public Echo() {}
+    Echo(byte[] bytes, Key key) { _bytes = bytes; _key = key; }
+    @Override public void compute2() {
+      if( _key != null ) _bytes = DKV.get(_key).memOrLoad();
+      tryComplete();
+    }
+  }
+
+  @Test public void testHeapArray() {
+    byte[] data = randomBytes(3 * AutoBuffer.BULK_BUF_SIZ + 12345); // Several pooled buffers' worth
+    assertTrue(data.length >= AutoBuffer.BULK_MIN);
+    Echo res = RPC.call(otherNode(H2O.SELF), new Echo(data, null)).get();
+    assertArrayEquals(data, res._bytes);
+  }
+
+  @Test public void testOffHeapValue() {
+    int offHeapMb = H2O.ARGS.off_heap_mb;
+    H2O.ARGS.off_heap_mb = 16;
+    byte[] data = randomBytes(1 << 20);
+    Key k = Key.make(H2O.SELF);
+    Value val = new Value(k, data.clone());
+    DKV.put(k, val);
+    try {
+      assertTrue(val.storeOffHeap());
+      val.freeMem();            // Only the off-heap copy is left to send
+      Echo res = RPC.call(otherNode(H2O.SELF), new Echo(null, k)).get();
+      assertArrayEquals(data, res._bytes);
+    } finally {
+      DKV.remove(k);
+      H2O.ARGS.off_heap_mb = offHeapMb;
+    }
+  }
+
+  @Test public void testFileValue() throws Exception {
+    byte[] data = randomBytes(1 << 20);
+    File f = File.createTempFile("bulk", ".bin");
+    NFSFileVec nfs = null;
+    try {
+      try( FileOutputStream os = new FileOutputStream(f) ) { os.write(data); }
+      nfs = NFSFileVec.make(f);
+      assertEquals(1, nfs.nChunks());
+      // The home node has not loaded the chunk: it is sent from the file
+      Key k = nfs.chunkKey(0);
+      Echo res = RPC.call(otherNode(k.home_node()), new Echo(null, k)).get();
+      assertArrayEquals(data, res._bytes);
+    } finally {
+      if( nfs != null ) nfs.remove();
+      f.delete();
+    }
+  }
+
+  // A node of the cloud other than node, and other than this one if possible
+  private static H2ONode otherNode(H2ONode node) {
+    H2ONode res = null;
+    for( H2ONode n : H2O.CLOUD.members() ) {
+      if( n == node ) continue;
+      if( n != H2O.SELF ) return n;
+      res = n;
+    }
+    assertNotNull(res);
+    return res;
+  }
+
+  private static byte[] randomBytes(int n) {
+    byte[] bs = new byte[n];
+    new Random(n).nextBytes(bs);
+    return bs;
+  }
+}
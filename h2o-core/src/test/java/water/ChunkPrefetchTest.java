@@ -0,0 +1,133 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class ChunkPrefetchTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(3); }
+
+  @Test public void testPlainVec() {
+    Frame fr = frame(30, 30, Vec.T_NUM); // Fewer chunks than the window
+    try {
+      Vec v = fr.anyVec();
+      // Chunks homed here are read locally
+      assertEquals(0, ChunkPrefetch.remoteKeys(fr, 0, 30, false).size());
+      assertEquals(remoteChunkKeys(v, 0, 30), keys(fr, 0, 30, true));
+      assertEquals(remoteChunkKeys(v, 10, 20), keys(fr, 10, 20, true));
+    } finally {
+      fr.delete();
+    }
+  }
+
+  @Test public void testWrappedVec() {
+    Frame fr = frame(30, 30, Vec.T_CAT);
+    Vec wrapped = fr.anyVec().adaptTo(new String[]{"b", "a"});
+    Frame wfr = new Frame(wrapped);
+    try {
+      assertTrue(wrapped instanceof CategoricalWrappedVec);
+      // The Chunks of the master Vec are read
+      assertEquals(0, ChunkPrefetch.remoteKeys(wfr, 0, 30, false).size());
+      assertEquals(remoteChunkKeys(fr.anyVec(), 0, 30), keys(wfr, 0, 30, true));
+    } finally {
+      wrapped.remove();
+      fr.delete();
+    }
+  }
+
+  @Test public void testSubsetVec() {
+    // Master rows picked by each row of the subset, 2 per subset chunk
+    long[] picks = new long[]{39, 0, 5, 6, 21, 22, 12, 37, 8, 30, 1, 2};
+    Frame master = frame(40, 10, Vec.T_NUM);
+    Frame rows = new TestFrameBuilder()
+        .withName("prefetchRows")
+        .withColNames("rows")
+        .withVecTypes(Vec.T_NUM)
+        .withDataForCol(0, picks)
+        .withChunkLayout(2, 2, 2, 2, 2, 2)
+        .build();
+    Vec rv = rows.anyVec();
+    SubsetVec sv = new SubsetVec(rv.group().addVec(), rv._rowLayout, master.anyVec()._key, rv._key);
+    DKV.put(sv);
+    Frame sfr = new Frame(sv);
+    try {
+      Vec mv = master.anyVec();
+      for( boolean runLocal : new boolean[]{false, true} ) {
+        List<Key> expected = new ArrayList<>();
+        for( int c = 0; c < 6; c++ ) {
+          Key rk = rv.chunkKey(c);
+          if( !rk.home() ) {
+            // The rows Chunk alone: the master Chunks are not looked up from a remote rows Chunk
+            if( runLocal ) expected.add(rk);
+            continue;
+          }
+          // Then the remote master Chunks it picks from, in chunk order
+          TreeSet<Integer> mcidxs = new TreeSet<>();
+          for( int i = 2*c; i < 2*c+2; i++ ) mcidxs.add(mv.elem2ChunkIdx(picks[i]));
+          for( int mc : mcidxs ) {
+            Key mk = mv.chunkKey(mc);
+            if( !mk.home() && !expected.contains(mk) ) expected.add(mk);
+          }
+        }
+        assertEquals(expected, keys(sfr, 0, 6, runLocal));
+      }
+    } finally {
+      sv.remove();              // Removes the rows Vec too
+      rows.delete();
+      master.delete();
+    }
+  }
+
+  @Test public void testRunLocalWindow() {
+    int nchunks = 2 * ChunkPrefetch.WINDOW + 10;
+    Frame fr = frame(nchunks, nchunks, Vec.T_NUM);
+    try {
+      // Only the first window's worth of remote chunks
+      List<Key> all = remoteChunkKeys(fr.anyVec(), 0, nchunks);
+      assertTrue(all.size() > ChunkPrefetch.WINDOW);
+      assertEquals(all.subList(0, ChunkPrefetch.WINDOW), keys(fr, 0, nchunks, true));
+    } finally {
+      fr.delete();
+    }
+  }
+
+  // A 1 column Frame of nrows in nchunks even chunks
+  private static Frame frame(int nrows, int nchunks, byte type) {
+    long[] layout = new long[nchunks];
+    Arrays.fill(layout, nrows / nchunks);
+    TestFrameBuilder b = new TestFrameBuilder()
+        .withName(Key.make().toString())
+        .withColNames("x")
+        .withVecTypes(type)
+        .withChunkLayout(layout);
+    if( type == Vec.T_CAT ) {
+      String[] data = new String[nrows];
+      for( int i = 0; i < nrows; i++ ) data[i] = (i & 1) == 0 ? "a" : "b";
+      b.withDataForCol(0, data);
+    } else {
+      double[] data = new double[nrows];
+      for( int i = 0; i < nrows; i++ ) data[i] = i;
+      b.withDataForCol(0, data);
+    }
+    return b.build();
+  }
+
+  // Keys of the chunks [lo,hi) of v not homed here
+  private static List<Key> remoteChunkKeys(Vec v, int lo, int hi) {
+    List<Key> keys = new ArrayList<>();
+    for( int c = lo; c < hi; c++ )
+      if( !v.chunkKey(c).home() ) keys.add(v.chunkKey(c));
+    return keys;
+  }
+
+  private static List<Key> keys(Frame fr, int lo, int hi, boolean runLocal) {
+    return new ArrayList<>(ChunkPrefetch.remoteKeys(fr, lo, hi, runLocal));
+  }
+}
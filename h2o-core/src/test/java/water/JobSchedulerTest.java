@@ -0,0 +1,109 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class JobSchedulerTest extends TestUtil {
+
+  @BeforeClass
+  public static void setup() { stall_till_cloudsize(1); }
+
+  // Map calls started from a Job's task are accounted to that Job
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testJobStats() {
+    Vec v = Vec.makeCon(1.0, 100000, 10, true);
+    Job j = new Job(null, null, "Scheduled");
+    try {
+      j.start(new Runner(v), 1).get();
+      JobScheduler.Stats s = JobScheduler.stats(new Key[]{j._key}, 0)[0];
+      assertEquals(v.nChunks(), s._tasks);
+      assertEquals(0, s._running);
+      assertEquals(0, s._queued);
+      assertTrue(s.cpuShare() > 0 && s.cpuShare() <= 1);
+    } finally {
+      v.remove();
+    }
+  }
+
+  // Under -fair_share, a Job over its slice of the threads queues while
+  // another Job waits, _max_threads caps a Job, and freed threads go to the
+  // Job furthest below its slice first
+  @Test
+  public void testFairShare() {
+    boolean fairShare = H2O.ARGS.fair_share;
+    short nthreads = H2O.ARGS.nthreads;
+    Job a = new Job(null, null, "A"), b = new Job(null, null, "B");
+    b._cpu_weight = 3;
+    b._max_threads = 2;
+    DKV.put(a);
+    DKV.put(b);
+    ArrayList<MRTask> running = new ArrayList<>();
+    try {
+      H2O.ARGS.fair_share = true;
+      H2O.ARGS.nthreads = 8;    // Slices of 2 threads for A, 6 for B
+      // Alone, A may run past its slice
+      for (int i = 0; i < 3; i++) assertTrue(admit(a, running));
+      // B is admitted up to its cap, then queues
+      assertTrue(admit(b, running));
+      assertTrue(admit(b, running));
+      MRTask b3 = task(b);
+      assertFalse(JobScheduler.admit(b3));
+      assertEquals(1, JobScheduler.localStats(b._key)._queued);
+      // With B waiting, A is over its slice and queues too
+      MRTask a4 = task(a);
+      assertFalse(JobScheduler.admit(a4));
+      assertNull(JobScheduler.next());
+      // Threads free up: 2 of A's, 1 of B's.  Both may run again; B is at
+      // 1/6 of its slice and A at 1/2, so B goes first
+      JobScheduler.finish(running.remove(0), 0);
+      JobScheduler.finish(running.remove(0), 0);
+      JobScheduler.finish(running.remove(running.size() - 1), 0);
+      assertSame(b3, JobScheduler.next());
+      running.add(b3);
+      assertSame(a4, JobScheduler.next());
+      running.add(a4);
+      assertNull(JobScheduler.next());
+      assertEquals(0, JobScheduler.localStats(a._key)._queued);
+      assertEquals(0, JobScheduler.localStats(b._key)._queued);
+      assertEquals(2, JobScheduler.localStats(a._key)._running);
+      assertEquals(2, JobScheduler.localStats(b._key)._running);
+    } finally {
+      for (MRTask t : running) JobScheduler.finish(t, 0);
+      H2O.ARGS.fair_share = fairShare;
+      H2O.ARGS.nthreads = nthreads;
+      DKV.remove(a._key);
+      DKV.remove(b._key);
+    }
+  }
+
+  private static boolean admit(Job j, ArrayList<MRTask> running) {
+    MRTask t = task(j);
+    if (!JobScheduler.admit(t)) return false;
+    running.add(t);
+    return true;
+  }
+
+  // A map call of Job j, to be admitted but never run
+  @SuppressWarnings("unchecked")
+  private static MRTask task(Job j) {
+    MRTask t = new MRTask() { };
+    t._schedJob = j._key;
+    return t;
+  }
+
+  private static class Runner extends H2O.H2OCountedCompleter<Runner> {
+    private final Vec _v;
+    Runner(Vec v) { _v = v; }
+    @Override public void compute2() {
+      new MRTask() { @Override public void map(Chunk c) { double d = 0; for (int i = 0; i < c._len; i++) d += c.atd(i); assert d == c._len; } }.doAll(_v);
+      tryComplete();
+    }
+  }
+}
@@ -94,6 +94,74 @@ public class MRTaskTest extends TestUtil {
 
     zeros.remove();
   }
+  private static class Sum extends MRTask<Sum> {
+    long _sum;
+    @Override public void map(Chunk c) { for (int i = 0; i < c._len; i++) _sum += c.at8(i); }
+    @Override public void reduce(Sum s) { _sum += s._sum; }
+  }
+
+  // The allreduced result matches the tree-reduced one, with a key reused across tasks
+  @Test public void testAllreduce() {
+    Vec ones = Vec.makeCon(1.0, 100000, 8, true);
+    Key key = Key.make();
+    try {
+      for (int i = 0; i < 3; i++) {
+        Sum s = new Sum().allreduce(key).doAll(ones);
+        assertEquals(ones.length(), s._sum);
+      }
+      assertEquals(new Sum().doAll(ones)._sum, new Sum().allreduce(key).doAll(ones)._sum);
+    } finally {
+      AllReduce.removeAll(key);
+      ones.remove();
+    }
+  }
+
+  // Keeps its allreduced result on every node
+  private static class LocalSum extends MRTask<LocalSum> {
+    long _sum;
+    @Override public void map(Chunk c) { for (int i = 0; i < c._len; i++) _sum += c.at8(i); }
+    @Override public void reduce(LocalSum s) { _sum += s._sum; }
+    @Override protected void postAllreduce() { AllReduce.putLocal(allreduceKey(), _sum); }
+  }
+
+  // Sums the results kept on the nodes under a key, and counts the nodes with one
+  private static class LocalSums extends MRTask<LocalSums> {
+    private final Key _key;
+    long _sum;
+    int _nodes;
+    LocalSums(Key key) { _key = key; }
+    @Override public void setupLocal() {
+      Long s = AllReduce.getLocal(_key);
+      if (s != null) { _sum = s; _nodes = 1; }
+    }
+    @Override public void reduce(LocalSums ls) { _sum += ls._sum; _nodes += ls._nodes; }
+  }
+
+  // Every node keeps the allreduced result under a key of a job, until the job ends
+  @Test public void testAllreduceJobKey() {
+    final Vec ones = Vec.makeCon(1.0, 100000, 8, true);
+    final Job j = new Job(null, null, "Allreduce");
+    final Key[] key = new Key[1];
+    try {
+      j.start(new H2O.H2OCountedCompleter() {
+        @Override public void compute2() {
+          key[0] = AllReduce.key(j._key, "sum");
+          for (int i = 0; i < 2; i++) {
+            assertEquals(ones.length(), new LocalSum().allreduce(key[0]).doAll(ones)._sum);
+            LocalSums ls = new LocalSums(key[0]).doAllNodes();
+            assertEquals(H2O.CLOUD.size(), ls._nodes);
+            assertEquals(H2O.CLOUD.size() * ones.length(), ls._sum);
+          }
+          tryComplete();
+        }
+      }, 1).get();
+      assertEquals(0, new LocalSums(key[0]).doAllNodes()._nodes);
+      assertEquals(null, AllReduce.getLocal(key[0]));
+    } finally {
+      ones.remove();
+    }
+  }
+
   private static MRTask manyMaps(Vec vec) {
     return new MRTask() { 
       @Override public void map(Chunk cs[]) { }
@@ -0,0 +1,27 @@
+package water;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MRTopologyTest {
+
+  @Test
+  public void testEvenSplit() {
+    assertArrayEquals(new int[]{1, 2}, MRTopology.split(null, 1, 2, 2));
+    assertArrayEquals(new int[]{1, 32, 64}, MRTopology.split(null, 1, 64, 2));
+    assertArrayEquals(new int[]{1, 16, 32, 48, 64}, MRTopology.split(null, 1, 64, 4));
+    assertArrayEquals(new int[]{0, 1, 2, 3}, MRTopology.split(null, 0, 3, 8));
+  }
+
+  @Test
+  public void testRackSplit() {
+    String[] racks = {"a", "a", "a", "b", "b", "c", "c", "c", "c", "d"};
+    // One child per rack
+    assertArrayEquals(new int[]{1, 3, 5, 9, 10}, MRTopology.split(racks, 1, 10, 4));
+    // Fewer children than racks: the smallest neighbors merge
+    assertArrayEquals(new int[]{1, 5, 10}, MRTopology.split(racks, 1, 10, 2));
+    // A single rack splits evenly
+    assertArrayEquals(new int[]{5, 7, 9}, MRTopology.split(racks, 5, 9, 2));
+  }
+}
@@ -0,0 +1,108 @@
+package water;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+public class OffHeapTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  private int _off_heap_mb;
+  @Before public void enableOffHeap() { _off_heap_mb = H2O.ARGS.off_heap_mb; H2O.ARGS.off_heap_mb = 16; }
+  @After  public void restoreOffHeap() { H2O.ARGS.off_heap_mb = _off_heap_mb; }
+
+  // Move a Chunk off-heap, drop the on-heap forms, and read it back
+  @Test public void testOffHeapRoundTrip() {
+    Vec v = vec(1, 2, 3, 4, 5, 6, 7, 8);
+    try {
+      Value val = DKV.get(v.chunkKey(0));
+      byte[] bits = val.memOrLoad().clone();
+      long before = MemoryManager.offHeapUsed();
+      assertTrue(val.storeOffHeap());
+      assertTrue(val.isOffHeap());
+      assertEquals(before + val._max, MemoryManager.offHeapUsed());
+
+      val.freeMem();
+      val.freePOJO();
+      assertNull(val.rawMem());
+      assertTrue(Arrays.equals(bits, val.memOrLoad()));
+      Chunk c = val.get();
+      for( int i=0; i<c._len; i++ )
+        assertEquals(i+1, c.at8(i));
+      v.remove();
+      assertFalse(val.isOffHeap());
+      assertEquals(before, MemoryManager.offHeapUsed());
+      v = null;
+    } finally {
+      if( v != null ) v.remove();
+    }
+  }
+
+  // Values over the budget stay on heap, and the budget is not leaked
+  @Test public void testOffHeapBudget() {
+    H2O.ARGS.off_heap_mb = 1;
+    Key k = Key.make("offheap_budget");
+    Value val = new Value(k, new byte[(1<<20)+1]);
+    DKV.put(k, val);
+    try {
+      long before = MemoryManager.offHeapUsed();
+      assertFalse(val.storeOffHeap());
+      assertFalse(val.isOffHeap());
+      assertEquals(before, MemoryManager.offHeapUsed());
+    } finally {
+      DKV.remove(k);
+    }
+  }
+
+  // Above its high-water mark, the Cleaner writes old off-heap Values to disk
+  // and returns their budget
+  @Test public void testOffHeapEviction() throws InterruptedException {
+    H2O.ARGS.off_heap_mb = 1;
+    Vec v = Vec.makeCon(0, 24<<13, 13, false); // 64KB of doubles per Chunk
+    try {
+      new MRTask() {
+        @Override public void map(Chunk c) {
+          for( int i=0; i<c._len; i++ ) c.set(i, Math.sin(c.start()+i));
+        }
+      }.doAll(v);
+      long before = MemoryManager.offHeapUsed();
+      // Fill the tier with old Values, until one does not fit
+      ArrayList<Value> stored = new ArrayList<>();
+      for( int i=0; i<v.nChunks(); i++ ) {
+        Value val = DKV.get(v.chunkKey(i));
+        if( !val.storeOffHeap() ) break;
+        val.freeMem();
+        val.freePOJO();
+        val.touchAt(0);
+        stored.add(val);
+      }
+      assertTrue(stored.size() > 1 && stored.size() < v.nChunks());
+      assertTrue(MemoryManager.offHeapFull());
+
+      for( int i=0; i<100 && MemoryManager.offHeapFull(); i++ ) {
+        Cleaner.kick_store_cleaner();
+        Thread.sleep(100);
+      }
+      assertFalse(MemoryManager.offHeapFull());
+      long offHeap = 0;
+      int evicted = 0;
+      for( Value val : stored ) {
+        if( val.isOffHeap() ) offHeap += val._max;
+        else { assertTrue(val.isPersisted()); evicted++; }
+      }
+      assertTrue(evicted > 0);
+      assertEquals(before + offHeap, MemoryManager.offHeapUsed());
+      for( long row=0; row<v.length(); row++ )
+        assertEquals(Math.sin(row), v.at(row), 0);
+      v.remove();
+      assertEquals(before, MemoryManager.offHeapUsed());
+      v = null;
+    } finally {
+      if( v != null ) v.remove();
+    }
+  }
+}
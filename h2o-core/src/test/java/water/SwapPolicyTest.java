@@ -0,0 +1,55 @@
+package water;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+public class SwapPolicyTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testScores() {
+    Value small = new Value(Key.make("swap_small"), new byte[1<<10]);
+    Value big   = new Value(Key.make("swap_big"  ), new byte[1<<22]);
+    small.touchAt(1000);
+    big  .touchAt(1000);
+
+    SwapPolicy lru = SwapPolicy.make("lru");
+    assertEquals(lru.score(small), lru.score(big));
+
+    // Same age, but the big Value goes first
+    SwapPolicy gds = SwapPolicy.make("gds");
+    assertTrue(gds.score(big) < gds.score(small));
+
+    // Access counts decay on every sweep
+    SwapPolicy lfu = SwapPolicy.make("lfu");
+    small._hits = 8;
+    lfu.age(small);
+    assertEquals(4, lfu.score(small));
+  }
+
+  @Test public void testPinRunningFrames() {
+    Frame fr = new Frame(Key.<Frame>make(), new String[]{"a"}, new Vec[]{vec(1,2,3)});
+    try {
+      SwapPolicy pin = SwapPolicy.make("pin");
+      Value chk = DKV.get(fr.anyVec().chunkKey(0));
+      assertFalse(pin.pinned(chk));
+      ((SwapPolicy.PinRunning)pin).markInUse(fr);
+      assertTrue(pin.pinned(chk));
+    } finally {
+      fr.remove();
+    }
+  }
+
+  @Test public void testCounters() {
+    SwapPolicy lru = SwapPolicy.make("lru");
+    Value v = new Value(Key.make("swap_counted"), new byte[100]);
+    lru.swapped(v);
+    lru.reloaded(v);
+    lru.swapped(v);
+    assertEquals(200, lru.swappedBytes());
+    assertEquals(100, lru.reloadedBytes());
+    assertEquals(100, lru.reswappedBytes());
+  }
+}
@@ -0,0 +1,92 @@
+package water;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Small messages batched into datagrams with -useUDP, sent over loopback and
+ * split again as the UDP receiver does.
+ */
+public class UDPBatchTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testSmallMessages() throws IOException {
+    H2ONode.UDP_TCP_SendThread sender = H2O.SELF.new UDP_TCP_SendThread();
+    ByteBuffer[] msgs = new ByteBuffer[]{msg(10, 1), msg(40, 2), msg(3, 3), msg(200, 4), msg(17, 5)};
+    for( ByteBuffer m : msgs ) {
+      assertTrue(sender.fitsDatagram(m));
+      sender.batchDatagram(m);
+    }
+    AutoBuffer ab = roundTrip(sender);
+    assertEquals(UDP.udp.batch.ordinal(), ab.getCtrl());
+    assertEquals(H2O.H2O_PORT, ab.getPort());
+    assertMessages(msgs, UDPReceiverThread.unbatch(ab));
+  }
+
+  @Test public void testLoneMessage() throws IOException {
+    H2ONode.UDP_TCP_SendThread sender = H2O.SELF.new UDP_TCP_SendThread();
+    ByteBuffer m = msg(50, 7);
+    sender.batchDatagram(m);
+    AutoBuffer ab = roundTrip(sender);
+    // Sent as is, without the batch header
+    assertEquals(50, ab._size);
+    assertEquals(UDP.udp.ack.ordinal(), ab.getCtrl());
+    ab.getPort();
+    assertArrayEquals(Arrays.copyOfRange(m.array(), 3, 50), ab.getA1(50 - 3));
+  }
+
+  @Test public void testBatchBoundary() throws IOException {
+    H2ONode.UDP_TCP_SendThread sender = H2O.SELF.new UDP_TCP_SendThread();
+    // Batch header, then each message framed by its size and a sentinel
+    ByteBuffer first = msg(100, 1);
+    ByteBuffer last = msg(AutoBuffer.MTU - (1+2) - (2+100+1) - (2+1), 2);
+    sender.batchDatagram(first);
+    assertTrue(sender.fitsDatagram(last));
+    sender.batchDatagram(last);
+    // The datagram is exactly full: not even a 1 byte message goes in
+    assertFalse(sender.fitsDatagram(msg(1, 3)));
+    AutoBuffer ab = roundTrip(sender);
+    assertEquals(AutoBuffer.MTU, ab._size);
+    ab.getPort();
+    assertMessages(new ByteBuffer[]{first, last}, UDPReceiverThread.unbatch(ab));
+    // The next datagram starts empty
+    assertTrue(sender.fitsDatagram(last));
+    assertNull(sender.datagram());
+  }
+
+  // A message of n bytes, starting with its ctrl and port as any packet
+  private static ByteBuffer msg(int n, int seed) {
+    byte[] bs = new byte[n];
+    bs[0] = (byte)UDP.udp.ack.ordinal();
+    for( int i = 1; i < n; i++ ) bs[i] = (byte)(seed * 31 + i);
+    return ByteBuffer.wrap(bs);
+  }
+
+  // Send the datagram batched so far over loopback, and read it back in
+  private static AutoBuffer roundTrip(H2ONode.UDP_TCP_SendThread sender) throws IOException {
+    try( DatagramChannel in = DatagramChannel.open(); DatagramChannel out = DatagramChannel.open() ) {
+      in.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      out.send(sender.datagram(), in.getLocalAddress());
+      sender.clearDatagram();
+      ByteBuffer bb = ByteBuffer.allocate(AutoBuffer.BBP_SML._size);
+      in.receive(bb);
+      return new AutoBuffer(H2O.SELF, bb.array(), 0, bb.position());
+    }
+  }
+
+  private static void assertMessages(ByteBuffer[] expected, List<byte[]> actual) {
+    assertEquals(expected.length, actual.size());
+    for( int i = 0; i < expected.length; i++ )
+      assertArrayEquals(expected[i].array(), actual.get(i));
+  }
+}
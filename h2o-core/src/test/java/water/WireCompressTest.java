@@ -0,0 +1,192 @@
+package water;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.util.LZ4;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * TCP messages to a peer which offers wire compression, read back from a
+ * plain socket: the codec byte ahead of each message, the frames after it,
+ * and a reader taking compressed and raw messages in turn.
+ */
+public class WireCompressTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  private ServerSocketChannel _server;
+  private H2ONode _peer;
+  private boolean _wireCompress;
+  private int _wireCompressMin;
+  private ExecutorService _sender;
+
+  @Before public void open() throws IOException {
+    _server = ServerSocketChannel.open();
+    _server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    _peer = H2ONode.intern(InetAddress.getLoopbackAddress(), _server.socket().getLocalPort());
+    _peer._heartbeat._wire_compress = true;
+    _wireCompress = Paxos._wireCompress;
+    _wireCompressMin = H2O.ARGS.wire_compress_min;
+    Paxos._wireCompress = true;
+    H2O.ARGS.wire_compress_min = 16 << 10;
+    _sender = Executors.newSingleThreadExecutor();
+  }
+
+  @After public void close() throws IOException {
+    _sender.shutdownNow();
+    Paxos._wireCompress = _wireCompress;
+    H2O.ARGS.wire_compress_min = _wireCompressMin;
+    _server.close();
+  }
+
+  @Test public void testCodecAndFrames() throws Exception {
+    long msgs = AutoBuffer.wireMessages();
+    byte[] big = compressible(200 << 10);   // Several buffers
+    Future<?> f = send(big);
+    try( SocketChannel sock = accept() ) {
+      assertEquals(AutoBuffer.WIRE_LZ4, readFully(sock, 1)[0]);
+      assertTrue(readFrames(sock, message(big)) > 0);
+      handshake(sock, f);
+      assertEquals(msgs + 1, AutoBuffer.wireMessages());
+
+      // Above the threshold, within one buffer: known at close
+      byte[] mid = compressible(32 << 10);
+      f = send(mid);
+      assertEquals(AutoBuffer.WIRE_LZ4, readFully(sock, 1)[0]);
+      assertTrue(readFrames(sock, message(mid)) > 0);
+      handshake(sock, f);
+      assertEquals(msgs + 2, AutoBuffer.wireMessages());
+
+      // Over the MTU, so sent by TCP, but below the threshold
+      byte[] small = compressible(10 << 10);
+      f = send(small);
+      assertEquals(AutoBuffer.WIRE_RAW, readFully(sock, 1)[0]);
+      assertArrayEquals(message(small), readFully(sock, message(small).length));
+      handshake(sock, f);
+      assertEquals(msgs + 2, AutoBuffer.wireMessages());
+    }
+  }
+
+  @Test public void testPeerWithoutCompression() throws Exception {
+    // A peer which does not offer compression gets raw bytes whatever the size
+    _peer._heartbeat._wire_compress = false;
+    byte[] big = compressible(200 << 10);
+    Future<?> f = send(big);
+    try( SocketChannel sock = accept() ) {
+      assertEquals(AutoBuffer.WIRE_RAW, readFully(sock, 1)[0]);
+      assertArrayEquals(message(big), readFully(sock, message(big).length));
+      handshake(sock, f);
+    }
+  }
+
+  @Test public void testMixedPeer() throws Exception {
+    // Part random, part repetitive: both raw-stored and compressed frames
+    byte[] mixed = compressible(200 << 10);
+    byte[] noise = new byte[64 << 10];
+    new Random(42).nextBytes(noise);
+    System.arraycopy(noise, 0, mixed, 0, noise.length);
+    byte[] plain = compressible(100 << 10);
+    Future<?> f = send(mixed);
+    try( SocketChannel sock = accept() ) {
+      assertArrayEquals(mixed, receive(sock));
+      f.get();
+      // The peer stops offering compression: the same socket carries raw bytes
+      _peer._heartbeat._wire_compress = false;
+      f = send(plain);
+      assertArrayEquals(plain, receive(sock));
+      f.get();
+      _peer._heartbeat._wire_compress = true;
+      f = send(plain);
+      assertArrayEquals(plain, receive(sock));
+      f.get();
+    }
+  }
+
+  // Send payload to the peer from another thread, as close() waits for the
+  // reader's handshake
+  private Future<?> send(final byte[] payload) {
+    return _sender.submit(new Callable<Void>() {
+      @Override public Void call() {
+        new AutoBuffer(_peer, H2O.MIN_HI_PRIORITY).putUdp(UDP.udp.exec).putA1(payload).close();
+        return null;
+      }
+    });
+  }
+
+  // The sender's connection, past its startup bytes; the socket is pooled
+  // and reused for the following messages
+  private SocketChannel accept() throws IOException {
+    SocketChannel sock = _server.accept();
+    byte[] startup = readFully(sock, 4);
+    assertEquals(2, startup[0]);
+    assertEquals((byte)0xef, startup[3]);
+    return sock;
+  }
+
+  // Read a message as a node does, and its payload
+  private static byte[] receive(SocketChannel sock) throws IOException {
+    AutoBuffer ab = new AutoBuffer(sock, InetAddress.getLoopbackAddress());
+    byte[] payload = ab.getA1();
+    ab.close();                 // Sentinel, then the handshake
+    return payload;
+  }
+
+  // The bytes of a message of payload, as they are before compression
+  private static byte[] message(byte[] payload) {
+    return new AutoBuffer().putUdp(UDP.udp.exec).putA1(payload).put1(0xab).buf();
+  }
+
+  // Decode frames until all of expected was read, and check it; the number
+  // of frames which were compressed
+  private static int readFrames(SocketChannel sock, byte[] expected) throws IOException {
+    byte[] got = new byte[expected.length];
+    int off = 0, compressed = 0;
+    while( off < got.length ) {
+      ByteBuffer hdr = ByteBuffer.wrap(readFully(sock, 8));
+      int len = hdr.getInt(), clen = hdr.getInt();
+      assertTrue(len > 0 && len <= AutoBuffer.TCP_BUF_SIZ && off + len <= got.length);
+      if( clen == 0 ) System.arraycopy(readFully(sock, len), 0, got, off, len);
+      else {
+        assertTrue(clen < len);
+        LZ4.decompress(readFully(sock, clen), 0, clen, got, off, len);
+        compressed++;
+      }
+      off += len;
+    }
+    assertArrayEquals(expected, got);
+    return compressed;
+  }
+
+  private static void handshake(SocketChannel sock, Future<?> f) throws Exception {
+    sock.write(ByteBuffer.wrap(new byte[]{(byte)0xcd}));
+    f.get();
+  }
+
+  private static byte[] readFully(SocketChannel sock, int n) throws IOException {
+    ByteBuffer bb = ByteBuffer.allocate(n);
+    while( bb.hasRemaining() )
+      if( sock.read(bb) < 0 ) throw new EOFException("Read " + bb.position() + " of " + n + " bytes");
+    return bb.array();
+  }
+
+  private static byte[] compressible(int n) {
+    byte[] bs = new byte[n];
+    for( int i = 0; i < n; i++ ) bs[i] = (byte)((i / 64) % 7);
+    return bs;
+  }
+}
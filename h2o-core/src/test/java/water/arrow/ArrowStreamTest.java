@@ -0,0 +1,109 @@
+package water.arrow;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+public class ArrowStreamTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testRoundTrip() throws Exception {
+    Frame fr = new TestFrameBuilder()
+        .withName("arrowIn")
+        .withColNames("i", "d", "c", "s")
+        .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+        .withDataForCol(0, ard(1, 2, Double.NaN, -4, 5))
+        .withDataForCol(1, ard(0.5, Double.NaN, 2.25, -1e10, 3))
+        .withDataForCol(2, ar("a", "b", null, "a", "c"))
+        .withDataForCol(3, ar("x", null, "", "zz", "\u00e9t\u00e9"))
+        .withChunkLayout(2, 3)
+        .build();
+    Frame res = null;
+    try {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      ArrowStreamWriter.write(fr, os);
+      res = ArrowStreamReader.read(Key.<Frame>make("arrowOut"), new ByteArrayInputStream(os.toByteArray()));
+      assertArrayEquals(fr.names(), res.names());
+      assertEquals(2, res.anyVec().nChunks());
+      assertTrue(res.vec(2).isCategorical());
+      assertTrue(res.vec(3).isString());
+      assertArrayEquals(fr.vec(2).domain(), res.vec(2).domain());
+      assertTrue(isBitIdentical(fr, res));
+    } finally {
+      fr.delete();
+      if( res != null ) res.delete();
+    }
+  }
+
+  // A stream laid out the way pyarrow writes it (metadata V5, continuation
+  // markers, flatbuffers built back to front with shared vtables and no
+  // default fields), encoded from the Arrow format spec independently of
+  // ArrowStreamWriter.  It is the frame of testRoundTrip in one record batch,
+  // and what pyarrow writes for:
+  //   t = pa.table({"i": pa.array([1, 2, None, -4, 5], pa.int64()),
+  //                 "d": [0.5, None, 2.25, -1e10, 3.0],
+  //                 "c": pa.array(["a", "b", None, "a", "c"]).dictionary_encode(),
+  //                 "s": ["x", None, "", "zz", "\u00e9t\u00e9"]})
+  //   with pa.ipc.new_stream(sink, t.schema) as w: w.write_table(t)
+  private static final String GOLDEN =
+    "ffffffff280100001000000000000a000c000600050008000a000000000104000400000090ffffff0400000004000000" +
+    "c8000000880000003c0000000400000058ffffff000005011800000010000000040000000100000073000000acffffff" +
+    "000000001000180014000700060010000c00080010000000000005013c0000001c000000300000000400000001000000" +
+    "630000000800080000000400080000000400000090ffffff0000000120000000040004000400000000000000d4ffffff" +
+    "000003012000000014000000040000000100000064000600080006000600000000000200000000001000140010000700" +
+    "06000c00000008001000000000000201280000001800000004000000010000006900000008000c000800070008000000" +
+    "00000001400000000000000000000000ffffffffa800000014000000000000000c0014000600050008000c000c000000" +
+    "0002040014000000180000000000000008000a0000000400080000001000000000000a0018000c00080004000a000000" +
+    "2c0000001000000003000000000000000000000001000000030000000000000000000000000000000000000003000000" +
+    "000000000000000000000000000000000000000000000000100000000000000010000000000000000300000000000000" +
+    "000000000100000002000000030000006162630000000000ffffffff2801000014000000000000000c00160006000500" +
+    "08000c000c0000000003040018000000a80000000000000000000a0018000c00080004000a0000005c00000010000000" +
+    "050000000000000000000000040000000500000000000000010000000000000005000000000000000100000000000000" +
+    "050000000000000001000000000000000500000000000000010000000000000000000000090000000000000000000000" +
+    "010000000000000008000000000000002800000000000000300000000000000001000000000000003800000000000000" +
+    "280000000000000060000000000000000100000000000000680000000000000014000000000000008000000000000000" +
+    "010000000000000088000000000000001800000000000000a00000000000000008000000000000001b00000000000000" +
+    "010000000000000002000000000000000000000000000000fcffffffffffffff05000000000000001d00000000000000" +
+    "000000000000e03f00000000000000000000000000000240000000205fa002c200000000000008401b00000000000000" +
+    "0000000001000000000000000000000002000000000000001d0000000000000000000000010000000100000001000000" +
+    "0300000008000000787a7ac3a974c3a9ffffffff00000000";
+
+  @Test public void testGoldenStream() throws Exception {
+    Frame fr = new TestFrameBuilder()
+        .withName("arrowExpected")
+        .withColNames("i", "d", "c", "s")
+        .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+        .withDataForCol(0, ard(1, 2, Double.NaN, -4, 5))
+        .withDataForCol(1, ard(0.5, Double.NaN, 2.25, -1e10, 3))
+        .withDataForCol(2, ar("a", "b", null, "a", "c"))
+        .withDataForCol(3, ar("x", null, "", "zz", "\u00e9t\u00e9"))
+        .build();
+    Frame res = null;
+    try {
+      res = ArrowStreamReader.read(Key.<Frame>make("arrowGolden"), new ByteArrayInputStream(unhex(GOLDEN)));
+      assertArrayEquals(fr.names(), res.names());
+      assertEquals(1, res.anyVec().nChunks());
+      assertArrayEquals(new String[]{"a", "b", "c"}, res.vec(2).domain());
+      assertTrue(res.vec(3).isString());
+      assertTrue(isBitIdentical(fr, res));
+    } finally {
+      fr.delete();
+      if( res != null ) res.delete();
+    }
+  }
+
+  private static byte[] unhex(String s) {
+    byte[] bs = new byte[s.length() >> 1];
+    for( int i = 0; i < bs.length; i++ )
+      bs[i] = (byte)Integer.parseInt(s.substring(2*i, 2*i+2), 16);
+    return bs;
+  }
+}
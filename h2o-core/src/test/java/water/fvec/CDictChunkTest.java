@@ -0,0 +1,97 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+import water.util.UnsafeUtils;
+
+import java.util.Random;
+
+public class CDictChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static void check(double[] vals, Chunk cc) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) {
+      if (Double.isNaN(vals[i])) Assert.assertTrue(cc.isNA(i));
+      else Assert.assertEquals(vals[i], cc.atd(i), 0);
+    }
+  }
+
+  private static Chunk compress(double[] vals) {
+    NewChunk nc = new NewChunk(null, 0);
+    for (double d : vals)
+      if (Double.isNaN(d)) nc.addNA(); else nc.addNum(d);
+    return nc.compress();
+  }
+
+  @Test
+  public void test_prices() {
+    // Few distinct prices in random order, plus NAs: no runs to exploit
+    double[] prices = new double[]{19.99, 4.75, 1e6 + 0.01, 0.333333333, Double.NaN, 12.5};
+    Random rnd = new Random(1234);
+    double[] vals = new double[5000];
+    for (int i = 0; i < vals.length; ++i) vals[i] = prices[rnd.nextInt(prices.length)];
+    Chunk cc = compress(vals);
+    Assert.assertTrue(cc instanceof CDictChunk);
+    Assert.assertEquals(prices.length, ((CDictChunk) cc).dictSize());
+    // 6 values need 4 bits per row
+    Assert.assertEquals(CDictChunk.byteSize(prices.length, vals.length), cc._mem.length);
+    check(vals, cc);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CDictChunk);
+    check(vals, cc2);
+    check(vals, cc.extractRows(new NewChunk(null, 0), 0, vals.length));
+
+    // Values already in the dictionary can be written in place
+    Assert.assertTrue(cc.set_impl(7, 12.5));
+    Assert.assertEquals(12.5, cc.atd(7), 0);
+    Assert.assertTrue(cc.setNA_impl(8));
+    Assert.assertTrue(cc.isNA(8));
+    Assert.assertFalse(cc.set_impl(9, 1.0));
+  }
+
+  @Test
+  public void test_codes() {
+    // Three large integer codes: 2 bits per row instead of 4 bytes
+    long[] codes = new long[]{100000000L, -7L, 2000000000L};
+    Random rnd = new Random(4321);
+    double[] vals = new double[2048];
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < vals.length; ++i) {
+      long c = codes[rnd.nextInt(codes.length)];
+      vals[i] = c;
+      nc.addNum(c, 0);
+    }
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CDictChunk);
+    Assert.assertFalse(cc.hasFloat());
+    check(vals, cc);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals((long) vals[i], cc.at8(i));
+  }
+
+  private static Chunk c8d(double[] vals) {
+    byte[] bs = new byte[vals.length << 3];
+    for (int i = 0; i < vals.length; ++i) UnsafeUtils.set8d(bs, i << 3, vals[i]);
+    return new C8DChunk(bs);
+  }
+
+  @Test
+  public void test_sampleCheck() {
+    // Distinct values throughout: given up on from the sample alone
+    Random rnd = new Random(42);
+    double[] vals = new double[4096];
+    for (int i = 0; i < vals.length; ++i) vals[i] = rnd.nextDouble();
+    Chunk cc = compress(vals);
+    Assert.assertTrue(cc instanceof C8DChunk);
+    Assert.assertFalse(NewChunk.mayRunOrDict(cc, cc._len, (int) (0.8 * cc._mem.length)));
+    // Few values, or long runs: worth the full check
+    for (int i = 0; i < vals.length; ++i) vals[i] = i % 3 + 0.5;
+    Assert.assertTrue(NewChunk.mayRunOrDict(c8d(vals), vals.length, (int) (0.8 * 8 * vals.length)));
+    for (int i = 0; i < vals.length; ++i) vals[i] = i / 1024 + 0.5;
+    Assert.assertTrue(NewChunk.mayRunOrDict(c8d(vals), vals.length, (int) (0.8 * 8 * vals.length)));
+  }
+}
@@ -0,0 +1,73 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+public class CRLEChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static void check(double[] vals, Chunk cc) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) {
+      if (Double.isNaN(vals[i])) Assert.assertTrue(cc.isNA(i));
+      else Assert.assertEquals(vals[i], cc.atd(i), 0);
+    }
+    // Random access order too
+    for (int i = vals.length - 1; i >= 0; i -= 7)
+      Assert.assertEquals(vals[i], cc.atd(i), 0);
+  }
+
+  @Test
+  public void test_sorted_longs() {
+    // A sorted key column: 20 runs of 100 equal values, one run of NAs
+    double[] vals = new double[2000];
+    for (int i = 0; i < vals.length; ++i)
+      vals[i] = i < 100 ? Double.NaN : 1000000007L * (i / 100);
+    NewChunk nc = new NewChunk(null, 0);
+    for (double d : vals)
+      if (Double.isNaN(d)) nc.addNA(); else nc.addNum((long) d, 0);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    Assert.assertEquals(20, ((CRLEChunk) cc).numRuns());
+    Assert.assertFalse(cc.hasFloat());
+    check(vals, cc);
+    Assert.assertEquals(1000000007L * 19, cc.at8(vals.length - 1));
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CRLEChunk);
+    check(vals, cc2);
+
+    nc = cc.extractRows(new NewChunk(null, 0), 0, vals.length);
+    check(vals, nc);
+    nc = cc.extractRows(new NewChunk(null, 0), 150, 450);
+    for (int i = 0; i < nc._len; ++i) Assert.assertEquals(vals[150 + i], nc.atd(i), 0);
+
+    // Writes keeping the runs intact are fine, others are not
+    Assert.assertTrue(cc.set_impl(250, vals[250]));
+    Assert.assertFalse(cc.set_impl(250, 3.0));
+  }
+
+  @Test
+  public void test_sorted_doubles() {
+    double[] vals = new double[4096];
+    for (int i = 0; i < vals.length; ++i)
+      vals[i] = Math.PI * (i >> 9);
+    NewChunk nc = new NewChunk(null, 0);
+    for (double d : vals) nc.addNum(d);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    Assert.assertTrue(cc.hasFloat());
+    check(vals, cc);
+    Assert.assertTrue(cc.byteSize() < vals.length);
+  }
+
+  @Test
+  public void test_short_chunks_unchanged() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < NewChunk.MIN_RLE_DICT_LEN - 1; ++i) nc.addNum(i / 100, 0);
+    Assert.assertFalse(nc.compress() instanceof CRLEChunk);
+  }
+}
@@ -0,0 +1,100 @@
+package water.fvec;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.Random;
+import water.TestUtil;
+
+public class ChunkDecodeTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  private static final int LEN = 1000;
+
+  // One column per interesting compression; NaN marks a missing row
+  private static double[][] columns() {
+    Random rnd = new Random(0xdec0de);
+    double[][] cols = new double[15][LEN];
+    double[] uniques = new double[]{Math.PI, Math.E, Math.sqrt(2), Double.NaN};
+    for( int i = 0; i < LEN; i++ ) {
+      cols[ 0][i] = i%7 == 0 ? Double.NaN : i%200;           // C1
+      cols[ 1][i] = i%200;                                   // C1N
+      cols[ 2][i] = i%11 == 0 ? Double.NaN : i*30-10000;     // C2
+      cols[ 3][i] = i%13 == 0 ? Double.NaN : i*1000003L;     // C4
+      cols[ 4][i] = i%17 == 0 ? Double.NaN : i*(1L<<40);     // C8
+      cols[ 5][i] = i%5  == 0 ? Double.NaN : (i%100)/100.0;  // scaled
+      cols[ 6][i] = i%19 == 0 ? Double.NaN : rnd.nextDouble();// C8D
+      cols[ 7][i] = 42;                                      // C0L
+      cols[ 8][i] = 0.25;                                    // C0D
+      cols[ 9][i] = Double.NaN;                              // C0D, all NA
+      cols[10][i] = i%9 == 0 ? Double.NaN : i&1;             // CBS
+      cols[11][i] = i%97 == 0 ? i : (i%401 == 0 ? Double.NaN : 0); // CXI, zero-sparse
+      cols[12][i] = i%89 == 0 ? i : Double.NaN;              // CXI, NA-sparse
+      cols[13][i] = i%83 == 0 ? i+0.5 : 0;                   // CXF
+      cols[14][i] = uniques[rnd.nextInt(uniques.length)];    // CUD
+    }
+    return cols;
+  }
+
+  private static Chunk compress( double[] vals ) {
+    NewChunk nc = new NewChunk(null, 0);
+    for( double d : vals ) {
+      if( Double.isNaN(d) ) nc.addNA();
+      else if( d == (long)d ) nc.addNum((long)d,0);
+      else nc.addNum(d);
+    }
+    return nc.compress();
+  }
+
+  private static void check( Chunk c, int from, int to ) {
+    int n = to-from;
+    double[] ds = new double[n];
+    long[] ls = new long[n];
+    long[] nas = new long[(n+63)>>6];
+    java.util.Arrays.fill(nas,-1L); // decode must clear stale bits
+    int cnt = c.decode(ds,nas,from,to);
+    int expected = 0;
+    for( int i = 0; i < n; i++ ) {
+      boolean na = c.isNA(from+i);
+      if( na ) expected++;
+      assertEquals(c+" row "+(from+i), na, Chunk.isNA(nas,i));
+      if( na ) assertTrue(Double.isNaN(ds[i]));
+      else assertEquals(c+" row "+(from+i), c.atd(from+i), ds[i], 0);
+    }
+    assertEquals(c.toString(), expected, cnt);
+
+    java.util.Arrays.fill(nas,-1L);
+    assertEquals(c.toString(), expected, c.decode(ls,nas,from,to));
+    for( int i = 0; i < n; i++ ) {
+      boolean na = c.isNA(from+i);
+      assertEquals(na, Chunk.isNA(nas,i));
+      assertEquals(c+" row "+(from+i), na ? Chunk.LONG_NA : c.at8(from+i), ls[i]);
+    }
+    // No bitmap at all is fine too
+    assertEquals(expected, c.decode(ds,null,from,to));
+  }
+
+  @Test public void testDecodeAllChunkTypes() {
+    for( double[] col : columns() ) {
+      Chunk c = compress(col);
+      check(c, 0, c._len);
+      check(c, 37, c._len-5);
+      check(c, 100, 101);
+    }
+  }
+
+  @Test public void testDecodeSeesWrites() {
+    Vec v = vec(1,2,3,4,5);
+    try {
+      Chunk c = v.chunkForChunkIdx(0);
+      c.set(3, Double.NaN);     // Inflates into _chk2
+      double[] ds = new double[c._len];
+      long[] nas = new long[1];
+      assertEquals(1, c.decode(ds,nas,0,c._len));
+      assertTrue(Chunk.isNA(nas,3));
+      assertEquals(3, ds[2], 0);
+    } finally {
+      v.remove();
+    }
+  }
+}
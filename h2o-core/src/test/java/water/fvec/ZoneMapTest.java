@@ -0,0 +1,86 @@
+package water.fvec;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import water.TestUtil;
+import water.rapids.Rapids;
+import water.rapids.Val;
+
+public class ZoneMapTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  // 0..99 in 4 chunks of 25 rows, with row 10 missing
+  private static Frame sortedFrame() {
+    double[] ds = new double[100];
+    for( int i = 0; i < ds.length; i++ ) ds[i] = i == 10 ? Double.NaN : i;
+    Frame fr = new TestFrameBuilder()
+        .withName("zdata")
+        .withColNames("x")
+        .withVecTypes(Vec.T_NUM)
+        .withDataForCol(0, ds)
+        .withChunkLayout(25, 25, 25, 25)
+        .build();
+    fr.anyVec().min();          // Compute the rollups, and with them the zone map
+    return fr;
+  }
+
+  @Test public void testZoneMap() {
+    Frame fr = sortedFrame();
+    try {
+      ZoneMap zm = ZoneMap.get(fr.anyVec());
+      assertNotNull(zm);
+      assertEquals(4, zm.nChunks());
+      assertEquals(0, zm.min(0), 0);
+      assertEquals(24, zm.max(0), 0);
+      assertEquals(1, zm.naCnt(0));
+      assertEquals(75, zm.min(3), 0);
+      assertEquals(99, zm.max(3), 0);
+      assertEquals(0, zm.naCnt(3));
+      assertFalse(zm.isAllNA(3));
+      // Writes throw the zone map away, with the rollups
+      fr.anyVec().set(0, 1000);
+      assertNull(ZoneMap.get(fr.anyVec()));
+      assertEquals(1000, fr.anyVec().max(), 0);
+      assertEquals(1000, ZoneMap.get(fr.anyVec()).max(0), 0);
+    } finally {
+      fr.delete();
+    }
+  }
+
+  @Test public void testRowSlicePrunesChunks() {
+    Frame fr = sortedFrame();
+    Frame res = null;
+    try {
+      long pruned = ZoneMap.prunedChunks();
+      Val val = Rapids.exec("(rows zdata (> zdata 80))");
+      res = val.getFrame();
+      // 3 chunks skipped by the comparison, and the same 3 by the selection
+      assertEquals(6, ZoneMap.prunedChunks() - pruned);
+      assertEquals(19, res.numRows());
+      assertEquals(81, res.anyVec().at(0), 0);
+      assertEquals(99, res.anyVec().at(18), 0);
+    } finally {
+      fr.delete();
+      if( res != null ) res.delete();
+    }
+  }
+
+  @Test public void testWhichPrunesChunks() {
+    Frame fr = sortedFrame();
+    Frame res = null;
+    try {
+      long pruned = ZoneMap.prunedChunks();
+      Val val = Rapids.exec("(which (<= zdata 20))");
+      res = val.getFrame();
+      // 3 chunks skipped by the comparison, and the same 3 by which
+      assertEquals(6, ZoneMap.prunedChunks() - pruned);
+      assertEquals(20, res.numRows()); // 0..20 less the missing row 10
+      assertEquals(0, res.anyVec().at(0), 0);
+      assertEquals(20, res.anyVec().at(19), 0);
+    } finally {
+      fr.delete();
+      if( res != null ) res.delete();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package water.parser;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import water.*;
+import water.fvec.ByteVec;
+import water.fvec.C1NChunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+public class ParallelInflateTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  private static byte[] csv(int nrows) {
+    StringBuilder sb = new StringBuilder("a,b,c\n");
+    for( int i = 0; i < nrows; i++ )
+      sb.append(i).append(',').append(i * 0.5).append(",level").append(i % 7).append('\n');
+    return StringUtils.bytesOf(sb);
+  }
+
+  // BGZF as written by bgzip: a gzip member per block, sized in a BC extra
+  // field, and an empty member at the end
+  private static byte[] bgzf(byte[] data, int blockSize) {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    for( int off = 0; off < data.length; off += blockSize )
+      bgzfBlock(os, data, off, Math.min(blockSize, data.length - off));
+    bgzfBlock(os, data, 0, 0);
+    return os.toByteArray();
+  }
+
+  private static void bgzfBlock(ByteArrayOutputStream os, byte[] data, int off, int len) {
+    byte[] buf = new byte[len + 1024];
+    Deflater def = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    def.setInput(data, off, len);
+    def.finish();
+    int clen = def.deflate(buf);
+    def.end();
+    CRC32 crc = new CRC32();
+    crc.update(data, off, len);
+    int bsize = 18 + clen + 8;
+    os.write(new byte[]{0x1f, (byte)0x8b, 8, 4, 0, 0, 0, 0, 0, (byte)0xff, 6, 0, 'B', 'C', 2, 0,
+        (byte)(bsize - 1), (byte)((bsize - 1) >> 8)}, 0, 18);
+    os.write(buf, 0, clen);
+    writeInt(os, (int)crc.getValue());
+    writeInt(os, len);
+  }
+
+  private static void writeInt(ByteArrayOutputStream os, int i) {
+    os.write(i); os.write(i >>> 8); os.write(i >>> 16); os.write(i >>> 24);
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    GZIPOutputStream gos = new GZIPOutputStream(os);
+    gos.write(data);
+    gos.close();
+    return os.toByteArray();
+  }
+
+  // A ByteVec over the bytes, in chunks of the given size
+  private static Key makeByteVec(byte[] bytes, int chunkSize) {
+    Futures fs = new Futures();
+    int nchks = (bytes.length + chunkSize - 1) / chunkSize;
+    long[] espc = new long[nchks + 1];
+    for( int i = 0; i < nchks; i++ ) espc[i+1] = Math.min(bytes.length, espc[i] + chunkSize);
+    Key k = Vec.newKey();
+    ByteVec bv = new ByteVec(k, Vec.ESPC.rowLayout(k, espc));
+    DKV.put(k, bv, fs);
+    for( int i = 0; i < nchks; i++ ) {
+      Key ck = bv.chunkKey(i);
+      DKV.put(ck, new Value(ck, new C1NChunk(Arrays.copyOfRange(bytes, (int)espc[i], (int)espc[i+1]))), fs);
+    }
+    fs.blockForPending();
+    return k;
+  }
+
+  @Test public void testBGZFIndexAndInflateRange() throws IOException {
+    byte[] data = csv(20000);
+    Key k = makeByteVec(bgzf(data, 5000), 3000); // Blocks straddle the compressed chunks
+    try {
+      ByteVec vec = DKV.getGet(k);
+      long[][] idx = ParallelInflate.bgzfIndex(vec);
+      assertNotNull(idx);
+      assertEquals(0, idx[1][0]);
+      assertEquals(data.length, idx[1][idx[1].length-1]);
+      assertEquals(vec.length(), idx[0][idx[0].length-1]);
+      long[][] ranges = {{0, data.length}, {0, 1}, {4999, 5001}, {12345, 23456}, {data.length - 10, data.length}};
+      for( long[] r : ranges )
+        assertArrayEquals(Arrays.copyOfRange(data, (int)r[0], (int)r[1]),
+            ParallelInflate.inflateRange(vec, idx[0], idx[1], r[0], r[1]));
+    } finally {
+      Keyed.remove(k);
+    }
+  }
+
+  @Test public void testPlainGzipIsNotBGZF() throws IOException {
+    Key k = makeByteVec(gzip(csv(100)), 1000);
+    try {
+      assertNull(ParallelInflate.bgzfIndex((ByteVec)DKV.getGet(k)));
+    } finally {
+      Keyed.remove(k);
+    }
+  }
+
+  // Parse in 16K chunks, also those of the input
+  private static Frame parse(byte[] bytes) {
+    Key k = makeByteVec(bytes, 1 << 14);
+    ParseSetup setup = ParseSetup.guessSetup(new Key[]{k}, false, ParseSetup.HAS_HEADER);
+    setup._chunk_size = 1 << 14;
+    return ParseDataset.parse(Key.make(), new Key[]{k}, true, setup);
+  }
+
+  @Test public void testParseMatchesPlain() throws IOException {
+    byte[] data = csv(50000);
+    Frame plain = null, bgz = null, gz = null;
+    try {
+      plain = parse(data);
+      bgz = parse(bgzf(data, 1 << 16));
+      gz = parse(gzip(data));
+      assertEquals(50000, plain.numRows());
+      assertTrue(plain.anyVec().nChunks() > 1);
+      assertEquals(plain.anyVec().nChunks(), bgz.anyVec().nChunks()); // Parsed in parallel chunks
+      assertTrue(isBitIdentical(plain, bgz));
+      assertTrue(isBitIdentical(plain, gz));
+    } finally {
+      if( plain != null ) plain.delete();
+      if( bgz != null ) bgz.delete();
+      if( gz != null ) gz.delete();
+    }
+  }
+}
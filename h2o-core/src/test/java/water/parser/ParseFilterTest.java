@@ -0,0 +1,36 @@
+package water.parser;
+
+import org.junit.Test;
+import water.exceptions.H2OIllegalArgumentException;
+
+import static org.junit.Assert.*;
+
+public class ParseFilterTest {
+
+  @Test
+  public void parse() throws Exception {
+    ParseFilter f = ParseFilter.parse(" Dep Delay >= -1.5 ");
+    assertEquals("Dep Delay", f._column);
+    assertEquals(ParseFilter.Op.GE, f._op);
+    assertEquals(-1.5, f._value, 0);
+    assertEquals(ParseFilter.Op.LT, ParseFilter.parse("x<3")._op);
+    assertEquals(ParseFilter.Op.EQ, ParseFilter.parse("x == 3")._op);
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void parseNonNumeric() throws Exception {
+    ParseFilter.parse("x > abc");
+  }
+
+  @Test
+  public void mayMatch() throws Exception {
+    assertFalse(ParseFilter.parse("x > 10").mayMatch(0, 10));
+    assertTrue(ParseFilter.parse("x >= 10").mayMatch(0, 10));
+    assertFalse(ParseFilter.parse("x < 0").mayMatch(0, 10));
+    assertTrue(ParseFilter.parse("x <= 0").mayMatch(0, 10));
+    assertTrue(ParseFilter.parse("x == 5").mayMatch(0, 10));
+    assertFalse(ParseFilter.parse("x == 11").mayMatch(0, 10));
+    assertTrue(ParseFilter.parse("x == 11").mayMatch(Double.NaN, Double.NaN));
+  }
+
+}
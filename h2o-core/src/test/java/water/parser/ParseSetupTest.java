@@ -1,6 +1,8 @@
 package water.parser;
 
 import org.junit.Test;
+import water.exceptions.H2OIllegalArgumentException;
+import water.fvec.Vec;
 
 import static org.junit.Assert.*;
 
@@ -24,4 +26,28 @@ public class ParseSetupTest {
     assertFalse(p.isNA(3, new BufferedString("NA")));
   }
 
+  @Test
+  public void projectColumns() throws Exception {
+    ParseSetup p = new ParseSetup();
+    p._number_columns = 4;
+    p._column_names = new String[]{"a", "b", "c", "d"};
+    p._column_types = new byte[]{Vec.T_NUM, Vec.T_STR, Vec.T_CAT, Vec.T_TIME};
+    p._na_strings = new String[][]{null, new String[]{"NA"}, null, new String[]{"never"}};
+    p.setSkippedColumns(new int[]{2, 0});
+
+    assertArrayEquals(new int[]{1, 3}, p.keptColumns(4));
+    p.projectColumns();
+    assertEquals(2, p._number_columns);
+    assertArrayEquals(new String[]{"b", "d"}, p.getColumnNames());
+    assertArrayEquals(new byte[]{Vec.T_STR, Vec.T_TIME}, p.getColumnTypes());
+    assertArrayEquals(new String[]{"never"}, p._na_strings[1]);
+  }
+
+  @Test(expected = H2OIllegalArgumentException.class)
+  public void projectAllColumns() throws Exception {
+    ParseSetup p = new ParseSetup();
+    p.setSkippedColumns(new int[]{0, 1});
+    p.keptColumns(2);
+  }
+
 }
\ No newline at end of file
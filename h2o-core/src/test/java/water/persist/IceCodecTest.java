@@ -0,0 +1,63 @@
+package water.persist;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import water.H2O;
+import water.Key;
+import water.TestUtil;
+import water.TypeMap;
+import water.Value;
+
+public class IceCodecTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  private boolean _compress;
+  @Before public void enable() { _compress = H2O.ARGS.ice_compress; H2O.ARGS.ice_compress = true; }
+  @After  public void restore() { H2O.ARGS.ice_compress = _compress; }
+
+  private static Value val( byte[] b ) { return new Value(Key.make(), b.length, b, TypeMap.PRIM_B, Value.ICE); }
+
+  @Test public void testRoundTrip() throws Exception {
+    byte[] b = new byte[10000];
+    for( int i=0; i<b.length; i++ ) b[i] = (byte)(i%7);
+    Value v = val(b);
+    byte[] enc = IceCodec.encode(v, b);
+    assertTrue(enc.length < b.length - (b.length>>3));
+    assertTrue(Arrays.equals(b, IceCodec.decode(v, enc, enc.length)));
+  }
+
+  @Test public void testIncompressibleStaysRaw() throws Exception {
+    byte[] b = new byte[10000];
+    new Random(42).nextBytes(b);
+    Value v = val(b);
+    byte[] enc = IceCodec.encode(v, b);
+    assertSame(b, enc);
+    assertSame(b, IceCodec.decode(v, enc, enc.length));
+  }
+
+  @Test public void testDisabledOrTiny() throws Exception {
+    byte[] tiny = new byte[IceCodec.MIN_SIZE-1];
+    assertSame(tiny, IceCodec.encode(val(tiny), tiny));
+    H2O.ARGS.ice_compress = false;
+    byte[] b = new byte[10000];
+    assertSame(b, IceCodec.encode(val(b), b));
+  }
+
+  // A short stored form which is not a whole compressed Value is a partial
+  // write or a racy delete: no value, rather than a corrupt one
+  @Test public void testShortIsMissing() throws Exception {
+    byte[] b = new byte[10000];
+    for( int i=0; i<b.length; i++ ) b[i] = (byte)(i%7);
+    Value v = val(b);
+    byte[] enc = IceCodec.encode(v, b);
+    assertTrue(enc.length < b.length);
+    assertNull(IceCodec.decode(v, enc, enc.length-1));
+    assertNull(IceCodec.decode(v, enc, IceCodec.HEADER));
+    assertNull(IceCodec.decode(v, b, b.length/2)); // Partial raw write
+    byte[] padded = Arrays.copyOf(enc, enc.length+10);
+    assertTrue(Arrays.equals(b, IceCodec.decode(v, padded, enc.length)));
+  }
+}
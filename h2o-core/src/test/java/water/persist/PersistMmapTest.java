@@ -0,0 +1,62 @@
+package water.persist;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.io.File;
+import java.util.Arrays;
+import water.Key;
+import water.TestUtil;
+import water.Value;
+
+public class PersistMmapTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  private static final int SEG = 1<<16;
+
+  private static Value val( String name, int len ) {
+    byte[] b = new byte[len];
+    for( int i=0; i<len; i++ ) b[i] = (byte)(i*31+name.length());
+    return new Value(Key.make(name), len, b, water.TypeMap.PRIM_B, Value.ICE);
+  }
+
+  @Test public void testStoreLoadDelete() throws Exception {
+    File root = new File(System.getProperty("java.io.tmpdir"), "mmap_ice_"+System.nanoTime());
+    PersistMmap pm = new PersistMmap(root, SEG);
+    try {
+      Value[] vs = new Value[10];
+      for( int i=0; i<vs.length; i++ ) {
+        vs[i] = val("mmap_"+i, SEG/4);
+        pm.store(vs[i]);
+        vs[i].setDsk();
+      }
+      // 10 quarter-segment values span 3 segments
+      assertEquals(3L*SEG, pm.getMappedBytes());
+      for( Value v : vs )
+        assertTrue(Arrays.equals(v.memOrLoad(), pm.load(v)));
+
+      // Deleting the first 4 Values kills the first segment outright
+      for( int i=0; i<4; i++ ) pm.delete(vs[i]);
+      assertEquals(2L*SEG, pm.getMappedBytes());
+
+      // Half-dead second segment gets compacted on the next store
+      pm.delete(vs[4]); pm.delete(vs[5]);
+      Value big = val("mmap_big", SEG/2);
+      pm.store(big);
+      big.setDsk();
+      for( int i=6; i<vs.length; i++ )
+        assertTrue(Arrays.equals(vs[i].memOrLoad(), pm.load(vs[i])));
+      assertTrue(Arrays.equals(big.memOrLoad(), pm.load(big)));
+
+      // Values too large for a segment go to their own file
+      Value huge = val("mmap_huge", SEG+1);
+      pm.store(huge);
+      huge.setDsk();
+      assertTrue(Arrays.equals(huge.memOrLoad(), pm.load(huge)));
+      pm.delete(huge);
+    } finally {
+      pm.cleanUp();
+      root.delete();
+    }
+  }
+}
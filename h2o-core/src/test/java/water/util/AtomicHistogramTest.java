@@ -0,0 +1,52 @@
+package water.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AtomicHistogramTest {
+
+  @Test
+  public void testBuckets() {
+    for (int i = 0; i < AtomicHistogram.NBUCKETS; i++) {
+      long lo = AtomicHistogram.lowest(i), hi = AtomicHistogram.highest(i);
+      assertEquals(i, AtomicHistogram.bucket(lo));
+      assertEquals(i, AtomicHistogram.bucket(hi));
+      if (i > 0) assertEquals(AtomicHistogram.highest(i - 1) + 1, lo);
+      assertTrue(hi - lo <= Math.max(0, lo / 16));
+    }
+    assertEquals(AtomicHistogram.NBUCKETS - 1, AtomicHistogram.bucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testQuantiles() {
+    AtomicHistogram h = new AtomicHistogram();
+    for (int v = 1; v <= 10000; v++) h.record(v);
+    AtomicHistogram.Snapshot s = h.snapshot();
+    assertEquals(10000, s.count());
+    assertEquals(10000L * 10001 / 2, s.sum());
+    assertEquals(10000, s.max());
+    assertEquals(5000, s.quantile(0.5), 5000 / 16);
+    assertEquals(9900, s.quantile(0.99), 9900 / 16);
+    assertEquals(10000, s.quantile(1));
+  }
+
+  @Test
+  public void testAdd() {
+    Random rnd = new Random(42);
+    AtomicHistogram a = new AtomicHistogram(), b = new AtomicHistogram(), all = new AtomicHistogram();
+    for (int i = 0; i < 1000; i++) {
+      long v = (long) Math.abs(rnd.nextGaussian() * 1e6);
+      (i % 2 == 0 ? a : b).record(v);
+      all.record(v);
+    }
+    AtomicHistogram.Snapshot s = a.snapshot().add(b.snapshot()), t = all.snapshot();
+    assertEquals(t.count(), s.count());
+    assertEquals(t.sum(), s.sum());
+    assertEquals(t.max(), s.max());
+    for (double q : new double[]{0.1, 0.5, 0.9, 0.999})
+      assertEquals(t.quantile(q), s.quantile(q));
+  }
+}
@@ -0,0 +1,61 @@
+package water.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LZ4Test {
+
+  private static byte[] roundTrip(byte[] src) {
+    byte[] dst = new byte[3 + LZ4.maxCompressedLength(src.length)];
+    int clen = LZ4.compress(src, 0, src.length, dst, 3);
+    assertTrue(clen <= LZ4.maxCompressedLength(src.length));
+    byte[] res = new byte[src.length + 5];
+    LZ4.decompress(dst, 3, clen, res, 5, src.length);
+    assertArrayEquals(src, Arrays.copyOfRange(res, 5, res.length));
+    return Arrays.copyOfRange(dst, 3, 3 + clen);
+  }
+
+  @Test
+  public void testRoundTrip() {
+    Random rnd = new Random(0xCAFE);
+    for (int len : new int[]{0, 1, 12, 13, 14, 100, 65535, 65536, 300000}) {
+      byte[] random = new byte[len];
+      rnd.nextBytes(random);
+      roundTrip(random);
+      roundTrip(new byte[len]);
+      byte[] doubles = new byte[len];
+      ByteBuffer bb = ByteBuffer.wrap(doubles);
+      for (int i = 0; i + 8 <= len; i += 8) bb.putDouble(i, Math.round(rnd.nextGaussian() * 100) / 10.0);
+      roundTrip(doubles);
+    }
+  }
+
+  @Test
+  public void testCompresses() {
+    assertTrue(roundTrip(new byte[100000]).length < 1000);
+    byte[] pattern = new byte[100000];
+    for (int i = 0; i < pattern.length; i++) pattern[i] = (byte) (i % 37);
+    assertTrue(roundTrip(pattern).length < 1000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongLength() {
+    byte[] src = new byte[1000];
+    byte[] dst = new byte[LZ4.maxCompressedLength(src.length)];
+    int clen = LZ4.compress(src, 0, src.length, dst, 0);
+    LZ4.decompress(dst, 0, clen, new byte[2000], 0, 2000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTruncated() {
+    byte[] src = new byte[1000];
+    byte[] dst = new byte[LZ4.maxCompressedLength(src.length)];
+    int clen = LZ4.compress(src, 0, src.length, dst, 0);
+    LZ4.decompress(dst, 0, clen - 3, new byte[1000], 0, 1000);
+  }
+}
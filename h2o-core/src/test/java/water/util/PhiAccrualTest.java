@@ -0,0 +1,41 @@
+package water.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PhiAccrualTest {
+
+  @Test
+  public void testPhi() {
+    // At the mean, half the intervals are longer: phi = -log10(0.5)
+    assertEquals(Math.log10(2), PhiAccrual.phi(1000, 1000, 100), 1e-3);
+    // 1, 2 and 3 standard deviations late
+    assertEquals(-Math.log10(0.1587), PhiAccrual.phi(1100, 1000, 100), 1e-2);
+    assertEquals(-Math.log10(0.0228), PhiAccrual.phi(1200, 1000, 100), 1e-2);
+    assertEquals(-Math.log10(0.00135), PhiAccrual.phi(1300, 1000, 100), 2e-2);
+    double last = 0;
+    for (int t = 0; t < 3000; t += 10) {
+      double phi = PhiAccrual.phi(t, 1000, 100);
+      assertTrue(phi >= last);
+      last = phi;
+    }
+  }
+
+  @Test
+  public void testDetector() {
+    PhiAccrual d = new PhiAccrual(10, 50, 1000);
+    long now = 0;
+    d.heartbeat(now);
+    assertEquals(0, d.phi(now + 60000), 0);  // Too few intervals to tell
+    for (int i = 0; i < 20; i++) d.heartbeat(now += 250);
+    assertEquals(10, d.samples());
+    assertTrue(d.phi(now + 250) < 1);        // On time
+    assertTrue(d.phi(now + 1500) < 8);       // Within the acceptable pause
+    assertTrue(d.phi(now + 3000) > 10);      // Gone
+    // Back after a failure: starts over
+    d.heartbeat(now += 30000);
+    assertEquals(0, d.samples());
+    assertEquals(0, d.phi(now + 60000), 0);
+  }
+}
@@ -5,6 +5,8 @@ import org.apache.hadoop.hive.ql.exec.vector.*;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
 import org.apache.hadoop.hive.ql.io.orc.RecordReader;
 import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
 import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
 import org.apache.hadoop.hive.serde2.objectinspector.*;
 import org.joda.time.DateTime;
@@ -117,12 +119,14 @@ public class OrcParser extends Parser {
     String [] orcTypes = setup.getColumnTypesString();
     boolean[] toInclude = setup.getToInclude();
     try {
+      // row groups (and whole stripes) whose statistics rule out the filters are skipped by the reader
+      String[] sargColumnNames = sargColumnNames(setup);
+      SearchArgument sarg = searchArgument(setup);
       RecordReader perStripe = orcFileReader.rows(thisStripe.getOffset(), thisStripe.getDataLength(),
-          setup.getToInclude(), null, setup.getColumnNames());
+          setup.getToInclude(), sarg, sarg == null ? setup.getColumnNames() : sargColumnNames);
       VectorizedRowBatch batch = null;
       long rows = 0;
-      long rowCount = thisStripe.getNumberOfRows();
-      while (rows != rowCount) {
+      while (perStripe.hasNext()) {
         batch = perStripe.nextBatch(batch);  // read orc file stripes in vectorizedRowBatch
         long currentBatchRow = batch.count();
         int nrows = (int)currentBatchRow;
@@ -143,7 +147,7 @@ public class OrcParser extends Parser {
       byte [] col_types = _setup.getColumnTypes();
       for(int i = 0; i < col_types.length; ++i){
         if(col_types[i] == Vec.T_BAD)
-          dout.addNAs(i,(int)rowCount);
+          dout.addNAs(i,(int)rows);
       }
       perStripe.close();
     } catch(IOException ioe) {
@@ -153,6 +157,59 @@ public class OrcParser extends Parser {
   }
 
 
+  /**
+   * Column names as the ORC reader resolves search argument columns: indexed by ORC column id,
+   * with the parse setup names at the ids of the parsed columns, null elsewhere.
+   */
+  private static String[] sargColumnNames(OrcParseSetup setup) {
+    boolean[] toInclude = setup.getToInclude();
+    String[] names = new String[toInclude.length];
+    int colIndex = 0;
+    for (int id = 1; id < toInclude.length; id++)
+      if (toInclude[id]) names[id] = setup.getColumnNames()[colIndex++];
+    return names;
+  }
+
+  /**
+   * Builds an ORC search argument out of the filters on integral and floating point columns of
+   * the parse setup; null if there are none.
+   */
+  private static SearchArgument searchArgument(OrcParseSetup setup) {
+    ParseFilter[] filters = setup.getFilters();
+    if (filters == null || setup.getColumnNames() == null) return null;
+    SearchArgument.Builder builder = SearchArgumentFactory.newBuilder().startAnd();
+    int leaves = 0;
+    for (ParseFilter f : filters) {
+      int col = ArrayUtils.find(setup.getColumnNames(), f._column);
+      if (col < 0) continue;   // not a parsed column
+      Object literal;
+      switch (setup.getColumnTypesString()[col].toLowerCase()) {
+        case "bigint":
+        case "int":
+        case "smallint":
+        case "tinyint":
+          if (f._value != Math.rint(f._value)) continue; // ORC compares long columns to long literals only
+          literal = (long) f._value;
+          break;
+        case "float":
+        case "double":
+          literal = f._value;
+          break;
+        default:
+          continue;             // dates, timestamps, decimals and strings are not pushed down
+      }
+      switch (f._op) {
+        case LT: builder.lessThan(f._column, literal); break;
+        case LE: builder.lessThanEquals(f._column, literal); break;
+        case GT: builder.startNot().lessThanEquals(f._column, literal).end(); break;
+        case GE: builder.startNot().lessThan(f._column, literal).end(); break;
+        case EQ: builder.equals(f._column, literal); break;
+      }
+      leaves++;
+    }
+    return leaves == 0 ? null : builder.end().build();
+  }
+
   /**
    * This method writes one column of H2O data frame at a time.
    *
@@ -497,6 +554,22 @@ public class OrcParser extends Parser {
       this.allColumnNames = allColNames;
     }
 
+    /**
+     * Also stops reading the ORC columns of the skipped columns.
+     */
+    @Override
+    public ParseSetup projectColumns() {
+      if (getSkippedColumns() == null || getSkippedColumns().length == 0) return this;
+      int[] kept = keptColumns(getColumnTypes().length);
+      toInclude = toInclude.clone();
+      int colIndex = 0;
+      for (int id = 1; id < toInclude.length; id++)
+        if (toInclude[id] && Arrays.binarySearch(kept, colIndex++) < 0)
+          toInclude[id] = false;
+      columnTypesString = ArrayUtils.select(columnTypesString, kept);
+      return super.projectColumns();
+    }
+
     @Override
     protected boolean isCompatible(ParseSetup setupB) {
       return super.isCompatible(setupB) && Arrays.equals(getColumnTypes(),setupB.getColumnTypes());
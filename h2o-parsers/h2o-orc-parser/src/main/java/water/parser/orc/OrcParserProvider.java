@@ -75,7 +75,15 @@ public class OrcParserProvider extends ParserProvider {
       f = (FileVec) ((Frame) frameOrVec).vec(0);
     else
       f = (FileVec) frameOrVec;
-    return readSetup(f, requiredSetup.getColumnNames(), requiredSetup.getColumnTypes());
+    ParseSetup stp = readSetup(f, requiredSetup.getColumnNames(), requiredSetup.getColumnTypes());
+    stp.setFilters(requiredSetup.getFilters());
+    // only the ORC columns of the kept columns are read, see OrcParseSetup#projectColumns
+    return stp.setSkippedColumns(requiredSetup.getSkippedColumns()).projectColumns();
+  }
+
+  @Override
+  public boolean isProjectionSupported() {
+    return true;
   }
 
   private Reader getReader(FileVec f) throws IOException {
@@ -111,6 +111,74 @@ public class ParseTestOrc extends TestUtil {
         fr.delete();
     }
 
+    @Test
+    public void testParseWithSkippedColumns() {
+        String fileName = "smalldata/parser/orc/TestOrcFile.testPredicatePushdown.orc";
+        Frame expected = null, actual = null;
+        try {
+            expected = parse_test_file(fileName);
+            NFSFileVec nfs = makeNfsFileVec(fileName);
+            Key[] keys = new Key[]{nfs._key};
+            ParseSetup guessedSetup = ParseSetup.guessSetup(keys, false, ParseSetup.GUESS_HEADER);
+            guessedSetup.setSkippedColumns(new int[]{1});
+            actual = ParseDataset.forkParseDataset(Key.<Frame>make(), keys, guessedSetup, true)._job.get();
+
+            for (Vec v : expected.remove(new int[]{1})) v.remove();
+            assertEquals(Arrays.asList(expected._names), Arrays.asList(actual._names));
+            Assert.assertTrue(isBitIdentical(expected, actual));
+        } finally {
+            if (expected != null) expected.delete();
+            if (actual != null) actual.delete();
+        }
+    }
+
+    @Test
+    public void testPredicatePushdown() {
+        String fileName = "smalldata/parser/orc/TestOrcFile.testPredicatePushdown.orc";
+        Frame full = null, some = null;
+        try {
+            full = parse_test_file(fileName);
+            Vec v = full.vec(0);
+            Assert.assertTrue(v.isInt());
+            String col = full.name(0);
+            // the statistics of every stripe rule out values above the max, and none values from the min on
+            assertEquals(0, numRowsFiltered(fileName, new ParseFilter(col, ParseFilter.Op.GT, v.max())));
+            assertEquals(full.numRows(), numRowsFiltered(fileName, new ParseFilter(col, ParseFilter.Op.GE, v.min())));
+            // a filter in the middle skips the first row groups, and keeps every matching row
+            double mid = Math.floor((v.min() + v.max()) / 2);
+            some = parseFiltered(fileName, new ParseFilter(col, ParseFilter.Op.GE, mid));
+            Assert.assertTrue("No row group was skipped", some.numRows() < full.numRows());
+            assertEquals(countAtLeast(v, mid), countAtLeast(some.vec(0), mid));
+        } finally {
+            if (full != null) full.delete();
+            if (some != null) some.delete();
+        }
+    }
+
+    private static Frame parseFiltered(String fileName, ParseFilter filter) {
+        NFSFileVec nfs = makeNfsFileVec(fileName);
+        Key[] keys = new Key[]{nfs._key};
+        ParseSetup guessedSetup = ParseSetup.guessSetup(keys, false, ParseSetup.GUESS_HEADER);
+        guessedSetup.setFilters(new ParseFilter[]{filter});
+        return ParseDataset.forkParseDataset(Key.<Frame>make(), keys, guessedSetup, true)._job.get();
+    }
+
+    private static long numRowsFiltered(String fileName, ParseFilter filter) {
+        Frame fr = parseFiltered(fileName, filter);
+        try {
+            return fr.numRows();
+        } finally {
+            fr.delete();
+        }
+    }
+
+    private static long countAtLeast(Vec v, double min) {
+        long n = 0;
+        for (long r = 0; r < v.length(); r++)
+            if (v.at(r) >= min) n++;
+        return n;
+    }
+
     @Test
     public void testParseAllOrcs() {
         Set<String> failedFiles = new TreeSet<>();
@@ -60,14 +60,23 @@ public class VecParquetReader implements Closeable {
   private final ParquetMetadata metadata;
   private final ParseWriter writer;
   private final byte[] chunkSchema;
+  private final int[] keptColumns;
 
   private InternalParquetRecordReader<Integer> reader;
 
   public VecParquetReader(Vec vec, ParquetMetadata metadata, ParseWriter writer, byte[] chunkSchema) {
+    this(vec, metadata, writer, chunkSchema, null);
+  }
+
+  /**
+   * @param keptColumns indices of the file columns to read (null for all), chunkSchema covers only these
+   */
+  public VecParquetReader(Vec vec, ParquetMetadata metadata, ParseWriter writer, byte[] chunkSchema, int[] keptColumns) {
     this.vec = vec;
     this.metadata = metadata;
     this.writer = writer;
     this.chunkSchema = chunkSchema;
+    this.keptColumns = keptColumns;
   }
 
   /**
@@ -94,7 +103,7 @@ public class VecParquetReader implements Closeable {
     assert reader == null;
     List<BlockMetaData> blocks = metadata.getBlocks();
     MessageType fileSchema = metadata.getFileMetaData().getSchema();
-    reader = new InternalParquetRecordReader<>(new ChunkReadSupport(writer, chunkSchema));
+    reader = new InternalParquetRecordReader<>(new ChunkReadSupport(writer, chunkSchema, keptColumns));
     Configuration conf = VecFileSystem.makeConfiguration(vec);
     reader.initialize(fileSchema, metadata.getFileMetaData().getKeyValueMetaData(), VecFileSystem.VEC_PATH, blocks, conf);
   }
@@ -5,29 +5,47 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 import water.parser.ParseWriter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class ChunkReadSupport extends ReadSupport<Integer> {
 
   private ParseWriter _writer;
   private byte[] _chunkSchema;
+  private int[] _keptColumns;
 
   public ChunkReadSupport(ParseWriter writer, byte[] chunkSchema) {
+    this(writer, chunkSchema, null);
+  }
+
+  public ChunkReadSupport(ParseWriter writer, byte[] chunkSchema, int[] keptColumns) {
     _writer = writer;
     _chunkSchema = chunkSchema;
+    _keptColumns = keptColumns;
   }
 
   @Override
   public ReadContext init(InitContext context) {
-    return new ReadContext(context.getFileSchema());
+    MessageType fileSchema = context.getFileSchema();
+    if (_keptColumns == null || _keptColumns.length == fileSchema.getFieldCount()) {
+      return new ReadContext(fileSchema);
+    }
+    // request only the kept columns - the column chunks of the others are never read
+    List<Type> fields = new ArrayList<>(_keptColumns.length);
+    for (int col : _keptColumns) {
+      fields.add(fileSchema.getType(col));
+    }
+    return new ReadContext(new MessageType(fileSchema.getName(), fields));
   }
 
   @Override
   public RecordMaterializer<Integer> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
                                                     MessageType fileSchema, ReadContext readContext) {
-    return new ChunkRecordMaterializer(fileSchema, _chunkSchema, _writer);
+    return new ChunkRecordMaterializer(readContext.getRequestedSchema(), _chunkSchema, _writer);
   }
 
 }
@@ -2,9 +2,15 @@ package water.parser.parquet;
 
 import static org.apache.parquet.hadoop.ParquetFileWriter.MAGIC;
 
+import org.apache.parquet.column.statistics.DoubleStatistics;
+import org.apache.parquet.column.statistics.FloatStatistics;
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.VecParquetReader;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.OriginalType;
@@ -16,10 +22,14 @@ import water.fvec.ByteVec;
 import water.fvec.Chunk;
 import water.fvec.Vec;
 import water.parser.*;
+import water.util.ArrayUtils;
 import water.util.Log;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Parquet parser for H2O distributed parsing subsystem.
@@ -51,8 +61,19 @@ public class ParquetParser extends Parser {
       Log.trace("Chunk #", cidx, " doesn't contain any Parquet block center.");
       return dout;
     }
+    MessageType schema = metadata.getFileMetaData().getSchema();
+    List<BlockMetaData> blocks = filterRowGroups(metadata.getBlocks(), schema, _setup);
+    if (blocks.size() < metadata.getBlocks().size()) {
+      Log.info("Filters skip ", metadata.getBlocks().size() - blocks.size(), " of ", metadata.getBlocks().size(),
+              " blocks of chunk #", cidx);
+      if (blocks.isEmpty()) {
+        return dout;
+      }
+      metadata = new ParquetMetadata(metadata.getFileMetaData(), blocks);
+    }
     Log.info("Processing ", metadata.getBlocks().size(), " blocks of chunk #", cidx);
-    VecParquetReader reader = new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes());
+    int[] keptColumns = _setup.keptColumns(schema.getPaths().size());
+    VecParquetReader reader = new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes(), keptColumns);
     try {
       Integer recordNumber;
       do {
@@ -64,6 +85,79 @@ public class ParquetParser extends Parser {
     return dout;
   }
 
+  /**
+   * Selects the row groups that may hold rows matching all the filters of the setup, judging by
+   * the min/max statistics of their column chunks. Only numeric columns are judged, other
+   * filters never skip a row group.
+   * @param blocks candidate row groups
+   * @param schema file schema
+   * @param setup parse setup with the filters, its column names name the filtered columns
+   * @return row groups to read
+   */
+  static List<BlockMetaData> filterRowGroups(List<BlockMetaData> blocks, MessageType schema, ParseSetup setup) {
+    ParseFilter[] filters = setup.getFilters();
+    if ((filters == null) || (filters.length == 0) || (setup.getColumnNames() == null)) {
+      return blocks;
+    }
+    int[] keptColumns = setup.keptColumns(schema.getPaths().size());
+    List<BlockMetaData> result = new ArrayList<>(blocks.size());
+    for (BlockMetaData block : blocks) {
+      if (mayMatch(block, schema, setup.getColumnNames(), keptColumns, filters)) {
+        result.add(block);
+      }
+    }
+    return result;
+  }
+
+  private static boolean mayMatch(BlockMetaData block, MessageType schema, String[] names, int[] keptColumns,
+                                  ParseFilter[] filters) {
+    for (ParseFilter filter : filters) {
+      int col = ArrayUtils.find(names, filter._column);
+      if (col < 0) {
+        continue; // not a parsed column
+      }
+      String[] path = schema.getPaths().get(keptColumns[col]);
+      for (ColumnChunkMetaData columnChunk : block.getColumns()) {
+        if (! Arrays.equals(path, columnChunk.getPath().toArray())) {
+          continue;
+        }
+        Statistics stats = columnChunk.getStatistics();
+        if (stats == null) {
+          break;
+        }
+        if ((block.getRowCount() > 0) && (stats.getNumNulls() == block.getRowCount())) {
+          return false; // only missing values, no comparison holds
+        }
+        if (stats.isEmpty()) {
+          break;
+        }
+        if (! filter.mayMatch(statistic(stats, true), statistic(stats, false))) {
+          return false;
+        }
+        break;
+      }
+    }
+    return true;
+  }
+
+  // Min or max of numeric statistics, NaN for other types
+  private static double statistic(Statistics stats, boolean min) {
+    if (stats instanceof IntStatistics) {
+      IntStatistics s = (IntStatistics) stats;
+      return min ? s.getMin() : s.getMax();
+    } else if (stats instanceof LongStatistics) {
+      LongStatistics s = (LongStatistics) stats;
+      return min ? s.getMin() : s.getMax();
+    } else if (stats instanceof FloatStatistics) {
+      FloatStatistics s = (FloatStatistics) stats;
+      return min ? s.getMin() : s.getMax();
+    } else if (stats instanceof DoubleStatistics) {
+      DoubleStatistics s = (DoubleStatistics) stats;
+      return min ? s.getMin() : s.getMax();
+    }
+    return Double.NaN;
+  }
+
   public static ParseSetup guessSetup(ByteVec vec, byte[] bits) {
     if (bits.length < MAGIC.length) {
       return null;
@@ -48,7 +48,13 @@ public class ParquetParserProvider extends ParserProvider {
     for (int i = 0; i < types.length; i++)
       if (types[i] != requestedTypes[i])
         setup.addErrs(new ParseWriter.UnsupportedTypeOverride(inputs[0].toString(),Vec.TYPE_STR[types[i]], Vec.TYPE_STR[requestedTypes[i]], setup.getColumnNames()[i]));
-    return setup;
+    // only the kept columns are read, see ChunkReadSupport
+    return setup.projectColumns();
+  }
+
+  @Override
+  public boolean isProjectionSupported() {
+    return true;
   }
 
   @Override
@@ -11,9 +11,13 @@ import org.apache.hadoop.fs.Path;
 import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.example.data.Group;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.example.data.simple.SimpleGroupFactory;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.VecParquetReader;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.schema.MessageType;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -35,6 +39,7 @@ import water.fvec.NFSFileVec;
 import water.fvec.Vec;
 import water.parser.BufferedString;
 import water.parser.ParseDataset;
+import water.parser.ParseFilter;
 import water.parser.ParseSetup;
 
 /**
@@ -130,6 +135,49 @@ public class ParseTestParquet extends TestUtil {
     }
   }
 
+  @Test
+  public void testParseWithSkippedColumns() {
+    Frame expected = null, actual = null;
+    try {
+      NFSFileVec nfs = makeNfsFileVec("smalldata/parser/parquet/airlines-simple.snappy.parquet");
+      Key[] keys = new Key[]{nfs._key};
+      ParseSetup guessedSetup = ParseSetup.guessSetup(keys, false, ParseSetup.GUESS_HEADER);
+      guessedSetup.setSkippedColumns(new int[]{0, 2, 9});
+      guessedSetup.setFilters(new ParseFilter[]{ParseFilter.parse("Distance >= 0")});
+
+      ParseDataset pd = ParseDataset.forkParseDataset(Key.<Frame>make(), keys, guessedSetup, true);
+      actual = pd._job.get();
+
+      expected = parse_test_file("smalldata/airlines/AirlinesTrain.csv.zip");
+      for (Vec v : expected.remove(new int[]{0, 2, 9})) v.remove();
+      assertEquals(Arrays.asList(expected._names), Arrays.asList(actual._names));
+      assertEquals(Arrays.asList(expected.typesStr()), Arrays.asList(actual.typesStr()));
+      assertTrue(isBitIdentical(expected, actual));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+    }
+  }
+
+  @Test
+  public void testFilterRowGroups() {
+    NFSFileVec nfs = makeNfsFileVec("smalldata/parser/parquet/airlines-simple.snappy.parquet");
+    ParseSetup guessedSetup = ParseSetup.guessSetup(new Key[]{nfs._key}, false, ParseSetup.GUESS_HEADER);
+    ParquetMetadata metadata = VecParquetReader.readFooter(VecParquetReader.readFooterAsBytes(nfs),
+            ParquetMetadataConverter.NO_FILTER);
+    MessageType schema = metadata.getFileMetaData().getSchema();
+    List<BlockMetaData> blocks = metadata.getBlocks();
+
+    guessedSetup.setFilters(new ParseFilter[]{ParseFilter.parse("Distance >= 0")});
+    assertEquals(blocks, ParquetParser.filterRowGroups(blocks, schema, guessedSetup));
+    guessedSetup.setFilters(new ParseFilter[]{ParseFilter.parse("Distance > 1e9")});
+    assertTrue(ParquetParser.filterRowGroups(blocks, schema, guessedSetup).isEmpty());
+    // skipping a column doesn't change what the filter refers to
+    guessedSetup.setSkippedColumns(new int[]{0});
+    guessedSetup.projectColumns();
+    assertTrue(ParquetParser.filterRowGroups(blocks, schema, guessedSetup).isEmpty());
+  }
+
   @Test
   public void testParseMulti() {
     final int nFiles = 10;
@@ -32,13 +32,14 @@ class H2OGradientBoostingEstimator(H2OEstimator):
                       "fold_assignment", "fold_column", "response_column", "ignored_columns", "ignore_const_cols",
                       "offset_column", "weights_column", "balance_classes", "class_sampling_factors",
                       "max_after_balance_size", "max_confusion_matrix_size", "max_hit_ratio_k", "ntrees", "max_depth",
-                      "min_rows", "nbins", "nbins_top_level", "nbins_cats", "r2_stopping", "stopping_rounds",
-                      "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed", "build_tree_one_node",
-                      "learn_rate", "learn_rate_annealing", "distribution", "quantile_alpha", "tweedie_power",
-                      "huber_alpha", "checkpoint", "sample_rate", "sample_rate_per_class", "col_sample_rate",
-                      "col_sample_rate_change_per_level", "col_sample_rate_per_tree", "min_split_improvement",
-                      "histogram_type", "max_abs_leafnode_pred", "pred_noise_bandwidth", "categorical_encoding",
-                      "calibrate_model", "calibration_frame"}
+                      "max_leaves", "min_rows", "nbins", "nbins_top_level", "nbins_cats", "r2_stopping",
+                      "stopping_rounds", "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed",
+                      "build_tree_one_node", "learn_rate", "learn_rate_annealing", "distribution", "quantile_alpha",
+                      "tweedie_power", "huber_alpha", "checkpoint", "sample_rate", "sample_rate_per_class",
+                      "goss_top_rate", "goss_other_rate", "col_sample_rate", "col_sample_rate_change_per_level",
+                      "col_sample_rate_per_tree", "min_split_improvement", "histogram_type", "prebin_features",
+                      "max_abs_leafnode_pred", "pred_noise_bandwidth", "categorical_encoding", "calibrate_model",
+                      "calibration_frame"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -372,6 +373,22 @@ class H2OGradientBoostingEstimator(H2OEstimator):
         self._parms["max_depth"] = max_depth
 
 
+    @property
+    def max_leaves(self):
+        """
+        Grow the trees best-first, splitting the leaves with the best improvement first, up to this many leaves per tree
+        (and no deeper than max_depth). 0 grows the trees level by level.
+
+        Type: ``int``  (default: ``0``).
+        """
+        return self._parms.get("max_leaves")
+
+    @max_leaves.setter
+    def max_leaves(self, max_leaves):
+        assert_is_type(max_leaves, None, int)
+        self._parms["max_leaves"] = max_leaves
+
+
     @property
     def min_rows(self):
         """
@@ -679,6 +696,38 @@ class H2OGradientBoostingEstimator(H2OEstimator):
         self._parms["sample_rate_per_class"] = sample_rate_per_class
 
 
+    @property
+    def goss_top_rate(self):
+        """
+        Gradient-based one-side sampling (GOSS): fraction of the rows with the largest absolute gradients kept for every
+        tree (from 0.0 to 1.0, 0 to disable). Replaces sample_rate.
+
+        Type: ``float``  (default: ``0``).
+        """
+        return self._parms.get("goss_top_rate")
+
+    @goss_top_rate.setter
+    def goss_top_rate(self, goss_top_rate):
+        assert_is_type(goss_top_rate, None, numeric)
+        self._parms["goss_top_rate"] = goss_top_rate
+
+
+    @property
+    def goss_other_rate(self):
+        """
+        Gradient-based one-side sampling (GOSS): fraction of all rows sampled at random from the rows with smaller
+        gradients, and up-weighted to stand for the rest (from 0.0 to 1.0)
+
+        Type: ``float``  (default: ``0.1``).
+        """
+        return self._parms.get("goss_other_rate")
+
+    @goss_other_rate.setter
+    def goss_other_rate(self, goss_other_rate):
+        assert_is_type(goss_other_rate, None, numeric)
+        self._parms["goss_other_rate"] = goss_other_rate
+
+
     @property
     def col_sample_rate(self):
         """
@@ -755,6 +804,23 @@ class H2OGradientBoostingEstimator(H2OEstimator):
         self._parms["histogram_type"] = histogram_type
 
 
+    @property
+    def prebin_features(self):
+        """
+        Bin the numerical columns once before training, into at most nbins_top_level global bins, and build the
+        histograms from the compact bin indices. Less memory traffic per tree; split points are limited to the global
+        bin edges.
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("prebin_features")
+
+    @prebin_features.setter
+    def prebin_features(self, prebin_features):
+        assert_is_type(prebin_features, None, bool)
+        self._parms["prebin_features"] = prebin_features
+
+
     @property
     def max_abs_leafnode_pred(self):
         """
@@ -28,11 +28,12 @@ class H2ORandomForestEstimator(H2OEstimator):
                       "fold_assignment", "fold_column", "response_column", "ignored_columns", "ignore_const_cols",
                       "offset_column", "weights_column", "balance_classes", "class_sampling_factors",
                       "max_after_balance_size", "max_confusion_matrix_size", "max_hit_ratio_k", "ntrees", "max_depth",
-                      "min_rows", "nbins", "nbins_top_level", "nbins_cats", "r2_stopping", "stopping_rounds",
-                      "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed", "build_tree_one_node",
-                      "mtries", "sample_rate", "sample_rate_per_class", "binomial_double_trees", "checkpoint",
-                      "col_sample_rate_change_per_level", "col_sample_rate_per_tree", "min_split_improvement",
-                      "histogram_type", "categorical_encoding", "calibrate_model", "calibration_frame", "distribution"}
+                      "max_leaves", "min_rows", "nbins", "nbins_top_level", "nbins_cats", "r2_stopping",
+                      "stopping_rounds", "stopping_metric", "stopping_tolerance", "max_runtime_secs", "seed",
+                      "build_tree_one_node", "mtries", "sample_rate", "sample_rate_per_class", "binomial_double_trees",
+                      "checkpoint", "col_sample_rate_change_per_level", "col_sample_rate_per_tree",
+                      "min_split_improvement", "histogram_type", "prebin_features", "categorical_encoding",
+                      "calibrate_model", "calibration_frame", "distribution"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -366,6 +367,22 @@ class H2ORandomForestEstimator(H2OEstimator):
         self._parms["max_depth"] = max_depth
 
 
+    @property
+    def max_leaves(self):
+        """
+        Grow the trees best-first, splitting the leaves with the best improvement first, up to this many leaves per tree
+        (and no deeper than max_depth). 0 grows the trees level by level.
+
+        Type: ``int``  (default: ``0``).
+        """
+        return self._parms.get("max_leaves")
+
+    @max_leaves.setter
+    def max_leaves(self, max_leaves):
+        assert_is_type(max_leaves, None, int)
+        self._parms["max_leaves"] = max_leaves
+
+
     @property
     def min_rows(self):
         """
@@ -674,6 +691,23 @@ class H2ORandomForestEstimator(H2OEstimator):
         self._parms["histogram_type"] = histogram_type
 
 
+    @property
+    def prebin_features(self):
+        """
+        Bin the numerical columns once before training, into at most nbins_top_level global bins, and build the
+        histograms from the compact bin indices. Less memory traffic per tree; split points are limited to the global
+        bin edges.
+
+        Type: ``bool``  (default: ``False``).
+        """
+        return self._parms.get("prebin_features")
+
+    @prebin_features.setter
+    def prebin_features(self, prebin_features):
+        assert_is_type(prebin_features, None, bool)
+        self._parms["prebin_features"] = prebin_features
+
+
     @property
     def categorical_encoding(self):
         """